@@ -0,0 +1,151 @@
+/*
+ * Copyright 2024 The gRPC Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.grpc;
+
+import static com.google.common.base.Charsets.US_ASCII;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import javax.annotation.Nullable;
+
+/**
+ * Canonical {@code byte[]} instances for header names. {@link Metadata.Key}s take their name bytes
+ * from here and transports map incoming header names to the same instances, so {@link Metadata}
+ * lookups usually match by identity instead of comparing bytes.
+ *
+ * <p>The table is pre-populated with well-known gRPC and HTTP/2 header names and grows as keys are
+ * created, up to a fixed limit. Names received from the network are only looked up, never added,
+ * so peers can't grow the table. Lookups are lock-free.
+ */
+final class HeaderNameTable {
+  private static final String[] WELL_KNOWN_NAMES = {
+      ":authority",
+      ":method",
+      ":path",
+      ":scheme",
+      ":status",
+      "accept-encoding",
+      "content-encoding",
+      "content-type",
+      "grpc-accept-encoding",
+      "grpc-encoding",
+      "grpc-message",
+      "grpc-message-type",
+      "grpc-previous-rpc-attempts",
+      "grpc-retry-pushback-ms",
+      "grpc-server-stats-bin",
+      "grpc-status",
+      "grpc-status-details-bin",
+      "grpc-tags-bin",
+      "grpc-timeout",
+      "grpc-trace-bin",
+      "te",
+      "user-agent",
+  };
+
+  // Open addressing with linear probing. Entries are never removed, and MAX_ENTRIES keeps the load
+  // factor at or below 0.5 so probe sequences stay short.
+  private static final int CAPACITY = 2048;
+  private static final int MAX_ENTRIES = CAPACITY / 2;
+
+  private static final AtomicReferenceArray<Entry> table = new AtomicReferenceArray<>(CAPACITY);
+  private static final AtomicInteger size = new AtomicInteger();
+
+  static {
+    for (String name : WELL_KNOWN_NAMES) {
+      intern(name.getBytes(US_ASCII));
+    }
+  }
+
+  private HeaderNameTable() {}
+
+  /**
+   * Returns the canonical instance for {@code name}, adding {@code name} as the canonical instance
+   * if there isn't one yet and the table has room. The array must not be modified afterwards.
+   */
+  static byte[] intern(byte[] name) {
+    int hash = hash(name, 0, name.length);
+    int index = hash & (CAPACITY - 1);
+    while (true) {
+      Entry entry = table.get(index);
+      if (entry == null) {
+        if (size.get() >= MAX_ENTRIES) {
+          return name;
+        }
+        if (table.compareAndSet(index, null, new Entry(hash, name))) {
+          size.incrementAndGet();
+          return name;
+        }
+        // Lost a race for the slot; re-check it, as the winner may have added the same name.
+        continue;
+      }
+      if (entry.matches(hash, name, 0, name.length)) {
+        return entry.name;
+      }
+      index = (index + 1) & (CAPACITY - 1);
+    }
+  }
+
+  /**
+   * Returns the canonical instance equal to the given range of {@code bytes}, or {@code null} if
+   * the name is not in the table.
+   */
+  @Nullable
+  static byte[] lookup(byte[] bytes, int offset, int length) {
+    int hash = hash(bytes, offset, length);
+    int index = hash & (CAPACITY - 1);
+    Entry entry;
+    while ((entry = table.get(index)) != null) {
+      if (entry.matches(hash, bytes, offset, length)) {
+        return entry.name;
+      }
+      index = (index + 1) & (CAPACITY - 1);
+    }
+    return null;
+  }
+
+  private static int hash(byte[] bytes, int offset, int length) {
+    int hash = 0;
+    for (int i = offset; i < offset + length; i++) {
+      hash = 31 * hash + bytes[i];
+    }
+    // Fold the high bits into the low bits used to pick a slot.
+    return hash ^ (hash >>> 16);
+  }
+
+  private static final class Entry {
+    final int hash;
+    final byte[] name;
+
+    Entry(int hash, byte[] name) {
+      this.hash = hash;
+      this.name = name;
+    }
+
+    boolean matches(int hash, byte[] bytes, int offset, int length) {
+      if (this.hash != hash || name.length != length) {
+        return false;
+      }
+      for (int i = 0; i < length; i++) {
+        if (name[i] != bytes[offset + i]) {
+          return false;
+        }
+      }
+      return true;
+    }
+  }
+}
@@ -1065,10 +1065,22 @@ public final class InternalChannelz {
     public final long lastMessageReceivedTimeNanos;
     public final long localFlowControlWindow;
     public final long remoteFlowControlWindow;
+    /** The number of times the transport flushed its writes to the socket. */
+    public final long flushes;
+    /**
+     * The write commands covered by all flushes. Divide by {@link #flushes} for the average
+     * commands per flush.
+     */
+    public final long commandsFlushed;
+    /**
+     * The payload bytes covered by all flushes. Divide by {@link #flushes} for the average bytes
+     * per flush.
+     */
+    public final long bytesFlushed;
     // TODO(zpencer): report socket flags and other info
 
     /**
-     * Creates an instance.
+     * Creates an instance, without flush statistics.
      */
     public TransportStats(
         long streamsStarted,
@@ -1083,6 +1095,32 @@ public final class InternalChannelz {
         long lastMessageReceivedTimeNanos,
         long localFlowControlWindow,
         long remoteFlowControlWindow) {
+      this(
+          streamsStarted, lastLocalStreamCreatedTimeNanos, lastRemoteStreamCreatedTimeNanos,
+          streamsSucceeded, streamsFailed, messagesSent, messagesReceived, keepAlivesSent,
+          lastMessageSentTimeNanos, lastMessageReceivedTimeNanos, localFlowControlWindow,
+          remoteFlowControlWindow, 0, 0, 0);
+    }
+
+    /**
+     * Creates an instance.
+     */
+    public TransportStats(
+        long streamsStarted,
+        long lastLocalStreamCreatedTimeNanos,
+        long lastRemoteStreamCreatedTimeNanos,
+        long streamsSucceeded,
+        long streamsFailed,
+        long messagesSent,
+        long messagesReceived,
+        long keepAlivesSent,
+        long lastMessageSentTimeNanos,
+        long lastMessageReceivedTimeNanos,
+        long localFlowControlWindow,
+        long remoteFlowControlWindow,
+        long flushes,
+        long commandsFlushed,
+        long bytesFlushed) {
       this.streamsStarted = streamsStarted;
       this.lastLocalStreamCreatedTimeNanos = lastLocalStreamCreatedTimeNanos;
       this.lastRemoteStreamCreatedTimeNanos = lastRemoteStreamCreatedTimeNanos;
@@ -1095,6 +1133,9 @@ public final class InternalChannelz {
       this.lastMessageReceivedTimeNanos = lastMessageReceivedTimeNanos;
       this.localFlowControlWindow = localFlowControlWindow;
       this.remoteFlowControlWindow = remoteFlowControlWindow;
+      this.flushes = flushes;
+      this.commandsFlushed = commandsFlushed;
+      this.bytesFlushed = bytesFlushed;
     }
   }
 
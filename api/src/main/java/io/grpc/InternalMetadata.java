@@ -21,6 +21,7 @@ import io.grpc.Metadata.AsciiMarshaller;
 import io.grpc.Metadata.BinaryStreamMarshaller;
 import java.io.InputStream;
 import java.nio.charset.Charset;
+import javax.annotation.Nullable;
 
 /**
  * Internal {@link Metadata} accessor. This is intended for use by io.grpc.internal, and the
@@ -64,6 +65,19 @@ public final class InternalMetadata {
     return Metadata.Key.of(name, isPseudo, marshaller);
   }
 
+  /**
+   * Returns the canonical name bytes for a header name received by a transport, or {@code null} if
+   * the name is not a well-known header or the name of a {@link Metadata.Key}. Using the canonical
+   * instance as the name in {@link #newMetadata} makes key lookups compare by identity.
+   *
+   * <p>The returned array must not be modified.
+   */
+  @Internal
+  @Nullable
+  public static byte[] internedKeyName(byte[] bytes, int offset, int length) {
+    return HeaderNameTable.lookup(bytes, offset, length);
+  }
+
   @Internal
   public static Metadata newMetadata(byte[]... binaryValues) {
     return new Metadata(binaryValues);
@@ -561,7 +561,8 @@ public final class Metadata {
   }
 
   private boolean bytesEqual(byte[] left, byte[] right) {
-    return Arrays.equals(left, right);
+    // Key names and names received by transports are usually interned by HeaderNameTable.
+    return left == right || Arrays.equals(left, right);
   }
 
   /** Marshaller for metadata values that are serialized into raw binary. */
@@ -760,7 +761,7 @@ public final class Metadata {
     private Key(String name, boolean pseudo, Object marshaller) {
       this.originalName = checkNotNull(name, "name");
       this.name = validateName(this.originalName.toLowerCase(Locale.ROOT), pseudo);
-      this.nameBytes = this.name.getBytes(US_ASCII);
+      this.nameBytes = HeaderNameTable.intern(this.name.getBytes(US_ASCII));
       this.marshaller = marshaller;
     }
 
@@ -95,6 +95,29 @@ public abstract class ServerBuilder<T extends ServerBuilder<T>> {
     return thisT();
   }
 
+  /**
+   * Runs the callbacks of each call on a virtual thread of its own instead of the
+   * {@link #executor(Executor)}. Callbacks of a call are still delivered one at a time and in
+   * order, but a handler may block (e.g., on JDBC or a blocking stub) without tying up a platform
+   * thread; a blocked callback only delays later callbacks of the same call. This is intended for
+   * servers with many blocking handlers, where a bounded platform thread pool would otherwise cap
+   * concurrency.
+   *
+   * <p>A {@link #callExecutor(ServerCallExecutorSupplier)} that returns a non-null executor for a
+   * call still takes precedence for that call.
+   *
+   * <p>Requires JDK 21 or later.
+   *
+   * @return this
+   * @throws UnsupportedOperationException if the runtime doesn't support virtual threads, or the
+   *     server doesn't support this option
+   * @since 1.66.0
+   */
+  @ExperimentalApi("https://github.com/grpc/grpc-java/issues/8274")
+  public T virtualThreadPerCall() {
+    throw new UnsupportedOperationException();
+  }
+
   /**
    * Adds a service implementation to the handler registry.
    *
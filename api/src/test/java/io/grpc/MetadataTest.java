@@ -22,6 +22,7 @@ import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
@@ -218,6 +219,35 @@ public class MetadataTest {
     assertEquals(lance, raw.get(KEY));
   }
 
+  @Test
+  public void keysWithSameNameShareNameBytes() {
+    Metadata.Key<String> key1 =
+        Metadata.Key.of("shared-name", Metadata.ASCII_STRING_MARSHALLER);
+    Metadata.Key<String> key2 =
+        Metadata.Key.of("Shared-Name", Metadata.ASCII_STRING_MARSHALLER);
+    assertSame(key1.asciiName(), key2.asciiName());
+  }
+
+  @Test
+  public void internedKeyName() {
+    byte[] name = "xx-test-bin-xx".getBytes(US_ASCII);
+    assertSame(KEY.asciiName(), InternalMetadata.internedKeyName(name, 3, "test-bin".length()));
+    assertNotNull(InternalMetadata.internedKeyName(
+        "grpc-status".getBytes(US_ASCII), 0, "grpc-status".length()));
+    assertNull(InternalMetadata.internedKeyName(
+        "never-a-key".getBytes(US_ASCII), 0, "never-a-key".length()));
+  }
+
+  @Test
+  public void getWithInternedAndCopiedNames() {
+    byte[] copiedName = Arrays.copyOf(KEY.asciiName(), KEY.asciiName().length);
+    byte[] internedName =
+        InternalMetadata.internedKeyName(copiedName, 0, copiedName.length);
+    assertSame(KEY.asciiName(), internedName);
+    assertEquals(new Fish(LANCE), new Metadata(internedName, LANCE_BYTES).get(KEY));
+    assertEquals(new Fish(LANCE), new Metadata(copiedName, LANCE_BYTES).get(KEY));
+  }
+
   @Test
   public void testSerializeRaw() {
     Metadata raw = new Metadata(KEY.asciiName(), LANCE_BYTES);
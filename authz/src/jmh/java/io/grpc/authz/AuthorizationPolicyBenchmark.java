@@ -0,0 +1,148 @@
+/*
+ * Copyright 2024 The gRPC Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.grpc.authz;
+
+import io.grpc.Attributes;
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.Status;
+import io.grpc.testing.TestMethodDescriptors;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmark for authorizing a call with an {@link AuthorizationServerInterceptor} created from a
+ * large policy.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class AuthorizationPolicyBenchmark {
+
+  @Param({"1000", "10000"})
+  public int ruleCount;
+
+  // Rules per service. The last one of each service allows the whole service.
+  private static final int METHODS_PER_SERVICE = 10;
+
+  private final Metadata headers = new Metadata();
+  private final ServerCallHandler<Void, Void> next = new ServerCallHandler<Void, Void>() {
+    @Override
+    public ServerCall.Listener<Void> startCall(ServerCall<Void, Void> call, Metadata headers) {
+      return null;
+    }
+  };
+  private AuthorizationServerInterceptor interceptor;
+  private FakeServerCall[] calls;
+  private int nextCall;
+
+  /**
+   * Creates a policy denying one service and allowing exact methods and whole services, and calls
+   * to allowed, unknown and denied methods.
+   */
+  @Setup(Level.Trial)
+  public void setUp() throws Exception {
+    StringBuilder policy = new StringBuilder()
+        .append("{\"name\": \"benchmark\",")
+        .append("\"deny_rules\": [{\"name\": \"deny\",")
+        .append("\"request\": {\"paths\": [\"/grpc.benchmark.Denied/*\"]}}],")
+        .append("\"allow_rules\": [");
+    List<String> paths = new ArrayList<>();
+    for (int i = 0; i < ruleCount; i++) {
+      String service = "grpc.benchmark.Service" + (i / METHODS_PER_SERVICE);
+      String path = i % METHODS_PER_SERVICE == METHODS_PER_SERVICE - 1
+          ? "/" + service + "/*"
+          : "/" + service + "/Method" + (i % METHODS_PER_SERVICE);
+      if (i > 0) {
+        policy.append(',');
+      }
+      policy.append("{\"name\": \"allow").append(i).append("\",")
+          .append("\"request\": {\"paths\": [\"").append(path).append("\"]}}");
+      paths.add(service + "/Method" + (i % METHODS_PER_SERVICE));
+    }
+    policy.append("]}");
+    paths.add("grpc.benchmark.Unknown/Method");
+    paths.add("grpc.benchmark.Denied/Method");
+    interceptor = AuthorizationServerInterceptor.create(policy.toString());
+
+    Collections.shuffle(paths, new Random(0));
+    calls = new FakeServerCall[paths.size()];
+    for (int i = 0; i < calls.length; i++) {
+      calls[i] = new FakeServerCall(paths.get(i));
+    }
+  }
+
+  @Benchmark
+  public ServerCall.Listener<Void> interceptCall() {
+    FakeServerCall call = calls[nextCall];
+    nextCall = nextCall + 1 == calls.length ? 0 : nextCall + 1;
+    return interceptor.interceptCall(call, headers, next);
+  }
+
+  private static final class FakeServerCall extends ServerCall<Void, Void> {
+    private final MethodDescriptor<Void, Void> method;
+
+    FakeServerCall(String fullMethodName) {
+      this.method = TestMethodDescriptors.voidMethod().toBuilder()
+          .setFullMethodName(fullMethodName)
+          .build();
+    }
+
+    @Override
+    public void request(int numMessages) {}
+
+    @Override
+    public void sendHeaders(Metadata headers) {}
+
+    @Override
+    public void sendMessage(Void message) {}
+
+    @Override
+    public void close(Status status, Metadata trailers) {}
+
+    @Override
+    public boolean isCancelled() {
+      return false;
+    }
+
+    @Override
+    public Attributes getAttributes() {
+      return Attributes.EMPTY;
+    }
+
+    @Override
+    public MethodDescriptor<Void, Void> getMethodDescriptor() {
+      return method;
+    }
+  }
+}
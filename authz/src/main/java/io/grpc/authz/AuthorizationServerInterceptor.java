@@ -18,16 +18,16 @@ package io.grpc.authz;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import com.google.common.collect.ImmutableList;
 import io.envoyproxy.envoy.config.rbac.v3.RBAC;
 import io.grpc.ExperimentalApi;
-import io.grpc.InternalServerInterceptors;
 import io.grpc.Metadata;
 import io.grpc.ServerCall;
 import io.grpc.ServerCallHandler;
 import io.grpc.ServerInterceptor;
 import io.grpc.xds.InternalRbacFilter;
+import io.grpc.xds.internal.rbac.engine.GrpcAuthorizationEngine;
 import java.io.IOException;
-import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -37,10 +37,14 @@ import java.util.List;
  * This policy will be translated to Envoy RBAC policies to make
  * authorization decisions. The policy cannot be changed once created. To
  * change the policy after creation, see FileWatcherAuthorizationServerInterceptor.
+ *
+ * <p>The policy is compiled once, when the interceptor is created, so authorizing a call only
+ * evaluates the compiled policies.
  */
 @ExperimentalApi("https://github.com/grpc/grpc-java/issues/9746")
 public final class AuthorizationServerInterceptor implements ServerInterceptor {
-  private final List<ServerInterceptor> interceptors = new ArrayList<>();
+  // Denies the call if any of the compiled policies denies it.
+  private final ServerInterceptor authorizationInterceptor;
 
   private AuthorizationServerInterceptor(String authorizationPolicy) 
       throws IOException {
@@ -48,22 +52,25 @@ public final class AuthorizationServerInterceptor implements ServerInterceptor {
     if (rbacs == null || rbacs.isEmpty() || rbacs.size() > 2) {
       throw new IllegalArgumentException("Failed to translate authorization policy");
     }
+    ImmutableList.Builder<GrpcAuthorizationEngine> engines = ImmutableList.builder();
     for (RBAC rbac: rbacs) {
-      interceptors.add(
-          InternalRbacFilter.createInterceptor(
+      GrpcAuthorizationEngine engine =
+          InternalRbacFilter.createAuthorizationEngine(
             io.envoyproxy.envoy.extensions.filters.http.rbac.v3.RBAC.newBuilder()
-            .setRules(rbac).build()));
+            .setRules(rbac).build());
+      if (engine != null) {
+        engines.add(engine);
+      }
     }
+    this.authorizationInterceptor =
+        InternalRbacFilter.createAuthorizationInterceptor(engines.build());
   }
 
   @Override
   public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(
       ServerCall<ReqT, RespT> call, Metadata headers, 
       ServerCallHandler<ReqT, RespT> next) {
-    for (ServerInterceptor interceptor: interceptors) {
-      next = InternalServerInterceptors.interceptCallHandlerCreate(interceptor, next);
-    }
-    return next.startCall(call, headers);
+    return authorizationInterceptor.interceptCall(call, headers, next);
   }
 
   // Static method that creates an AuthorizationServerInterceptor.
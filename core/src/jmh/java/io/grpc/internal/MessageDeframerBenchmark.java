@@ -0,0 +1,117 @@
+/*
+ * Copyright 2024 The gRPC Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.grpc.internal;
+
+import io.grpc.Codec;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Benchmark for {@link MessageDeframer} delivering many small messages that arrive together, with
+ * and without batch delivery. Each delivery to the listener hops through a
+ * {@link SerializingExecutor} onto a thread pool, like call listener callbacks do, and an
+ * operation completes once the application thread has read every message. Results are in messages
+ * per second.
+ */
+@State(Scope.Thread)
+public class MessageDeframerBenchmark {
+
+  private static final int MESSAGE_COUNT = 1000;
+  private static final int MESSAGE_SIZE = 100;
+
+  @Param({"false", "true"})
+  public boolean batchDelivery;
+
+  private byte[] frames;
+  private ExecutorService executorService;
+  private MessageDeframer deframer;
+  private volatile CountDownLatch allRead;
+
+  /**
+   * Frames {@link #MESSAGE_COUNT} messages into a single buffer.
+   */
+  @Setup
+  public void setUp() {
+    ByteBuffer buffer = ByteBuffer.allocate(MESSAGE_COUNT * (MESSAGE_SIZE + 5));
+    for (int i = 0; i < MESSAGE_COUNT; i++) {
+      buffer.put((byte) 0).putInt(MESSAGE_SIZE).put(new byte[MESSAGE_SIZE]);
+    }
+    frames = buffer.array();
+    executorService = Executors.newCachedThreadPool();
+    final SerializingExecutor executor = new SerializingExecutor(executorService);
+    deframer = new MessageDeframer(new MessageDeframer.Listener() {
+      @Override
+      public void bytesRead(int numBytes) {}
+
+      @Override
+      public void messagesAvailable(final StreamListener.MessageProducer producer) {
+        executor.execute(new Runnable() {
+          @Override
+          public void run() {
+            CountDownLatch latch = allRead;
+            InputStream message;
+            while ((message = producer.next()) != null) {
+              GrpcUtil.closeQuietly(message);
+              latch.countDown();
+            }
+          }
+        });
+      }
+
+      @Override
+      public void deframerClosed(boolean hasPartialMessage) {}
+
+      @Override
+      public void deframeFailed(Throwable cause) {}
+    }, Codec.Identity.NONE, Integer.MAX_VALUE, StatsTraceContext.NOOP, new TransportTracer());
+    deframer.setBatchDelivery(batchDelivery);
+  }
+
+  @TearDown
+  public void tearDown() {
+    executorService.shutdown();
+  }
+
+  /**
+   * Deframes {@link #MESSAGE_COUNT} messages received in one buffer.
+   */
+  @Benchmark
+  @BenchmarkMode(Mode.Throughput)
+  @OutputTimeUnit(TimeUnit.SECONDS)
+  @OperationsPerInvocation(MESSAGE_COUNT)
+  public void deframe() throws InterruptedException {
+    CountDownLatch latch = new CountDownLatch(MESSAGE_COUNT);
+    allRead = latch;
+    deframer.request(MESSAGE_COUNT);
+    deframer.deframe(ReadableBuffers.wrap(frames));
+    latch.await();
+  }
+}
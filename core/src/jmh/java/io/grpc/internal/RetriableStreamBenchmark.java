@@ -0,0 +1,179 @@
+/*
+ * Copyright 2024 The gRPC Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.grpc.internal;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.util.concurrent.MoreExecutors;
+import io.grpc.ClientStreamTracer;
+import io.grpc.Drainable;
+import io.grpc.KnownLength;
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+import io.grpc.Status;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Benchmark for a {@link RetriableStream} RPC that succeeds on its first attempt, which is the
+ * common case. The request is sent before the RPC commits, so it is buffered for replay, with or
+ * without a retry policy.
+ */
+@State(Scope.Benchmark)
+public class RetriableStreamBenchmark {
+
+  @Param({"false", "true"})
+  public boolean retryPolicy;
+
+  @Param({"100", "65536"})
+  public int messageSize;
+
+  private final ScheduledExecutorService scheduledExecutorService =
+      Executors.newSingleThreadScheduledExecutor();
+  private final RetriableStream.ChannelBufferMeter channelBufferUsed =
+      new RetriableStream.ChannelBufferMeter();
+  private MethodDescriptor<byte[], byte[]> method;
+  private byte[] message;
+
+  /**
+   * Sets up the method and the request message.
+   */
+  @Setup
+  public void setUp() {
+    method = MethodDescriptor.<byte[], byte[]>newBuilder()
+        .setType(MethodDescriptor.MethodType.UNARY)
+        .setFullMethodName("service/method")
+        .setRequestMarshaller(new ByteArrayMarshaller())
+        .setResponseMarshaller(new ByteArrayMarshaller())
+        .build();
+    message = new byte[messageSize];
+  }
+
+  @TearDown
+  public void tearDown() {
+    scheduledExecutorService.shutdown();
+  }
+
+  /**
+   * Runs a unary RPC, which commits when the response headers are read.
+   */
+  @Benchmark
+  @BenchmarkMode(Mode.SampleTime)
+  @OutputTimeUnit(TimeUnit.NANOSECONDS)
+  public void unary() {
+    RetryPolicy policy = retryPolicy
+        ? new RetryPolicy(
+            3, TimeUnit.SECONDS.toNanos(1), TimeUnit.SECONDS.toNanos(1), 1, null,
+            ImmutableSet.of(Status.Code.UNAVAILABLE))
+        : null;
+    final SingleAttemptStream substream = new SingleAttemptStream();
+    RetriableStream<byte[]> stream = new RetriableStream<byte[]>(
+        method, new Metadata(), channelBufferUsed, 1 << 20, 1 << 24,
+        MoreExecutors.directExecutor(), scheduledExecutorService, policy, null, null) {
+      @Override
+      void postCommit() {}
+
+      @Override
+      ClientStream newSubstream(
+          Metadata headers, ClientStreamTracer.Factory tracerFactory, int previousAttempts,
+          boolean isTransparentRetry) {
+        return substream;
+      }
+
+      @Override
+      Status prestart() {
+        return null;
+      }
+    };
+    stream.start(new NoopClientStreamListener());
+    stream.sendMessage(message);
+    stream.halfClose();
+    substream.listener.headersRead(new Metadata());
+    substream.listener.closed(
+        Status.OK, ClientStreamListener.RpcProgress.PROCESSED, new Metadata());
+  }
+
+  /** Closes every message written to it, like transports do. */
+  private static final class SingleAttemptStream extends NoopClientStream {
+    ClientStreamListener listener;
+
+    @Override
+    public void start(ClientStreamListener listener) {
+      this.listener = listener;
+    }
+
+    @Override
+    public void writeMessage(InputStream message) {
+      GrpcUtil.closeQuietly(message);
+    }
+  }
+
+  private static final class NoopClientStreamListener implements ClientStreamListener {
+    @Override
+    public void messagesAvailable(StreamListener.MessageProducer producer) {}
+
+    @Override
+    public void onReady() {}
+
+    @Override
+    public void headersRead(Metadata headers) {}
+
+    @Override
+    public void closed(Status status, RpcProgress rpcProgress, Metadata trailers) {}
+  }
+
+  private static final class ByteArrayMarshaller implements MethodDescriptor.Marshaller<byte[]> {
+    @Override
+    public InputStream stream(byte[] value) {
+      return new DrainableByteArrayInputStream(value);
+    }
+
+    @Override
+    public byte[] parse(InputStream stream) {
+      throw new UnsupportedOperationException();
+    }
+  }
+
+  /** Like serialized protobuf messages, knows its length and drains without copying. */
+  private static final class DrainableByteArrayInputStream extends ByteArrayInputStream
+      implements KnownLength, Drainable {
+    DrainableByteArrayInputStream(byte[] bytes) {
+      super(bytes);
+    }
+
+    @Override
+    public int drainTo(OutputStream target) throws IOException {
+      int length = available();
+      target.write(buf, pos, length);
+      pos += length;
+      return length;
+    }
+  }
+}
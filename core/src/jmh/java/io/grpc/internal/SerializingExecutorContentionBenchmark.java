@@ -0,0 +1,84 @@
+/*
+ * Copyright 2024 The gRPC Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.grpc.internal;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+
+/**
+ * Measures {@link SerializingExecutor} throughput with several threads submitting to the same
+ * executor, comparing the default queue against {@link ChunkedMpscQueue}.
+ */
+@State(Scope.Benchmark)
+public class SerializingExecutorContentionBenchmark {
+
+  @Param({"false", "true"})
+  public boolean useChunkedMpscQueue;
+
+  private ExecutorService executorService;
+  private SerializingExecutor executor;
+  private final AtomicLong outstanding = new AtomicLong();
+
+  private final Runnable decrRunnable = new Runnable() {
+    @Override
+    public void run() {
+      outstanding.decrementAndGet();
+    }
+  };
+
+  @Setup
+  public void setUp() {
+    executorService = Executors.newSingleThreadExecutor();
+    executor = new SerializingExecutor(executorService, useChunkedMpscQueue);
+  }
+
+  @TearDown
+  public void tearDown() throws Exception {
+    executorService.shutdownNow();
+    if (!executorService.awaitTermination(1, TimeUnit.SECONDS)) {
+      throw new RuntimeException("executor failed to shut down in a timely fashion");
+    }
+  }
+
+  /**
+   * Four producers submit to one executor. Producers back off when the consumer falls too far
+   * behind, so the benchmark measures submission and drain cost rather than unbounded growth.
+   */
+  @Benchmark
+  @BenchmarkMode(Mode.Throughput)
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  @Threads(4)
+  public void multiProducer() {
+    while (outstanding.get() > 10_000) {
+      Thread.yield();
+    }
+    outstanding.incrementAndGet();
+    executor.execute(decrRunnable);
+  }
+}
@@ -131,6 +131,13 @@ public abstract class AbstractStream implements Stream {
     @VisibleForTesting
     public static final int DEFAULT_ONREADY_THRESHOLD = 32 * 1024;
 
+    /**
+     * Whether the deframer delivers all the messages it deframes in one pass together, so that
+     * streams of small messages don't pay the listener's per-message overhead.
+     */
+    private static final boolean BATCH_DELIVERY =
+        GrpcUtil.getFlag("GRPC_EXPERIMENTAL_BATCH_DEFRAMING", false);
+
     private Deframer deframer;
     private final Object onReadyLock = new Object();
     private final StatsTraceContext statsTraceCtx;
@@ -171,6 +178,7 @@ public abstract class AbstractStream implements Stream {
           maxMessageSize,
           statsTraceCtx,
           transportTracer);
+      rawDeframer.setBatchDelivery(BATCH_DELIVERY);
       // TODO(#7168): use MigratingThreadDeframer when enabling retry doesn't break.
       deframer = rawDeframer;
       onReadyThreshold = DEFAULT_ONREADY_THRESHOLD;
@@ -0,0 +1,214 @@
+/*
+ * Copyright 2024 The gRPC Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.grpc.internal;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.AbstractQueue;
+import java.util.Iterator;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import javax.annotation.Nullable;
+
+/**
+ * An unbounded multi-producer, single-consumer queue that stores elements in linked array chunks
+ * instead of allocating a node per element. Producers claim a slot with a single atomic increment
+ * instead of competing with CAS on the tail.
+ *
+ * <p>{@link #poll}, {@link #peek}, {@link #remove(Object)}, {@link #contains} and {@link #isEmpty}
+ * must only be called by the consumer, or while no consumer is running. {@link #iterator} is not
+ * supported, and neither are the inherited methods that use it, such as {@link #toArray()}.
+ */
+final class ChunkedMpscQueue<E> extends AbstractQueue<E> {
+  private static final int CHUNK_SHIFT = 6;
+  private static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+  private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+  /** Replaces elements removed by {@link #remove(Object)}, which are skipped when polled. */
+  private static final Object REMOVED = new Object();
+
+  private static final class Chunk {
+    final long index;
+    final AtomicReferenceArray<Object> slots = new AtomicReferenceArray<>(CHUNK_SIZE);
+    final AtomicReference<Chunk> next = new AtomicReference<>();
+
+    Chunk(long index) {
+      this.index = index;
+    }
+  }
+
+  private final AtomicLong producerIndex = new AtomicLong();
+  /** A chunk at or before the chunk of the last claimed slot, to shorten producers' search. */
+  private volatile Chunk producerChunk;
+
+  private volatile long consumerIndex;
+  private volatile Chunk consumerChunk;
+  /** Consumer's cached value of {@link #producerIndex}, to drain without reading it each time. */
+  private long producerLimit;
+
+  ChunkedMpscQueue() {
+    Chunk first = new Chunk(0);
+    producerChunk = first;
+    consumerChunk = first;
+  }
+
+  @Override
+  public boolean offer(E e) {
+    checkNotNull(e, "e");
+    long index = producerIndex.getAndIncrement();
+    long chunkIndex = index >>> CHUNK_SHIFT;
+    Chunk chunk = producerChunk;
+    if (chunk.index > chunkIndex) {
+      // Another producer moved ahead. The consumer can't pass the claimed slot until it is set.
+      chunk = consumerChunk;
+    }
+    while (chunk.index < chunkIndex) {
+      Chunk next = chunk.next.get();
+      if (next == null) {
+        Chunk newChunk = new Chunk(chunk.index + 1);
+        next = chunk.next.compareAndSet(null, newChunk) ? newChunk : chunk.next.get();
+      }
+      chunk = next;
+    }
+    if (producerChunk.index < chunk.index) {
+      producerChunk = chunk;
+    }
+    chunk.slots.set((int) (index & CHUNK_MASK), e);
+    return true;
+  }
+
+  @Nullable
+  @Override
+  @SuppressWarnings("unchecked")
+  public E poll() {
+    while (true) {
+      Object e = consume(true);
+      if (e != REMOVED) {
+        return (E) e;
+      }
+    }
+  }
+
+  @Nullable
+  @Override
+  @SuppressWarnings("unchecked")
+  public E peek() {
+    while (true) {
+      Object e = consume(false);
+      if (e != REMOVED) {
+        return (E) e;
+      }
+      consume(true);
+    }
+  }
+
+  /**
+   * Returns the element at the head of the queue, which may be {@link #REMOVED}, or {@code null}
+   * if the queue is empty.
+   */
+  @Nullable
+  private Object consume(boolean advance) {
+    long index = consumerIndex;
+    if (index >= producerLimit) {
+      producerLimit = producerIndex.get();
+      if (index >= producerLimit) {
+        return null;
+      }
+    }
+    Chunk chunk = consumerChunk;
+    if (chunk.index != index >>> CHUNK_SHIFT) {
+      Chunk next;
+      // The producer that claimed the slot is linking the next chunk.
+      while ((next = chunk.next.get()) == null) {
+        Thread.yield();
+      }
+      consumerChunk = chunk = next;
+    }
+    int offset = (int) (index & CHUNK_MASK);
+    Object e;
+    // The producer that claimed the slot is about to set it.
+    while ((e = chunk.slots.get(offset)) == null) {
+      Thread.yield();
+    }
+    if (advance) {
+      // Let the element be collected. The slot is not read again once the index passes it.
+      chunk.slots.lazySet(offset, null);
+      consumerIndex = index + 1;
+    }
+    return e;
+  }
+
+  @Override
+  public boolean remove(Object o) {
+    return find(o, true);
+  }
+
+  @Override
+  public boolean contains(Object o) {
+    return find(o, false);
+  }
+
+  private boolean find(Object o, boolean remove) {
+    if (o == null) {
+      return false;
+    }
+    long end = producerIndex.get();
+    Chunk chunk = consumerChunk;
+    for (long index = consumerIndex; index < end; index++) {
+      if (chunk.index != index >>> CHUNK_SHIFT) {
+        Chunk next;
+        while ((next = chunk.next.get()) == null) {
+          Thread.yield();
+        }
+        chunk = next;
+      }
+      int offset = (int) (index & CHUNK_MASK);
+      Object e;
+      while ((e = chunk.slots.get(offset)) == null) {
+        Thread.yield();
+      }
+      if (e.equals(o) && (!remove || chunk.slots.compareAndSet(offset, e, REMOVED))) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return consumerIndex >= producerIndex.get();
+  }
+
+  /**
+   * Returns the number of elements in the queue, including removed elements that have not been
+   * polled yet.
+   */
+  @Override
+  public int size() {
+    return (int) Math.min(Integer.MAX_VALUE, producerIndex.get() - consumerIndex);
+  }
+
+  @Override
+  public Iterator<E> iterator() {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public String toString() {
+    return "ChunkedMpscQueue(size=" + size() + ")";
+  }
+}
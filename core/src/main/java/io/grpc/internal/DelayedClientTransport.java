@@ -35,8 +35,12 @@ import io.grpc.internal.ClientStreamListener.RpcProgress;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.LinkedHashSet;
+import java.util.Map;
 import java.util.concurrent.Executor;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import javax.annotation.concurrent.GuardedBy;
@@ -51,6 +55,16 @@ import javax.annotation.concurrent.GuardedBy;
  * thus the delayed transport stops owning the stream.
  */
 final class DelayedClientTransport implements ManagedClientTransport {
+  private static final Logger log = Logger.getLogger(DelayedClientTransport.class.getName());
+
+  /**
+   * The maximum number of pending streams drained in one executor task by {@link #reprocess}.
+   * Bounds how long the first streams wait for a burst to be picked, while keeping the drains of
+   * a large burst parallel.
+   */
+  @VisibleForTesting
+  static final int MAX_DRAIN_BATCH_SIZE = 64;
+
   // lazily allocated, since it is infrequently used.
   private final InternalLogId logId =
       InternalLogId.allocate(DelayedClientTransport.class, /*details=*/ null);
@@ -276,7 +290,8 @@ final class DelayedClientTransport implements ManagedClientTransport {
       }
       toProcess = new ArrayList<>(pendingStreams);
     }
-    ArrayList<PendingStream> toRemove = new ArrayList<>();
+    ArrayList<PendingStream> toRemove = new ArrayList<>(toProcess.size());
+    DrainBatches drainBatches = new DrainBatches();
 
     for (final PendingStream stream : toProcess) {
       PickResult pickResult = picker.pickSubchannel(stream.args);
@@ -293,11 +308,12 @@ final class DelayedClientTransport implements ManagedClientTransport {
         }
         Runnable runnable = stream.createRealStream(transport);
         if (runnable != null) {
-          executor.execute(runnable);
+          drainBatches.add(executor, transport, runnable);
         }
         toRemove.add(stream);
       }  // else: stay pending
     }
+    drainBatches.executeAll();
 
     synchronized (lock) {
       // Between this synchronized and the previous one:
@@ -306,7 +322,11 @@ final class DelayedClientTransport implements ManagedClientTransport {
       if (!hasPendingStreams()) {
         return;
       }
-      pendingStreams.removeAll(toRemove);
+      // Not removeAll(), which calls toRemove.contains() for each pending stream if toRemove is
+      // not smaller.
+      for (PendingStream stream : toRemove) {
+        pendingStreams.remove(stream);
+      }
       // Because delayed transport is long-lived, we take this opportunity to down-size the
       // hashmap.
       if (pendingStreams.isEmpty()) {
@@ -391,6 +411,59 @@ final class DelayedClientTransport implements ManagedClientTransport {
     }
   }
 
+  /**
+   * Groups the drains of the streams picked by one {@link #reprocess} by executor and transport,
+   * so that a burst of pending streams is handed over in a few executor tasks instead of one per
+   * stream. Streams picked onto different transports are still drained in parallel.
+   */
+  private static final class DrainBatches {
+    private final Map<Executor, Map<ClientTransport, DrainBatch>> batches = new HashMap<>();
+
+    void add(Executor executor, ClientTransport transport, Runnable drain) {
+      Map<ClientTransport, DrainBatch> batchesByTransport = batches.get(executor);
+      if (batchesByTransport == null) {
+        batchesByTransport = new HashMap<>();
+        batches.put(executor, batchesByTransport);
+      }
+      DrainBatch batch = batchesByTransport.get(transport);
+      if (batch == null) {
+        batch = new DrainBatch();
+        batchesByTransport.put(transport, batch);
+      }
+      batch.drains.add(drain);
+      if (batch.drains.size() == MAX_DRAIN_BATCH_SIZE) {
+        batchesByTransport.remove(transport);
+        executor.execute(batch);
+      }
+    }
+
+    void executeAll() {
+      for (Map.Entry<Executor, Map<ClientTransport, DrainBatch>> entry : batches.entrySet()) {
+        Executor executor = entry.getKey();
+        for (DrainBatch batch : entry.getValue().values()) {
+          executor.execute(batch.drains.size() == 1 ? batch.drains.get(0) : batch);
+        }
+      }
+      batches.clear();
+    }
+  }
+
+  private static final class DrainBatch implements Runnable {
+    final ArrayList<Runnable> drains = new ArrayList<>();
+
+    @Override
+    public void run() {
+      for (Runnable drain : drains) {
+        try {
+          drain.run();
+        } catch (RuntimeException e) {
+          // Keep draining the other streams of the batch.
+          log.log(Level.SEVERE, "Exception while draining pending stream", e);
+        }
+      }
+    }
+  }
+
   static final class PickerState {
     /**
      * The last picker that {@link #reprocess} has used. May be set to null when the channel has
@@ -68,12 +68,16 @@ import io.grpc.LoadBalancer.PickSubchannelArgs;
 import io.grpc.LoadBalancer.ResolvedAddresses;
 import io.grpc.LoadBalancer.SubchannelPicker;
 import io.grpc.LoadBalancer.SubchannelStateListener;
+import io.grpc.LongGaugeMetricInstrument;
 import io.grpc.ManagedChannel;
 import io.grpc.ManagedChannelBuilder;
 import io.grpc.Metadata;
 import io.grpc.MethodDescriptor;
 import io.grpc.MetricInstrumentRegistry;
 import io.grpc.MetricRecorder;
+import io.grpc.MetricRecorder.BatchCallback;
+import io.grpc.MetricRecorder.BatchRecorder;
+import io.grpc.MetricRecorder.Registration;
 import io.grpc.NameResolver;
 import io.grpc.NameResolver.ConfigOrError;
 import io.grpc.NameResolver.ResolutionResult;
@@ -95,6 +99,7 @@ import io.grpc.internal.RetriableStream.Throttle;
 import io.grpc.internal.RetryingNameResolver.ResolutionResultListener;
 import java.net.URI;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
@@ -153,6 +158,23 @@ final class ManagedChannelImpl extends ManagedChannel implements
       };
   private static final LoadBalancer.PickDetailsConsumer NOOP_PICK_DETAILS_CONSUMER =
       new LoadBalancer.PickDetailsConsumer() {};
+  private static final LongGaugeMetricInstrument RETRY_BUFFER_USED_GAUGE;
+  private static final LongGaugeMetricInstrument RETRY_RETAINED_BYTES_GAUGE;
+
+  static {
+    MetricInstrumentRegistry metricInstrumentRegistry
+        = MetricInstrumentRegistry.getDefaultRegistry();
+    RETRY_BUFFER_USED_GAUGE = metricInstrumentRegistry.registerLongGauge(
+        "grpc.client.retry.buffer_used",
+        "EXPERIMENTAL. Bytes of outbound messages buffered for retries and hedging, as accounted "
+            + "against the channel buffer limit", "By",
+        Arrays.asList("grpc.target"), Collections.emptyList(), false);
+    RETRY_RETAINED_BYTES_GAUGE = metricInstrumentRegistry.registerLongGauge(
+        "grpc.client.retry.retained_bytes",
+        "EXPERIMENTAL. Bytes of serialized messages retained for replay to retry and "
+            + "hedging attempts", "By",
+        Arrays.asList("grpc.target"), Collections.emptyList(), false);
+  }
 
   private final InternalLogId logId;
   private final String target;
@@ -543,6 +565,7 @@ final class ManagedChannelImpl extends ManagedChannel implements
 
   private final Rescheduler idleTimer;
   private final MetricRecorder metricRecorder;
+  private final Registration retryBufferGaugeRegistration;
 
   ManagedChannelImpl(
       ManagedChannelImplBuilder builder,
@@ -672,6 +695,17 @@ final class ManagedChannelImpl extends ManagedChannel implements
     }
     this.metricRecorder = new MetricRecorderImpl(builder.metricSinks,
         MetricInstrumentRegistry.getDefaultRegistry());
+    this.retryBufferGaugeRegistration = metricRecorder.registerBatchCallback(
+        new BatchCallback() {
+          @Override
+          public void accept(BatchRecorder recorder) {
+            recorder.recordLongGauge(RETRY_BUFFER_USED_GAUGE, channelBufferUsed.getBufferUsed(),
+                Arrays.asList(target), Collections.<String>emptyList());
+            recorder.recordLongGauge(RETRY_RETAINED_BYTES_GAUGE,
+                channelBufferUsed.getRetainedBytes(), Arrays.asList(target),
+                Collections.<String>emptyList());
+          }
+        }, RETRY_BUFFER_USED_GAUGE, RETRY_RETAINED_BYTES_GAUGE);
   }
 
   @VisibleForTesting
@@ -1200,6 +1234,7 @@ final class ManagedChannelImpl extends ManagedChannel implements
       offloadExecutorHolder.release();
       // Release the transport factory so that it can deallocate any resources.
       transportFactory.close();
+      retryBufferGaugeRegistration.close();
 
       terminated = true;
       terminatedLatch.countDown();
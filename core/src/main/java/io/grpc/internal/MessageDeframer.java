@@ -28,7 +28,9 @@ import java.io.Closeable;
 import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayDeque;
 import java.util.Locale;
+import java.util.Queue;
 import java.util.zip.DataFormatException;
 import javax.annotation.Nullable;
 import javax.annotation.concurrent.NotThreadSafe;
@@ -63,7 +65,8 @@ public class MessageDeframer implements Closeable, Deframer {
     /**
      * Called to deliver the next complete message.
      *
-     * @param producer single message producer wrapping the message.
+     * @param producer single message producer wrapping the message, or a producer of all the
+     *     messages deframed in one pass if batch delivery is enabled.
      */
     void messagesAvailable(StreamListener.MessageProducer producer);
 
@@ -103,6 +106,9 @@ public class MessageDeframer implements Closeable, Deframer {
   private boolean inDelivery = false;
   private int currentMessageSeqNo = -1;
   private int inboundBodyWireSize;
+  private boolean batchDelivery;
+  @Nullable
+  private BatchMessageProducer batch;
 
   private boolean closeWhenComplete = false;
   private volatile boolean stopDelivery = false;
@@ -132,6 +138,15 @@ public class MessageDeframer implements Closeable, Deframer {
     this.listener = listener;
   }
 
+  /**
+   * Sets whether all the messages deframed in one pass are delivered to the listener with a single
+   * {@link Listener#messagesAvailable} call, instead of one call per message. This reduces the
+   * per-message overhead of the listener (e.g. executor hops) for streams of small messages.
+   */
+  void setBatchDelivery(boolean batchDelivery) {
+    this.batchDelivery = batchDelivery;
+  }
+
   @Override
   public void setMaxInboundMessageSize(int messageSize) {
     maxInboundMessageSize = messageSize;
@@ -265,24 +280,32 @@ public class MessageDeframer implements Closeable, Deframer {
     }
     inDelivery = true;
     try {
-      // Process the uncompressed bytes.
-      while (!stopDelivery && pendingDeliveries > 0 && readRequiredBytes()) {
-        switch (state) {
-          case HEADER:
-            processHeader();
-            break;
-          case BODY:
-            // Read the body and deliver the message.
-            processBody();
-
-            // Since we've delivered a message, decrement the number of pending
-            // deliveries remaining.
-            pendingDeliveries--;
-            break;
-          default:
-            throw new AssertionError("Invalid state: " + state);
+      boolean batchDelivered;
+      do {
+        try {
+          // Process the uncompressed bytes.
+          while (!stopDelivery && pendingDeliveries > 0 && readRequiredBytes()) {
+            switch (state) {
+              case HEADER:
+                processHeader();
+                break;
+              case BODY:
+                // Read the body and deliver the message.
+                processBody();
+
+                // Since we've delivered a message, decrement the number of pending
+                // deliveries remaining.
+                pendingDeliveries--;
+                break;
+              default:
+                throw new AssertionError("Invalid state: " + state);
+            }
+          }
+        } finally {
+          batchDelivered = deliverBatch();
         }
-      }
+        // The listener may have requested more messages while the batch was delivered.
+      } while (batchDelivered && !stopDelivery);
 
       if (stopDelivery) {
         close();
@@ -411,13 +434,35 @@ public class MessageDeframer implements Closeable, Deframer {
     InputStream stream = compressedFlag ? getCompressedBody() : getUncompressedBody();
     nextFrame.touch();
     nextFrame = null;
-    listener.messagesAvailable(new SingleMessageProducer(stream));
+    if (batchDelivery) {
+      if (batch == null) {
+        batch = new BatchMessageProducer();
+      }
+      batch.messages.add(stream);
+    } else {
+      listener.messagesAvailable(new SingleMessageProducer(stream));
+    }
 
     // Done with this frame, begin processing the next header.
     state = State.HEADER;
     requiredLength = HEADER_LENGTH;
   }
 
+  /**
+   * Delivers the messages batched by {@link #processBody}, if any.
+   *
+   * @return {@code true} if messages were delivered.
+   */
+  private boolean deliverBatch() {
+    if (batch == null) {
+      return false;
+    }
+    BatchMessageProducer producer = batch;
+    batch = null;
+    listener.messagesAvailable(producer);
+    return true;
+  }
+
   private InputStream getUncompressedBody() {
     statsTraceCtx.inboundUncompressedSize(nextFrame.readableBytes());
     return ReadableBuffers.openStream(nextFrame, true);
@@ -540,4 +585,14 @@ public class MessageDeframer implements Closeable, Deframer {
       return messageToReturn;
     }
   }
+
+  private static final class BatchMessageProducer implements StreamListener.MessageProducer {
+    private final Queue<InputStream> messages = new ArrayDeque<>();
+
+    @Nullable
+    @Override
+    public InputStream next() {
+      return messages.poll();
+    }
+  }
 }
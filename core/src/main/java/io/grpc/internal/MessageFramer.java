@@ -24,7 +24,9 @@ import static java.lang.Math.min;
 import com.google.common.io.ByteStreams;
 import io.grpc.Codec;
 import io.grpc.Compressor;
+import io.grpc.Detachable;
 import io.grpc.Drainable;
+import io.grpc.HasByteBuffer;
 import io.grpc.KnownLength;
 import io.grpc.Status;
 import io.grpc.StatusRuntimeException;
@@ -36,6 +38,7 @@ import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
 import javax.annotation.Nullable;
 
 /**
@@ -70,6 +73,8 @@ public class MessageFramer implements Framer {
   private static final int HEADER_LENGTH = 5;
   private static final byte UNCOMPRESSED = 0;
   private static final byte COMPRESSED = 1;
+  // Below this size copying into the current buffer is cheaper than delivering extra frames.
+  private static final int MIN_WRAPPED_MESSAGE_SIZE = 16 * 1024;
 
   private final Sink sink;
   // effectively final.  Can only be set once.
@@ -169,6 +174,9 @@ public class MessageFramer implements Framer {
   private int writeUncompressed(InputStream message, int messageLength) throws IOException {
     if (messageLength != -1) {
       currentMessageWireSize = messageLength;
+      if (isWrappable(message, messageLength)) {
+        return writeKnownLengthWrapped(message, messageLength);
+      }
       return writeKnownLengthUncompressed(message, messageLength);
     }
     BufferChainOutputStream bufferChain = new BufferChainOutputStream();
@@ -229,6 +237,81 @@ public class MessageFramer implements Framer {
     return writeToOutputStream(message, outputStreamAdapter);
   }
 
+  private boolean isWrappable(InputStream message, int messageLength) {
+    return messageLength >= MIN_WRAPPED_MESSAGE_SIZE
+        && message instanceof HasByteBuffer
+        && message instanceof Detachable
+        && message.markSupported()
+        && ((HasByteBuffer) message).byteBufferSupported()
+        && bufferAllocator.wrapSupported();
+  }
+
+  /**
+   * Write a message with a known length, uncompressed, by handing the {@link ByteBuffer}s backing
+   * it to the transport instead of copying them. The message is detached so that its buffers stay
+   * valid until the transport has released every frame referencing them.
+   */
+  private int writeKnownLengthWrapped(InputStream message, int messageLength)
+      throws IOException {
+    if (maxOutboundMessageSize >= 0 && messageLength > maxOutboundMessageSize) {
+      throw Status.RESOURCE_EXHAUSTED
+          .withDescription(
+              String.format(
+                  Locale.US, "message too large %d > %d", messageLength , maxOutboundMessageSize))
+          .asRuntimeException();
+    }
+    headerScratch.clear();
+    headerScratch.put(UNCOMPRESSED).putInt(messageLength);
+    writeRaw(headerScratch.array(), 0, headerScratch.position());
+    // The header may be coalesced with previous messages. The current message is not complete
+    // yet, so do not report it as sent.
+    WritableBuffer header = buffer;
+    buffer = null;
+    sink.deliverFrame(header, false, false, messagesBuffered - 1);
+    messagesBuffered = 1;
+
+    InputStream detached = ((Detachable) message).detach();
+    if (!(detached instanceof HasByteBuffer) || !detached.markSupported()) {
+      try {
+        return writeToOutputStream(detached, outputStreamAdapter);
+      } finally {
+        GrpcUtil.closeQuietly(detached);
+      }
+    }
+    // Marking keeps the already skipped parts of the message alive (e.g. a composite buffer would
+    // otherwise close its consumed components) until the detached message is closed.
+    detached.mark(messageLength);
+    DetachedMessageReleaser releaser = new DetachedMessageReleaser(detached);
+    int written = 0;
+    try {
+      HasByteBuffer source = (HasByteBuffer) detached;
+      ByteBuffer data;
+      while ((data = source.getByteBuffer()) != null && data.hasRemaining()) {
+        int length = data.remaining();
+        releaser.retain();
+        WritableBuffer wrapped;
+        try {
+          wrapped = bufferAllocator.wrap(data, releaser);
+        } catch (RuntimeException e) {
+          releaser.run();
+          throw e;
+        }
+        // Commit the previous chunk; the last one stays as the current buffer so it can be
+        // written with end-of-stream=true on close.
+        if (buffer != null) {
+          sink.deliverFrame(buffer, false, false, 0);
+        }
+        buffer = wrapped;
+        written += length;
+        long skipped = detached.skip(length);
+        checkState(skipped == length, "Skipped %s of %s wrapped bytes", skipped, length);
+      }
+    } finally {
+      releaser.run();
+    }
+    return written;
+  }
+
   /**
    * Write a message that has been serialized to a sequence of buffers.
    */
@@ -364,6 +447,31 @@ public class MessageFramer implements Framer {
     }
   }
 
+  /**
+   * Closes a detached message once the framer and every wrapped buffer referencing it have been
+   * released. Wrapped buffers may be released by the transport on a different thread.
+   */
+  private static final class DetachedMessageReleaser implements Runnable {
+    private final InputStream detached;
+    // The framer holds one reference while it is wrapping buffers.
+    private final AtomicInteger refCount = new AtomicInteger(1);
+
+    DetachedMessageReleaser(InputStream detached) {
+      this.detached = detached;
+    }
+
+    void retain() {
+      refCount.incrementAndGet();
+    }
+
+    @Override
+    public void run() {
+      if (refCount.decrementAndGet() == 0) {
+        GrpcUtil.closeQuietly(detached);
+      }
+    }
+  }
+
   /** OutputStream whose write()s are passed to the framer. */
   private class OutputStreamAdapter extends OutputStream {
     /**
@@ -0,0 +1,243 @@
+/*
+ * Copyright 2024 The gRPC Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.grpc.internal;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.io.ByteStreams;
+import io.grpc.Drainable;
+import io.grpc.KnownLength;
+import io.grpc.Status;
+import io.grpc.internal.RetriableStream.ChannelBufferMeter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.Nullable;
+
+/**
+ * The serialized bytes of an outbound message, retained so that every retry or hedging attempt
+ * replays the same bytes instead of serializing the message again.
+ *
+ * <p>The message is reference counted. It is created with one reference, held by the retry
+ * buffer, and each stream returned by {@link #newStream} holds another one until it is closed.
+ * The bytes are accounted in the {@link ChannelBufferMeter} until the buffer releases its
+ * reference, and go back to a shared pool once the last reference is released.
+ */
+final class RetainedMessage {
+  @VisibleForTesting
+  static final BufferPool POOL = new BufferPool(8, 20, 4 * 1024 * 1024);
+
+  private final byte[] bytes;
+  private final int size;
+  private final ChannelBufferMeter meter;
+  private final AtomicBoolean released = new AtomicBoolean();
+  private final AtomicInteger refCount = new AtomicInteger(1);
+
+  private RetainedMessage(byte[] bytes, int size, ChannelBufferMeter meter) {
+    this.bytes = bytes;
+    this.size = size;
+    this.meter = meter;
+    meter.addRetainedBytes(size);
+  }
+
+  /**
+   * Reads the serialized message, and closes it. The bytes are accounted in the given meter until
+   * the returned message is released.
+   */
+  static RetainedMessage retain(InputStream message, ChannelBufferMeter meter) {
+    checkNotNull(meter, "meter");
+    try {
+      if (message instanceof KnownLength && message instanceof Drainable) {
+        int size = message.available();
+        byte[] bytes = POOL.take(size);
+        ArrayOutputStream out = new ArrayOutputStream(bytes, size);
+        try {
+          ((Drainable) message).drainTo(out);
+          if (out.count != size) {
+            throw new IOException("Drained " + out.count + " bytes, expected " + size);
+          }
+        } catch (IOException | RuntimeException e) {
+          POOL.give(bytes);
+          throw e;
+        }
+        return new RetainedMessage(bytes, size, meter);
+      }
+      byte[] bytes = ByteStreams.toByteArray(message);
+      return new RetainedMessage(bytes, bytes.length, meter);
+    } catch (IOException e) {
+      throw Status.INTERNAL
+          .withDescription("Failed to retain message")
+          .withCause(e)
+          .asRuntimeException();
+    } finally {
+      GrpcUtil.closeQuietly(message);
+    }
+  }
+
+  /** The number of bytes of the serialized message. */
+  int size() {
+    return size;
+  }
+
+  /**
+   * Returns a new stream over the serialized message, or {@code null} if the message is already
+   * released. The stream is backed by the retained bytes, so that a transport may hand them on
+   * without copying, and holds a reference to them until it is closed.
+   */
+  @Nullable
+  InputStream newStream() {
+    int count;
+    do {
+      count = refCount.get();
+      if (count == 0 || released.get()) {
+        return null;
+      }
+    } while (!refCount.compareAndSet(count, count + 1));
+    return ReadableBuffers.openStream(
+        new StreamBuffer(ReadableBuffers.wrap(ByteBuffer.wrap(bytes, 0, size))), true);
+  }
+
+  /**
+   * Releases the reference held by the retry buffer. No more streams are created, and the bytes are
+   * no longer accounted in the meter. They return to the pool once every stream is closed.
+   */
+  void release() {
+    if (released.compareAndSet(false, true)) {
+      meter.addRetainedBytes(-size);
+      unref();
+    }
+  }
+
+  private void unref() {
+    int count = refCount.decrementAndGet();
+    checkState(count >= 0, "Already released");
+    if (count == 0) {
+      POOL.give(bytes);
+    }
+  }
+
+  /** Releases its reference to the message once closed. */
+  private final class StreamBuffer extends ForwardingReadableBuffer {
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    StreamBuffer(ReadableBuffer buffer) {
+      super(buffer);
+    }
+
+    @Override
+    public void close() {
+      if (closed.compareAndSet(false, true)) {
+        super.close();
+        unref();
+      }
+    }
+  }
+
+  /**
+   * Arrays for retained messages, in power of two size classes. The arrays that are not taken back
+   * are bounded in total, and larger messages are not pooled at all.
+   */
+  @VisibleForTesting
+  static final class BufferPool {
+    private final int minShift;
+    private final int maxShift;
+    private final long maxPooledBytes;
+    private final Queue<byte[]>[] classes;
+    private final AtomicLong pooledBytes = new AtomicLong();
+
+    @SuppressWarnings("unchecked")
+    BufferPool(int minShift, int maxShift, long maxPooledBytes) {
+      this.minShift = minShift;
+      this.maxShift = maxShift;
+      this.maxPooledBytes = maxPooledBytes;
+      this.classes = new Queue[maxShift - minShift + 1];
+      for (int i = 0; i < classes.length; i++) {
+        classes[i] = new ConcurrentLinkedQueue<>();
+      }
+    }
+
+    /** Returns an array of at least the given size. */
+    byte[] take(int size) {
+      if (size > 1 << maxShift) {
+        return new byte[size];
+      }
+      int shift = Math.max(minShift, 32 - Integer.numberOfLeadingZeros(Math.max(size - 1, 0)));
+      byte[] bytes = classes[shift - minShift].poll();
+      if (bytes == null) {
+        return new byte[1 << shift];
+      }
+      pooledBytes.addAndGet(-bytes.length);
+      return bytes;
+    }
+
+    /** Hands an array back, once nothing reads it anymore. */
+    void give(byte[] bytes) {
+      int length = bytes.length;
+      if (Integer.bitCount(length) != 1 || length < 1 << minShift || length > 1 << maxShift) {
+        return;
+      }
+      if (pooledBytes.addAndGet(length) > maxPooledBytes) {
+        pooledBytes.addAndGet(-length);
+        return;
+      }
+      classes[Integer.numberOfTrailingZeros(length) - minShift].offer(bytes);
+    }
+
+    @VisibleForTesting
+    long getPooledBytes() {
+      return pooledBytes.get();
+    }
+  }
+
+  private static final class ArrayOutputStream extends OutputStream {
+    private final byte[] bytes;
+    private final int limit;
+    int count;
+
+    ArrayOutputStream(byte[] bytes, int limit) {
+      this.bytes = bytes;
+      this.limit = limit;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+      ensureCapacity(1);
+      bytes[count++] = (byte) b;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+      ensureCapacity(len);
+      System.arraycopy(b, off, bytes, count, len);
+      count += len;
+    }
+
+    private void ensureCapacity(int len) throws IOException {
+      if (len > limit - count) {
+        throw new IOException("Drained more than the " + limit + " bytes available");
+      }
+    }
+  }
+}
@@ -35,9 +35,9 @@ import io.grpc.internal.ClientStreamListener.RpcProgress;
 import java.io.InputStream;
 import java.lang.Thread.UncaughtExceptionHandler;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.List;
 import java.util.Random;
 import java.util.concurrent.Executor;
 import java.util.concurrent.Future;
@@ -46,6 +46,7 @@ import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 import javax.annotation.CheckForNull;
 import javax.annotation.CheckReturnValue;
 import javax.annotation.Nullable;
@@ -85,7 +86,12 @@ abstract class RetriableStream<ReqT> implements ClientStream {
   private final HedgingPolicy hedgingPolicy;
   private final boolean isHedging;
 
-  /** Must be held when updating state, accessing state.buffer, or certain substream attributes. */
+  /**
+   * Must be held when scheduling or cancelling retries and hedges, accounting buffer usage,
+   * appending to the buffer, or setting certain substream attributes. State transitions are
+   * compare-and-set on {@link #state}, so that draining and passing through to the committed
+   * substream take no lock.
+   */
   private final Object lock = new Object();
 
   private final ChannelBufferMeter channelBufferUsed;
@@ -96,9 +102,9 @@ abstract class RetriableStream<ReqT> implements ClientStream {
   @GuardedBy("lock")
   private final InsightBuilder closedSubstreamsInsight = new InsightBuilder();
 
-  private volatile State state = new State(
-      new ArrayList<BufferEntry>(8), Collections.<Substream>emptyList(), null, null, false, false,
-      false, 0);
+  private final AtomicReference<State> state = new AtomicReference<>(new State(
+      new BufferEntry[8], 0, Collections.<Substream>emptyList(), null, null, false, false,
+      false, 0));
 
   /**
    * Either non-local transparent retry happened or reached server's application logic.
@@ -154,12 +160,19 @@ abstract class RetriableStream<ReqT> implements ClientStream {
   @CheckReturnValue
   private Runnable commit(final Substream winningSubstream) {
     synchronized (lock) {
-      if (state.winningSubstream != null) {
-        return null;
+      State savedState;
+      State committedState;
+      do {
+        savedState = state.get();
+        if (savedState.winningSubstream != null) {
+          return null;
+        }
+        committedState = savedState.committed(winningSubstream);
+      } while (!state.compareAndSet(savedState, committedState));
+      if (committedState.passThrough) {
+        releaseBuffer(savedState);
       }
-      final Collection<Substream> savedDrainedSubstreams = state.drainedSubstreams;
-
-      state = state.committed(winningSubstream);
+      final Collection<Substream> savedDrainedSubstreams = savedState.drainedSubstreams;
 
       // subtract the share of this RPC from channelBufferUsed.
       channelBufferUsed.addAndGet(-perRpcBufferUsed);
@@ -193,6 +206,7 @@ abstract class RetriableStream<ReqT> implements ClientStream {
           if (retryFuture != null) {
             retryFuture.cancel(false);
             if (!wasCancelled && inFlightSubStreams.decrementAndGet() == Integer.MIN_VALUE) {
+              releaseBuffer(state.get());
               assert savedCloseMasterListenerReason != null;
               listenerSerializeExecutor.execute(
                   new Runnable() {
@@ -292,66 +306,50 @@ abstract class RetriableStream<ReqT> implements ClientStream {
 
   private void drain(Substream substream) {
     int index = 0;
-    int chunk = 0x80;
-    List<BufferEntry> list = null;
     boolean streamStarted = false;
     Runnable onReadyRunnable = null;
 
     while (true) {
-      State savedState;
-
-      synchronized (lock) {
-        savedState = state;
-        if (savedState.winningSubstream != null && savedState.winningSubstream != substream) {
-          // committed but not me, to be cancelled
-          break;
-        }
-        if (savedState.cancelled) {
-          break;
+      State savedState = state.get();
+      if (savedState.winningSubstream != null && savedState.winningSubstream != substream) {
+        // committed but not me, to be cancelled
+        break;
+      }
+      if (savedState.cancelled) {
+        break;
+      }
+      if (index == savedState.bufferSize) { // I'm drained
+        State drainedState = savedState.substreamDrained(substream);
+        if (!state.compareAndSet(savedState, drainedState)) {
+          // more entries were buffered, or the state changed otherwise
+          continue;
         }
-        if (index == savedState.buffer.size()) { // I'm drained
-          state = savedState.substreamDrained(substream);
-          if (!isReady()) {
-            return;
-          }
-          onReadyRunnable = new Runnable() {
-            @Override
-            public void run() {
-              if (!isClosed) {
-                masterListener.onReady();
-              }
-            }
-          };
-          break;
+        if (drainedState.passThrough) {
+          releaseBuffer(savedState);
         }
-
-        if (substream.closed) {
+        if (!isReady()) {
           return;
         }
+        onReadyRunnable = new Runnable() {
+          @Override
+          public void run() {
+            if (!isClosed) {
+              masterListener.onReady();
+            }
+          }
+        };
+        break;
+      }
 
-        int stop = Math.min(index + chunk, savedState.buffer.size());
-        if (list == null) {
-          list = new ArrayList<>(savedState.buffer.subList(index, stop));
-        } else {
-          list.clear();
-          list.addAll(savedState.buffer.subList(index, stop));
-        }
-        index = stop;
+      if (substream.closed) {
+        return;
       }
 
-      for (BufferEntry bufferEntry : list) {
-        bufferEntry.runWith(substream);
-        if (bufferEntry instanceof RetriableStream.StartEntry) {
-          streamStarted = true;
-        }
-        savedState = state;
-        if (savedState.winningSubstream != null && savedState.winningSubstream != substream) {
-          // committed but not me, to be cancelled
-          break;
-        }
-        if (savedState.cancelled) {
-          break;
-        }
+      // Entries below bufferSize are never modified, so they are replayed from the snapshot as is.
+      BufferEntry bufferEntry = savedState.buffer[index++];
+      bufferEntry.runWith(substream);
+      if (bufferEntry instanceof RetriableStream.StartEntry) {
+        streamStarted = true;
       }
     }
 
@@ -365,7 +363,8 @@ abstract class RetriableStream<ReqT> implements ClientStream {
       substream.stream.start(new Sublistener(substream));
     }
     substream.stream.cancel(
-        state.winningSubstream == substream ? cancellationStatus : CANCELLED_BECAUSE_COMMITTED);
+        state.get().winningSubstream == substream
+            ? cancellationStatus : CANCELLED_BECAUSE_COMMITTED);
   }
 
   /**
@@ -394,9 +393,7 @@ abstract class RetriableStream<ReqT> implements ClientStream {
       return;
     }
 
-    synchronized (lock) {
-      state.buffer.add(new StartEntry());
-    }
+    delayOrExecute(new StartEntry());
 
     Substream substream = createSubstream(0, false);
     if (substream == null) {
@@ -406,8 +403,13 @@ abstract class RetriableStream<ReqT> implements ClientStream {
       FutureCanceller scheduledHedgingRef = null;
 
       synchronized (lock) {
-        state = state.addActiveHedge(substream);
-        if (hasPotentialHedging(state)
+        State savedState;
+        State newState;
+        do {
+          savedState = state.get();
+          newState = savedState.addActiveHedge(substream);
+        } while (!state.compareAndSet(savedState, newState));
+        if (hasPotentialHedging(newState)
             && (throttle == null || throttle.isAboveThreshold())) {
           scheduledHedging = scheduledHedgingRef = new FutureCanceller(lock);
         }
@@ -471,7 +473,7 @@ abstract class RetriableStream<ReqT> implements ClientStream {
       // If this run is not cancelled, the value of state.hedgingAttemptCount won't change
       // until state.addActiveHedge() is called subsequently, even the state could possibly
       // change.
-      Substream newSubstream = createSubstream(state.hedgingAttemptCount, false);
+      Substream newSubstream = createSubstream(state.get().hedgingAttemptCount, false);
       if (newSubstream == null) {
         return;
       }
@@ -487,12 +489,19 @@ abstract class RetriableStream<ReqT> implements ClientStream {
                 if (scheduledHedgingRef.isCancelled()) {
                   cancelled = true;
                 } else {
-                  state = state.addActiveHedge(newSubstream);
-                  if (hasPotentialHedging(state)
-                      && (throttle == null || throttle.isAboveThreshold())) {
+                  State savedState;
+                  State newState;
+                  do {
+                    savedState = state.get();
+                    newState = savedState.addActiveHedge(newSubstream);
+                    if (!hasPotentialHedging(newState)
+                        || (throttle != null && !throttle.isAboveThreshold())) {
+                      newState = newState.freezeHedging();
+                    }
+                  } while (!state.compareAndSet(savedState, newState));
+                  if (!newState.hedgingFrozen) {
                     scheduledHedging = future = new FutureCanceller(lock);
                   } else {
-                    state = state.freezeHedging();
                     scheduledHedging = null;
                   }
                 }
@@ -524,40 +533,55 @@ abstract class RetriableStream<ReqT> implements ClientStream {
     Runnable runnable = commit(noopSubstream);
 
     if (runnable != null) {
-      synchronized (lock) {
-        state = state.substreamDrained(noopSubstream);
-      }
+      State savedState;
+      do {
+        savedState = state.get();
+      } while (!state.compareAndSet(savedState, savedState.substreamDrained(noopSubstream)));
+      releaseBuffer(savedState);
       runnable.run();
       safeCloseMasterListener(reason, RpcProgress.PROCESSED, new Metadata());
       return;
     }
 
-    Substream winningSubstreamToCancel = null;
-    synchronized (lock) {
-      if (state.drainedSubstreams.contains(state.winningSubstream)) {
-        winningSubstreamToCancel = state.winningSubstream;
+    Substream winningSubstreamToCancel;
+    State savedState;
+    do {
+      savedState = state.get();
+      if (savedState.drainedSubstreams.contains(savedState.winningSubstream)) {
+        winningSubstreamToCancel = savedState.winningSubstream;
       } else { // the winningSubstream will be cancelled while draining
+        winningSubstreamToCancel = null;
         cancellationStatus = reason;
       }
-      state = state.cancelled();
-    }
+    } while (!state.compareAndSet(savedState, savedState.cancelled()));
     if (winningSubstreamToCancel != null) {
       winningSubstreamToCancel.stream.cancel(reason);
     }
   }
 
+  /**
+   * Buffers the entry unless passThrough, and runs it with the substreams that are already
+   * drained. The substreams that are still draining will pick the entry up from the buffer.
+   */
   private void delayOrExecute(BufferEntry bufferEntry) {
-    Collection<Substream> savedDrainedSubstreams;
-    synchronized (lock) {
-      if (!state.passThrough) {
-        state.buffer.add(bufferEntry);
+    State savedState = state.get();
+    if (!savedState.passThrough) {
+      // ClientStream methods may be called from different threads, e.g. request(), so appends
+      // are serialized to keep them from writing the same slot of the shared buffer.
+      synchronized (lock) {
+        do {
+          savedState = state.get();
+        } while (!savedState.passThrough
+            && !state.compareAndSet(savedState, savedState.bufferEntryAdded(bufferEntry)));
       }
-      savedDrainedSubstreams = state.drainedSubstreams;
     }
 
-    for (Substream substream : savedDrainedSubstreams) {
+    for (Substream substream : savedState.drainedSubstreams) {
       bufferEntry.runWith(substream);
     }
+    if (savedState.passThrough && bufferEntry instanceof RetainedMessageEntry) {
+      ((RetainedMessageEntry) bufferEntry).message.release();
+    }
   }
 
   /**
@@ -570,29 +594,76 @@ abstract class RetriableStream<ReqT> implements ClientStream {
   }
 
   final void sendMessage(final ReqT message) {
-    State savedState = state;
+    State savedState = state.get();
     if (savedState.passThrough) {
       savedState.winningSubstream.stream.writeMessage(method.streamRequest(message));
       return;
     }
 
-    class SendMessageEntry implements BufferEntry {
-      @Override
-      public void runWith(Substream substream) {
-        substream.stream.writeMessage(method.streamRequest(message));
-        // TODO(ejona): Workaround Netty memory leak. Message writes always need to be followed by
-        // flushes (or half close), but retry appears to have a code path that the flushes may
-        // not happen. The code needs to be fixed and this removed. See #9340.
-        substream.stream.flush();
+    if (savedState.winningSubstream != null || (retryPolicy == null && hedgingPolicy == null)) {
+      // Replayed by at most one more substream (the committed one, or a transparent retry), so
+      // the message is serialized for each attempt instead of being retained.
+      class SendMessageEntry implements BufferEntry {
+        @Override
+        public void runWith(Substream substream) {
+          substream.stream.writeMessage(method.streamRequest(message));
+          // TODO(ejona): Workaround Netty memory leak. Message writes always need to be followed
+          // by flushes (or half close), but retry appears to have a code path that the flushes
+          // may not happen. The code needs to be fixed and this removed. See #9340.
+          substream.stream.flush();
+        }
       }
+
+      delayOrExecute(new SendMessageEntry());
+      return;
+    }
+
+    // Serialized once, and every attempt replays the same bytes.
+    delayOrExecute(new RetainedMessageEntry(
+        RetainedMessage.retain(method.streamRequest(message), channelBufferUsed)));
+  }
+
+  private static final class RetainedMessageEntry implements BufferEntry {
+    final RetainedMessage message;
+
+    RetainedMessageEntry(RetainedMessage message) {
+      this.message = message;
     }
 
-    delayOrExecute(new SendMessageEntry());
+    @Override
+    public void runWith(Substream substream) {
+      InputStream stream = message.newStream();
+      if (stream == null) {
+        // The buffer is released, so the substream is not going to be committed.
+        return;
+      }
+      substream.stream.writeMessage(stream);
+      // TODO(ejona): Workaround Netty memory leak. Message writes always need to be followed by
+      // flushes (or half close), but retry appears to have a code path that the flushes may
+      // not happen. The code needs to be fixed and this removed. See #9340.
+      substream.stream.flush();
+    }
+  }
+
+  /**
+   * Releases the messages retained by the buffer of the given state. Called once the buffer is no
+   * longer replayed, i.e. when the state becomes passThrough or when the RPC is closed.
+   */
+  private static void releaseBuffer(State state) {
+    BufferEntry[] buffer = state.buffer;
+    if (buffer == null) {
+      return;
+    }
+    for (int i = 0; i < state.bufferSize; i++) {
+      if (buffer[i] instanceof RetainedMessageEntry) {
+        ((RetainedMessageEntry) buffer[i]).message.release();
+      }
+    }
   }
 
   @Override
   public final void request(final int numMessages) {
-    State savedState = state;
+    State savedState = state.get();
     if (savedState.passThrough) {
       savedState.winningSubstream.stream.request(numMessages);
       return;
@@ -610,7 +681,7 @@ abstract class RetriableStream<ReqT> implements ClientStream {
 
   @Override
   public final void flush() {
-    State savedState = state;
+    State savedState = state.get();
     if (savedState.passThrough) {
       savedState.winningSubstream.stream.flush();
       return;
@@ -628,7 +699,7 @@ abstract class RetriableStream<ReqT> implements ClientStream {
 
   @Override
   public final boolean isReady() {
-    for (Substream substream : state.drainedSubstreams) {
+    for (Substream substream : state.get().drainedSubstreams) {
       if (substream.stream.isReady()) {
         return true;
       }
@@ -758,8 +829,9 @@ abstract class RetriableStream<ReqT> implements ClientStream {
 
   @Override
   public final Attributes getAttributes() {
-    if (state.winningSubstream != null) {
-      return state.winningSubstream.stream.getAttributes();
+    State savedState = state.get();
+    if (savedState.winningSubstream != null) {
+      return savedState.winningSubstream.stream.getAttributes();
     }
     return Attributes.EMPTY;
   }
@@ -769,7 +841,7 @@ abstract class RetriableStream<ReqT> implements ClientStream {
     State currentState;
     synchronized (lock) {
       insight.appendKeyValue("closed", closedSubstreamsInsight);
-      currentState = state;
+      currentState = state.get();
     }
     if (currentState.winningSubstream != null) {
       // TODO(zhangkun83): in this case while other drained substreams have been cancelled in favor
@@ -823,7 +895,10 @@ abstract class RetriableStream<ReqT> implements ClientStream {
         futureToBeCancelled = scheduledHedging.markCancelled();
         scheduledHedging = null;
       }
-      state = state.freezeHedging();
+      State savedState;
+      do {
+        savedState = state.get();
+      } while (!state.compareAndSet(savedState, savedState.freezeHedging()));
     }
 
     if (futureToBeCancelled != null) {
@@ -835,6 +910,7 @@ abstract class RetriableStream<ReqT> implements ClientStream {
     savedCloseMasterListenerReason = new SavedCloseMasterListenerReason(status, progress,
         metadata);
     if (inFlightSubStreams.addAndGet(Integer.MIN_VALUE) == Integer.MIN_VALUE) {
+      releaseBuffer(state.get());
       listenerSerializeExecutor.execute(
           new Runnable() {
             @Override
@@ -877,7 +953,7 @@ abstract class RetriableStream<ReqT> implements ClientStream {
         headers.put(GRPC_PREVIOUS_RPC_ATTEMPTS, String.valueOf(substream.previousAttemptCount));
       }
       commitAndRun(substream);
-      if (state.winningSubstream == substream) {
+      if (state.get().winningSubstream == substream) {
         if (throttle != null) {
           throttle.onSuccess();
         }
@@ -895,11 +971,16 @@ abstract class RetriableStream<ReqT> implements ClientStream {
     public void closed(
         final Status status, final RpcProgress rpcProgress, final Metadata trailers) {
       synchronized (lock) {
-        state = state.substreamClosed(substream);
+        substream.closed = true;
+        State savedState;
+        do {
+          savedState = state.get();
+        } while (!state.compareAndSet(savedState, savedState.substreamClosed(substream)));
         closedSubstreamsInsight.append(status.getCode());
       }
 
       if (inFlightSubStreams.decrementAndGet() == Integer.MIN_VALUE) {
+        releaseBuffer(state.get());
         assert savedCloseMasterListenerReason != null;
         listenerSerializeExecutor.execute(
             new Runnable() {
@@ -918,7 +999,7 @@ abstract class RetriableStream<ReqT> implements ClientStream {
       // substream.bufferLimitExceeded = true happens before state.substreamClosed(substream).
       if (substream.bufferLimitExceeded) {
         commitAndRun(substream);
-        if (state.winningSubstream == substream) {
+        if (state.get().winningSubstream == substream) {
           safeCloseMasterListener(status, rpcProgress, trailers);
         }
         return;
@@ -926,7 +1007,7 @@ abstract class RetriableStream<ReqT> implements ClientStream {
       if (rpcProgress == RpcProgress.MISCARRIED
           && localOnlyTransparentRetries.incrementAndGet() > 1_000) {
         commitAndRun(substream);
-        if (state.winningSubstream == substream) {
+        if (state.get().winningSubstream == substream) {
           Status tooManyTransparentRetries = Status.INTERNAL
               .withDescription("Too many transparent retries. Might be a bug in gRPC")
               .withCause(status.asRuntimeException());
@@ -935,7 +1016,7 @@ abstract class RetriableStream<ReqT> implements ClientStream {
         return;
       }
 
-      if (state.winningSubstream == null) {
+      if (state.get().winningSubstream == null) {
         if (rpcProgress == RpcProgress.MISCARRIED
             || (rpcProgress == RpcProgress.REFUSED
                 && noMoreTransparentRetry.compareAndSet(false, true))) {
@@ -950,7 +1031,11 @@ abstract class RetriableStream<ReqT> implements ClientStream {
               // noMoreTransparentRetry.compareAndSet(false, true), it does not change the size() of
               // activeHedges, so neither does it affect the commitment decision of other threads,
               // nor do the commitment decision making threads affect itself.
-              state = state.replaceActiveHedge(substream, newSubstream);
+              State savedState;
+              do {
+                savedState = state.get();
+              } while (!state.compareAndSet(
+                  savedState, savedState.replaceActiveHedge(substream, newSubstream)));
             }
           }
 
@@ -976,13 +1061,18 @@ abstract class RetriableStream<ReqT> implements ClientStream {
               pushbackHedging(hedgingPlan.hedgingPushbackMillis);
             }
             synchronized (lock) {
-              state = state.removeActiveHedge(substream);
+              State savedState;
+              State newState;
+              do {
+                savedState = state.get();
+                newState = savedState.removeActiveHedge(substream);
+              } while (!state.compareAndSet(savedState, newState));
               // The invariant is whether or not #(Potential Hedge + active hedges) > 0.
               // Once hasPotentialHedging(state) is false, it will always be false, and then
               // #(state.activeHedges) will be decreasing. This guarantees that even there may be
               // multiple concurrent hedges, one of the hedges will end up committed.
               if (hedgingPlan.isHedgeable) {
-                if (hasPotentialHedging(state) || !state.activeHedges.isEmpty()) {
+                if (hasPotentialHedging(newState) || !newState.activeHedges.isEmpty()) {
                   return;
                 }
                 // else, no activeHedges, no new hedges possible, try to commit
@@ -1037,7 +1127,7 @@ abstract class RetriableStream<ReqT> implements ClientStream {
       }
 
       commitAndRun(substream);
-      if (state.winningSubstream == substream) {
+      if (state.get().winningSubstream == substream) {
         safeCloseMasterListener(status, rpcProgress, trailers);
       }
     }
@@ -1113,7 +1203,7 @@ abstract class RetriableStream<ReqT> implements ClientStream {
 
     @Override
     public void messagesAvailable(final MessageProducer producer) {
-      State savedState = state;
+      State savedState = state.get();
       checkState(
           savedState.winningSubstream != null, "Headers should be received prior to messages.");
       if (savedState.winningSubstream != substream) {
@@ -1151,8 +1241,16 @@ abstract class RetriableStream<ReqT> implements ClientStream {
     /** Committed and the winning substream drained. */
     final boolean passThrough;
 
-    /** A list of buffered ClientStream runnables. Set to Null once passThrough. */
-    @Nullable final List<BufferEntry> buffer;
+    /**
+     * Buffered ClientStream runnables, in the first {@code bufferSize} elements. Set to Null once
+     * passThrough.
+     *
+     * <p>The array is shared with the states that precede and follow this one, and only ever
+     * written past their {@code bufferSize}, so entries visible to a state are never modified.
+     */
+    @Nullable final BufferEntry[] buffer;
+
+    final int bufferSize;
 
     /**
      * Unmodifiable collection of all the open substreams that are drained. Singleton once
@@ -1180,7 +1278,8 @@ abstract class RetriableStream<ReqT> implements ClientStream {
     final boolean hedgingFrozen;
 
     State(
-        @Nullable List<BufferEntry> buffer,
+        @Nullable BufferEntry[] buffer,
+        int bufferSize,
         Collection<Substream> drainedSubstreams,
         Collection<Substream> activeHedges,
         @Nullable Substream winningSubstream,
@@ -1189,6 +1288,7 @@ abstract class RetriableStream<ReqT> implements ClientStream {
         boolean hedgingFrozen,
         int hedgingAttemptCount) {
       this.buffer = buffer;
+      this.bufferSize = bufferSize;
       this.drainedSubstreams =
           checkNotNull(drainedSubstreams, "drainedSubstreams");
       this.winningSubstream = winningSubstream;
@@ -1210,17 +1310,34 @@ abstract class RetriableStream<ReqT> implements ClientStream {
       checkState(!cancelled || winningSubstream != null, "cancelled should imply committed");
     }
 
+    /**
+     * The given entry is appended to the buffer. Must be called with {@code lock} held, as it
+     * writes the slot past {@code bufferSize} of the shared array.
+     */
+    @CheckReturnValue
+    State bufferEntryAdded(BufferEntry bufferEntry) {
+      checkState(!passThrough, "Already passThrough");
+
+      BufferEntry[] buffer = this.buffer;
+      if (bufferSize == buffer.length) {
+        buffer = Arrays.copyOf(buffer, bufferSize * 2);
+      }
+      buffer[bufferSize] = bufferEntry;
+
+      return new State(
+          buffer, bufferSize + 1, drainedSubstreams, activeHedges, winningSubstream, cancelled,
+          passThrough, hedgingFrozen, hedgingAttemptCount);
+    }
+
     @CheckReturnValue
-    // GuardedBy RetriableStream.lock
     State cancelled() {
       return new State(
-          buffer, drainedSubstreams, activeHedges, winningSubstream, true, passThrough,
+          buffer, bufferSize, drainedSubstreams, activeHedges, winningSubstream, true, passThrough,
           hedgingFrozen, hedgingAttemptCount);
     }
 
     /** The given substream is drained. */
     @CheckReturnValue
-    // GuardedBy RetriableStream.lock
     State substreamDrained(Substream substream) {
       checkState(!passThrough, "Already passThrough");
 
@@ -1239,7 +1356,7 @@ abstract class RetriableStream<ReqT> implements ClientStream {
 
       boolean passThrough = winningSubstream != null;
 
-      List<BufferEntry> buffer = this.buffer;
+      BufferEntry[] buffer = this.buffer;
       if (passThrough) {
         checkState(
             winningSubstream == substream, "Another RPC attempt has already committed");
@@ -1247,25 +1364,25 @@ abstract class RetriableStream<ReqT> implements ClientStream {
       }
 
       return new State(
-          buffer, drainedSubstreams, activeHedges, winningSubstream, cancelled, passThrough,
-          hedgingFrozen, hedgingAttemptCount);
+          buffer, bufferSize, drainedSubstreams, activeHedges, winningSubstream, cancelled,
+          passThrough, hedgingFrozen, hedgingAttemptCount);
     }
 
-    /** The given substream is closed. */
+    /**
+     * The given substream, already marked closed, is closed. Always returns a new State, so that
+     * a concurrent {@link #substreamDrained} that did not yet see the substream closed is retried.
+     */
     @CheckReturnValue
-    // GuardedBy RetriableStream.lock
     State substreamClosed(Substream substream) {
-      substream.closed = true;
-      if (this.drainedSubstreams.contains(substream)) {
-        Collection<Substream> drainedSubstreams = new ArrayList<>(this.drainedSubstreams);
+      Collection<Substream> drainedSubstreams = this.drainedSubstreams;
+      if (drainedSubstreams.contains(substream)) {
+        drainedSubstreams = new ArrayList<>(drainedSubstreams);
         drainedSubstreams.remove(substream);
         drainedSubstreams = Collections.unmodifiableCollection(drainedSubstreams);
-        return new State(
-            buffer, drainedSubstreams, activeHedges, winningSubstream, cancelled, passThrough,
-            hedgingFrozen, hedgingAttemptCount);
-      } else {
-        return this;
       }
+      return new State(
+          buffer, bufferSize, drainedSubstreams, activeHedges, winningSubstream, cancelled,
+          passThrough, hedgingFrozen, hedgingAttemptCount);
     }
 
     @CheckReturnValue
@@ -1274,7 +1391,7 @@ abstract class RetriableStream<ReqT> implements ClientStream {
       checkState(this.winningSubstream == null, "Already committed");
 
       boolean passThrough = false;
-      List<BufferEntry> buffer = this.buffer;
+      BufferEntry[] buffer = this.buffer;
       Collection<Substream> drainedSubstreams;
 
       if (this.drainedSubstreams.contains(winningSubstream)) {
@@ -1286,8 +1403,8 @@ abstract class RetriableStream<ReqT> implements ClientStream {
       }
 
       return new State(
-          buffer, drainedSubstreams, activeHedges, winningSubstream, cancelled, passThrough,
-          hedgingFrozen, hedgingAttemptCount);
+          buffer, bufferSize, drainedSubstreams, activeHedges, winningSubstream, cancelled,
+          passThrough, hedgingFrozen, hedgingAttemptCount);
     }
 
     @CheckReturnValue
@@ -1297,8 +1414,8 @@ abstract class RetriableStream<ReqT> implements ClientStream {
         return this;
       }
       return new State(
-          buffer, drainedSubstreams, activeHedges, winningSubstream, cancelled, passThrough,
-          true, hedgingAttemptCount);
+          buffer, bufferSize, drainedSubstreams, activeHedges, winningSubstream, cancelled,
+          passThrough, true, hedgingAttemptCount);
     }
 
     @CheckReturnValue
@@ -1321,8 +1438,8 @@ abstract class RetriableStream<ReqT> implements ClientStream {
 
       int hedgingAttemptCount = this.hedgingAttemptCount + 1;
       return new State(
-          buffer, drainedSubstreams, activeHedges, winningSubstream, cancelled, passThrough,
-          hedgingFrozen, hedgingAttemptCount);
+          buffer, bufferSize, drainedSubstreams, activeHedges, winningSubstream, cancelled,
+          passThrough, hedgingFrozen, hedgingAttemptCount);
     }
 
     @CheckReturnValue
@@ -1334,8 +1451,8 @@ abstract class RetriableStream<ReqT> implements ClientStream {
       activeHedges = Collections.unmodifiableCollection(activeHedges);
 
       return new State(
-          buffer, drainedSubstreams, activeHedges, winningSubstream, cancelled, passThrough,
-          hedgingFrozen, hedgingAttemptCount);
+          buffer, bufferSize, drainedSubstreams, activeHedges, winningSubstream, cancelled,
+          passThrough, hedgingFrozen, hedgingAttemptCount);
     }
 
     @CheckReturnValue
@@ -1348,8 +1465,8 @@ abstract class RetriableStream<ReqT> implements ClientStream {
       activeHedges = Collections.unmodifiableCollection(activeHedges);
 
       return new State(
-          buffer, drainedSubstreams, activeHedges, winningSubstream, cancelled, passThrough,
-          hedgingFrozen, hedgingAttemptCount);
+          buffer, bufferSize, drainedSubstreams, activeHedges, winningSubstream, cancelled,
+          passThrough, hedgingFrozen, hedgingAttemptCount);
     }
   }
 
@@ -1360,8 +1477,8 @@ abstract class RetriableStream<ReqT> implements ClientStream {
   private static final class Substream {
     ClientStream stream;
 
-    // GuardedBy RetriableStream.lock
-    boolean closed;
+    // Set to true while holding RetriableStream.lock
+    volatile boolean closed;
 
     // setting to true must be GuardedBy RetriableStream.lock
     boolean bufferLimitExceeded;
@@ -1395,7 +1512,7 @@ abstract class RetriableStream<ReqT> implements ClientStream {
      */
     @Override
     public void outboundWireSize(long bytes) {
-      if (state.winningSubstream != null) {
+      if (state.get().winningSubstream != null) {
         return;
       }
 
@@ -1403,7 +1520,7 @@ abstract class RetriableStream<ReqT> implements ClientStream {
 
       // TODO(zdapeng): avoid using the same lock for both in-bound and out-bound.
       synchronized (lock) {
-        if (state.winningSubstream != null || substream.closed) {
+        if (state.get().winningSubstream != null || substream.closed) {
           return;
         }
         bufferNeeded += bytes;
@@ -1441,11 +1558,26 @@ abstract class RetriableStream<ReqT> implements ClientStream {
    */
   static final class ChannelBufferMeter {
     private final AtomicLong bufferUsed = new AtomicLong();
+    private final AtomicLong retainedBytes = new AtomicLong();
 
     @VisibleForTesting
     long addAndGet(long newBytesUsed) {
       return bufferUsed.addAndGet(newBytesUsed);
     }
+
+    void addRetainedBytes(long bytes) {
+      retainedBytes.addAndGet(bytes);
+    }
+
+    /** Returns the bytes accounted against the channel buffer limit. */
+    long getBufferUsed() {
+      return bufferUsed.get();
+    }
+
+    /** Returns the bytes of serialized messages currently retained for replay. */
+    long getRetainedBytes() {
+      return retainedBytes.get();
+    }
   }
 
   /**
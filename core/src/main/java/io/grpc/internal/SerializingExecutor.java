@@ -18,6 +18,7 @@ package io.grpc.internal;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
 import java.util.Queue;
 import java.util.concurrent.ConcurrentLinkedQueue;
@@ -55,6 +56,13 @@ public final class SerializingExecutor implements Executor, Runnable {
     return helper;
   }
 
+  /**
+   * Whether to queue tasks in a {@link ChunkedMpscQueue}, which avoids allocating a node per task
+   * and contending on the tail of the queue, instead of a {@link ConcurrentLinkedQueue}.
+   */
+  private static final boolean USE_CHUNKED_MPSC_QUEUE =
+      GrpcUtil.getFlag("GRPC_EXPERIMENTAL_SERIALIZING_EXECUTOR_MPSC_QUEUE", false);
+
   private static final int STOPPED = 0;
   private static final int RUNNING = -1;
 
@@ -62,7 +70,7 @@ public final class SerializingExecutor implements Executor, Runnable {
   private Executor executor;
 
   /** A list of Runnables to be run in order. */
-  private final Queue<Runnable> runQueue = new ConcurrentLinkedQueue<>();
+  private final Queue<Runnable> runQueue;
 
   private volatile int runState = STOPPED;
 
@@ -72,8 +80,15 @@ public final class SerializingExecutor implements Executor, Runnable {
    * @param executor Executor in which tasks should be run. Must not be null.
    */
   public SerializingExecutor(Executor executor) {
+    this(executor, USE_CHUNKED_MPSC_QUEUE);
+  }
+
+  @VisibleForTesting
+  SerializingExecutor(Executor executor, boolean useChunkedMpscQueue) {
     Preconditions.checkNotNull(executor, "'executor' must not be null.");
     this.executor = executor;
+    this.runQueue = useChunkedMpscQueue
+        ? new ChunkedMpscQueue<Runnable>() : new ConcurrentLinkedQueue<Runnable>();
   }
 
   /**
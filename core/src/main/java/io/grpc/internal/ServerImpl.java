@@ -72,9 +72,11 @@ import java.util.Set;
 import java.util.concurrent.Executor;
 import java.util.concurrent.Future;
 import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import javax.annotation.Nullable;
 import javax.annotation.concurrent.GuardedBy;
 
 /**
@@ -130,6 +132,9 @@ public final class ServerImpl extends io.grpc.Server implements InternalInstrume
   private final CallTracer serverCallTracer;
   private final Deadline.Ticker ticker;
   private final ServerCallExecutorSupplier executorSupplier;
+  /** Starts the thread of each call, or {@code null} to use {@link #executor}. */
+  @Nullable
+  private final ThreadFactory perCallThreadFactory;
 
   /**
    * Construct a server.
@@ -165,6 +170,7 @@ public final class ServerImpl extends io.grpc.Server implements InternalInstrume
     this.ticker = checkNotNull(builder.ticker, "ticker");
     channelz.addServer(this);
     this.executorSupplier = builder.executorSupplier;
+    this.perCallThreadFactory = builder.perCallThreadFactory;
   }
 
   /**
@@ -471,11 +477,19 @@ public final class ServerImpl extends io.grpc.Server implements InternalInstrume
     private void streamCreatedInternal(
         final ServerStream stream, final String methodName, final Metadata headers, final Tag tag) {
       final Executor wrappedExecutor;
-      // This is a performance optimization that avoids the synchronization and queuing overhead
-      // that comes with SerializingExecutor.
-      if (executorSupplier != null || executor != directExecutor()) {
+      ThreadPerCallExecutor callThread = null;
+      if (perCallThreadFactory != null) {
+        // The callbacks run in order on a (virtual) thread of the call's own, so blocking handlers
+        // don't occupy a pooled thread. The executorSupplier may still switch the call to its own
+        // executor through the SerializingExecutor.
+        callThread = new ThreadPerCallExecutor(perCallThreadFactory);
+        wrappedExecutor =
+            executorSupplier != null ? new SerializingExecutor(callThread) : callThread;
+      } else if (executorSupplier != null || executor != directExecutor()) {
         wrappedExecutor = new SerializingExecutor(executor);
       } else {
+        // This is a performance optimization that avoids the synchronization and queuing overhead
+        // that comes with SerializingExecutor.
         wrappedExecutor = new SerializeReentrantCallsDirectExecutor();
         stream.optimizeForDirectExecutor();
       }
@@ -503,7 +517,7 @@ public final class ServerImpl extends io.grpc.Server implements InternalInstrume
 
       final JumpToApplicationThreadServerStreamListener jumpListener
           = new JumpToApplicationThreadServerStreamListener(
-                  wrappedExecutor, executor, stream, context, tag);
+                  wrappedExecutor, executor, callThread, stream, context, tag);
       stream.setListener(jumpListener);
       final SettableFuture<ServerCallParameters<?,?>> future = SettableFuture.create();
       // Run in serializing executor so jumpListener.setListener() is called before any callbacks
@@ -773,6 +787,9 @@ public final class ServerImpl extends io.grpc.Server implements InternalInstrume
   static final class JumpToApplicationThreadServerStreamListener implements ServerStreamListener {
     private final Executor callExecutor;
     private final Executor cancelExecutor;
+    /** The thread of the call, which ends once the call is closed, or {@code null}. */
+    @Nullable
+    private final ThreadPerCallExecutor callThread;
     private final Context.CancellableContext context;
     private final ServerStream stream;
     private final Tag tag;
@@ -781,8 +798,15 @@ public final class ServerImpl extends io.grpc.Server implements InternalInstrume
 
     public JumpToApplicationThreadServerStreamListener(Executor executor,
         Executor cancelExecutor, ServerStream stream, Context.CancellableContext context, Tag tag) {
+      this(executor, cancelExecutor, null, stream, context, tag);
+    }
+
+    JumpToApplicationThreadServerStreamListener(Executor executor, Executor cancelExecutor,
+        @Nullable ThreadPerCallExecutor callThread, ServerStream stream,
+        Context.CancellableContext context, Tag tag) {
       this.callExecutor = executor;
       this.cancelExecutor = cancelExecutor;
+      this.callThread = callThread;
       this.stream = stream;
       this.context = context;
       this.tag = tag;
@@ -913,6 +937,10 @@ public final class ServerImpl extends io.grpc.Server implements InternalInstrume
       }
 
       callExecutor.execute(new Closed());
+      if (callThread != null) {
+        // No callbacks follow closed().
+        callThread.shutdown();
+      }
     }
 
     @Override
@@ -46,6 +46,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -97,6 +98,8 @@ public final class ServerImplBuilder extends ServerBuilder<ServerImplBuilder> {
   CallTracer.Factory callTracerFactory = CallTracer.getDefaultFactory();
   @Nullable
   ServerCallExecutorSupplier executorSupplier;
+  @Nullable
+  ThreadFactory perCallThreadFactory;
 
   /**
    * An interface to provide to provide transport specific information for the server. This method
@@ -134,6 +137,12 @@ public final class ServerImplBuilder extends ServerBuilder<ServerImplBuilder> {
     return this;
   }
 
+  @Override
+  public ServerImplBuilder virtualThreadPerCall() {
+    this.perCallThreadFactory = VirtualThreads.getThreadFactory();
+    return this;
+  }
+
   @Override
   public ServerImplBuilder addService(ServerServiceDefinition service) {
     registryBuilder.addService(checkNotNull(service, "service"));
@@ -0,0 +1,165 @@
+/*
+ * Copyright 2024 The gRPC Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.grpc.internal;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.annotation.concurrent.GuardedBy;
+
+/**
+ * Executor that runs the tasks of one call in order on a single thread of its own. The thread is
+ * started with the first task and waits for more until {@link #shutdown} is called and the queued
+ * tasks are done. A task executed after that starts a new thread.
+ *
+ * <p>Waiting uses a {@link ReentrantLock} rather than a monitor, so that an idle virtual thread
+ * doesn't pin its carrier thread.
+ */
+final class ThreadPerCallExecutor implements Executor, Runnable {
+  private static final Logger log = Logger.getLogger(ThreadPerCallExecutor.class.getName());
+
+  private final ThreadFactory threadFactory;
+  private final ReentrantLock lock = new ReentrantLock();
+  private final Condition hasWork = lock.newCondition();
+  @GuardedBy("lock")
+  private final Queue<Runnable> tasks = new ArrayDeque<>();
+  /** Whether a thread is running tasks or waiting for them. */
+  @GuardedBy("lock")
+  private boolean running;
+  @GuardedBy("lock")
+  private boolean shutdown;
+
+  ThreadPerCallExecutor(ThreadFactory threadFactory) {
+    this.threadFactory = checkNotNull(threadFactory, "threadFactory");
+  }
+
+  @Override
+  public void execute(Runnable r) {
+    checkNotNull(r, "'r' must not be null.");
+    lock.lock();
+    try {
+      tasks.add(r);
+      if (running) {
+        hasWork.signal();
+        return;
+      }
+      running = true;
+    } finally {
+      lock.unlock();
+    }
+    try {
+      threadFactory.newThread(this).start();
+    } catch (RuntimeException | Error e) {
+      lock.lock();
+      try {
+        tasks.remove(r);
+        running = false;
+      } finally {
+        lock.unlock();
+      }
+      throw e;
+    }
+  }
+
+  /**
+   * Lets the thread end once the queued tasks are done. Called after the last callback of the call
+   * is queued.
+   */
+  void shutdown() {
+    lock.lock();
+    try {
+      shutdown = true;
+      hasWork.signal();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public void run() {
+    boolean completed = false;
+    try {
+      runTasks();
+      completed = true;
+    } finally {
+      if (!completed) {
+        // A task threw an Error, which ends this thread. Hand the remaining tasks to a new one.
+        restart();
+      }
+    }
+  }
+
+  private void restart() {
+    lock.lock();
+    try {
+      running = !tasks.isEmpty();
+      if (!running) {
+        return;
+      }
+    } finally {
+      lock.unlock();
+    }
+    try {
+      threadFactory.newThread(this).start();
+    } catch (RuntimeException e) {
+      lock.lock();
+      try {
+        // The next execute() tries again.
+        running = false;
+      } finally {
+        lock.unlock();
+      }
+      log.log(Level.SEVERE, "Failed to start a thread for the remaining tasks", e);
+    }
+  }
+
+  private void runTasks() {
+    while (true) {
+      Runnable r;
+      lock.lock();
+      try {
+        while ((r = tasks.poll()) == null) {
+          if (shutdown) {
+            running = false;
+            return;
+          }
+          hasWork.awaitUninterruptibly();
+        }
+      } finally {
+        lock.unlock();
+      }
+      try {
+        r.run();
+      } catch (RuntimeException e) {
+        // Log it and keep going.
+        log.log(Level.SEVERE, "Exception while executing runnable " + r, e);
+      }
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "ThreadPerCallExecutor(" + threadFactory + ")";
+  }
+}
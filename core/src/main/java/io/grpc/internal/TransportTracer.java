@@ -36,6 +36,9 @@ public final class TransportTracer {
   private long streamsSucceeded;
   private long streamsFailed;
   private long keepAlivesSent;
+  private long flushes;
+  private long commandsFlushed;
+  private long bytesFlushed;
   private FlowControlReader flowControlWindowReader;
 
   private long messagesSent;
@@ -72,7 +75,10 @@ public final class TransportTracer {
         lastMessageSentTimeNanos,
         lastMessageReceivedTimeNanos,
         localFlowControlWindow,
-        remoteFlowControlWindow);
+        remoteFlowControlWindow,
+        flushes,
+        commandsFlushed,
+        bytesFlushed);
   }
 
   /**
@@ -128,6 +134,17 @@ public final class TransportTracer {
     keepAlivesSent++;
   }
 
+  /**
+   * Reports that the transport flushed its pending writes to the socket. {@code commands} is the
+   * number of queued write commands and {@code bytes} the number of payload bytes covered by the
+   * flush; either may be 0.
+   */
+  public void reportFlush(int commands, long bytes) {
+    flushes++;
+    commandsFlushed += commands;
+    bytesFlushed += bytes;
+  }
+
   /**
    * Registers a {@link FlowControlReader} that can be used to read the local and remote flow
    * control window sizes.
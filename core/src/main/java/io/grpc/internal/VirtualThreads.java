@@ -0,0 +1,70 @@
+/*
+ * Copyright 2024 The gRPC Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.grpc.internal;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ThreadFactory;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.annotation.Nullable;
+
+/**
+ * Access to JDK 21+ virtual threads. The API is looked up reflectively to avoid a compile time
+ * dependency on a newer JDK.
+ */
+final class VirtualThreads {
+  private static final Logger logger = Logger.getLogger(VirtualThreads.class.getName());
+
+  @Nullable
+  private static final ThreadFactory threadFactory = createThreadFactory("grpc-vthread-");
+
+  private VirtualThreads() {}
+
+  @Nullable
+  private static ThreadFactory createThreadFactory(String namePrefix) {
+    try {
+      Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+      Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+      Method name = builderClass.getMethod("name", String.class, long.class);
+      builder = name.invoke(builder, namePrefix, 0L);
+      return (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+    } catch (Exception e) {
+      logger.log(
+          Level.FINE, "Virtual threads are not available, this is normal before JDK 21", e);
+      return null;
+    }
+  }
+
+  /**
+   * Returns {@code true} if the running JDK supports virtual threads.
+   */
+  static boolean isSupported() {
+    return threadFactory != null;
+  }
+
+  /**
+   * Returns a factory of virtual threads.
+   *
+   * @throws UnsupportedOperationException if virtual threads are not supported
+   */
+  static ThreadFactory getThreadFactory() {
+    if (threadFactory == null) {
+      throw new UnsupportedOperationException("Virtual threads require JDK 21 or later");
+    }
+    return threadFactory;
+  }
+}
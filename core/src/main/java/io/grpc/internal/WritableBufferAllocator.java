@@ -16,6 +16,8 @@
 
 package io.grpc.internal;
 
+import java.nio.ByteBuffer;
+
 /**
  * An allocator of buffers provided by the transport implementation to {@link MessageFramer} so
  * it can send chunks of data to the transport in a form that the transport can directly serialize.
@@ -27,4 +29,24 @@ public interface WritableBufferAllocator {
    * free to return a buffer with a greater or lesser capacity.
    */
   WritableBuffer allocate(int capacityHint);
+
+  /**
+   * Indicates whether or not {@link #wrap} operation is supported.
+   */
+  default boolean wrapSupported() {
+    return false;
+  }
+
+  /**
+   * Returns a read-only {@link WritableBuffer} backed by the readable bytes of {@code data},
+   * without copying them. The returned buffer has no writable bytes. The transport must not
+   * modify the content of {@code data} and must run {@code onRelease} exactly once, when it no
+   * longer references {@code data}, whether the buffer was written to the wire or released. This
+   * is an optional method, so callers should first check {@link #wrapSupported}.
+   *
+   * @throws UnsupportedOperationException if this operation is not supported.
+   */
+  default WritableBuffer wrap(ByteBuffer data, Runnable onRelease) {
+    throw new UnsupportedOperationException();
+  }
 }
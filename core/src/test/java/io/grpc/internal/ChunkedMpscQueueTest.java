@@ -0,0 +1,168 @@
+/*
+ * Copyright 2024 The gRPC Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.grpc.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.google.common.testing.GcFinalization;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** Unit tests for {@link ChunkedMpscQueue}. */
+@RunWith(JUnit4.class)
+public class ChunkedMpscQueueTest {
+  private final ChunkedMpscQueue<Integer> queue = new ChunkedMpscQueue<>();
+
+  @Test
+  public void empty() {
+    assertTrue(queue.isEmpty());
+    assertEquals(0, queue.size());
+    assertNull(queue.poll());
+    assertNull(queue.peek());
+  }
+
+  @Test
+  public void fifoAcrossChunks() {
+    for (int i = 0; i < 1000; i++) {
+      queue.offer(i);
+    }
+    assertEquals(1000, queue.size());
+    for (int i = 0; i < 1000; i++) {
+      assertEquals(Integer.valueOf(i), queue.peek());
+      assertEquals(Integer.valueOf(i), queue.poll());
+    }
+    assertTrue(queue.isEmpty());
+    assertNull(queue.poll());
+  }
+
+  @Test
+  public void interleavedOfferAndPoll() {
+    for (int i = 0; i < 1000; i++) {
+      queue.offer(i);
+      queue.offer(-i);
+      assertEquals(Integer.valueOf(i), queue.poll());
+      assertEquals(Integer.valueOf(-i), queue.poll());
+    }
+    assertTrue(queue.isEmpty());
+  }
+
+  @Test
+  public void removeSkipsElement() {
+    for (int i = 0; i < 100; i++) {
+      queue.offer(i);
+    }
+    assertTrue(queue.remove(70));
+    assertFalse(queue.remove(70));
+    assertFalse(queue.remove(100));
+    for (int i = 0; i < 100; i++) {
+      if (i != 70) {
+        assertEquals(Integer.valueOf(i), queue.poll());
+      }
+    }
+    assertNull(queue.poll());
+    assertTrue(queue.isEmpty());
+  }
+
+  @Test
+  public void removeLastElement() {
+    queue.offer(1);
+    assertTrue(queue.remove(1));
+    assertNull(queue.peek());
+    assertNull(queue.poll());
+  }
+
+  @Test
+  public void containsDoesNotSeeRemovedOrPolledElements() {
+    for (int i = 0; i < 100; i++) {
+      queue.offer(i);
+    }
+    assertTrue(queue.contains(99));
+    assertTrue(queue.remove(99));
+    assertFalse(queue.contains(99));
+    assertEquals(Integer.valueOf(0), queue.poll());
+    assertFalse(queue.contains(0));
+    assertTrue(queue.contains(1));
+    assertFalse(queue.contains(null));
+    assertEquals("ChunkedMpscQueue(size=99)", queue.toString());
+  }
+
+  @Test
+  public void polledElementIsCollectable() {
+    ChunkedMpscQueue<Object> objects = new ChunkedMpscQueue<>();
+    Object element = new Object();
+    WeakReference<Object> ref = new WeakReference<>(element);
+    objects.offer(element);
+    objects.offer(new Object());
+    assertEquals(element, objects.poll());
+    element = null;
+
+    // The chunk is still reachable from the queue; only the polled slot was cleared.
+    GcFinalization.awaitClear(ref);
+  }
+
+  @Test
+  public void concurrentProducers() throws Exception {
+    final int producers = 4;
+    final int perProducer = 100000;
+    final CountDownLatch start = new CountDownLatch(1);
+    Thread[] threads = new Thread[producers];
+    for (int p = 0; p < producers; p++) {
+      final int producer = p;
+      threads[p] = new Thread(new Runnable() {
+        @Override
+        public void run() {
+          try {
+            start.await();
+          } catch (InterruptedException e) {
+            throw new AssertionError(e);
+          }
+          for (int i = 0; i < perProducer; i++) {
+            queue.offer(producer * perProducer + i);
+          }
+        }
+      });
+      threads[p].start();
+    }
+    start.countDown();
+
+    int[] next = new int[producers];
+    int received = 0;
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+    while (received < producers * perProducer) {
+      Integer value = queue.poll();
+      if (value == null) {
+        assertTrue("timed out", System.nanoTime() < deadline);
+        continue;
+      }
+      int producer = value / perProducer;
+      // Elements from the same producer are seen in order.
+      assertEquals(next[producer]++, value % perProducer);
+      received++;
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    assertTrue(queue.isEmpty());
+  }
+}
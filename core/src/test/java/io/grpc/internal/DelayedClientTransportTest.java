@@ -168,6 +168,24 @@ public class DelayedClientTransportTest {
     verifyNoMoreInteractions(streamListener);
   }
 
+  @Test public void reprocessBatchesDrainsPerTransport() {
+    int streamCount = DelayedClientTransport.MAX_DRAIN_BATCH_SIZE + 1;
+    for (int i = 0; i < streamCount; i++) {
+      ClientStream stream = delayedTransport.newStream(method, headers, callOptions, tracers);
+      stream.start(streamListener);
+      stream.halfClose();
+    }
+    assertEquals(streamCount, delayedTransport.getPendingStreamsCount());
+
+    delayedTransport.reprocess(mockPicker);
+    assertEquals(0, delayedTransport.getPendingStreamsCount());
+    verify(mockRealStream, times(streamCount)).start(any(ClientStreamListener.class));
+    verify(mockRealStream, never()).halfClose();
+    // One full batch, and one with the remaining stream
+    assertEquals(2, fakeExecutor.runDueTasks());
+    verify(mockRealStream, times(streamCount)).halfClose();
+  }
+
   @Test public void newStreamThenAssignTransportThenShutdown() {
     ClientStream stream = delayedTransport.newStream(method, headers, callOptions, tracers);
     assertEquals(1, delayedTransport.getPendingStreamsCount());
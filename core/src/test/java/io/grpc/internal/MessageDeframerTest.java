@@ -334,6 +334,64 @@ public class MessageDeframerTest {
       verify(listener, atLeastOnce()).bytesRead(anyInt());
       verifyNoMoreInteractions(listener);
     }
+
+    @Test
+    public void batchDelivery_smallCombinedPayloads() {
+      deframer.setBatchDelivery(true);
+      deframer.request(3);
+      fakeClock.forwardTime(10, TimeUnit.MILLISECONDS);
+      deframer.deframe(buffer(new byte[]{0, 0, 0, 0, 1, 3, 0, 0, 0, 0, 2, 14, 15}));
+      verify(listener).messagesAvailable(producer.capture());
+      StreamListener.MessageProducer batch = producer.getValue();
+      assertEquals(Bytes.asList(new byte[]{3}), bytes(batch.next()));
+      assertEquals(Bytes.asList(new byte[]{14, 15}), bytes(batch.next()));
+      assertNull(batch.next());
+      verify(listener, atLeastOnce()).bytesRead(anyInt());
+      verifyNoMoreInteractions(listener);
+      checkStats(tracer, transportTracer.getStats(), fakeClock, 1, 1, 2, 2);
+    }
+
+    @Test
+    public void batchDelivery_onlyRequestedMessages() {
+      deframer.setBatchDelivery(true);
+      deframer.request(1);
+      deframer.deframe(buffer(new byte[]{0, 0, 0, 0, 1, 3, 0, 0, 0, 0, 1, 14}));
+      verify(listener).messagesAvailable(producer.capture());
+      assertEquals(Bytes.asList(new byte[]{3}), bytes(producer.getValue().next()));
+      assertNull(producer.getValue().next());
+
+      deframer.request(1);
+      verify(listener, times(2)).messagesAvailable(producer.capture());
+      assertEquals(Bytes.asList(new byte[]{14}), bytes(producer.getValue().next()));
+      assertNull(producer.getValue().next());
+    }
+
+    @Test
+    public void batchDelivery_isReentrantSafe() {
+      deframer.setBatchDelivery(true);
+      doAnswer(
+          new Answer<Void>() {
+            @Override
+            public Void answer(InvocationOnMock invocation) throws Throwable {
+              deframer.request(1);
+              return null;
+            }
+          })
+          .when(listener)
+          .messagesAvailable(ArgumentMatchers.<StreamListener.MessageProducer>any());
+      deframer.deframe(buffer(new byte[]{0, 0, 0, 0, 1, 3, 0, 0, 0, 0, 1, 14}));
+      deframer.closeWhenComplete();
+      verifyNoMoreInteractions(listener);
+
+      deframer.request(1);
+      verify(listener, times(2)).messagesAvailable(producer.capture());
+      List<StreamListener.MessageProducer> batches = producer.getAllValues();
+      assertEquals(Bytes.asList(new byte[]{3}), bytes(batches.get(0).next()));
+      assertEquals(Bytes.asList(new byte[]{14}), bytes(batches.get(1).next()));
+      verify(listener).deframerClosed(false);
+      verify(listener, atLeastOnce()).bytesRead(anyInt());
+      verifyNoMoreInteractions(listener);
+    }
   }
 
   @RunWith(JUnit4.class)
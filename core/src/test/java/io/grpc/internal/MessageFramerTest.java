@@ -17,9 +17,12 @@
 package io.grpc.internal;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -31,9 +34,11 @@ import io.grpc.StreamTracer;
 import io.grpc.internal.testing.TestStreamTracer.TestBaseStreamTracer;
 import java.io.BufferedInputStream;
 import java.io.ByteArrayInputStream;
+import java.io.InputStream;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Locale;
 import org.junit.Before;
 import org.junit.Rule;
@@ -353,6 +358,70 @@ public class MessageFramerTest {
     checkStats(0, 0);
   }
 
+  @Test
+  public void largeByteBufferBackedPayloadIsWrapped() {
+    WrappingWritableBufferAllocator wrappingAllocator = new WrappingWritableBufferAllocator();
+    framer = new MessageFramer(sink, wrappingAllocator, statsTraceCtx);
+    CloseTrackingBuffer first = new CloseTrackingBuffer(new byte[20000]);
+    CloseTrackingBuffer second = new CloseTrackingBuffer(new byte[10000]);
+    CompositeReadableBuffer composite = new CompositeReadableBuffer();
+    composite.addBuffer(first);
+    composite.addBuffer(second);
+    InputStream message = ReadableBuffers.openStream(composite, true);
+    framer.writePayload(message);
+    framer.flush();
+
+    verify(sink, times(2)).deliverFrame(frameCaptor.capture(), eq(false), eq(false), eq(0));
+    verify(sink).deliverFrame(frameCaptor.capture(), eq(false), eq(true), eq(1));
+    verifyNoMoreInteractions(sink);
+    List<ByteWritableBuffer> frames = frameCaptor.getAllValues();
+    byte[] header = new byte[5];
+    header[3] = 0x75;
+    header[4] = 0x30;
+    assertEquals(toWriteBuffer(header), frames.get(0));
+    assertEquals(20000, frames.get(1).readableBytes());
+    assertEquals(10000, frames.get(2).readableBytes());
+    // Only the header was allocated, the payload was handed over without copying.
+    assertEquals(1, wrappingAllocator.allocCount);
+    assertEquals(2, wrappingAllocator.wrapCount);
+    checkStats(30000, 30000);
+
+    frames.get(1).release();
+    assertFalse(first.closed);
+    frames.get(2).release();
+    assertTrue(first.closed);
+    assertTrue(second.closed);
+  }
+
+  @Test
+  public void smallByteBufferBackedPayloadIsCopied() {
+    WrappingWritableBufferAllocator wrappingAllocator = new WrappingWritableBufferAllocator();
+    framer = new MessageFramer(sink, wrappingAllocator, statsTraceCtx);
+    CloseTrackingBuffer data = new CloseTrackingBuffer(new byte[] {3, 14});
+    framer.writePayload(ReadableBuffers.openStream(data, true));
+    framer.flush();
+
+    verify(sink).deliverFrame(toWriteBuffer(new byte[] {0, 0, 0, 0, 2, 3, 14}), false, true, 1);
+    verifyNoMoreInteractions(sink);
+    assertEquals(0, wrappingAllocator.wrapCount);
+    checkStats(2, 2);
+  }
+
+  @Test
+  public void byteBufferBackedPayloadIsCopiedWhenWrapUnsupported() {
+    allocator = new BytesWritableBufferAllocator(0, 40000);
+    framer = new MessageFramer(sink, allocator, statsTraceCtx);
+    CloseTrackingBuffer data = new CloseTrackingBuffer(new byte[30000]);
+    framer.writePayload(ReadableBuffers.openStream(data, true));
+    framer.flush();
+
+    verify(sink).deliverFrame(frameCaptor.capture(), anyBoolean(), anyBoolean(), anyInt());
+    verifyNoMoreInteractions(sink);
+    assertEquals(30005, frameCaptor.getValue().readableBytes());
+    assertEquals(1, allocator.allocCount);
+    checkStats(30000, 30000);
+  }
+
   private static WritableBuffer toWriteBuffer(byte[] data) {
     return toWriteBufferWithMinSize(data, 0);
   }
@@ -454,6 +523,48 @@ public class MessageFramerTest {
     }
   }
 
+  private static final class CloseTrackingBuffer extends ForwardingReadableBuffer {
+    boolean closed;
+
+    CloseTrackingBuffer(byte[] data) {
+      super(ReadableBuffers.wrap(ByteBuffer.wrap(data)));
+    }
+
+    @Override
+    public void close() {
+      closed = true;
+      super.close();
+    }
+  }
+
+  private static final class WrappingWritableBufferAllocator
+      extends BytesWritableBufferAllocator {
+    int wrapCount;
+
+    WrappingWritableBufferAllocator() {
+      super(1000, 1000);
+    }
+
+    @Override
+    public boolean wrapSupported() {
+      return true;
+    }
+
+    @Override
+    public WritableBuffer wrap(ByteBuffer data, final Runnable onRelease) {
+      wrapCount++;
+      ByteWritableBuffer buffer = new ByteWritableBuffer(data.remaining()) {
+        @Override
+        public void release() {
+          super.release();
+          onRelease.run();
+        }
+      };
+      buffer.write(data.array(), data.arrayOffset() + data.position(), data.remaining());
+      return buffer;
+    }
+  }
+
   static class BytesWritableBufferAllocator implements WritableBufferAllocator {
     public int minSize;
     public int maxSize;
@@ -0,0 +1,145 @@
+/*
+ * Copyright 2024 The gRPC Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.grpc.internal;
+
+import static com.google.common.base.Charsets.UTF_8;
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import com.google.common.io.ByteStreams;
+import io.grpc.Drainable;
+import io.grpc.HasByteBuffer;
+import io.grpc.KnownLength;
+import io.grpc.internal.RetainedMessage.BufferPool;
+import io.grpc.internal.RetriableStream.ChannelBufferMeter;
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/**
+ * Tests for {@link RetainedMessage}.
+ */
+@RunWith(JUnit4.class)
+public class RetainedMessageTest {
+  private static final byte[] MESSAGE = "retained message".getBytes(UTF_8);
+
+  private final ChannelBufferMeter meter = new ChannelBufferMeter();
+
+  @Test
+  public void drainableMessage_replayedByEveryStream() throws IOException {
+    RetainedMessage message = RetainedMessage.retain(new DrainableStream(MESSAGE), meter);
+
+    assertEquals(MESSAGE.length, message.size());
+    for (int i = 0; i < 2; i++) {
+      InputStream stream = message.newStream();
+      assertTrue(stream instanceof KnownLength);
+      assertTrue(((HasByteBuffer) stream).byteBufferSupported());
+      assertEquals(MESSAGE.length, stream.available());
+      assertArrayEquals(MESSAGE, ByteStreams.toByteArray(stream));
+    }
+  }
+
+  @Test
+  public void unknownLengthMessage() throws IOException {
+    RetainedMessage message = RetainedMessage.retain(
+        new FilterInputStream(new ByteArrayInputStream(MESSAGE)) {}, meter);
+
+    assertEquals(MESSAGE.length, message.size());
+    assertArrayEquals(MESSAGE, ByteStreams.toByteArray(message.newStream()));
+  }
+
+  @Test
+  public void retainedBytesAccountedUntilReleased() throws IOException {
+    RetainedMessage message = RetainedMessage.retain(new DrainableStream(MESSAGE), meter);
+    assertEquals(MESSAGE.length, meter.getRetainedBytes());
+
+    message.newStream().close();
+    assertEquals(MESSAGE.length, meter.getRetainedBytes());
+
+    message.release();
+    assertEquals(0, meter.getRetainedBytes());
+    assertNull(message.newStream());
+
+    message.release();
+    assertEquals(0, meter.getRetainedBytes());
+  }
+
+  @Test
+  public void bytesReturnToPoolOnceStreamsClosed() throws IOException {
+    BufferPool pool = RetainedMessage.POOL;
+    RetainedMessage message = RetainedMessage.retain(new DrainableStream(MESSAGE), meter);
+    InputStream stream = message.newStream();
+    long pooledBytes = pool.getPooledBytes();
+
+    message.release();
+    assertEquals(pooledBytes, pool.getPooledBytes());
+    assertArrayEquals(MESSAGE, ByteStreams.toByteArray(stream));
+
+    stream.close();
+    assertThat(pool.getPooledBytes()).isGreaterThan(pooledBytes);
+  }
+
+  @Test
+  public void bufferPool_sizeClasses() {
+    BufferPool pool = new BufferPool(8, 10, 1024);
+    byte[] small = pool.take(1);
+    assertEquals(256, small.length);
+    byte[] medium = pool.take(257);
+    assertEquals(512, medium.length);
+    assertEquals(2000, pool.take(2000).length);
+
+    pool.give(medium);
+    assertEquals(512, pool.getPooledBytes());
+    assertSame(medium, pool.take(300));
+    assertEquals(0, pool.getPooledBytes());
+  }
+
+  @Test
+  public void bufferPool_bounded() {
+    BufferPool pool = new BufferPool(8, 10, 1024);
+    pool.give(new byte[1024]);
+    pool.give(new byte[256]);
+    assertEquals(1024, pool.getPooledBytes());
+    // not of a size class
+    pool.give(new byte[300]);
+    assertEquals(1024, pool.getPooledBytes());
+  }
+
+  private static final class DrainableStream extends ByteArrayInputStream
+      implements KnownLength, Drainable {
+    DrainableStream(byte[] bytes) {
+      super(bytes);
+    }
+
+    @Override
+    public int drainTo(OutputStream target) throws IOException {
+      int length = available();
+      target.write(buf, pos, length);
+      pos += length;
+      return length;
+    }
+  }
+}
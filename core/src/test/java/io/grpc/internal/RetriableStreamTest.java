@@ -959,6 +959,132 @@ public class RetriableStreamTest {
     inOrder.verify(mockStream1).writeMessage(any(InputStream.class));
   }
 
+  @Test
+  public void retainedMessagesReleasedOnCommit() {
+    ArgumentCaptor<ClientStreamListener> sublistenerCaptor1 =
+        ArgumentCaptor.forClass(ClientStreamListener.class);
+    ClientStream mockStream1 = mock(ClientStream.class);
+    doReturn(mockStream1).when(retriableStreamRecorder).newSubstream(0);
+
+    retriableStream.start(masterListener);
+    verify(mockStream1).start(sublistenerCaptor1.capture());
+    retriableStream.sendMessage("msg 1");
+    retriableStream.sendMessage("msg 2");
+    verify(mockStream1, times(2)).writeMessage(any(InputStream.class));
+    assertThat(channelBufferUsed.getRetainedBytes()).isGreaterThan(0L);
+
+    // commit
+    sublistenerCaptor1.getValue().headersRead(new Metadata());
+    assertEquals(0, channelBufferUsed.getRetainedBytes());
+
+    // pass through without retaining
+    retriableStream.sendMessage("msg 3");
+    verify(mockStream1, times(3)).writeMessage(any(InputStream.class));
+    assertEquals(0, channelBufferUsed.getRetainedBytes());
+  }
+
+  @Test
+  public void messagesNotRetainedWithoutRetryOrHedgingPolicy() {
+    RetriableStream<String> transparentRetryOnlyStream = new RecordedRetriableStream(
+        method, new Metadata(), channelBufferUsed, PER_RPC_BUFFER_LIMIT, CHANNEL_BUFFER_LIMIT,
+        MoreExecutors.directExecutor(), fakeClock.getScheduledExecutorService(), null, null,
+        null);
+    ClientStream mockStream1 = mock(ClientStream.class);
+    doReturn(mockStream1).when(retriableStreamRecorder).newSubstream(0);
+
+    transparentRetryOnlyStream.start(masterListener);
+    transparentRetryOnlyStream.sendMessage("msg 1");
+
+    verify(mockStream1).writeMessage(any(InputStream.class));
+    assertEquals(0, channelBufferUsed.getRetainedBytes());
+  }
+
+  @Test
+  public void retry_replaysGrownBufferInOrder() {
+    ArgumentCaptor<ClientStreamListener> sublistenerCaptor1 =
+        ArgumentCaptor.forClass(ClientStreamListener.class);
+    ClientStream mockStream1 = mock(ClientStream.class);
+    ClientStream mockStream2 = mock(ClientStream.class);
+    doReturn(mockStream1).when(retriableStreamRecorder).newSubstream(0);
+    doReturn(mockStream2).when(retriableStreamRecorder).newSubstream(1);
+
+    retriableStream.start(masterListener);
+    verify(mockStream1).start(sublistenerCaptor1.capture());
+    // more entries than the initial capacity of the buffer
+    for (int i = 1; i <= 100; i++) {
+      retriableStream.request(i);
+    }
+
+    sublistenerCaptor1.getValue().closed(
+        Status.fromCode(RETRIABLE_STATUS_CODE_1), PROCESSED, new Metadata());
+    fakeClock.forwardTime((long) (INITIAL_BACKOFF_IN_SECONDS * FAKE_RANDOM), TimeUnit.SECONDS);
+
+    InOrder inOrder = inOrder(mockStream2);
+    inOrder.verify(mockStream2).start(any(ClientStreamListener.class));
+    for (int i = 1; i <= 100; i++) {
+      inOrder.verify(mockStream2).request(i);
+    }
+    retriableStream.request(101);
+    inOrder.verify(mockStream2).request(101);
+  }
+
+  @Test
+  public void retry_replaysConcurrentlyBufferedEntriesOnce() throws Exception {
+    ClientStream mockStream1 = mock(ClientStream.class);
+    ClientStream mockStream2 = mock(ClientStream.class);
+    doReturn(mockStream1).when(retriableStreamRecorder).newSubstream(0);
+    doReturn(mockStream2).when(retriableStreamRecorder).newSubstream(1);
+    ArgumentCaptor<ClientStreamListener> sublistenerCaptor1 =
+        ArgumentCaptor.forClass(ClientStreamListener.class);
+
+    retriableStream.start(masterListener);
+    verify(mockStream1).start(sublistenerCaptor1.capture());
+
+    final int count = 500;
+    final CountDownLatch startLatch = new CountDownLatch(1);
+    Thread requester = new Thread(new Runnable() {
+      @Override
+      public void run() {
+        awaitQuietly(startLatch);
+        for (int i = 0; i < count; i++) {
+          retriableStream.request(1);
+        }
+      }
+    });
+    Thread sender = new Thread(new Runnable() {
+      @Override
+      public void run() {
+        awaitQuietly(startLatch);
+        for (int i = 0; i < count; i++) {
+          retriableStream.sendMessage("msg");
+        }
+      }
+    });
+    requester.start();
+    sender.start();
+    startLatch.countDown();
+    requester.join();
+    sender.join();
+
+    sublistenerCaptor1.getValue().closed(
+        Status.fromCode(RETRIABLE_STATUS_CODE_1), PROCESSED, new Metadata());
+    fakeClock.forwardTime((long) (INITIAL_BACKOFF_IN_SECONDS * FAKE_RANDOM), TimeUnit.SECONDS);
+
+    verify(mockStream1, times(count)).request(1);
+    verify(mockStream1, times(count)).writeMessage(any(InputStream.class));
+    verify(mockStream2, times(count)).request(1);
+    verify(mockStream2, times(count)).writeMessage(any(InputStream.class));
+  }
+
+  private static void awaitQuietly(CountDownLatch latch) {
+    try {
+      latch.await();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new AssertionError(e);
+    }
+  }
+
   @Test
   public void isReady_whenDrained() {
     ClientStream mockStream1 = mock(ClientStream.class);
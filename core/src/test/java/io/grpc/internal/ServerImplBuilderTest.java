@@ -94,6 +94,21 @@ public class ServerImplBuilderTest {
     assertThat(factories.get(2)).isSameInstanceAs(DUMMY_USER_TRACER);
   }
 
+  @Test
+  public void virtualThreadPerCall() {
+    if (VirtualThreads.isSupported()) {
+      builder.virtualThreadPerCall();
+      assertThat(builder.perCallThreadFactory).isNotNull();
+    } else {
+      try {
+        builder.virtualThreadPerCall();
+        fail("Should have thrown");
+      } catch (UnsupportedOperationException expected) {
+        assertThat(builder.perCallThreadFactory).isNull();
+      }
+    }
+  }
+
   @Test
   public void getTracerFactories_disableStats() {
     builder.addStreamTracerFactory(DUMMY_USER_TRACER);
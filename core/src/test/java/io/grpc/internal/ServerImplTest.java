@@ -87,10 +87,12 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.net.InetSocketAddress;
 import java.net.SocketAddress;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.CyclicBarrier;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ScheduledExecutorService;
@@ -100,6 +102,7 @@ import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 import javax.annotation.Nullable;
 import org.junit.After;
+import org.junit.Assume;
 import org.junit.Before;
 import org.junit.BeforeClass;
 import org.junit.Rule;
@@ -484,6 +487,71 @@ public class ServerImplTest {
     basicExchangeSuccessful();
   }
 
+  @Test
+  public void virtualThreadPerCall_callbacksRunOnOneThreadOfTheCall() throws Exception {
+    Assume.assumeTrue(VirtualThreads.isSupported());
+    builder.virtualThreadPerCall();
+    createAndStartServer();
+    final List<Thread> threads = Collections.synchronizedList(new ArrayList<Thread>());
+    final CountDownLatch completed = new CountDownLatch(1);
+    final ServerCall.Listener<String> listener = new ServerCall.Listener<String>() {
+      @Override
+      public void onMessage(String message) {
+        threads.add(Thread.currentThread());
+      }
+
+      @Override
+      public void onHalfClose() {
+        threads.add(Thread.currentThread());
+      }
+
+      @Override
+      public void onComplete() {
+        threads.add(Thread.currentThread());
+        completed.countDown();
+      }
+    };
+    mutableFallbackRegistry.addService(ServerServiceDefinition.builder(
+        new ServiceDescriptor("Waiter", METHOD))
+        .addMethod(
+            METHOD,
+            new ServerCallHandler<String, Integer>() {
+              @Override
+              public ServerCall.Listener<String> startCall(
+                  ServerCall<String, Integer> call,
+                  Metadata headers) {
+                threads.add(Thread.currentThread());
+                return listener;
+              }
+            }).build());
+    ServerTransportListener transportListener
+        = transportServer.registerNewServerTransport(new SimpleServerTransport());
+    transportListener.transportReady(Attributes.EMPTY);
+    Metadata requestHeaders = new Metadata();
+    StatsTraceContext statsTraceCtx =
+        StatsTraceContext.newServerContext(streamTracerFactories, "Waiter/serve", requestHeaders);
+    when(stream.statsTraceContext()).thenReturn(statsTraceCtx);
+
+    transportListener.streamCreated(stream, "Waiter/serve", requestHeaders);
+    verify(stream).setListener(streamListenerCaptor.capture());
+    ServerStreamListener streamListener = streamListenerCaptor.getValue();
+    streamListener.messagesAvailable(new SingleMessageProducer(STRING_MARSHALLER.stream("hi")));
+    streamListener.halfClosed();
+    streamListener.closed(Status.OK);
+
+    assertTrue(completed.await(5, TimeUnit.SECONDS));
+    assertEquals(4, threads.size());
+    Thread callThread = threads.get(0);
+    assertThat(callThread.getName()).startsWith("grpc-vthread-");
+    for (Thread thread : threads) {
+      assertSame(callThread, thread);
+    }
+    // The thread ends once the call is closed.
+    callThread.join(TimeUnit.SECONDS.toMillis(5));
+    assertFalse(callThread.isAlive());
+    assertEquals(0, executor.numPendingTasks());
+  }
+
   @Test
   @SuppressWarnings("unchecked")
   public void executorSupplierSwitchExecutor() throws Exception {
@@ -0,0 +1,194 @@
+/*
+ * Copyright 2024 The gRPC Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.grpc.internal;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class ThreadPerCallExecutorTest {
+  private final RecordingThreadFactory threadFactory = new RecordingThreadFactory();
+  private final ThreadPerCallExecutor executor = new ThreadPerCallExecutor(threadFactory);
+  private final List<Integer> runs = Collections.synchronizedList(new ArrayList<Integer>());
+
+  private class AddToRuns implements Runnable {
+    private final int val;
+
+    AddToRuns(int val) {
+      this.val = val;
+    }
+
+    @Override
+    public void run() {
+      runs.add(val);
+    }
+  }
+
+  @Test
+  public void tasksRunInOrderOnOneThread() throws Exception {
+    final CountDownLatch unblock = new CountDownLatch(1);
+    executor.execute(new Runnable() {
+      @Override
+      public void run() {
+        try {
+          unblock.await();
+        } catch (InterruptedException e) {
+          throw new AssertionError(e);
+        }
+      }
+    });
+    executor.execute(new AddToRuns(1));
+    executor.execute(new AddToRuns(2));
+    unblock.countDown();
+    // The thread waits for more tasks instead of ending when it runs out.
+    awaitRuns(2);
+    executor.execute(new AddToRuns(3));
+    executor.shutdown();
+
+    joinThreads();
+    assertThat(runs).containsExactly(1, 2, 3).inOrder();
+    assertEquals(1, threadFactory.threads.size());
+  }
+
+  @Test
+  public void threadEndsAfterShutdown() throws Exception {
+    executor.execute(new AddToRuns(1));
+    executor.shutdown();
+
+    joinThreads();
+    assertFalse(threadFactory.threads.get(0).isAlive());
+    assertThat(runs).containsExactly(1);
+  }
+
+  @Test
+  public void taskAfterShutdownStartsNewThread() throws Exception {
+    executor.shutdown();
+    executor.execute(new AddToRuns(1));
+    joinThreads();
+    executor.execute(new AddToRuns(2));
+
+    joinThreads();
+    assertThat(runs).containsExactly(1, 2).inOrder();
+    assertEquals(2, threadFactory.threads.size());
+  }
+
+  @Test
+  public void exceptionDoesNotStopLaterTasks() throws Exception {
+    executor.execute(new Runnable() {
+      @Override
+      public void run() {
+        throw new RuntimeException("Simulated failure");
+      }
+    });
+    executor.execute(new AddToRuns(1));
+    executor.shutdown();
+
+    joinThreads();
+    assertThat(runs).containsExactly(1);
+    assertEquals(1, threadFactory.threads.size());
+  }
+
+  @Test
+  public void errorDoesNotStopLaterTasks() throws Exception {
+    final CountDownLatch unblock = new CountDownLatch(1);
+    executor.execute(new Runnable() {
+      @Override
+      public void run() {
+        try {
+          unblock.await();
+        } catch (InterruptedException e) {
+          throw new AssertionError(e);
+        }
+        throw new AssertionError("Simulated failure");
+      }
+    });
+    executor.execute(new AddToRuns(1));
+    unblock.countDown();
+    awaitRuns(1);
+    // The thread that threw is gone, but later tasks still run.
+    executor.execute(new AddToRuns(2));
+    executor.shutdown();
+
+    joinThreads();
+    assertThat(runs).containsExactly(1, 2).inOrder();
+    assertEquals(2, threadFactory.threads.size());
+  }
+
+  @Test
+  public void threadStartFailure() throws Exception {
+    RuntimeException failure = new RuntimeException("Simulated failure");
+    threadFactory.failure = failure;
+    try {
+      executor.execute(new AddToRuns(1));
+      fail();
+    } catch (RuntimeException expected) {
+      assertSame(failure, expected);
+    }
+
+    // The failed task was removed, and the next task starts a thread.
+    threadFactory.failure = null;
+    executor.execute(new AddToRuns(2));
+    executor.shutdown();
+    joinThreads();
+    assertThat(runs).containsExactly(2);
+  }
+
+  private void awaitRuns(int count) throws InterruptedException {
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (runs.size() < count) {
+      if (System.nanoTime() - deadline > 0) {
+        fail("Timed out waiting for " + count + " runs");
+      }
+      Thread.sleep(1);
+    }
+  }
+
+  private void joinThreads() throws InterruptedException {
+    for (Thread thread : threadFactory.threads) {
+      thread.join(TimeUnit.SECONDS.toMillis(5));
+      assertFalse(thread.isAlive());
+    }
+  }
+
+  private static final class RecordingThreadFactory implements ThreadFactory {
+    final List<Thread> threads = Collections.synchronizedList(new ArrayList<Thread>());
+    RuntimeException failure;
+
+    @Override
+    public Thread newThread(Runnable r) {
+      if (failure != null) {
+        throw failure;
+      }
+      Thread thread = new Thread(r);
+      threads.add(thread);
+      return thread;
+    }
+  }
+}
@@ -0,0 +1,274 @@
+/*
+ * Copyright 2024 The gRPC Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.grpc.netty;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import io.netty.buffer.ByteBuf;
+import io.netty.handler.codec.http2.Http2Exception;
+import io.netty.handler.codec.http2.Http2Headers;
+import io.netty.handler.codec.http2.Http2HeadersEncoder;
+import io.netty.util.AsciiString;
+
+/**
+ * An {@link Http2HeadersEncoder} that caches the encoded form of header blocks a connection sends
+ * repeatedly, like the response headers and {@code grpc-status: 0} trailers of successful RPCs,
+ * and writes those bytes directly instead of running them through HPACK again.
+ *
+ * <p>Cached blocks are encoded with representations that don't read or modify the HPACK dynamic
+ * table (static table references and literals without indexing), so they stay valid regardless of
+ * what the delegate encoder does to the table in between. This costs some bytes on the wire
+ * compared to references into the dynamic table, in exchange for skipping HPACK on the hot path.
+ *
+ * <p>Only {@link GrpcHttp2OutboundHeaders} are cached, and only once the same block has been seen
+ * twice, so one-off blocks don't occupy the cache. Like the encoder it wraps, this class is not
+ * thread-safe; it is used from the connection's event loop.
+ */
+final class CachingHttp2HeadersEncoder
+    implements Http2HeadersEncoder, Http2HeadersEncoder.Configuration {
+  @VisibleForTesting
+  static final int MAX_CACHED_BLOCKS = 16;
+  private static final int MAX_CACHED_FIELDS = 8;
+  private static final int MAX_CACHED_BLOCK_BYTES = 512;
+  private static final int RECENT_HASHES = 16;
+  // See RFC 7541 Section 4.1.
+  private static final int HEADER_ENTRY_OVERHEAD = 32;
+
+  // HPACK static table (RFC 7541 Appendix A).
+  private static final AsciiString STATUS = Http2Headers.PseudoHeaderName.STATUS.value();
+  private static final int STATIC_INDEX_STATUS_200 = 8;
+  private static final int STATIC_INDEX_CONTENT_TYPE = 31;
+
+  private final Http2HeadersEncoder delegate;
+  private final CachedBlock[] cache = new CachedBlock[MAX_CACHED_BLOCKS];
+  private int cachedBlocks;
+  private final int[] recentHashes = new int[RECENT_HASHES];
+  private int recentHashesIndex;
+  // A dynamic table size update must be at the start of the next header block, which only the
+  // delegate can write.
+  private boolean tableSizeUpdatePending;
+
+  CachingHttp2HeadersEncoder(Http2HeadersEncoder delegate) {
+    this.delegate = Preconditions.checkNotNull(delegate, "delegate");
+  }
+
+  @Override
+  public void encodeHeaders(int streamId, Http2Headers headers, ByteBuf buffer)
+      throws Http2Exception {
+    if (!tableSizeUpdatePending && headers instanceof GrpcHttp2OutboundHeaders) {
+      byte[] encoded = lookupOrCache((GrpcHttp2OutboundHeaders) headers);
+      if (encoded != null) {
+        buffer.writeBytes(encoded);
+        return;
+      }
+    }
+    tableSizeUpdatePending = false;
+    delegate.encodeHeaders(streamId, headers, buffer);
+  }
+
+  @Override
+  public Configuration configuration() {
+    return this;
+  }
+
+  @Override
+  public void maxHeaderTableSize(long max) throws Http2Exception {
+    delegate.configuration().maxHeaderTableSize(max);
+    tableSizeUpdatePending = true;
+  }
+
+  @Override
+  public long maxHeaderTableSize() {
+    return delegate.configuration().maxHeaderTableSize();
+  }
+
+  @Override
+  public void maxHeaderListSize(long max) throws Http2Exception {
+    delegate.configuration().maxHeaderListSize(max);
+  }
+
+  @Override
+  public long maxHeaderListSize() {
+    return delegate.configuration().maxHeaderListSize();
+  }
+
+  @VisibleForTesting
+  int cachedBlocks() {
+    return cachedBlocks;
+  }
+
+  /**
+   * Returns the cached encoding of {@code headers}, caching it first if it has been seen recently.
+   * Returns {@code null} if the block must be encoded by the delegate.
+   */
+  private byte[] lookupOrCache(GrpcHttp2OutboundHeaders headers) {
+    AsciiString[] preHeaders = headers.preHeaders();
+    AsciiString[] normalHeaders = headers.normalHeaders();
+    if ((preHeaders.length + normalHeaders.length) / 2 > MAX_CACHED_FIELDS) {
+      return null;
+    }
+    int hash = hash(preHeaders, normalHeaders);
+    for (int i = 0; i < cachedBlocks; i++) {
+      CachedBlock block = cache[i];
+      if (block.hash == hash && block.matches(preHeaders, normalHeaders)) {
+        return block.encoded;
+      }
+    }
+    if (cachedBlocks == MAX_CACHED_BLOCKS || !seenRecently(hash)) {
+      return null;
+    }
+    byte[] encoded = encode(preHeaders, normalHeaders);
+    if (encoded == null) {
+      return null;
+    }
+    cache[cachedBlocks++] = new CachedBlock(hash, preHeaders, normalHeaders, encoded);
+    return encoded;
+  }
+
+  private boolean seenRecently(int hash) {
+    for (int recentHash : recentHashes) {
+      if (recentHash == hash) {
+        return true;
+      }
+    }
+    recentHashes[recentHashesIndex] = hash;
+    recentHashesIndex = (recentHashesIndex + 1) % RECENT_HASHES;
+    return false;
+  }
+
+  private static int hash(AsciiString[] preHeaders, AsciiString[] normalHeaders) {
+    int hash = 1;
+    for (AsciiString s : preHeaders) {
+      hash = 31 * hash + s.hashCode();
+    }
+    for (AsciiString s : normalHeaders) {
+      hash = 31 * hash + s.hashCode();
+    }
+    return hash;
+  }
+
+  /**
+   * Encodes the block without touching the dynamic table, or returns {@code null} if it should not
+   * be cached.
+   */
+  private byte[] encode(AsciiString[] preHeaders, AsciiString[] normalHeaders) {
+    long headerListSize = 0;
+    int maxEncodedLength = 0;
+    for (AsciiString[] fields : new AsciiString[][] {preHeaders, normalHeaders}) {
+      for (int i = 0; i < fields.length; i += 2) {
+        headerListSize += fields[i].length() + fields[i + 1].length() + HEADER_ENTRY_OVERHEAD;
+        // Representation byte(s) plus two length-prefixed strings.
+        maxEncodedLength += 1 + 5 + fields[i].length() + 5 + fields[i + 1].length();
+      }
+    }
+    if (maxEncodedLength > MAX_CACHED_BLOCK_BYTES
+        || headerListSize > delegate.configuration().maxHeaderListSize()) {
+      // Let the delegate report the error for oversized header lists.
+      return null;
+    }
+    byte[] out = new byte[maxEncodedLength];
+    int pos = 0;
+    for (AsciiString[] fields : new AsciiString[][] {preHeaders, normalHeaders}) {
+      for (int i = 0; i < fields.length; i += 2) {
+        pos = encodeField(fields[i], fields[i + 1], out, pos);
+      }
+    }
+    byte[] encoded = new byte[pos];
+    System.arraycopy(out, 0, encoded, 0, pos);
+    return encoded;
+  }
+
+  private static int encodeField(AsciiString name, AsciiString value, byte[] out, int pos) {
+    if (STATUS.contentEquals(name) && Utils.STATUS_OK.contentEquals(value)) {
+      // Indexed Header Field (RFC 7541 Section 6.1).
+      return encodeInteger(0x80, 7, STATIC_INDEX_STATUS_200, out, pos);
+    }
+    // Literal Header Field without Indexing (RFC 7541 Section 6.2.2).
+    if (Utils.CONTENT_TYPE_HEADER.contentEquals(name)) {
+      pos = encodeInteger(0x00, 4, STATIC_INDEX_CONTENT_TYPE, out, pos);
+    } else {
+      pos = encodeInteger(0x00, 4, 0, out, pos);
+      pos = encodeString(name, out, pos);
+    }
+    return encodeString(value, out, pos);
+  }
+
+  /** String Literal without Huffman encoding (RFC 7541 Section 5.2). */
+  private static int encodeString(AsciiString s, byte[] out, int pos) {
+    pos = encodeInteger(0x00, 7, s.length(), out, pos);
+    System.arraycopy(s.array(), s.arrayOffset(), out, pos, s.length());
+    return pos + s.length();
+  }
+
+  /** Integer Representation (RFC 7541 Section 5.1). */
+  private static int encodeInteger(int mask, int prefixBits, int value, byte[] out, int pos) {
+    int maxPrefix = (1 << prefixBits) - 1;
+    if (value < maxPrefix) {
+      out[pos++] = (byte) (mask | value);
+      return pos;
+    }
+    out[pos++] = (byte) (mask | maxPrefix);
+    value -= maxPrefix;
+    while (value >= 0x80) {
+      out[pos++] = (byte) ((value & 0x7f) | 0x80);
+      value >>>= 7;
+    }
+    out[pos++] = (byte) value;
+    return pos;
+  }
+
+  private static final class CachedBlock {
+    final int hash;
+    final AsciiString[] preHeaders;
+    final AsciiString[] normalHeaders;
+    final byte[] encoded;
+
+    CachedBlock(
+        int hash, AsciiString[] preHeaders, AsciiString[] normalHeaders, byte[] encoded) {
+      this.hash = hash;
+      // Values may share arrays with the call's Metadata, so keep private copies.
+      this.preHeaders = copy(preHeaders);
+      this.normalHeaders = copy(normalHeaders);
+      this.encoded = encoded;
+    }
+
+    boolean matches(AsciiString[] preHeaders, AsciiString[] normalHeaders) {
+      return contentEquals(this.preHeaders, preHeaders)
+          && contentEquals(this.normalHeaders, normalHeaders);
+    }
+
+    private static boolean contentEquals(AsciiString[] a, AsciiString[] b) {
+      if (a.length != b.length) {
+        return false;
+      }
+      for (int i = 0; i < a.length; i++) {
+        if (!a[i].contentEquals(b[i])) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    private static AsciiString[] copy(AsciiString[] strings) {
+      AsciiString[] copy = new AsciiString[strings.length];
+      for (int i = 0; i < strings.length; i++) {
+        copy[i] = new AsciiString(strings[i].toByteArray(), false);
+      }
+      return copy;
+    }
+  }
+}
@@ -40,6 +40,7 @@ import static io.netty.util.AsciiString.isUpperCase;
 
 import com.google.common.io.BaseEncoding;
 import com.google.errorprone.annotations.CanIgnoreReturnValue;
+import io.grpc.InternalMetadata;
 import io.grpc.Metadata;
 import io.netty.handler.codec.CharSequenceValueConverter;
 import io.netty.handler.codec.http2.DefaultHttp2HeadersDecoder;
@@ -108,7 +109,7 @@ class GrpcHttp2HeadersUtils {
     }
 
     protected Http2Headers add(AsciiString name, AsciiString value) {
-      byte[] nameBytes = bytes(name);
+      byte[] nameBytes = nameBytes(name);
       byte[] valueBytes;
       if (!name.endsWith(binaryHeaderSuffix)) {
         valueBytes = bytes(value);
@@ -250,6 +251,16 @@ class GrpcHttp2HeadersUtils {
       return str.isEntireArrayUsed() ? str.array() : str.toByteArray();
     }
 
+    /**
+     * Like {@link #bytes}, but returns the canonical instance for well-known names and the names of
+     * {@link Metadata.Key}s, so that lookups in the resulting {@link Metadata} compare by identity.
+     */
+    protected static byte[] nameBytes(AsciiString name) {
+      byte[] interned =
+          InternalMetadata.internedKeyName(name.array(), name.arrayOffset(), name.length());
+      return interned != null ? interned : bytes(name);
+    }
+
     protected static AsciiString requireAsciiString(CharSequence cs) {
       if (!(cs instanceof AsciiString)) {
         throw new IllegalArgumentException("AsciiString expected. Was: " + cs.getClass().getName());
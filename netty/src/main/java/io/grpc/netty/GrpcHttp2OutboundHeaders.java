@@ -66,6 +66,22 @@ final class GrpcHttp2OutboundHeaders extends AbstractHttp2Headers {
     this.preHeaders = preHeaders;
   }
 
+  /**
+   * Returns the pseudo-headers and other transport-defined headers, as interleaved names and
+   * values. The array must not be modified.
+   */
+  AsciiString[] preHeaders() {
+    return preHeaders;
+  }
+
+  /**
+   * Returns the headers from the call's {@link io.grpc.Metadata}, as interleaved names and values.
+   * The array must not be modified.
+   */
+  AsciiString[] normalHeaders() {
+    return normalHeaders;
+  }
+
   @Override
   @SuppressWarnings("ReferenceEquality") // STATUS.value() never changes.
   public CharSequence status() {
@@ -353,7 +353,7 @@ class NettyClientHandler extends AbstractNettyHandler {
   }
 
   void startWriteQueue(Channel channel) {
-    clientWriteQueue = new WriteQueue(channel);
+    clientWriteQueue = new WriteQueue(channel, WriteQueue.ADAPTIVE_FLUSH, transportTracer);
   }
 
   WriteQueue getWriteQueue() {
@@ -67,6 +67,7 @@ import io.netty.handler.codec.http2.DefaultHttp2ConnectionEncoder;
 import io.netty.handler.codec.http2.DefaultHttp2FrameReader;
 import io.netty.handler.codec.http2.DefaultHttp2FrameWriter;
 import io.netty.handler.codec.http2.DefaultHttp2Headers;
+import io.netty.handler.codec.http2.DefaultHttp2HeadersEncoder;
 import io.netty.handler.codec.http2.DefaultHttp2LocalFlowController;
 import io.netty.handler.codec.http2.DefaultHttp2RemoteFlowController;
 import io.netty.handler.codec.http2.Http2Connection;
@@ -117,6 +118,9 @@ class NettyServerHandler extends AbstractNettyHandler {
   /** Temporary workaround for #8674. Fine to delete after v1.45 release, and maybe earlier. */
   private static final boolean DISABLE_CONNECTION_HEADER_CHECK = Boolean.parseBoolean(
       System.getProperty("io.grpc.netty.disableConnectionHeaderCheck", "false"));
+  /** Whether to reuse encoded response header blocks; see {@link CachingHttp2HeadersEncoder}. */
+  private static final boolean CACHE_ENCODED_HEADERS =
+      GrpcUtil.getFlag("GRPC_EXPERIMENTAL_NETTY_CACHE_ENCODED_HEADERS", false);
 
   private final Http2Connection.PropertyKey streamKey;
   private final ServerTransportListener transportListener;
@@ -179,8 +183,12 @@ class NettyServerHandler extends AbstractNettyHandler {
     Http2HeadersDecoder headersDecoder = new GrpcHttp2ServerHeadersDecoder(maxHeaderListSize);
     Http2FrameReader frameReader = new Http2InboundFrameLogger(
         new DefaultHttp2FrameReader(headersDecoder), frameLogger);
+    DefaultHttp2FrameWriter defaultFrameWriter = CACHE_ENCODED_HEADERS
+        ? new DefaultHttp2FrameWriter(
+            new CachingHttp2HeadersEncoder(new DefaultHttp2HeadersEncoder()))
+        : new DefaultHttp2FrameWriter();
     Http2FrameWriter frameWriter =
-        new Http2OutboundFrameLogger(new DefaultHttp2FrameWriter(), frameLogger);
+        new Http2OutboundFrameLogger(defaultFrameWriter, frameLogger);
     return newHandler(
         channelUnused,
         frameReader,
@@ -365,7 +373,8 @@ class NettyServerHandler extends AbstractNettyHandler {
 
   @Override
   public void handlerAdded(final ChannelHandlerContext ctx) throws Exception {
-    serverWriteQueue = new WriteQueue(ctx.channel());
+    serverWriteQueue =
+        new WriteQueue(ctx.channel(), WriteQueue.ADAPTIVE_FLUSH, transportTracer);
 
     // init max connection age monitor
     if (maxConnectionAgeInNanos != MAX_CONNECTION_AGE_NANOS_DISABLED) {
@@ -19,6 +19,9 @@ package io.grpc.netty;
 import io.grpc.internal.WritableBuffer;
 import io.grpc.internal.WritableBufferAllocator;
 import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.CompositeByteBuf;
+import io.netty.buffer.Unpooled;
+import java.nio.ByteBuffer;
 
 /**
  * The default allocator for {@link NettyWritableBuffer}s used by the Netty transport. We set a
@@ -50,4 +53,33 @@ class NettyWritableBufferAllocator implements WritableBufferAllocator {
     capacityHint = Math.min(MAX_BUFFER, Math.max(MIN_BUFFER, capacityHint));
     return new NettyWritableBuffer(allocator.buffer(capacityHint, capacityHint));
   }
+
+  @Override
+  public boolean wrapSupported() {
+    return true;
+  }
+
+  @Override
+  public WritableBuffer wrap(ByteBuffer data, final Runnable onRelease) {
+    // Netty releases the ByteBuf once it has been written, so hook the release of the wrapper
+    // rather than NettyWritableBuffer.release().
+    CompositeByteBuf wrapped =
+        new CompositeByteBuf(allocator, data.isDirect(), 1, Unpooled.wrappedBuffer(data)) {
+          {
+            // A composite may otherwise grow, consolidating (copying) the wrapped bytes to make
+            // room for the next write.
+            maxCapacity(capacity());
+          }
+
+          @Override
+          protected void deallocate() {
+            try {
+              super.deallocate();
+            } finally {
+              onRelease.run();
+            }
+          }
+        };
+    return new NettyWritableBuffer(wrapped);
+  }
 }
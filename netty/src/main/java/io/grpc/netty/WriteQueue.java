@@ -19,6 +19,9 @@ package io.grpc.netty;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
 import com.google.errorprone.annotations.CanIgnoreReturnValue;
+import io.grpc.internal.GrpcUtil;
+import io.grpc.internal.TransportTracer;
+import io.netty.buffer.ByteBufHolder;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelPromise;
@@ -27,7 +30,9 @@ import io.perfmark.PerfMark;
 import io.perfmark.TaskCloseable;
 import java.util.Queue;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import javax.annotation.Nullable;
 
 /**
  * A queue of pending writes to a {@link Channel} that is flushed as a single unit.
@@ -38,6 +43,26 @@ class WriteQueue {
   @VisibleForTesting
   static final int DEQUE_CHUNK_SIZE = 128;
 
+  /**
+   * Whether transports should coalesce writes adaptively instead of flushing every {@link
+   * #DEQUE_CHUNK_SIZE} commands.
+   */
+  static final boolean ADAPTIVE_FLUSH =
+      GrpcUtil.getFlag("GRPC_EXPERIMENTAL_NETTY_ADAPTIVE_FLUSH", false);
+
+  // In adaptive mode, flush once this many payload bytes have been written since the last flush.
+  @VisibleForTesting
+  static final int ADAPTIVE_FLUSH_BYTES = 64 * 1024;
+  // In adaptive mode, bound the number of commands per flush so payload-less commands (headers,
+  // cancellations) still release resources periodically.
+  @VisibleForTesting
+  static final int ADAPTIVE_MAX_COMMANDS_PER_FLUSH = 8 * DEQUE_CHUNK_SIZE;
+  // In adaptive mode, don't hold written data longer than this before flushing by default, so a
+  // continuously refilled queue doesn't add latency to the writes at its head.
+  private static final long ADAPTIVE_MAX_FLUSH_DELAY_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+  // Reading the clock is cheap but not free; only check the delay every so many commands.
+  private static final int ADAPTIVE_CLOCK_CHECK_INTERVAL = 16;
+
   /**
    * {@link Runnable} used to schedule work onto the tail of the event loop.
    */
@@ -51,12 +76,35 @@ class WriteQueue {
   private final Channel channel;
   private final Queue<QueuedCommand> queue;
   private final AtomicBoolean scheduled = new AtomicBoolean();
+  private final boolean adaptiveFlush;
+  @Nullable
+  private final TransportTracer transportTracer;
+  private long maxFlushDelayNanos = ADAPTIVE_MAX_FLUSH_DELAY_NANOS;
 
   public WriteQueue(Channel channel) {
+    this(channel, false, null);
+  }
+
+  /**
+   * Creates a queue for {@code channel}.
+   *
+   * @param adaptiveFlush if true, writes are coalesced until enough bytes are pending, the channel
+   *     stops being writable, or the queue runs dry, instead of flushing every {@link
+   *     #DEQUE_CHUNK_SIZE} commands
+   * @param transportTracer if non-null, receives the number of commands and bytes of each flush
+   */
+  WriteQueue(Channel channel, boolean adaptiveFlush, @Nullable TransportTracer transportTracer) {
     this.channel = Preconditions.checkNotNull(channel, "channel");
+    this.adaptiveFlush = adaptiveFlush;
+    this.transportTracer = transportTracer;
     queue = new ConcurrentLinkedQueue<>();
   }
 
+  @VisibleForTesting
+  void setMaxFlushDelayNanos(long maxFlushDelayNanos) {
+    this.maxFlushDelayNanos = maxFlushDelayNanos;
+  }
+
   /**
    * Schedule a flush on the channel.
    */
@@ -121,27 +169,10 @@ class WriteQueue {
    */
   private void flush() {
     try (TaskCloseable ignore = PerfMark.traceTask("WriteQueue.periodicFlush")) {
-      QueuedCommand cmd;
-      int i = 0;
-      boolean flushedOnce = false;
-      while ((cmd = queue.poll()) != null) {
-        cmd.run(channel);
-        if (++i == DEQUE_CHUNK_SIZE) {
-          i = 0;
-          // Flush each chunk so we are releasing buffers periodically. In theory this loop
-          // might never end as new events are continuously added to the queue, if we never
-          // flushed in that case we would be guaranteed to OOM.
-          try (TaskCloseable ignore2 = PerfMark.traceTask("WriteQueue.flush0")) {
-            channel.flush();
-          }
-          flushedOnce = true;
-        }
-      }
-      // Must flush at least once, even if there were no writes.
-      if (i != 0 || !flushedOnce) {
-        try (TaskCloseable ignore2 = PerfMark.traceTask("WriteQueue.flush1")) {
-          channel.flush();
-        }
+      if (adaptiveFlush) {
+        flushAdaptive();
+      } else {
+        flushChunked();
       }
     } finally {
       // Mark the write as done, if the queue is non-empty after marking trigger a new write.
@@ -152,6 +183,97 @@ class WriteQueue {
     }
   }
 
+  private void flushChunked() {
+    QueuedCommand cmd;
+    int i = 0;
+    long bytes = 0;
+    boolean flushedOnce = false;
+    while ((cmd = queue.poll()) != null) {
+      bytes += payloadBytes(cmd);
+      cmd.run(channel);
+      if (++i == DEQUE_CHUNK_SIZE) {
+        // Flush each chunk so we are releasing buffers periodically. In theory this loop
+        // might never end as new events are continuously added to the queue, if we never
+        // flushed in that case we would be guaranteed to OOM.
+        try (TaskCloseable ignore2 = PerfMark.traceTask("WriteQueue.flush0")) {
+          channel.flush();
+        }
+        reportFlush(i, bytes);
+        i = 0;
+        bytes = 0;
+        flushedOnce = true;
+      }
+    }
+    // Must flush at least once, even if there were no writes.
+    if (i != 0 || !flushedOnce) {
+      try (TaskCloseable ignore2 = PerfMark.traceTask("WriteQueue.flush1")) {
+        channel.flush();
+      }
+      reportFlush(i, bytes);
+    }
+  }
+
+  /**
+   * Like {@link #flushChunked}, but instead of flushing after a fixed number of commands, keeps
+   * writing until a flush would actually pay off: enough payload is pending to fill a large
+   * {@code writev}, the channel's outbound buffer has just crossed its high water mark, or data
+   * has been held for too long. Otherwise the single flush happens when the queue runs dry, right
+   * before the event loop would go idle.
+   */
+  private void flushAdaptive() {
+    QueuedCommand cmd;
+    int i = 0;
+    long bytes = 0;
+    long firstWriteNanos = 0;
+    boolean flushedOnce = false;
+    boolean writable = channel.isWritable();
+    while ((cmd = queue.poll()) != null) {
+      bytes += payloadBytes(cmd);
+      cmd.run(channel);
+      if (++i == 1) {
+        firstWriteNanos = System.nanoTime();
+      }
+      // Flush once when the channel becomes unwritable, rather than after every write while it
+      // stays unwritable.
+      boolean wasWritable = writable;
+      writable = channel.isWritable();
+      if (bytes >= ADAPTIVE_FLUSH_BYTES
+          || i >= ADAPTIVE_MAX_COMMANDS_PER_FLUSH
+          || (wasWritable && !writable)
+          || (i % ADAPTIVE_CLOCK_CHECK_INTERVAL == 0
+              && System.nanoTime() - firstWriteNanos >= maxFlushDelayNanos)) {
+        try (TaskCloseable ignore2 = PerfMark.traceTask("WriteQueue.flush0")) {
+          channel.flush();
+        }
+        reportFlush(i, bytes);
+        i = 0;
+        bytes = 0;
+        flushedOnce = true;
+      }
+    }
+    // Must flush at least once, even if there were no writes.
+    if (i != 0 || !flushedOnce) {
+      try (TaskCloseable ignore2 = PerfMark.traceTask("WriteQueue.flush1")) {
+        channel.flush();
+      }
+      reportFlush(i, bytes);
+    }
+  }
+
+  private static int payloadBytes(QueuedCommand cmd) {
+    // Must be read before running the command, as running it transfers ownership of the buffer.
+    if (cmd instanceof ByteBufHolder) {
+      return ((ByteBufHolder) cmd).content().readableBytes();
+    }
+    return 0;
+  }
+
+  private void reportFlush(int commands, long bytes) {
+    if (transportTracer != null) {
+      transportTracer.reportFlush(commands, bytes);
+    }
+  }
+
   private static class RunnableCommand implements QueuedCommand {
     private final Runnable runnable;
     private final Link link;
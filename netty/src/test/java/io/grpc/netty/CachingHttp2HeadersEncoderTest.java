@@ -0,0 +1,148 @@
+/*
+ * Copyright 2024 The gRPC Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.grpc.netty;
+
+import static com.google.common.base.Charsets.US_ASCII;
+import static org.junit.Assert.assertEquals;
+
+import io.grpc.InternalStatus;
+import io.grpc.Metadata;
+import io.grpc.Status;
+import io.grpc.internal.GrpcUtil;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.handler.codec.http2.DefaultHttp2HeadersDecoder;
+import io.netty.handler.codec.http2.DefaultHttp2HeadersEncoder;
+import io.netty.handler.codec.http2.Http2Headers;
+import io.netty.util.AsciiString;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** Unit tests for {@link CachingHttp2HeadersEncoder}. */
+@RunWith(JUnit4.class)
+public class CachingHttp2HeadersEncoderTest {
+  private static final Metadata.Key<String> CUSTOM_KEY =
+      Metadata.Key.of("custom", Metadata.ASCII_STRING_MARSHALLER);
+
+  private final CachingHttp2HeadersEncoder encoder =
+      new CachingHttp2HeadersEncoder(new DefaultHttp2HeadersEncoder());
+  private final DefaultHttp2HeadersDecoder decoder = new DefaultHttp2HeadersDecoder(true);
+
+  @Test
+  public void repeatedResponseHeadersAreCached() throws Exception {
+    for (int i = 0; i < 5; i++) {
+      Http2Headers decoded = roundTrip(Utils.convertServerHeaders(responseHeaders()));
+      assertEquals(AsciiString.of("200"), decoded.status());
+      assertEquals(Utils.CONTENT_TYPE_GRPC, decoded.get(Utils.CONTENT_TYPE_HEADER));
+      assertEquals(AsciiString.of("gzip"), decoded.get(AsciiString.of("grpc-accept-encoding")));
+    }
+    assertEquals(1, encoder.cachedBlocks());
+  }
+
+  @Test
+  public void repeatedTrailersAreCached() throws Exception {
+    for (int i = 0; i < 5; i++) {
+      Metadata trailers = new Metadata();
+      trailers.put(InternalStatus.CODE_KEY, Status.OK);
+      Http2Headers decoded = roundTrip(Utils.convertTrailers(trailers, true));
+      assertEquals(AsciiString.of("0"), decoded.get(AsciiString.of("grpc-status")));
+      assertEquals(1, decoded.size());
+    }
+    assertEquals(1, encoder.cachedBlocks());
+  }
+
+  @Test
+  public void blockSeenOnceIsNotCached() throws Exception {
+    roundTrip(Utils.convertServerHeaders(responseHeaders()));
+    assertEquals(0, encoder.cachedBlocks());
+  }
+
+  @Test
+  public void cachedBlocksDoNotDisturbDynamicTable() throws Exception {
+    for (int i = 0; i < 20; i++) {
+      Http2Headers decoded = roundTrip(Utils.convertServerHeaders(responseHeaders()));
+      assertEquals(AsciiString.of("gzip"), decoded.get(AsciiString.of("grpc-accept-encoding")));
+
+      // Unique values are encoded by the delegate and may be added to the dynamic table. Decoding
+      // them verifies the decoder's table is still in sync with the encoder's.
+      Metadata custom = responseHeaders();
+      custom.put(CUSTOM_KEY, "value-" + (i % 3));
+      decoded = roundTrip(Utils.convertServerHeaders(custom));
+      assertEquals(AsciiString.of("value-" + (i % 3)), decoded.get(AsciiString.of("custom")));
+    }
+  }
+
+  @Test
+  public void cacheSizeIsBounded() throws Exception {
+    for (int i = 0; i < CachingHttp2HeadersEncoder.MAX_CACHED_BLOCKS + 10; i++) {
+      Metadata custom = responseHeaders();
+      custom.put(CUSTOM_KEY, "value-" + i);
+      roundTrip(Utils.convertServerHeaders(custom));
+      custom = responseHeaders();
+      custom.put(CUSTOM_KEY, "value-" + i);
+      Http2Headers decoded = roundTrip(Utils.convertServerHeaders(custom));
+      assertEquals(AsciiString.of("value-" + i), decoded.get(AsciiString.of("custom")));
+    }
+    assertEquals(CachingHttp2HeadersEncoder.MAX_CACHED_BLOCKS, encoder.cachedBlocks());
+  }
+
+  @Test
+  public void tableSizeUpdateIsWrittenByDelegate() throws Exception {
+    roundTrip(Utils.convertServerHeaders(responseHeaders()));
+    roundTrip(Utils.convertServerHeaders(responseHeaders()));
+    assertEquals(1, encoder.cachedBlocks());
+
+    encoder.configuration().maxHeaderTableSize(1024);
+    ByteBuf buf = Unpooled.buffer();
+    try {
+      encoder.encodeHeaders(3, Utils.convertServerHeaders(responseHeaders()), buf);
+      // Dynamic Table Size Update (RFC 7541 Section 6.3) starts with 001.
+      assertEquals(0x20, buf.getByte(0) & 0xe0);
+      Http2Headers decoded = decoder.decodeHeaders(3, buf);
+      assertEquals(AsciiString.of("200"), decoded.status());
+    } finally {
+      buf.release();
+    }
+
+    // Subsequent blocks are served from the cache again.
+    buf = Unpooled.buffer();
+    try {
+      encoder.encodeHeaders(5, Utils.convertServerHeaders(responseHeaders()), buf);
+      assertEquals((byte) 0x88, buf.getByte(0));
+      decoder.decodeHeaders(5, buf);
+    } finally {
+      buf.release();
+    }
+  }
+
+  private static Metadata responseHeaders() {
+    Metadata headers = new Metadata();
+    headers.put(GrpcUtil.MESSAGE_ACCEPT_ENCODING_KEY, "gzip".getBytes(US_ASCII));
+    return headers;
+  }
+
+  private Http2Headers roundTrip(Http2Headers headers) throws Exception {
+    ByteBuf buf = Unpooled.buffer();
+    try {
+      encoder.encodeHeaders(3, headers, buf);
+      return decoder.decodeHeaders(3, buf);
+    } finally {
+      buf.release();
+    }
+  }
+}
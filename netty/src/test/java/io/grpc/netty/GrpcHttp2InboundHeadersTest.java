@@ -21,7 +21,11 @@ import static io.netty.util.AsciiString.of;
 import static junit.framework.TestCase.assertNotSame;
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 
+import io.grpc.InternalMetadata;
+import io.grpc.Metadata;
 import io.grpc.netty.GrpcHttp2HeadersUtils.GrpcHttp2InboundHeaders;
 import io.grpc.netty.GrpcHttp2HeadersUtils.GrpcHttp2RequestHeaders;
 import io.grpc.netty.GrpcHttp2HeadersUtils.GrpcHttp2ResponseHeaders;
@@ -63,6 +67,23 @@ public class GrpcHttp2InboundHeadersTest {
     assertEquals(of("bar"), headers.get(of("foo")));
   }
 
+  @Test
+  public void knownHeaderNamesAreInterned() {
+    Metadata.Key<String> key = Metadata.Key.of("interned-key", Metadata.ASCII_STRING_MARSHALLER);
+    Http2Headers headers = new GrpcHttp2RequestHeaders(1);
+    headers.add(of("content-type"), of("application/grpc"));
+    headers.add(of("interned-key"), of("value"));
+    headers.add(of("unknown-key"), of("value"));
+
+    byte[][] namesAndValues = ((GrpcHttp2InboundHeaders) headers).namesAndValues();
+    assertSame(InternalMetadata.internedKeyName(
+        namesAndValues[0], 0, namesAndValues[0].length), namesAndValues[0]);
+    assertSame(InternalMetadata.internedKeyName(
+        namesAndValues[2], 0, namesAndValues[2].length), namesAndValues[2]);
+    assertNull(InternalMetadata.internedKeyName(namesAndValues[4], 0, namesAndValues[4].length));
+    assertEquals("value", InternalMetadata.newMetadata(3, namesAndValues).get(key));
+  }
+
   @Test
   public void binaryHeadersShouldBeBase64Decoded() {
     Http2Headers headers = new GrpcHttp2RequestHeaders(1);
@@ -17,11 +17,21 @@
 package io.grpc.netty;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
 
+import io.grpc.internal.MessageFramer;
+import io.grpc.internal.ReadableBuffers;
+import io.grpc.internal.StatsTraceContext;
 import io.grpc.internal.WritableBuffer;
 import io.grpc.internal.WritableBufferAllocator;
 import io.grpc.internal.WritableBufferAllocatorTestBase;
+import io.netty.buffer.ByteBuf;
 import io.netty.buffer.ByteBufAllocator;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.JUnit4;
@@ -61,4 +71,63 @@ public class NettyWritableBufferAllocatorTest extends WritableBufferAllocatorTes
     assertEquals(0, buffer.readableBytes());
     assertEquals(1024 * 1024, buffer.writableBytes());
   }
+
+  @Test
+  public void wrap_notWritableAndReleasedOnce() {
+    final AtomicInteger releases = new AtomicInteger();
+    byte[] data = new byte[100];
+    NettyWritableBuffer buffer = (NettyWritableBuffer) allocator.wrap(
+        ByteBuffer.wrap(data), new Runnable() {
+          @Override
+          public void run() {
+            releases.incrementAndGet();
+          }
+        });
+    assertEquals(100, buffer.readableBytes());
+    assertEquals(0, buffer.writableBytes());
+    assertEquals(0, buffer.bytebuf().maxWritableBytes());
+    try {
+      buffer.write((byte) 1);
+      fail("Should have thrown");
+    } catch (IndexOutOfBoundsException expected) {
+      // The wrapped bytes are not copied to make room.
+    }
+    assertSame(data, buffer.bytebuf().array());
+
+    buffer.bytebuf().retain();
+    buffer.release();
+    assertEquals(0, releases.get());
+    buffer.bytebuf().release();
+    assertEquals(1, releases.get());
+  }
+
+  @Test
+  public void wrap_followOnMessageDoesNotCopyWrappedMessage() {
+    final List<NettyWritableBuffer> frames = new ArrayList<>();
+    MessageFramer framer = new MessageFramer(new MessageFramer.Sink() {
+      @Override
+      public void deliverFrame(
+          WritableBuffer frame, boolean endOfStream, boolean flush, int numMessages) {
+        if (frame != null) {
+          frames.add((NettyWritableBuffer) frame);
+        }
+      }
+    }, allocator, StatsTraceContext.NOOP);
+    byte[] large = new byte[20000];
+    framer.writePayload(
+        ReadableBuffers.openStream(ReadableBuffers.wrap(ByteBuffer.wrap(large)), true));
+    framer.writePayload(
+        ReadableBuffers.openStream(ReadableBuffers.wrap(ByteBuffer.wrap(new byte[3])), true));
+    framer.flush();
+
+    // The header of the large message, the large message, and the small message with its header.
+    assertEquals(3, frames.size());
+    ByteBuf wrapped = frames.get(1).bytebuf();
+    assertEquals(20000, wrapped.readableBytes());
+    assertSame(large, wrapped.array());
+    assertEquals(5 + 3, frames.get(2).readableBytes());
+    for (NettyWritableBuffer frame : frames) {
+      frame.release();
+    }
+  }
 }
@@ -16,6 +16,7 @@
 
 package io.grpc.netty;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.fail;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
@@ -25,7 +26,9 @@ import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import io.grpc.internal.TransportTracer;
 import io.grpc.netty.WriteQueue.QueuedCommand;
+import io.netty.buffer.Unpooled;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelPromise;
@@ -61,6 +64,8 @@ public class WriteQueueTest {
   @Mock
   public ChannelPromise promise;
 
+  private final TransportTracer transportTracer = new TransportTracer();
+
   private long writeCalledNanos;
   private long flushCalledNanos = writeCalledNanos;
 
@@ -203,6 +208,102 @@ public class WriteQueueTest {
     verify(channel, times(writes)).write(isA(CuteCommand.class), eq(promise));
   }
 
+  @Test
+  public void adaptiveFlush_coalescesBeyondChunkSize() {
+    when(channel.isWritable()).thenReturn(true);
+    WriteQueue queue = newAdaptiveQueue();
+    int writes = WriteQueue.DEQUE_CHUNK_SIZE + 10;
+    for (int i = 0; i < writes; i++) {
+      queue.enqueue(new CuteCommand(), false);
+    }
+    queue.scheduleFlush();
+
+    verify(channel, times(writes)).write(isA(QueuedCommand.class), eq(promise));
+    verify(channel).flush();
+    assertEquals(1, transportTracer.getStats().flushes);
+    assertEquals(writes, transportTracer.getStats().commandsFlushed);
+  }
+
+  @Test
+  public void adaptiveFlush_maxCommandsPerFlushShouldBeEnforced() {
+    when(channel.isWritable()).thenReturn(true);
+    WriteQueue queue = newAdaptiveQueue();
+    int writes = WriteQueue.ADAPTIVE_MAX_COMMANDS_PER_FLUSH + 10;
+    for (int i = 0; i < writes; i++) {
+      queue.enqueue(new CuteCommand(), false);
+    }
+    queue.scheduleFlush();
+
+    verify(channel, times(2)).flush();
+  }
+
+  @Test
+  public void adaptiveFlush_flushesAtByteThreshold() {
+    when(channel.isWritable()).thenReturn(true);
+    WriteQueue queue = newAdaptiveQueue();
+    int frameSize = WriteQueue.ADAPTIVE_FLUSH_BYTES / 4;
+    for (int i = 0; i < 6; i++) {
+      queue.enqueue(
+          new SendGrpcFrameCommand(null, Unpooled.wrappedBuffer(new byte[frameSize]), false),
+          false);
+    }
+    queue.scheduleFlush();
+
+    verify(channel, times(2)).flush();
+    assertEquals(2, transportTracer.getStats().flushes);
+    assertEquals(6, transportTracer.getStats().commandsFlushed);
+    assertEquals(6L * frameSize, transportTracer.getStats().bytesFlushed);
+  }
+
+  @Test
+  public void adaptiveFlush_flushesWhenChannelUnwritable() {
+    when(channel.isWritable()).thenReturn(true, false, true);
+    WriteQueue queue = newAdaptiveQueue();
+    for (int i = 0; i < 5; i++) {
+      queue.enqueue(new CuteCommand(), false);
+    }
+    queue.scheduleFlush();
+
+    verify(channel, times(5)).write(isA(QueuedCommand.class), eq(promise));
+    verify(channel, times(2)).flush();
+    assertEquals(2, transportTracer.getStats().flushes);
+    assertEquals(5, transportTracer.getStats().commandsFlushed);
+  }
+
+  @Test
+  public void adaptiveFlush_flushesOnceWhileChannelStaysUnwritable() {
+    when(channel.isWritable()).thenReturn(false);
+    WriteQueue queue = newAdaptiveQueue();
+    for (int i = 0; i < 5; i++) {
+      queue.enqueue(new CuteCommand(), false);
+    }
+    queue.scheduleFlush();
+
+    verify(channel, times(5)).write(isA(QueuedCommand.class), eq(promise));
+    verify(channel).flush();
+  }
+
+  @Test
+  public void flushIsReportedToTransportTracer() {
+    WriteQueue queue = new WriteQueue(channel, false, transportTracer);
+    int writes = WriteQueue.DEQUE_CHUNK_SIZE + 10;
+    for (int i = 0; i < writes; i++) {
+      queue.enqueue(new CuteCommand(), false);
+    }
+    queue.scheduleFlush();
+
+    assertEquals(2, transportTracer.getStats().flushes);
+    assertEquals(writes, transportTracer.getStats().commandsFlushed);
+    assertEquals(0, transportTracer.getStats().bytesFlushed);
+  }
+
+  private WriteQueue newAdaptiveQueue() {
+    WriteQueue queue = new WriteQueue(channel, true, transportTracer);
+    // Keep the tests deterministic on slow machines.
+    queue.setMaxFlushDelayNanos(Long.MAX_VALUE);
+    return queue;
+  }
+
   static class CuteCommand extends WriteQueue.AbstractQueuedCommand {
 
   }
@@ -189,6 +189,7 @@ public final class OkHttpChannelBuilder extends ForwardingChannelBuilder2<OkHttp
   private long keepAliveTimeNanos = KEEPALIVE_TIME_NANOS_DISABLED;
   private long keepAliveTimeoutNanos = DEFAULT_KEEPALIVE_TIMEOUT_NANOS;
   private int flowControlWindow = DEFAULT_FLOW_CONTROL_WINDOW;
+  private int maxPooledWriteBuffers;
   private boolean keepAliveWithoutCalls;
   private int maxInboundMessageSize = GrpcUtil.DEFAULT_MAX_MESSAGE_SIZE;
   private int maxInboundMetadataSize = Integer.MAX_VALUE;
@@ -346,6 +347,21 @@ public final class OkHttpChannelBuilder extends ForwardingChannelBuilder2<OkHttp
     return this;
   }
 
+  /**
+   * Sets the maximum number of write buffer wrappers each transport keeps for reuse by its
+   * streams. Only the wrapper objects around empty Okio buffers are recycled; the bytes and the
+   * Okio segments holding them are not pooled here, since they are handed to the transport with
+   * each frame and pooled by Okio. If not called, or set to {@code 0}, nothing is pooled.
+   *
+   * @since 1.66.0
+   */
+  public OkHttpChannelBuilder maxPooledWriteBuffers(int maxPooledWriteBuffers) {
+    Preconditions.checkArgument(
+        maxPooledWriteBuffers >= 0, "maxPooledWriteBuffers must be non-negative");
+    this.maxPooledWriteBuffers = maxPooledWriteBuffers;
+    return this;
+  }
+
   /**
    * {@inheritDoc}
    *
@@ -533,6 +549,7 @@ public final class OkHttpChannelBuilder extends ForwardingChannelBuilder2<OkHttp
         keepAliveTimeNanos,
         keepAliveTimeoutNanos,
         flowControlWindow,
+        maxPooledWriteBuffers,
         keepAliveWithoutCalls,
         maxInboundMetadataSize,
         transportTracerFactory,
@@ -796,6 +813,7 @@ public final class OkHttpChannelBuilder extends ForwardingChannelBuilder2<OkHttp
     private final AtomicBackoff keepAliveBackoff;
     private final long keepAliveTimeoutNanos;
     final int flowControlWindow;
+    final int maxPooledWriteBuffers;
     private final boolean keepAliveWithoutCalls;
     final int maxInboundMetadataSize;
     final boolean useGetForSafeMethods;
@@ -813,6 +831,7 @@ public final class OkHttpChannelBuilder extends ForwardingChannelBuilder2<OkHttp
         long keepAliveTimeNanos,
         long keepAliveTimeoutNanos,
         int flowControlWindow,
+        int maxPooledWriteBuffers,
         boolean keepAliveWithoutCalls,
         int maxInboundMetadataSize,
         TransportTracer.Factory transportTracerFactory,
@@ -831,6 +850,7 @@ public final class OkHttpChannelBuilder extends ForwardingChannelBuilder2<OkHttp
       this.keepAliveBackoff = new AtomicBackoff("keepalive time nanos", keepAliveTimeNanos);
       this.keepAliveTimeoutNanos = keepAliveTimeoutNanos;
       this.flowControlWindow = flowControlWindow;
+      this.maxPooledWriteBuffers = maxPooledWriteBuffers;
       this.keepAliveWithoutCalls = keepAliveWithoutCalls;
       this.maxInboundMetadataSize = maxInboundMetadataSize;
       this.useGetForSafeMethods = useGetForSafeMethods;
@@ -894,6 +914,7 @@ public final class OkHttpChannelBuilder extends ForwardingChannelBuilder2<OkHttp
           keepAliveTimeNanos,
           keepAliveTimeoutNanos,
           flowControlWindow,
+          maxPooledWriteBuffers,
           keepAliveWithoutCalls,
           maxInboundMetadataSize,
           transportTracerFactory,
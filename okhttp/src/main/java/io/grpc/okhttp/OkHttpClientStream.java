@@ -53,6 +53,7 @@ class OkHttpClientStream extends AbstractClientStream {
 
   private final String userAgent;
   private final StatsTraceContext statsTraceCtx;
+  private final OkHttpWritableBufferAllocator bufferAllocator;
   private String authority;
   private final TransportState state;
   private final Sink sink = new Sink();
@@ -66,6 +67,7 @@ class OkHttpClientStream extends AbstractClientStream {
       ExceptionHandlingFrameWriter frameWriter,
       OkHttpClientTransport transport,
       OutboundFlowController outboundFlow,
+      OkHttpWritableBufferAllocator bufferAllocator,
       Object lock,
       int maxMessageSize,
       int initialWindowSize,
@@ -76,13 +78,14 @@ class OkHttpClientStream extends AbstractClientStream {
       CallOptions callOptions,
       boolean useGetForSafeMethods) {
     super(
-        new OkHttpWritableBufferAllocator(),
+        bufferAllocator,
         statsTraceCtx,
         transportTracer,
         headers,
         callOptions,
         useGetForSafeMethods && method.isSafe());
     this.statsTraceCtx = checkNotNull(statsTraceCtx, "statsTraceCtx");
+    this.bufferAllocator = bufferAllocator;
     this.method = method;
     this.authority = authority;
     this.userAgent = userAgent;
@@ -172,6 +175,10 @@ class OkHttpClientStream extends AbstractClientStream {
           state.sendBuffer(buffer, endOfStream, flush);
           getTransportTracer().reportMessageSent(numMessages);
         }
+        if (frame != null) {
+          // The content has been moved to the transport, so the buffer can be reused.
+          bufferAllocator.recycle((OkHttpWritableBuffer) frame);
+        }
       }
     }
 
@@ -147,6 +147,9 @@ class OkHttpClientTransport implements ConnectionClientTransport, TransportExcep
   // Returns new unstarted stopwatches
   private final Supplier<Stopwatch> stopwatchFactory;
   private final int initialWindowSize;
+  // Shared by all streams when write buffer pooling is enabled.
+  @Nullable
+  private final OkHttpWritableBufferAllocator pooledBufferAllocator;
   private final Variant variant;
   private Listener listener;
   @GuardedBy("lock")
@@ -262,6 +265,8 @@ class OkHttpClientTransport implements ConnectionClientTransport, TransportExcep
     this.defaultAuthority = authority;
     this.maxMessageSize = transportFactory.maxMessageSize;
     this.initialWindowSize = transportFactory.flowControlWindow;
+    this.pooledBufferAllocator = transportFactory.maxPooledWriteBuffers > 0
+        ? new OkHttpWritableBufferAllocator(transportFactory.maxPooledWriteBuffers) : null;
     this.executor = Preconditions.checkNotNull(transportFactory.executor, "executor");
     serializingExecutor = new SerializingExecutor(transportFactory.executor);
     this.scheduler = Preconditions.checkNotNull(
@@ -400,6 +405,8 @@ class OkHttpClientTransport implements ConnectionClientTransport, TransportExcep
           frameWriter,
           OkHttpClientTransport.this,
           outboundFlow,
+          pooledBufferAllocator != null
+              ? pooledBufferAllocator : new OkHttpWritableBufferAllocator(),
           lock,
           maxMessageSize,
           initialWindowSize,
@@ -123,6 +123,7 @@ public final class OkHttpServerBuilder extends ForwardingServerBuilder<OkHttpSer
   long keepAliveTimeNanos = GrpcUtil.DEFAULT_SERVER_KEEPALIVE_TIME_NANOS;
   long keepAliveTimeoutNanos = GrpcUtil.DEFAULT_SERVER_KEEPALIVE_TIMEOUT_NANOS;
   int flowControlWindow = DEFAULT_FLOW_CONTROL_WINDOW;
+  int maxPooledWriteBuffers;
   int maxInboundMetadataSize = GrpcUtil.DEFAULT_MAX_HEADER_LIST_SIZE;
   int maxInboundMessageSize = GrpcUtil.DEFAULT_MAX_MESSAGE_SIZE;
   long maxConnectionIdleInNanos = MAX_CONNECTION_IDLE_NANOS_DISABLED;
@@ -319,6 +320,21 @@ public final class OkHttpServerBuilder extends ForwardingServerBuilder<OkHttpSer
     return this;
   }
 
+  /**
+   * Sets the maximum number of write buffer wrappers each transport keeps for reuse by its
+   * streams. Only the wrapper objects around empty Okio buffers are recycled; the bytes and the
+   * Okio segments holding them are not pooled here, since they are handed to the transport with
+   * each frame and pooled by Okio. If not called, or set to {@code 0}, nothing is pooled.
+   *
+   * @since 1.66.0
+   */
+  public OkHttpServerBuilder maxPooledWriteBuffers(int maxPooledWriteBuffers) {
+    Preconditions.checkArgument(
+        maxPooledWriteBuffers >= 0, "maxPooledWriteBuffers must be non-negative");
+    this.maxPooledWriteBuffers = maxPooledWriteBuffers;
+    return this;
+  }
+
   /**
    * Provides a custom scheduled executor service.
    *
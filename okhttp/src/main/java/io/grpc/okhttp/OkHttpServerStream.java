@@ -42,14 +42,17 @@ class OkHttpServerStream extends AbstractServerStream {
   private final Sink sink = new Sink();
   private final TransportTracer transportTracer;
   private final Attributes attributes;
+  private final OkHttpWritableBufferAllocator bufferAllocator;
 
   public OkHttpServerStream(
       TransportState state,
       Attributes transportAttrs,
       String authority,
       StatsTraceContext statsTraceCtx,
-      TransportTracer transportTracer) {
-    super(new OkHttpWritableBufferAllocator(), statsTraceCtx);
+      TransportTracer transportTracer,
+      OkHttpWritableBufferAllocator bufferAllocator) {
+    super(bufferAllocator, statsTraceCtx);
+    this.bufferAllocator = bufferAllocator;
     this.state = Preconditions.checkNotNull(state, "state");
     this.attributes = Preconditions.checkNotNull(transportAttrs, "transportAttrs");
     this.authority = authority;
@@ -106,6 +109,8 @@ class OkHttpServerStream extends AbstractServerStream {
           state.sendBuffer(buffer, flush);
           transportTracer.reportMessageSent(numMessages);
         }
+        // The content has been moved to the transport, so the buffer can be reused.
+        bufferAllocator.recycle((OkHttpWritableBuffer) frame);
       }
     }
 
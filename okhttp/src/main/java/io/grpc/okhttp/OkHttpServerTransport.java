@@ -105,6 +105,9 @@ final class OkHttpServerTransport implements ServerTransport,
   private MaxConnectionIdleManager maxConnectionIdleManager;
   private ScheduledFuture<?> maxConnectionAgeMonitor;
   private final KeepAliveEnforcer keepAliveEnforcer;
+  // Shared by all streams when write buffer pooling is enabled.
+  @Nullable
+  private final OkHttpWritableBufferAllocator pooledBufferAllocator;
 
   private final Object lock = new Object();
   @GuardedBy("lock")
@@ -151,6 +154,8 @@ final class OkHttpServerTransport implements ServerTransport,
     scheduledExecutorService = config.scheduledExecutorServicePool.getObject();
     keepAliveEnforcer = new KeepAliveEnforcer(config.permitKeepAliveWithoutCalls,
         config.permitKeepAliveTimeInNanos, TimeUnit.NANOSECONDS);
+    pooledBufferAllocator = config.maxPooledWriteBuffers > 0
+        ? new OkHttpWritableBufferAllocator(config.maxPooledWriteBuffers) : null;
   }
 
   public void start(ServerTransportListener listener) {
@@ -525,6 +530,7 @@ final class OkHttpServerTransport implements ServerTransport,
     final long keepAliveTimeNanos;
     final long keepAliveTimeoutNanos;
     final int flowControlWindow;
+    final int maxPooledWriteBuffers;
     final int maxInboundMessageSize;
     final int maxInboundMetadataSize;
     final long maxConnectionIdleNanos;
@@ -550,6 +556,7 @@ final class OkHttpServerTransport implements ServerTransport,
       keepAliveTimeNanos = builder.keepAliveTimeNanos;
       keepAliveTimeoutNanos = builder.keepAliveTimeoutNanos;
       flowControlWindow = builder.flowControlWindow;
+      maxPooledWriteBuffers = builder.maxPooledWriteBuffers;
       maxInboundMessageSize = builder.maxInboundMessageSize;
       maxInboundMetadataSize = builder.maxInboundMetadataSize;
       maxConnectionIdleNanos = builder.maxConnectionIdleInNanos;
@@ -807,7 +814,9 @@ final class OkHttpServerTransport implements ServerTransport,
             attributes,
             authority == null ? null : asciiString(authority),
             statsTraceCtx,
-            tracer);
+            tracer,
+            pooledBufferAllocator != null
+                ? pooledBufferAllocator : new OkHttpWritableBufferAllocator());
         if (streams.isEmpty()) {
           keepAliveEnforcer.onTransportActive();
           if (maxConnectionIdleManager != null) {
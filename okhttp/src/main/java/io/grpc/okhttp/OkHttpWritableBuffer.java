@@ -30,6 +30,14 @@ class OkHttpWritableBuffer implements WritableBuffer {
     writableBytes = capacity;
   }
 
+  /**
+   * Prepares a recycled, empty buffer to be written again.
+   */
+  void reset(int capacity) {
+    writableBytes = capacity;
+    readableBytes = 0;
+  }
+
   @Override
   public void write(byte[] src, int srcIndex, int length) {
     buffer.write(src, srcIndex, length);
@@ -16,14 +16,22 @@
 
 package io.grpc.okhttp;
 
+import com.google.common.base.Preconditions;
 import io.grpc.internal.WritableBuffer;
 import io.grpc.internal.WritableBufferAllocator;
+import java.util.ArrayDeque;
+import javax.annotation.concurrent.GuardedBy;
 import okio.Buffer;
 
 /**
  * The default allocator for {@link OkHttpWritableBuffer}s used by the OkHttp transport. OkHttp
  * cannot receive buffers larger than the max DATA frame size - 1 so we must set an upper bound on
  * the allocated buffer size here.
+ *
+ * <p>An allocator may be shared by all the streams of a transport and keep up to {@code
+ * maxPooledBuffers} buffers for reuse. The bytes themselves live in Okio segments, which are
+ * moved into the transport when a frame is sent and are pooled by Okio, so only the buffers are
+ * recycled here.
  */
 class OkHttpWritableBufferAllocator implements WritableBufferAllocator {
 
@@ -33,10 +41,24 @@ class OkHttpWritableBufferAllocator implements WritableBufferAllocator {
   // Set the maximum buffer size to 1MB
   private static final int MAX_BUFFER = 1024 * 1024;
 
+  private final int maxPooledBuffers;
+  @GuardedBy("this")
+  private final ArrayDeque<OkHttpWritableBuffer> pool;
+
   /**
-   * Construct a new instance.
+   * Construct a new instance that does not pool buffers.
    */
   OkHttpWritableBufferAllocator() {
+    this(0);
+  }
+
+  /**
+   * Construct a new instance that keeps up to {@code maxPooledBuffers} recycled buffers.
+   */
+  OkHttpWritableBufferAllocator(int maxPooledBuffers) {
+    Preconditions.checkArgument(maxPooledBuffers >= 0, "maxPooledBuffers must be non-negative");
+    this.maxPooledBuffers = maxPooledBuffers;
+    this.pool = new ArrayDeque<>(Math.min(maxPooledBuffers, 16));
   }
 
   /**
@@ -46,6 +68,30 @@ class OkHttpWritableBufferAllocator implements WritableBufferAllocator {
   @Override
   public WritableBuffer allocate(int capacityHint) {
     capacityHint = Math.min(MAX_BUFFER, Math.max(MIN_BUFFER, capacityHint));
-    return new OkHttpWritableBuffer(new Buffer(), capacityHint);
+    OkHttpWritableBuffer buffer;
+    synchronized (this) {
+      buffer = pool.pollLast();
+    }
+    if (buffer == null) {
+      return new OkHttpWritableBuffer(new Buffer(), capacityHint);
+    }
+    buffer.reset(capacityHint);
+    return buffer;
+  }
+
+  /**
+   * Returns a buffer whose content has been handed to the transport so that it can be reused by a
+   * later {@link #allocate} call. Any bytes left in the buffer are discarded.
+   */
+  void recycle(OkHttpWritableBuffer buffer) {
+    if (maxPooledBuffers == 0) {
+      return;
+    }
+    buffer.buffer().clear();
+    synchronized (this) {
+      if (pool.size() < maxPooledBuffers) {
+        pool.addLast(buffer);
+      }
+    }
   }
 }
@@ -96,6 +96,7 @@ public class OkHttpClientStreamTest {
         frameWriter,
         transport,
         flowController,
+        new OkHttpWritableBufferAllocator(),
         lock,
         MAX_MESSAGE_SIZE,
         INITIAL_WINDOW_SIZE,
@@ -165,7 +166,8 @@ public class OkHttpClientStreamTest {
     Metadata metaData = new Metadata();
     metaData.put(GrpcUtil.USER_AGENT_KEY, "misbehaving-application");
     stream = new OkHttpClientStream(methodDescriptor, metaData, frameWriter, transport,
-        flowController, lock, MAX_MESSAGE_SIZE, INITIAL_WINDOW_SIZE, "localhost",
+        flowController, new OkHttpWritableBufferAllocator(), lock, MAX_MESSAGE_SIZE,
+        INITIAL_WINDOW_SIZE, "localhost",
         "good-application", StatsTraceContext.NOOP, transportTracer, CallOptions.DEFAULT, false);
     stream.start(new BaseClientStreamListener());
     stream.transportState().start(3);
@@ -182,7 +184,8 @@ public class OkHttpClientStreamTest {
     Metadata metaData = new Metadata();
     metaData.put(GrpcUtil.USER_AGENT_KEY, "misbehaving-application");
     stream = new OkHttpClientStream(methodDescriptor, metaData, frameWriter, transport,
-        flowController, lock, MAX_MESSAGE_SIZE, INITIAL_WINDOW_SIZE, "localhost",
+        flowController, new OkHttpWritableBufferAllocator(), lock, MAX_MESSAGE_SIZE,
+        INITIAL_WINDOW_SIZE, "localhost",
         "good-application", StatsTraceContext.NOOP, transportTracer, CallOptions.DEFAULT, false);
     stream.start(new BaseClientStreamListener());
     stream.transportState().start(3);
@@ -207,7 +210,8 @@ public class OkHttpClientStreamTest {
     metaData.put(GrpcUtil.USER_AGENT_KEY, "misbehaving-application");
     when(transport.isUsingPlaintext()).thenReturn(true);
     stream = new OkHttpClientStream(methodDescriptor, metaData, frameWriter, transport,
-        flowController, lock, MAX_MESSAGE_SIZE, INITIAL_WINDOW_SIZE, "localhost",
+        flowController, new OkHttpWritableBufferAllocator(), lock, MAX_MESSAGE_SIZE,
+        INITIAL_WINDOW_SIZE, "localhost",
         "good-application", StatsTraceContext.NOOP, transportTracer, CallOptions.DEFAULT, false);
     stream.start(new BaseClientStreamListener());
     stream.transportState().start(3);
@@ -237,7 +241,8 @@ public class OkHttpClientStreamTest {
         .setResponseMarshaller(marshaller)
         .build();
     stream = new OkHttpClientStream(getMethod, new Metadata(), frameWriter, transport,
-        flowController, lock, MAX_MESSAGE_SIZE, INITIAL_WINDOW_SIZE, "localhost",
+        flowController, new OkHttpWritableBufferAllocator(), lock, MAX_MESSAGE_SIZE,
+        INITIAL_WINDOW_SIZE, "localhost",
         "good-application", StatsTraceContext.NOOP, transportTracer, CallOptions.DEFAULT, true);
     stream.start(new BaseClientStreamListener());
 
@@ -17,6 +17,8 @@
 package io.grpc.okhttp;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 
 import io.grpc.internal.WritableBuffer;
 import io.grpc.internal.WritableBufferAllocator;
@@ -58,4 +60,38 @@ public class OkHttpWritableBufferAllocatorTest extends WritableBufferAllocatorTe
     assertEquals(0, buffer.readableBytes());
     assertEquals(4097, buffer.writableBytes());
   }
+
+  @Test
+  public void recycledBufferIsReused() {
+    OkHttpWritableBufferAllocator pooled = new OkHttpWritableBufferAllocator(1);
+    OkHttpWritableBuffer buffer = (OkHttpWritableBuffer) pooled.allocate(4096);
+    buffer.write(new byte[] {1, 2, 3}, 0, 3);
+    pooled.recycle(buffer);
+
+    WritableBuffer reused = pooled.allocate(8192);
+    assertSame(buffer, reused);
+    assertEquals(0, reused.readableBytes());
+    assertEquals(8192, reused.writableBytes());
+    assertEquals(0, buffer.buffer().size());
+  }
+
+  @Test
+  public void poolIsBounded() {
+    OkHttpWritableBufferAllocator pooled = new OkHttpWritableBufferAllocator(1);
+    OkHttpWritableBuffer first = (OkHttpWritableBuffer) pooled.allocate(4096);
+    OkHttpWritableBuffer second = (OkHttpWritableBuffer) pooled.allocate(4096);
+    pooled.recycle(first);
+    pooled.recycle(second);
+    assertSame(first, pooled.allocate(4096));
+    WritableBuffer third = pooled.allocate(4096);
+    assertNotSame(first, third);
+    assertNotSame(second, third);
+  }
+
+  @Test
+  public void unpooledAllocatorDoesNotReuse() {
+    OkHttpWritableBuffer buffer = (OkHttpWritableBuffer) allocator.allocate(4096);
+    allocator.recycle(buffer);
+    assertNotSame(buffer, allocator.allocate(4096));
+  }
 }
@@ -25,6 +25,7 @@ import com.google.protobuf.InvalidProtocolBufferException;
 import com.google.protobuf.MessageLite;
 import com.google.protobuf.Parser;
 import io.grpc.ExperimentalApi;
+import io.grpc.HasByteBuffer;
 import io.grpc.KnownLength;
 import io.grpc.Metadata;
 import io.grpc.MethodDescriptor.Marshaller;
@@ -35,6 +36,9 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.lang.ref.Reference;
 import java.lang.ref.WeakReference;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Utility methods for using protobuf with grpc.
@@ -191,7 +195,9 @@ public final class ProtoLiteUtils {
       try {
         if (stream instanceof KnownLength) {
           int size = stream.available();
-          if (size > 0 && size <= DEFAULT_MAX_MESSAGE_SIZE) {
+          if (size > 0 && hasByteBuffers(stream)) {
+            cis = newCodedInputStream(stream, size);
+          } else if (size > 0 && size <= DEFAULT_MAX_MESSAGE_SIZE) {
             Reference<byte[]> ref;
             // buf should not be used after this method has returned.
             byte[] buf;
@@ -241,6 +247,47 @@ public final class ProtoLiteUtils {
       }
     }
 
+    private static boolean hasByteBuffers(InputStream stream) {
+      return stream instanceof HasByteBuffer
+          && ((HasByteBuffer) stream).byteBufferSupported()
+          && stream.markSupported();
+    }
+
+    /**
+     * Creates a {@link CodedInputStream} that reads directly from the {@link ByteBuffer}s backing
+     * {@code stream}, instead of copying them into a byte array first. Aliasing is left disabled,
+     * since the buffers are released by the transport once the message has been parsed.
+     */
+    private static CodedInputStream newCodedInputStream(InputStream stream, int size)
+        throws IOException {
+      // Marking keeps the buffers that are skipped below from being released until the stream is
+      // closed, which happens after parsing.
+      stream.mark(size);
+      List<ByteBuffer> buffers = new ArrayList<>();
+      int remaining = size;
+      while (remaining > 0) {
+        ByteBuffer buffer = ((HasByteBuffer) stream).getByteBuffer();
+        if (buffer == null || !buffer.hasRemaining()) {
+          break;
+        }
+        int length = Math.min(buffer.remaining(), remaining);
+        buffer.limit(buffer.position() + length);
+        buffers.add(buffer);
+        long skipped = stream.skip(length);
+        if (skipped != length) {
+          throw new RuntimeException("skipped " + skipped + " != " + length);
+        }
+        remaining -= length;
+      }
+      if (remaining != 0) {
+        throw new RuntimeException("size inaccurate: " + size + " != " + (size - remaining));
+      }
+      if (buffers.size() == 1) {
+        return CodedInputStream.newInstance(buffers.get(0));
+      }
+      return CodedInputStream.newInstance(buffers);
+    }
+
     private T parseFrom(CodedInputStream stream) throws InvalidProtocolBufferException {
       T message = parser.parseFrom(stream, globalRegistry);
       try {
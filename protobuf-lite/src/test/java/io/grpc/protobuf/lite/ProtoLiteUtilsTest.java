@@ -36,12 +36,15 @@ import io.grpc.MethodDescriptor.Marshaller;
 import io.grpc.MethodDescriptor.PrototypeMarshaller;
 import io.grpc.Status;
 import io.grpc.StatusRuntimeException;
+import io.grpc.internal.CompositeReadableBuffer;
 import io.grpc.internal.GrpcUtil;
+import io.grpc.internal.ReadableBuffers;
 import io.grpc.testing.protobuf.SimpleRecursiveMessage;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 import org.junit.Rule;
 import org.junit.Test;
@@ -229,6 +232,31 @@ public class ProtoLiteUtilsTest {
     assertEquals(expect, result);
   }
 
+  @Test
+  public void parseFromByteBuffers() {
+    Type expect = Type.newBuilder().setName("expected name").addOneofs("oneof").build();
+    byte[] bytes = expect.toByteArray();
+    int split = bytes.length / 2;
+    ByteBuffer first = ByteBuffer.allocateDirect(split);
+    first.put(bytes, 0, split).flip();
+    CompositeReadableBuffer composite = new CompositeReadableBuffer();
+    composite.addBuffer(ReadableBuffers.wrap(first));
+    composite.addBuffer(
+        ReadableBuffers.wrap(ByteBuffer.wrap(bytes, split, bytes.length - split)));
+    InputStream stream = ReadableBuffers.openStream(composite, true);
+
+    assertEquals(expect, marshaller.parse(stream));
+  }
+
+  @Test
+  public void parseFromSingleByteBuffer() {
+    Type expect = Type.newBuilder().setName("expected name").build();
+    InputStream stream = ReadableBuffers.openStream(
+        ReadableBuffers.wrap(ByteBuffer.wrap(expect.toByteArray())), true);
+
+    assertEquals(expect, marshaller.parse(stream));
+  }
+
   @Test
   public void defaultMaxMessageSize() {
     assertEquals(GrpcUtil.DEFAULT_MAX_MESSAGE_SIZE, ProtoLiteUtils.DEFAULT_MAX_MESSAGE_SIZE);
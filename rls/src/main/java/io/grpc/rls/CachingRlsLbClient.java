@@ -106,9 +106,9 @@ final class CachingRlsLbClient {
 
   // All cache status changes (pending, backoff, success) must be under this lock
   private final Object lock = new Object();
-  // LRU cache based on access order (BACKOFF and actual data will be here)
-  @GuardedBy("lock")
-  private final RlsAsyncLruCache linkedHashLruCache;
+  // LRU cache based on access order (BACKOFF and actual data will be here). Modified only under
+  // lock, but may be read without it.
+  private final RlsAsyncLruCache lruCache;
   private final Future<?> periodicCleaner;
   // any RPC on the fly will cached in this map
   @GuardedBy("lock")
@@ -174,7 +174,7 @@ final class CachingRlsLbClient {
     callTimeoutNanos = rlsConfig.lookupServiceTimeoutInNanos();
     ticker = checkNotNull(builder.ticker, "ticker");
     throttler = checkNotNull(builder.throttler, "throttler");
-    linkedHashLruCache =
+    lruCache =
         new RlsAsyncLruCache(
             rlsConfig.cacheSizeBytes(),
             new AutoCleaningEvictionListener(builder.evictionListener),
@@ -231,12 +231,8 @@ final class CachingRlsLbClient {
         .registerBatchCallback(new BatchCallback() {
           @Override
           public void accept(BatchRecorder recorder) {
-            int estimatedSize;
-            long estimatedSizeBytes;
-            synchronized (lock) {
-              estimatedSize = linkedHashLruCache.estimatedSize();
-              estimatedSizeBytes = linkedHashLruCache.estimatedSizeBytes();
-            }
+            int estimatedSize = lruCache.estimatedSize();
+            long estimatedSizeBytes = lruCache.estimatedSizeBytes();
             recorder.recordLongGauge(CACHE_ENTRIES_GAUGE, estimatedSize,
                 Arrays.asList(helper.getChannelTarget(), rlsConfig.lookupService(),
                     metricsInstanceUuid), Collections.emptyList());
@@ -270,7 +266,7 @@ final class CachingRlsLbClient {
 
   private void periodicClean() {
     synchronized (lock) {
-      linkedHashLruCache.cleanupExpiredEntries();
+      lruCache.cleanupExpiredEntries();
     }
   }
 
@@ -323,11 +319,19 @@ final class CachingRlsLbClient {
    */
   @CheckReturnValue
   final CachedRouteLookupResponse get(final RouteLookupRequest request) {
+    // Fast path for fresh data, which is what nearly all picks see. Everything else may need to
+    // change the cache, so it is handled under the lock.
+    CacheEntry fastPathEntry = lruCache.read(request);
+    if (fastPathEntry instanceof DataCacheEntry
+        && !((DataCacheEntry) fastPathEntry).isStaled(ticker.read())) {
+      logger.log(ChannelLogLevel.DEBUG, "Cache hit for the request");
+      return CachedRouteLookupResponse.dataEntry((DataCacheEntry) fastPathEntry);
+    }
     logger.log(ChannelLogLevel.DEBUG, "Acquiring lock to get cached entry");
     synchronized (lock) {
       logger.log(ChannelLogLevel.DEBUG, "Acquired lock to get cached entry");
       final CacheEntry cacheEntry;
-      cacheEntry = linkedHashLruCache.read(request);
+      cacheEntry = lruCache.read(request);
       if (cacheEntry == null) {
         logger.log(ChannelLogLevel.DEBUG, "No cache entry found, making a new lrs request");
         PendingCacheEntry pendingEntry = pendingCallCache.get(request);
@@ -358,7 +362,7 @@ final class CachingRlsLbClient {
     synchronized (lock) {
       periodicCleaner.cancel(false);
       // all childPolicyWrapper will be returned via AutoCleaningEvictionListener
-      linkedHashLruCache.close();
+      lruCache.close();
       // TODO(creamsoup) maybe cancel all pending requests
       pendingCallCache.clear();
       rlsChannel.shutdownNow();
@@ -414,7 +418,7 @@ final class CachingRlsLbClient {
     DataCacheEntry entry = new DataCacheEntry(request, routeLookupResponse);
     // Constructor for DataCacheEntry causes updateBalancingState, but the picks can't happen until
     // this cache update because the lock is held
-    linkedHashLruCache.cacheAndClean(request, entry);
+    lruCache.cacheAndClean(request, entry);
     return entry;
   }
 
@@ -430,7 +434,7 @@ final class CachingRlsLbClient {
     // Lock is held, so the task can't execute before the assignment
     entry.scheduledFuture = scheduledExecutorService.schedule(
         () -> refreshBackoffEntry(entry), delayNanos, TimeUnit.NANOSECONDS);
-    linkedHashLruCache.cacheAndClean(request, entry);
+    lruCache.cacheAndClean(request, entry);
     logger.log(ChannelLogLevel.DEBUG, "BackoffCacheEntry created with a delay of {0} nanos",
         delayNanos);
     return entry;
@@ -444,7 +448,7 @@ final class CachingRlsLbClient {
         return;
       }
       logger.log(ChannelLogLevel.DEBUG, "Calling RLS for transition to pending");
-      linkedHashLruCache.invalidate(entry.request);
+      lruCache.invalidate(entry.request);
       asyncRlsCall(entry.request, entry.backoffPolicy);
     }
   }
@@ -888,9 +892,9 @@ final class CachingRlsLbClient {
     }
   }
 
-  /** Implementation of {@link LinkedHashLruCache} for RLS. */
+  /** Implementation of {@link ConcurrentLruCache} for RLS. */
   private static final class RlsAsyncLruCache
-      extends LinkedHashLruCache<RouteLookupRequest, CacheEntry> {
+      extends ConcurrentLruCache<RouteLookupRequest, CacheEntry> {
     private final RlsLbHelper helper;
 
     RlsAsyncLruCache(long maxEstimatedSizeBytes,
@@ -950,7 +954,7 @@ final class CachingRlsLbClient {
         logger.log(ChannelLogLevel.DEBUG, "Acquiring lock force refresh backoff cache entries");
         synchronized (lock) {
           logger.log(ChannelLogLevel.DEBUG, "Lock acquired for refreshing backoff cache entries");
-          for (CacheEntry value : linkedHashLruCache.values()) {
+          for (CacheEntry value : lruCache.values()) {
             if (value instanceof BackoffCacheEntry) {
               refreshBackoffEntry((BackoffCacheEntry) value);
             }
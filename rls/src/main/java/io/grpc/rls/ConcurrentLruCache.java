@@ -0,0 +1,366 @@
+/*
+ * Copyright 2024 The gRPC Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.grpc.rls;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Ticker;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.CheckReturnValue;
+import javax.annotation.Nullable;
+
+/**
+ * A ConcurrentLruCache implements approximate least recently used caching with entry level
+ * expiration time, where reads don't take any lock.
+ *
+ * <p>Entries are kept in a {@link ConcurrentHashMap}. Instead of reordering a list on every
+ * access, which needs a lock, a read only sets the entry's reference bit, and eviction uses the
+ * CLOCK algorithm: entries are visited in insertion order, and an entry whose bit is set gets a
+ * second chance (the bit is cleared and the entry moves to the back) instead of being evicted.
+ *
+ * <p>When the cache reaches max capacity, it tries to remove up to one already expired entry. If it
+ * doesn't find any expired entries, it evicts one entry as described above. To proactively clean up
+ * expired entries, call {@link #cleanupExpiredEntries()} (e.g., via a recurring timer).
+ *
+ * <p>{@link #read} and {@link #hasCacheEntry} may be called from any thread at any time. All other
+ * methods modify the cache and must not be called concurrently with each other; the caller is
+ * expected to serialize them, for example with a lock it already holds.
+ */
+abstract class ConcurrentLruCache<K, V> implements LruCache<K, V> {
+
+  private final ConcurrentHashMap<K, Node<K, V>> delegate;
+  // Insertion order for CLOCK. May contain removed nodes, which are skipped and purged lazily.
+  private final ArrayDeque<Node<K, V>> clock = new ArrayDeque<>();
+  private int removedInClock;
+  private final Ticker ticker;
+  @Nullable
+  private final EvictionListener<K, V> evictionListener;
+  private final AtomicLong estimatedSizeBytes = new AtomicLong();
+  private volatile long estimatedMaxSizeBytes;
+
+  ConcurrentLruCache(
+      final long estimatedMaxSizeBytes,
+      @Nullable final EvictionListener<K, V> evictionListener,
+      final Ticker ticker) {
+    checkState(estimatedMaxSizeBytes > 0, "max estimated cache size should be positive");
+    this.estimatedMaxSizeBytes = estimatedMaxSizeBytes;
+    this.evictionListener = evictionListener;
+    this.ticker = checkNotNull(ticker, "ticker");
+    // rough estimate or minimum hashmap default
+    this.delegate = new ConcurrentHashMap<>(Math.max((int) (estimatedMaxSizeBytes / 1000), 16));
+  }
+
+  /**
+   * Determines if the eldest entry should be kept or not when the cache size limit is reached. Note
+   * that the eldest is determined by access pattern.
+   */
+  @SuppressWarnings("unused")
+  protected boolean shouldInvalidateEldestEntry(K eldestKey, V eldestValue, long now) {
+    return true;
+  }
+
+  /** Determines if the entry is already expired or not. */
+  protected abstract boolean isExpired(K key, V value, long nowNanos);
+
+  /**
+   * Returns estimated size of entry to keep track. If it always returns 1, the max size bytes
+   * behaves like max number of entry (default behavior).
+   */
+  @SuppressWarnings("unused")
+  protected int estimateSizeOf(K key, V value) {
+    return 1;
+  }
+
+  protected long estimatedMaxSizeBytes() {
+    return estimatedMaxSizeBytes;
+  }
+
+  /** Updates size for given key if entry exists. It is useful if the cache value is mutated. */
+  public void updateEntrySize(K key) {
+    Node<K, V> node = readInternal(key);
+    if (node == null) {
+      return;
+    }
+    int prevSize = node.size;
+    int newSize = estimateSizeOf(key, node.value);
+    node.size = newSize;
+    estimatedSizeBytes.addAndGet(newSize - prevSize);
+  }
+
+  /**
+   * Returns estimated cache size bytes. Each entry size is calculated by {@link
+   * #estimateSizeOf(java.lang.Object, java.lang.Object)}.
+   */
+  public long estimatedSizeBytes() {
+    return estimatedSizeBytes.get();
+  }
+
+  @Override
+  @Nullable
+  public final V cache(K key, V value) {
+    checkNotNull(key, "key");
+    checkNotNull(value, "value");
+    Node<K, V> node = new Node<>(key, value, estimateSizeOf(key, value));
+    estimatedSizeBytes.addAndGet(node.size);
+    clock.add(node);
+    Node<K, V> existing = delegate.put(key, node);
+    if (existing != null) {
+      evicted(existing, EvictionType.REPLACED);
+    }
+    if (estimatedSizeBytes.get() > estimatedMaxSizeBytes) {
+      long now = ticker.read();
+      // first, remove at most 1 expired entry, otherwise handle size based eviction
+      if (!cleanupExpiredEntries(1, now)) {
+        evictEldest(now);
+      }
+    }
+    maybePurgeClock();
+    return existing == null ? null : existing.value;
+  }
+
+  @Override
+  @Nullable
+  @CheckReturnValue
+  public final V read(K key) {
+    Node<K, V> node = readInternal(key);
+    if (node == null) {
+      return null;
+    }
+    // Avoid writing to a shared cache line when the bit is already set.
+    if (!node.referenced) {
+      node.referenced = true;
+    }
+    return node.value;
+  }
+
+  @Nullable
+  @CheckReturnValue
+  private Node<K, V> readInternal(K key) {
+    checkNotNull(key, "key");
+    Node<K, V> existing = delegate.get(key);
+    if (existing != null && isExpired(key, existing.value, ticker.read())) {
+      return null;
+    }
+    return existing;
+  }
+
+  @Override
+  @Nullable
+  public final V invalidate(K key) {
+    checkNotNull(key, "key");
+    Node<K, V> existing = delegate.remove(key);
+    if (existing != null) {
+      evicted(existing, EvictionType.EXPLICIT);
+      maybePurgeClock();
+    }
+    return existing == null ? null : existing.value;
+  }
+
+  @Override
+  public final void invalidateAll() {
+    Node<K, V> node;
+    while ((node = clock.poll()) != null) {
+      if (!node.removed && delegate.remove(node.key, node)) {
+        evicted(node, EvictionType.EXPLICIT);
+      }
+    }
+    removedInClock = 0;
+  }
+
+  @Override
+  @CheckReturnValue
+  public final boolean hasCacheEntry(K key) {
+    // call readInternal to filter already expired entry in the cache
+    return readInternal(key) != null;
+  }
+
+  /** Returns shallow copied values in the cache. */
+  public final List<V> values() {
+    List<V> list = new ArrayList<>(delegate.size());
+    for (Node<K, V> node : delegate.values()) {
+      list.add(node.value);
+    }
+    return Collections.unmodifiableList(list);
+  }
+
+  /**
+   * Cleans up cache if needed to fit into max size bytes by
+   * removing expired entries and evicting entries in CLOCK order.
+   * Returns TRUE if any unexpired entries were removed
+   */
+  protected final boolean fitToLimit() {
+    boolean removedAnyUnexpired = false;
+    if (estimatedSizeBytes.get() <= estimatedMaxSizeBytes) {
+      // new size is larger no need to do cleanup
+      return false;
+    }
+    // cleanup expired entries
+    long now = ticker.read();
+    cleanupExpiredEntries(now);
+
+    // evict entries until new size limit
+    while (estimatedMaxSizeBytes < estimatedSizeBytes.get()) {
+      if (!evictEldest(now)) {
+        break; // Violates some constraint like minimum age so stop our cleanup
+      }
+      removedAnyUnexpired = true;
+    }
+    return removedAnyUnexpired;
+  }
+
+  /**
+   * Resizes cache. If new size is smaller than current estimated size, it will free up space by
+   * removing expired entries and evicting entries in CLOCK order.
+   */
+  public final void resize(long newSizeBytes) {
+    this.estimatedMaxSizeBytes = newSizeBytes;
+    fitToLimit();
+  }
+
+  @Override
+  @CheckReturnValue
+  public final int estimatedSize() {
+    return delegate.size();
+  }
+
+  /** Returns {@code true} if any entries were removed. */
+  public final boolean cleanupExpiredEntries() {
+    return cleanupExpiredEntries(ticker.read());
+  }
+
+  private boolean cleanupExpiredEntries(long now) {
+    return cleanupExpiredEntries(Integer.MAX_VALUE, now);
+  }
+
+  // maxExpiredEntries is by number of entries
+  private boolean cleanupExpiredEntries(int maxExpiredEntries, long now) {
+    checkArgument(maxExpiredEntries > 0, "maxExpiredEntries must be positive");
+    boolean removedAny = false;
+    Iterator<Node<K, V>> iter = clock.iterator();
+    while (iter.hasNext() && maxExpiredEntries > 0) {
+      Node<K, V> node = iter.next();
+      if (!node.removed && isExpired(node.key, node.value, now)) {
+        delegate.remove(node.key, node);
+        evicted(node, EvictionType.EXPIRED);
+        removedAny = true;
+        maxExpiredEntries--;
+      }
+    }
+    maybePurgeClock();
+    return removedAny;
+  }
+
+  /**
+   * Evicts the first entry in CLOCK order that hasn't been read since it was last visited. Returns
+   * {@code false} if nothing was evicted, because the cache is empty or {@link
+   * #shouldInvalidateEldestEntry} refused.
+   */
+  private boolean evictEldest(long now) {
+    // Bounds the sweep if readers keep setting reference bits.
+    int secondChances = clock.size();
+    Node<K, V> node;
+    while ((node = clock.poll()) != null) {
+      if (node.removed) {
+        removedInClock--;
+        continue;
+      }
+      if (node.referenced && secondChances-- > 0) {
+        node.referenced = false;
+        clock.add(node);
+        continue;
+      }
+      if (!shouldInvalidateEldestEntry(node.key, node.value, now)) {
+        clock.addFirst(node);
+        return false;
+      }
+      delegate.remove(node.key, node);
+      // Already polled from the clock, so it doesn't count as a removed node left behind.
+      node.removed = true;
+      estimatedSizeBytes.addAndGet(-node.size);
+      if (evictionListener != null) {
+        evictionListener.onEviction(node.key, node.value, EvictionType.SIZE);
+      }
+      return true;
+    }
+    return false;
+  }
+
+  /**
+   * Marks a node that is still in the clock as removed, and notifies the listener. Callers should
+   * call {@link #maybePurgeClock} once they are done iterating the clock.
+   */
+  private void evicted(Node<K, V> node, EvictionType cause) {
+    node.removed = true;
+    removedInClock++;
+    estimatedSizeBytes.addAndGet(-node.size);
+    if (evictionListener != null) {
+      evictionListener.onEviction(node.key, node.value, cause);
+    }
+  }
+
+  private void maybePurgeClock() {
+    if (removedInClock <= clock.size() / 2) {
+      return;
+    }
+    Iterator<Node<K, V>> iter = clock.iterator();
+    while (iter.hasNext()) {
+      if (iter.next().removed) {
+        iter.remove();
+      }
+    }
+    removedInClock = 0;
+  }
+
+  @Override
+  public final void close() {
+    invalidateAll();
+  }
+
+  private static final class Node<K, V> {
+    final K key;
+    final V value;
+    volatile int size;
+    // Set by readers, cleared by the CLOCK hand. New entries start referenced, so that they are
+    // not evicted before entries that were never read since their last visit.
+    volatile boolean referenced = true;
+    // Only accessed by writers.
+    boolean removed;
+
+    Node(K key, V value, int size) {
+      this.key = key;
+      this.value = value;
+      this.size = size;
+    }
+
+    @Override
+    public String toString() {
+      return MoreObjects.toStringHelper(this)
+          .add("size", size)
+          .add("value", value)
+          .toString();
+    }
+  }
+}
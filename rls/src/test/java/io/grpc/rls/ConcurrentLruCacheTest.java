@@ -25,8 +25,12 @@ import com.google.common.base.Ticker;
 import io.grpc.internal.FakeClock;
 import io.grpc.rls.LruCache.EvictionListener;
 import io.grpc.rls.LruCache.EvictionType;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
@@ -37,7 +41,7 @@ import org.mockito.junit.MockitoJUnit;
 import org.mockito.junit.MockitoRule;
 
 @RunWith(JUnit4.class)
-public class LinkedHashLruCacheTest {
+public class ConcurrentLruCacheTest {
 
   private static final int MAX_SIZE = 5;
 
@@ -49,11 +53,11 @@ public class LinkedHashLruCacheTest {
 
   @Mock
   private EvictionListener<Integer, Entry> evictionListener;
-  private LinkedHashLruCache<Integer, Entry> cache;
+  private ConcurrentLruCache<Integer, Entry> cache;
 
   @Before
   public void setUp() {
-    this.cache = new LinkedHashLruCache<Integer, Entry>(
+    this.cache = new ConcurrentLruCache<Integer, Entry>(
         MAX_SIZE,
         evictionListener,
         fakeClock.getTicker()) {
@@ -234,6 +238,73 @@ public class LinkedHashLruCacheTest {
     assertThat(cache.hasCacheEntry(1)).isFalse();
   }
 
+  @Test
+  public void eviction_size_recentlyReadEntryGetsSecondChance() {
+    for (int i = 1; i <= MAX_SIZE; i++) {
+      cache.cache(i, new Entry("Entry" + i, Long.MAX_VALUE));
+    }
+    // First eviction sweeps once, clearing the reference bits of all entries.
+    cache.cache(MAX_SIZE + 1, new Entry("Entry" + (MAX_SIZE + 1), Long.MAX_VALUE));
+    verify(evictionListener).onEviction(eq(1), any(Entry.class), eq(EvictionType.SIZE));
+
+    assertThat(cache.read(2)).isNotNull();
+    cache.cache(MAX_SIZE + 2, new Entry("Entry" + (MAX_SIZE + 2), Long.MAX_VALUE));
+
+    // 2 was read, so 3 is evicted instead.
+    verify(evictionListener).onEviction(eq(3), any(Entry.class), eq(EvictionType.SIZE));
+    assertThat(cache.hasCacheEntry(2)).isTrue();
+    assertThat(cache.estimatedSize()).isEqualTo(MAX_SIZE);
+  }
+
+  @Test
+  public void eviction_replacedManyTimes() {
+    for (int i = 0; i < 1000; i++) {
+      cache.cache(1, new Entry("Entry" + i, Long.MAX_VALUE));
+    }
+    assertThat(cache.estimatedSize()).isEqualTo(1);
+    assertThat(cache.estimatedSizeBytes()).isEqualTo(1);
+    assertThat(cache.read(1)).isEqualTo(new Entry("Entry999", Long.MAX_VALUE));
+  }
+
+  @Test
+  public void concurrentReadsDuringWrites() throws Exception {
+    final AtomicBoolean done = new AtomicBoolean();
+    final AtomicReference<Throwable> failure = new AtomicReference<>();
+    List<Thread> readers = new ArrayList<>();
+    for (int t = 0; t < 4; t++) {
+      Thread reader = new Thread(new Runnable() {
+        @Override
+        public void run() {
+          try {
+            while (!done.get()) {
+              for (int key = 0; key < 2 * MAX_SIZE; key++) {
+                Entry entry = cache.read(key);
+                if (entry != null) {
+                  assertThat(entry.value).startsWith("Entry" + key + "-");
+                }
+              }
+            }
+          } catch (Throwable t) {
+            failure.set(t);
+          }
+        }
+      });
+      reader.start();
+      readers.add(reader);
+    }
+    for (int i = 0; i < 10000; i++) {
+      int key = i % (2 * MAX_SIZE);
+      cache.cache(key, new Entry("Entry" + key + "-" + i, Long.MAX_VALUE));
+      assertThat(cache.estimatedSize()).isAtMost(MAX_SIZE);
+    }
+    done.set(true);
+    for (Thread reader : readers) {
+      reader.join();
+    }
+    assertThat(failure.get()).isNull();
+    assertThat(cache.estimatedSizeBytes()).isEqualTo(MAX_SIZE);
+  }
+
   private static final class Entry {
     String value;
     long expireTime;
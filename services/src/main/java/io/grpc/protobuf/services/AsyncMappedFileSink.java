@@ -0,0 +1,485 @@
+/*
+ * Copyright 2024 The gRPC Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.grpc.protobuf.services;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.MessageLite;
+import io.grpc.ExperimentalApi;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.annotation.Nullable;
+
+/**
+ * A {@link BinaryLogSink} that keeps disk IO off the RPC path. {@link #write} hands the message to
+ * a bounded lock-free queue, and a background thread serializes queued messages into memory-mapped
+ * segment files. Messages are written serially using the same format as
+ * {@link MessageLite#writeDelimitedTo(OutputStream)}, so the concatenated segments can be read
+ * with {@link com.google.protobuf.Parser#parseDelimitedFrom}.
+ *
+ * <p>Segments are named {@code <prefix>.<millis>.<n>}, where {@code millis} is the time the sink
+ * was created and {@code n} increases from 0. When a segment can't fit the next message it is
+ * truncated to its written length and a new segment is started. Only the most recent
+ * {@link Builder#setMaxSegments maxSegments} segments are kept.
+ *
+ * <p>A message that can't be serialized is dropped, and the segment carries on with the next one.
+ * If the segment itself can't be created or written, it is closed and the next message starts a
+ * new segment.
+ *
+ * <p>If the queue is full, the message is dropped or the writing thread waits for room, depending
+ * on the {@link OverflowPolicy}. {@link #getWrittenCount} and {@link #getDroppedCount} report
+ * how many messages reached the file and how many were lost.
+ */
+@ExperimentalApi("https://github.com/grpc/grpc-java/issues/4017")
+public final class AsyncMappedFileSink implements BinaryLogSink {
+  private static final Logger logger = Logger.getLogger(AsyncMappedFileSink.class.getName());
+  private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+  private static final long FULL_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(10);
+
+  /** What {@link #write} does when the queue is full. */
+  public enum OverflowPolicy {
+    /** Drop the message and count it in {@link #getDroppedCount}. */
+    DROP,
+    /** Wait until the background thread makes room. RPCs experience back pressure. */
+    BLOCK,
+  }
+
+  private final Path directory;
+  private final String segmentPrefix;
+  private final int segmentBytes;
+  private final int maxSegments;
+  private final OverflowPolicy overflowPolicy;
+  private final MpscRingBuffer<MessageLite> queue;
+  private final Thread writerThread;
+  private final LongAdder dropped = new LongAdder();
+  private final AtomicLong written = new AtomicLong();
+  private volatile boolean closed;
+  private volatile boolean writerParked;
+
+  // Only accessed by the writer thread.
+  private final ArrayDeque<Path> segments = new ArrayDeque<>();
+  private int nextSegment;
+  private FileChannel channel;
+  private MappedByteBuffer buffer;
+  private boolean failing;
+
+  private AsyncMappedFileSink(Builder builder) throws IOException {
+    this.directory = builder.directory;
+    this.segmentPrefix = builder.prefix + "." + System.currentTimeMillis() + ".";
+    this.segmentBytes = builder.segmentBytes;
+    this.maxSegments = builder.maxSegments;
+    this.overflowPolicy = builder.overflowPolicy;
+    this.queue = new MpscRingBuffer<>(builder.queueCapacity);
+    Files.createDirectories(directory);
+    logger.log(Level.INFO, "Writing binary logs to {0}", directory.resolve(segmentPrefix + "*"));
+    writerThread = builder.threadFactory.newThread(new Runnable() {
+      @Override
+      public void run() {
+        drainLoop();
+      }
+    });
+    writerThread.start();
+  }
+
+  public static Builder newBuilder(Path directory) {
+    return new Builder(directory);
+  }
+
+  @Override
+  public void write(MessageLite message) {
+    if (closed) {
+      logger.log(Level.FINEST, "Attempt to write after AsyncMappedFileSink is closed.");
+      return;
+    }
+    while (!queue.offer(message)) {
+      if (overflowPolicy == OverflowPolicy.DROP || closed) {
+        dropped.increment();
+        return;
+      }
+      LockSupport.unpark(writerThread);
+      LockSupport.parkNanos(FULL_PARK_NANOS);
+    }
+    if (writerParked) {
+      writerParked = false;
+      LockSupport.unpark(writerThread);
+    }
+  }
+
+  /** Returns the number of messages written to segment files. */
+  public long getWrittenCount() {
+    return written.get();
+  }
+
+  /**
+   * Returns the number of messages that were not written, because the queue was full or because
+   * writing to the segment files failed.
+   */
+  public long getDroppedCount() {
+    return dropped.sum();
+  }
+
+  /**
+   * Writes the queued messages, stops the background thread and truncates the last segment to its
+   * written length.
+   */
+  @Override
+  public void close() throws IOException {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    LockSupport.unpark(writerThread);
+    boolean interrupted = false;
+    while (true) {
+      try {
+        writerThread.join();
+        break;
+      } catch (InterruptedException e) {
+        interrupted = true;
+      }
+    }
+    if (interrupted) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private void drainLoop() {
+    try {
+      while (true) {
+        MessageLite message = queue.poll();
+        if (message != null) {
+          writeToSegment(message);
+          continue;
+        }
+        if (closed) {
+          // write() may have queued a message right before seeing closed.
+          while ((message = queue.poll()) != null) {
+            writeToSegment(message);
+          }
+          break;
+        }
+        writerParked = true;
+        if (queue.isEmpty() && !closed) {
+          LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+        }
+        writerParked = false;
+      }
+    } finally {
+      try {
+        finishSegment();
+      } catch (IOException e) {
+        logger.log(Level.SEVERE, "Caught exception while closing", e);
+      }
+    }
+  }
+
+  private void writeToSegment(MessageLite message) {
+    int start = -1;
+    try {
+      int messageSize = message.getSerializedSize();
+      int size = CodedOutputStream.computeUInt32SizeNoTag(messageSize) + messageSize;
+      if (buffer == null || buffer.remaining() < size) {
+        startSegment(size);
+      }
+      start = buffer.position();
+      CodedOutputStream out = CodedOutputStream.newInstance(buffer);
+      out.writeUInt32NoTag(messageSize);
+      message.writeTo(out);
+      out.flush();
+      written.incrementAndGet();
+      failing = false;
+      return;
+    } catch (IOException e) {
+      logFailure("Caught exception while writing, starting a new segment", e);
+      if (start != -1) {
+        buffer.position(start);
+      }
+      try {
+        finishSegment();
+      } catch (IOException ex) {
+        logger.log(Level.FINE, "Caught exception while closing the failed segment", ex);
+      }
+    } catch (RuntimeException e) {
+      logFailure("Caught exception while writing, skipping the message", e);
+      if (start != -1) {
+        // Drop what was written of the message, so the segment stays readable.
+        buffer.position(start);
+      }
+    }
+    dropped.increment();
+  }
+
+  /** Logs the first of consecutive failures loudly, so a broken disk doesn't flood the log. */
+  private void logFailure(String msg, Exception e) {
+    logger.log(failing ? Level.FINE : Level.SEVERE, msg, e);
+    failing = true;
+  }
+
+  private void startSegment(int minSize) throws IOException {
+    finishSegment();
+    Path path = directory.resolve(segmentPrefix + nextSegment++);
+    FileChannel newChannel = FileChannel.open(
+        path,
+        StandardOpenOption.CREATE_NEW,
+        StandardOpenOption.READ,
+        StandardOpenOption.WRITE);
+    try {
+      buffer = newChannel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(segmentBytes, minSize));
+    } catch (IOException | RuntimeException e) {
+      newChannel.close();
+      Files.deleteIfExists(path);
+      throw e;
+    }
+    channel = newChannel;
+    segments.add(path);
+    while (segments.size() > maxSegments) {
+      Path oldest = segments.remove();
+      try {
+        Files.deleteIfExists(oldest);
+      } catch (IOException e) {
+        logger.log(Level.WARNING, "Failed to delete " + oldest, e);
+      }
+    }
+  }
+
+  private void finishSegment() throws IOException {
+    if (channel == null) {
+      return;
+    }
+    FileChannel channel = this.channel;
+    MappedByteBuffer buffer = this.buffer;
+    this.channel = null;
+    this.buffer = null;
+    try {
+      int length = buffer.position();
+      buffer.force();
+      // Windows refuses to truncate a file that is still mapped. The buffer must not be touched
+      // once unmapped.
+      Unmapper.unmap(buffer);
+      channel.truncate(length);
+    } finally {
+      channel.close();
+    }
+  }
+
+  /** Builder for {@link AsyncMappedFileSink}. */
+  public static final class Builder {
+    private final Path directory;
+    private String prefix = "BINARY_INFO";
+    private int segmentBytes = 64 * 1024 * 1024;
+    private int maxSegments = 8;
+    private int queueCapacity = 8192;
+    private OverflowPolicy overflowPolicy = OverflowPolicy.DROP;
+    private ThreadFactory threadFactory = new ThreadFactory() {
+      @Override
+      public Thread newThread(Runnable r) {
+        Thread thread = new Thread(r, "grpc-binlog-writer");
+        thread.setDaemon(true);
+        return thread;
+      }
+    };
+
+    private Builder(Path directory) {
+      this.directory = checkNotNull(directory, "directory");
+    }
+
+    /** Sets the file name prefix of segment files. Defaults to {@code BINARY_INFO}. */
+    public Builder setFilePrefix(String prefix) {
+      checkArgument(!checkNotNull(prefix, "prefix").isEmpty(), "prefix must not be empty");
+      this.prefix = prefix;
+      return this;
+    }
+
+    /**
+     * Sets the size of each segment file. Messages larger than this get a segment of their own.
+     * Defaults to 64 MiB.
+     */
+    public Builder setSegmentBytes(int segmentBytes) {
+      checkArgument(segmentBytes > 0, "segmentBytes must be positive");
+      this.segmentBytes = segmentBytes;
+      return this;
+    }
+
+    /** Sets how many segment files are kept before the oldest is deleted. Defaults to 8. */
+    public Builder setMaxSegments(int maxSegments) {
+      checkArgument(maxSegments > 0, "maxSegments must be positive");
+      this.maxSegments = maxSegments;
+      return this;
+    }
+
+    /**
+     * Sets how many messages may wait to be written. Rounded up to a power of two. Defaults to
+     * 8192.
+     */
+    public Builder setQueueCapacity(int queueCapacity) {
+      checkArgument(
+          queueCapacity > 0 && queueCapacity <= 1 << 30, "queueCapacity out of range: %s",
+          queueCapacity);
+      this.queueCapacity = queueCapacity;
+      return this;
+    }
+
+    /** Sets what happens when the queue is full. Defaults to {@link OverflowPolicy#DROP}. */
+    public Builder setOverflowPolicy(OverflowPolicy overflowPolicy) {
+      this.overflowPolicy = checkNotNull(overflowPolicy, "overflowPolicy");
+      return this;
+    }
+
+    @VisibleForTesting
+    Builder setThreadFactory(ThreadFactory threadFactory) {
+      this.threadFactory = checkNotNull(threadFactory, "threadFactory");
+      return this;
+    }
+
+    /**
+     * Creates the sink and starts its background thread.
+     *
+     * @throws IOException if the directory can't be created
+     */
+    public AsyncMappedFileSink build() throws IOException {
+      return new AsyncMappedFileSink(this);
+    }
+  }
+
+  /**
+   * Releases mappings right away instead of when their buffer is garbage collected, so that a long
+   * running sink doesn't hold on to the address space and files of every segment it wrote. There
+   * is no public API for this, so it is best effort.
+   */
+  private static final class Unmapper {
+    // Java 9+: sun.misc.Unsafe.invokeCleaner(ByteBuffer)
+    @Nullable private static final Object unsafe;
+    @Nullable private static final Method invokeCleaner;
+
+    static {
+      Object theUnsafe = null;
+      Method cleaner = null;
+      try {
+        Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+        cleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+        Field field = unsafeClass.getDeclaredField("theUnsafe");
+        field.setAccessible(true);
+        theUnsafe = field.get(null);
+      } catch (Exception e) {
+        cleaner = null;
+      }
+      unsafe = theUnsafe;
+      invokeCleaner = cleaner;
+    }
+
+    static void unmap(MappedByteBuffer buffer) {
+      try {
+        if (invokeCleaner != null) {
+          invokeCleaner.invoke(unsafe, buffer);
+          return;
+        }
+        // Java 8: ((sun.nio.ch.DirectBuffer) buffer).cleaner().clean()
+        Method cleanerMethod = buffer.getClass().getMethod("cleaner");
+        cleanerMethod.setAccessible(true);
+        Object cleaner = cleanerMethod.invoke(buffer);
+        if (cleaner != null) {
+          cleaner.getClass().getMethod("clean").invoke(cleaner);
+        }
+      } catch (Exception e) {
+        logger.log(Level.FINE, "Unable to unmap segment, leaving it to garbage collection", e);
+      }
+    }
+  }
+
+  /**
+   * Bounded multi-producer single-consumer queue. Each slot carries a sequence number that tells
+   * producers and the consumer whose turn it is, so producers only contend on claiming an index.
+   */
+  @VisibleForTesting
+  static final class MpscRingBuffer<E> {
+    private final int mask;
+    private final AtomicReferenceArray<E> elements;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+    // Only accessed by the consumer.
+    private long head;
+
+    MpscRingBuffer(int capacity) {
+      int size = Integer.highestOneBit(capacity);
+      if (size < capacity) {
+        size <<= 1;
+      }
+      mask = size - 1;
+      elements = new AtomicReferenceArray<>(size);
+      sequences = new AtomicLongArray(size);
+      for (int i = 0; i < size; i++) {
+        sequences.set(i, i);
+      }
+    }
+
+    /** Adds {@code e} to the queue, returning {@code false} if the queue is full. */
+    boolean offer(E e) {
+      while (true) {
+        long t = tail.get();
+        int index = (int) t & mask;
+        long diff = sequences.get(index) - t;
+        if (diff < 0) {
+          return false;
+        }
+        if (diff == 0 && tail.compareAndSet(t, t + 1)) {
+          elements.lazySet(index, e);
+          // A volatile write, so the consumer can't miss it after parking (see write()).
+          sequences.set(index, t + 1);
+          return true;
+        }
+      }
+    }
+
+    /** Removes the head of the queue, or returns {@code null} if it is empty. */
+    E poll() {
+      int index = (int) head & mask;
+      if (sequences.get(index) != head + 1) {
+        return null;
+      }
+      E e = elements.get(index);
+      elements.lazySet(index, null);
+      sequences.lazySet(index, head + mask + 1);
+      head++;
+      return e;
+    }
+
+    boolean isEmpty() {
+      return sequences.get((int) head & mask) != head + 1;
+    }
+  }
+}
@@ -27,6 +27,7 @@ import io.grpc.ClientInterceptors;
 import io.grpc.Internal;
 import io.grpc.InternalClientInterceptors;
 import io.grpc.InternalServerInterceptors;
+import io.grpc.KnownLength;
 import io.grpc.ManagedChannel;
 import io.grpc.MethodDescriptor;
 import io.grpc.MethodDescriptor.Marshaller;
@@ -86,7 +87,8 @@ public abstract class BinaryLogProvider extends BinaryLog {
    * Returns a {@link ServerInterceptor} for binary logging. gRPC is free to cache the interceptor,
    * so the interceptor must be reusable across calls. At runtime, the request and response
    * marshallers are always {@code Marshaller<InputStream>}.
-   * Returns {@code null} if this method is not binary logged.
+   * Returns {@code null} if this method is not binary logged. The method is wrapped for each call,
+   * so a call for which it returns {@code null} keeps the method's own marshallers.
    */
   // TODO(zpencer): ensure the interceptor properly handles retries and hedging
   @Nullable
@@ -168,6 +170,30 @@ public abstract class BinaryLogProvider extends BinaryLog {
 
     /** Returns the byte array. */
     public static byte[] toByteArray(InputStream in) throws IOException {
+      if (in instanceof KnownLength) {
+        // Read directly into an array of the right size, rather than copying through buffers.
+        byte[] bytes = new byte[in.available()];
+        int read = 0;
+        while (read < bytes.length) {
+          int r = in.read(bytes, read, bytes.length - read);
+          if (r == -1) {
+            break;
+          }
+          read += r;
+        }
+        int next = read == bytes.length ? in.read() : -1;
+        if (read == bytes.length && next == -1) {
+          return bytes;
+        }
+        // The stream was shorter or longer than it claimed; fall back to buffering.
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(bytes, 0, read);
+        if (next != -1) {
+          out.write(next);
+        }
+        copy(in, out);
+        return out.toByteArray();
+      }
       ByteArrayOutputStream out = new ByteArrayOutputStream();
       copy(in, out);
       return out.toByteArray();
@@ -69,7 +69,9 @@ class BinaryLogProviderImpl extends BinaryLogProvider {
   @Override
   public ServerInterceptor getServerInterceptor(String fullMethodName) {
     BinlogHelper helperForMethod = factory.getLog(fullMethodName);
-    if (helperForMethod == null) {
+    // Called for each call. Unsampled calls skip the interceptor entirely, including the byte
+    // array marshalling.
+    if (helperForMethod == null || !helperForMethod.shouldSample()) {
       return null;
     }
     return helperForMethod.getServerInterceptor(counter.getAndIncrement());
@@ -80,7 +82,8 @@ class BinaryLogProviderImpl extends BinaryLogProvider {
   public ClientInterceptor getClientInterceptor(
       String fullMethodName, CallOptions callOptions) {
     BinlogHelper helperForMethod = factory.getLog(fullMethodName);
-    if (helperForMethod == null) {
+    // Unsampled calls skip the interceptor entirely, including the byte array marshalling.
+    if (helperForMethod == null || !helperForMethod.shouldSample()) {
       return null;
     }
     return helperForMethod.getClientInterceptor(counter.getAndIncrement());
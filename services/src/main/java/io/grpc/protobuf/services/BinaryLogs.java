@@ -25,7 +25,8 @@ public final class BinaryLogs {
   /**
    * Creates a binary log that writes to a temp file. <b>Warning:</b> this implementation is
    * not performance optimized, and RPCs will experience back pressure if disk IO does not keep
-   * up.
+   * up. Use {@link #createBinaryLog(BinaryLogSink, String)} with an {@link AsyncMappedFileSink}
+   * to keep disk IO off the RPC path.
    */
   public static BinaryLog createBinaryLog() throws IOException {
     return new BinaryLogProviderImpl();
@@ -44,6 +45,10 @@ public final class BinaryLogs {
    * and a config string as defined by
    * <a href="https://github.com/grpc/proposal/blob/master/A16-binary-logging.md">
    *   A16-binary-logging</a>.
+   *
+   * <p>As an extension, a method's options may end with {@code s:<rate>} to log only that
+   * fraction of its calls, e.g. {@code package.service/method{h;m:256;s:0.01}} or
+   * {@code *{s:0.1}}. Calls that are not sampled are not logged at all.
    */
   public static BinaryLog createBinaryLog(BinaryLogSink sink, String configStr) throws IOException {
     return new BinaryLogProviderImpl(sink, configStr);
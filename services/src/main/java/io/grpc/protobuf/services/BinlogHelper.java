@@ -64,6 +64,7 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Level;
@@ -88,10 +89,25 @@ final class BinlogHelper {
 
   @VisibleForTesting
   final SinkWriter writer;
+  @VisibleForTesting
+  final double samplingRate;
 
   @VisibleForTesting
   BinlogHelper(SinkWriter writer) {
+    this(writer, 1.0);
+  }
+
+  BinlogHelper(SinkWriter writer, double samplingRate) {
     this.writer = writer;
+    this.samplingRate = samplingRate;
+  }
+
+  /**
+   * Decides whether a new call is logged. The decision is made once when the call starts, so
+   * either all of a call's events are logged or none are.
+   */
+  boolean shouldSample() {
+    return samplingRate >= 1.0 || ThreadLocalRandom.current().nextDouble() < samplingRate;
   }
 
   // TODO(zpencer): move proto related static helpers into this class
@@ -714,16 +730,29 @@ final class BinlogHelper {
      *
      * <p>{@code {h(:\d+)?}, {m(:\d+)?}, {h(:\d+)?,m(:\d+)?}}
      *
+     * <p>Any of these may be followed by {@code ;s:<rate>}, or the input may be just
+     * {@code s:<rate>}, to log only the given fraction of calls, e.g. {@code h;m:256;s:0.01}.
+     *
      * <p>If the {@code logConfig} is null, the returned binlog will have a limit of
      * Integer.MAX_VALUE.
      */
     @VisibleForTesting
     @Nullable
     static BinlogHelper createBinaryLog(BinaryLogSink sink, @Nullable String logConfig) {
+      double samplingRate = 1.0;
+      if (logConfig != null && logConfig.startsWith("s:")) {
+        samplingRate = parseSamplingRate(logConfig.substring(2));
+        logConfig = null;
+      } else if (logConfig != null && logConfig.contains(";s:")) {
+        int samplingStart = logConfig.indexOf(";s:");
+        samplingRate = parseSamplingRate(logConfig.substring(samplingStart + 3));
+        logConfig = logConfig.substring(0, samplingStart);
+      }
       if (logConfig == null) {
         return new BinlogHelper(
             new SinkWriterImpl(
-                sink, TimeProvider.SYSTEM_TIME_PROVIDER, Integer.MAX_VALUE, Integer.MAX_VALUE));
+                sink, TimeProvider.SYSTEM_TIME_PROVIDER, Integer.MAX_VALUE, Integer.MAX_VALUE),
+            samplingRate);
       }
       try {
         final int maxHeaderBytes;
@@ -746,10 +775,31 @@ final class BinlogHelper {
         }
         return new BinlogHelper(
             new SinkWriterImpl(
-                sink, TimeProvider.SYSTEM_TIME_PROVIDER, maxHeaderBytes, maxMsgBytes));
+                sink, TimeProvider.SYSTEM_TIME_PROVIDER, maxHeaderBytes, maxMsgBytes),
+            samplingRate);
+      } catch (NumberFormatException e) {
+        throw new IllegalArgumentException("Illegal log config pattern");
+      }
+    }
+
+    /** Parses a sampling rate of the form "0.25", which must be in (0, 1]. */
+    static double parseSamplingRate(String s) {
+      for (int i = 0; i < s.length(); i++) {
+        char c = s.charAt(i);
+        if ((c < '0' || '9' < c) && c != '.') {
+          throw new IllegalArgumentException("Illegal log config pattern");
+        }
+      }
+      double rate;
+      try {
+        rate = Double.parseDouble(s);
       } catch (NumberFormatException e) {
         throw new IllegalArgumentException("Illegal log config pattern");
       }
+      if (!(rate > 0 && rate <= 1)) {
+        throw new IllegalArgumentException("Illegal log config pattern");
+      }
+      return rate;
     }
 
     /** Returns {@code s}, after verifying it contains only digits. */
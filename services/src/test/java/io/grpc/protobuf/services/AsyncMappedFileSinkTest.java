@@ -0,0 +1,282 @@
+/*
+ * Copyright 2024 The gRPC Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.grpc.protobuf.services;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.MessageLite;
+import io.grpc.binarylog.v1.GrpcLogEntry;
+import io.grpc.protobuf.services.AsyncMappedFileSink.MpscRingBuffer;
+import io.grpc.protobuf.services.AsyncMappedFileSink.OverflowPolicy;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadFactory;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/**
+ * Tests for {@link AsyncMappedFileSink}.
+ */
+@RunWith(JUnit4.class)
+public class AsyncMappedFileSinkTest {
+  @Rule
+  public final TemporaryFolder tempFolder = new TemporaryFolder();
+
+  @Test
+  public void readMyWrite() throws Exception {
+    AsyncMappedFileSink sink = AsyncMappedFileSink.newBuilder(tempFolder.getRoot().toPath())
+        .build();
+    for (int i = 0; i < 100; i++) {
+      sink.write(entry(i));
+    }
+    sink.close();
+
+    assertEquals(100, sink.getWrittenCount());
+    assertEquals(0, sink.getDroppedCount());
+    List<GrpcLogEntry> entries = readAll();
+    assertEquals(100, entries.size());
+    for (int i = 0; i < 100; i++) {
+      assertEquals(entry(i), entries.get(i));
+    }
+  }
+
+  @Test
+  public void segmentsRotateAndOldestAreDeleted() throws Exception {
+    int entrySize = entry(1000).getSerializedSize() + 1;
+    AsyncMappedFileSink sink = AsyncMappedFileSink.newBuilder(tempFolder.getRoot().toPath())
+        .setSegmentBytes(entrySize * 10)
+        .setMaxSegments(3)
+        .setOverflowPolicy(OverflowPolicy.BLOCK)
+        .build();
+    for (int i = 1000; i < 1100; i++) {
+      sink.write(entry(i));
+    }
+    sink.close();
+
+    assertEquals(100, sink.getWrittenCount());
+    assertEquals(3, tempFolder.getRoot().listFiles().length);
+    List<GrpcLogEntry> entries = readAll();
+    assertEquals(30, entries.size());
+    for (int i = 0; i < 30; i++) {
+      assertEquals(entry(1070 + i), entries.get(i));
+    }
+  }
+
+  @Test
+  public void messageLargerThanSegment() throws Exception {
+    AsyncMappedFileSink sink = AsyncMappedFileSink.newBuilder(tempFolder.getRoot().toPath())
+        .setSegmentBytes(4)
+        .build();
+    sink.write(entry(1234));
+    sink.write(entry(5678));
+    sink.close();
+
+    assertEquals(Arrays.asList(entry(1234), entry(5678)), readAll());
+  }
+
+  @Test
+  public void dropWhenFull() throws Exception {
+    final CountDownLatch writerStarted = new CountDownLatch(1);
+    AsyncMappedFileSink sink = AsyncMappedFileSink.newBuilder(tempFolder.getRoot().toPath())
+        .setQueueCapacity(4)
+        .setThreadFactory(new ThreadFactory() {
+          @Override
+          public Thread newThread(final Runnable r) {
+            return new Thread(new Runnable() {
+              @Override
+              public void run() {
+                try {
+                  writerStarted.await();
+                } catch (InterruptedException e) {
+                  throw new AssertionError(e);
+                }
+                r.run();
+              }
+            });
+          }
+        })
+        .build();
+    for (int i = 0; i < 10; i++) {
+      sink.write(entry(i));
+    }
+    assertEquals(6, sink.getDroppedCount());
+    writerStarted.countDown();
+    sink.close();
+
+    assertEquals(4, sink.getWrittenCount());
+    assertEquals(Arrays.asList(entry(0), entry(1), entry(2), entry(3)), readAll());
+  }
+
+  @Test
+  public void writeAfterCloseIsSilent() throws Exception {
+    AsyncMappedFileSink sink = AsyncMappedFileSink.newBuilder(tempFolder.getRoot().toPath())
+        .build();
+    sink.close();
+    sink.write(entry(1234));
+    assertEquals(0, sink.getWrittenCount());
+  }
+
+  @Test
+  public void unserializableMessageIsSkipped() throws Exception {
+    MessageLite broken = mock(MessageLite.class);
+    when(broken.getSerializedSize()).thenReturn(10);
+    doThrow(new IllegalStateException("broken")).when(broken).writeTo(any(CodedOutputStream.class));
+    AsyncMappedFileSink sink = AsyncMappedFileSink.newBuilder(tempFolder.getRoot().toPath())
+        .build();
+    sink.write(entry(1));
+    sink.write(broken);
+    sink.write(entry(2));
+    sink.close();
+
+    assertEquals(2, sink.getWrittenCount());
+    assertEquals(1, sink.getDroppedCount());
+    assertEquals(Arrays.asList(entry(1), entry(2)), readAll());
+  }
+
+  @Test
+  public void newSegmentStartedAfterIoError() throws Exception {
+    Path directory = tempFolder.getRoot().toPath();
+    AsyncMappedFileSink sink = AsyncMappedFileSink.newBuilder(directory)
+        .setSegmentBytes(entry(1000).getSerializedSize() + 1)
+        .build();
+    sink.write(entry(1000));
+    awaitProcessed(sink, 1);
+    // Creating the next segment fails while the directory is gone.
+    for (File file : tempFolder.getRoot().listFiles()) {
+      Files.delete(file.toPath());
+    }
+    Files.delete(directory);
+    sink.write(entry(1001));
+    awaitProcessed(sink, 2);
+    assertEquals(1, sink.getDroppedCount());
+
+    Files.createDirectories(directory);
+    sink.write(entry(1002));
+    sink.close();
+
+    assertEquals(2, sink.getWrittenCount());
+    assertEquals(Arrays.asList(entry(1002)), readAll());
+  }
+
+  @Test
+  public void ringBuffer_fifo() {
+    MpscRingBuffer<Integer> queue = new MpscRingBuffer<>(3);
+    for (int round = 0; round < 3; round++) {
+      for (int i = 0; i < 4; i++) {
+        assertTrue(queue.offer(i));
+      }
+      assertEquals(false, queue.offer(4));
+      for (int i = 0; i < 4; i++) {
+        assertEquals(Integer.valueOf(i), queue.poll());
+      }
+      assertNull(queue.poll());
+      assertTrue(queue.isEmpty());
+    }
+  }
+
+  @Test
+  public void ringBuffer_concurrentProducers() throws Exception {
+    final MpscRingBuffer<Integer> queue = new MpscRingBuffer<>(64);
+    final int perProducer = 10000;
+    List<Thread> producers = new ArrayList<>();
+    for (int p = 0; p < 4; p++) {
+      final int base = p * perProducer;
+      Thread producer = new Thread(new Runnable() {
+        @Override
+        public void run() {
+          for (int i = 0; i < perProducer; i++) {
+            while (!queue.offer(base + i)) {
+              Thread.yield();
+            }
+          }
+        }
+      });
+      producer.start();
+      producers.add(producer);
+    }
+    int[] lastSeen = new int[] {-1, -1, -1, -1};
+    for (int received = 0; received < 4 * perProducer; ) {
+      Integer value = queue.poll();
+      if (value == null) {
+        Thread.yield();
+        continue;
+      }
+      int producer = value / perProducer;
+      // Each producer's values arrive in order.
+      assertEquals(lastSeen[producer] + 1, value % perProducer);
+      lastSeen[producer] = value % perProducer;
+      received++;
+    }
+    for (Thread producer : producers) {
+      producer.join();
+    }
+    assertTrue(queue.isEmpty());
+  }
+
+  private static GrpcLogEntry entry(long callId) {
+    return GrpcLogEntry.newBuilder()
+        .setCallId(callId)
+        .build();
+  }
+
+  private static void awaitProcessed(AsyncMappedFileSink sink, long count)
+      throws InterruptedException {
+    while (sink.getWrittenCount() + sink.getDroppedCount() < count) {
+      Thread.sleep(1);
+    }
+  }
+
+  private List<GrpcLogEntry> readAll() throws Exception {
+    File[] files = tempFolder.getRoot().listFiles();
+    Arrays.sort(files, (a, b) -> Long.compare(segmentNumber(a), segmentNumber(b)));
+    List<GrpcLogEntry> entries = new ArrayList<>();
+    for (File file : files) {
+      InputStream input = new FileInputStream(file);
+      try {
+        GrpcLogEntry entry;
+        while ((entry = GrpcLogEntry.parseDelimitedFrom(input)) != null) {
+          entries.add(entry);
+        }
+      } finally {
+        input.close();
+      }
+    }
+    return entries;
+  }
+
+  private static long segmentNumber(File file) {
+    String name = file.getName();
+    return Long.parseLong(name.substring(name.lastIndexOf('.') + 1));
+  }
+}
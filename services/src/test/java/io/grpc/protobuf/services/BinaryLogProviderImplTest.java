@@ -16,12 +16,17 @@
 
 package io.grpc.protobuf.services;
 
+import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 
 import io.grpc.CallOptions;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerMethodDefinition;
+import io.grpc.testing.TestMethodDescriptors;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.JUnit4;
@@ -45,6 +50,48 @@ public class BinaryLogProviderImplTest {
     assertNull(binlog.getClientInterceptor("package.service/method", CallOptions.DEFAULT));
   }
 
+  @Test
+  public void unsampledCallNotIntercepted() throws Exception {
+    BinaryLogSink sink = mock(BinaryLogSink.class);
+    BinaryLogProviderImpl binlog =
+        new BinaryLogProviderImpl(sink, "package.service/method{s:0.0000000001}");
+    assertNull(binlog.getClientInterceptor("package.service/method", CallOptions.DEFAULT));
+    assertNull(binlog.getServerInterceptor("package.service/method"));
+  }
+
+  @Test
+  public void unsampledServerCallNotMarshalledToBytes() throws Exception {
+    BinaryLogSink sink = mock(BinaryLogSink.class);
+    BinaryLogProviderImpl binlog = new BinaryLogProviderImpl(
+        sink, TestMethodDescriptors.voidMethod().getFullMethodName() + "{s:0.0000000001}");
+    @SuppressWarnings("unchecked")
+    ServerCallHandler<Void, Void> handler = mock(ServerCallHandler.class);
+    ServerMethodDefinition<Void, Void> methodDef =
+        ServerMethodDefinition.create(TestMethodDescriptors.voidMethod(), handler);
+
+    ServerMethodDefinition<?, ?> wrappedDef = binlog.wrapMethodDefinition(methodDef);
+    assertSame(methodDef, wrappedDef);
+    assertNotSame(
+        BinaryLogProvider.BYTEARRAY_MARSHALLER,
+        wrappedDef.getMethodDescriptor().getRequestMarshaller());
+  }
+
+  @Test
+  public void sampledServerCallMarshalledToBytes() throws Exception {
+    BinaryLogSink sink = mock(BinaryLogSink.class);
+    BinaryLogProviderImpl binlog = new BinaryLogProviderImpl(
+        sink, TestMethodDescriptors.voidMethod().getFullMethodName());
+    @SuppressWarnings("unchecked")
+    ServerCallHandler<Void, Void> handler = mock(ServerCallHandler.class);
+    ServerMethodDefinition<Void, Void> methodDef =
+        ServerMethodDefinition.create(TestMethodDescriptors.voidMethod(), handler);
+
+    ServerMethodDefinition<?, ?> wrappedDef = binlog.wrapMethodDefinition(methodDef);
+    assertSame(
+        BinaryLogProvider.BYTEARRAY_MARSHALLER,
+        wrappedDef.getMethodDescriptor().getRequestMarshaller());
+  }
+
   @Test
   public void closeTest() throws Exception {
     BinaryLogSink sink = mock(BinaryLogSink.class);
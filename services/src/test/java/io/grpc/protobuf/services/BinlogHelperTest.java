@@ -240,6 +240,38 @@ public final class BinlogHelperTest {
         makeOptions("h:256;m"));
   }
 
+  @Test
+  public void createLogFromOptionString_sampling() throws Exception {
+    assertEquals(1.0, makeOptions(null).samplingRate, 0);
+    assertEquals(1.0, makeOptions("h:256;m:256").samplingRate, 0);
+
+    BinlogHelper log = makeOptions("s:0.25");
+    assertSameLimits(BOTH_FULL, log);
+    assertEquals(0.25, log.samplingRate, 0);
+    log = makeOptions("h;s:0.5");
+    assertSameLimits(HEADER_FULL, log);
+    assertEquals(0.5, log.samplingRate, 0);
+    log = makeOptions("h:256;m:256;s:1");
+    assertSameLimits(BOTH_256, log);
+    assertEquals(1.0, log.samplingRate, 0);
+
+    log = makeLog("p.s/m{m:256;s:.01}", "p.s/m");
+    assertSameLimits(MSG_256, log);
+    assertEquals(0.01, log.samplingRate, 0);
+  }
+
+  @Test
+  public void createLogFromOptionString_samplingMalformed() throws Exception {
+    assertIllegalPatternDetected("s:");
+    assertIllegalPatternDetected("s:0");
+    assertIllegalPatternDetected("s:1.5");
+    assertIllegalPatternDetected("s:-0.5");
+    assertIllegalPatternDetected("s:abc");
+    assertIllegalPatternDetected("s:.");
+    assertIllegalPatternDetected("s:0.5;h");
+    assertIllegalPatternDetected("x;s:0.5");
+  }
+
   private void assertIllegalPatternDetected(String perSvcOrMethodConfig) {
     try {
       FactoryImpl.createBinaryLog(sink, perSvcOrMethodConfig);
@@ -0,0 +1,297 @@
+/*
+ * Copyright 2024 The gRPC Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.grpc.stub;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+
+import io.grpc.ClientCall;
+import io.grpc.ExperimentalApi;
+import io.grpc.Metadata;
+import io.grpc.Status;
+import io.grpc.StatusException;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.GuardedBy;
+
+/**
+ * A client-streaming or bidirectional-streaming call driven by blocking calls, intended for
+ * straight-line code running on (virtual) threads that may block.
+ *
+ * <p>Flow control is honored in both directions: {@link #write} blocks until the transport is
+ * ready to accept another message, and only one response message is requested at a time, so
+ * neither side buffers an unbounded number of messages.
+ *
+ * <p>One thread may read while another thread writes. Concurrent reads, or concurrent writes, are
+ * not supported. If a thread is interrupted while blocked, the call is cancelled and {@link
+ * InterruptedException} is thrown.
+ *
+ * <p>Instances are created with {@link ClientCalls#blockingBidiStreamingCall} or {@link
+ * ClientCalls#blockingClientStreamingCall}.
+ */
+@ExperimentalApi("https://github.com/grpc/grpc-java/issues/8499")
+public final class BlockingClientCall<ReqT, RespT> {
+  private final ClientCall<ReqT, RespT> call;
+  // Virtual threads blocked on a ReentrantLock unmount from their carrier; synchronized would pin.
+  private final ReentrantLock lock = new ReentrantLock();
+  private final Condition stateChanged = lock.newCondition();
+  // Holds at most one message, as only one is requested at a time.
+  @GuardedBy("lock")
+  private final Queue<RespT> buffer = new ArrayDeque<>();
+  @GuardedBy("lock")
+  private Status closedStatus;
+  @GuardedBy("lock")
+  private Metadata closedTrailers;
+  @GuardedBy("lock")
+  private boolean halfClosed;
+
+  BlockingClientCall(ClientCall<ReqT, RespT> call) {
+    this.call = checkNotNull(call, "call");
+  }
+
+  void start() {
+    lock.lock();
+    try {
+      call.start(new Listener(), new Metadata());
+      call.request(1);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Waits for the next response message.
+   *
+   * @return the next message, or {@code null} if the server completed the call successfully
+   * @throws StatusException if the call failed
+   */
+  @Nullable
+  public RespT read() throws InterruptedException, StatusException {
+    try {
+      return read(false, 0);
+    } catch (TimeoutException e) {
+      throw new AssertionError(e);
+    }
+  }
+
+  /**
+   * Waits up to {@code timeout} for the next response message. The call is not cancelled if the
+   * timeout expires.
+   *
+   * @return the next message, or {@code null} if the server completed the call successfully
+   * @throws StatusException if the call failed
+   * @throws TimeoutException if no message arrived and the call did not complete in time
+   */
+  @Nullable
+  public RespT read(long timeout, TimeUnit unit)
+      throws InterruptedException, StatusException, TimeoutException {
+    return read(true, unit.toNanos(timeout));
+  }
+
+  @Nullable
+  private RespT read(boolean timed, long timeoutNanos)
+      throws InterruptedException, StatusException, TimeoutException {
+    lock.lock();
+    try {
+      while (buffer.isEmpty() && closedStatus == null) {
+        timeoutNanos = await(timed, timeoutNanos);
+      }
+      RespT message = buffer.poll();
+      if (message != null) {
+        if (closedStatus == null) {
+          call.request(1);
+        }
+        return message;
+      }
+      if (!closedStatus.isOk()) {
+        throw closedStatus.asException(closedTrailers);
+      }
+      return null;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Waits until a response message is available or the call completes. Returns {@code false} if
+   * the call completed successfully and all messages have been read.
+   *
+   * @throws StatusException if the call failed and all messages have been read
+   */
+  public boolean hasNext() throws InterruptedException, StatusException {
+    lock.lock();
+    try {
+      while (buffer.isEmpty() && closedStatus == null) {
+        try {
+          await(false, 0);
+        } catch (TimeoutException e) {
+          throw new AssertionError(e);
+        }
+      }
+      if (!buffer.isEmpty()) {
+        return true;
+      }
+      if (!closedStatus.isOk()) {
+        throw closedStatus.asException(closedTrailers);
+      }
+      return false;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Sends a request message, first waiting until the transport is ready to accept it.
+   *
+   * @return {@code true} if the message was sent, or {@code false} if the call has already
+   *     completed; use {@link #read} to learn its status
+   */
+  public boolean write(ReqT request) throws InterruptedException {
+    try {
+      return write(request, false, 0);
+    } catch (TimeoutException e) {
+      throw new AssertionError(e);
+    }
+  }
+
+  /**
+   * Sends a request message, first waiting up to {@code timeout} until the transport is ready to
+   * accept it. The call is not cancelled if the timeout expires.
+   *
+   * @return {@code true} if the message was sent, or {@code false} if the call has already
+   *     completed; use {@link #read} to learn its status
+   * @throws TimeoutException if the transport did not become ready in time
+   */
+  public boolean write(ReqT request, long timeout, TimeUnit unit)
+      throws InterruptedException, TimeoutException {
+    return write(request, true, unit.toNanos(timeout));
+  }
+
+  private boolean write(ReqT request, boolean timed, long timeoutNanos)
+      throws InterruptedException, TimeoutException {
+    lock.lock();
+    try {
+      checkState(!halfClosed, "Already half-closed");
+      while (closedStatus == null && !call.isReady()) {
+        timeoutNanos = await(timed, timeoutNanos);
+      }
+      if (closedStatus != null) {
+        return false;
+      }
+      call.sendMessage(request);
+      return true;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Signals that no more request messages will be written. Response messages may still be read.
+   */
+  public void halfClose() {
+    lock.lock();
+    try {
+      checkState(!halfClosed, "Already half-closed");
+      halfClosed = true;
+      if (closedStatus == null) {
+        call.halfClose();
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Cancels the call. Blocked and later reads fail with a {@code CANCELLED} status.
+   */
+  public void cancel(@Nullable String message, @Nullable Throwable cause) {
+    call.cancel(message, cause);
+  }
+
+  /**
+   * Returns the status the call completed with, or {@code null} if it hasn't completed yet.
+   */
+  @Nullable
+  public Status getClosedStatus() {
+    lock.lock();
+    try {
+      return closedStatus;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @GuardedBy("lock")
+  private long await(boolean timed, long timeoutNanos)
+      throws InterruptedException, TimeoutException {
+    try {
+      if (!timed) {
+        stateChanged.await();
+        return 0;
+      }
+      if (timeoutNanos <= 0) {
+        throw new TimeoutException();
+      }
+      return stateChanged.awaitNanos(timeoutNanos);
+    } catch (InterruptedException e) {
+      call.cancel("Thread interrupted", e);
+      throw e;
+    }
+  }
+
+  private final class Listener extends ClientCall.Listener<RespT> {
+    @Override
+    public void onMessage(RespT message) {
+      lock.lock();
+      try {
+        checkState(closedStatus == null, "ClientCall already closed");
+        buffer.add(message);
+        stateChanged.signalAll();
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    @Override
+    public void onReady() {
+      lock.lock();
+      try {
+        stateChanged.signalAll();
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    @Override
+    public void onClose(Status status, Metadata trailers) {
+      lock.lock();
+      try {
+        checkState(closedStatus == null, "ClientCall already closed");
+        closedStatus = status;
+        closedTrailers = trailers;
+        stateChanged.signalAll();
+      } finally {
+        lock.unlock();
+      }
+    }
+  }
+}
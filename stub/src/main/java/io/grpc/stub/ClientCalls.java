@@ -28,6 +28,7 @@ import com.google.common.util.concurrent.ListenableFuture;
 import io.grpc.CallOptions;
 import io.grpc.Channel;
 import io.grpc.ClientCall;
+import io.grpc.ExperimentalApi;
 import io.grpc.Metadata;
 import io.grpc.MethodDescriptor;
 import io.grpc.Status;
@@ -211,6 +212,45 @@ public final class ClientCalls {
     return result;
   }
 
+  /**
+   * Starts a bidirectional-streaming call that is driven by blocking reads and writes, which is
+   * convenient on virtual threads. Writes wait for the transport to be ready and responses are
+   * requested one at a time, so neither direction buffers without bound.
+   *
+   * @return the started call
+   */
+  @ExperimentalApi("https://github.com/grpc/grpc-java/issues/8499")
+  public static <ReqT, RespT> BlockingClientCall<ReqT, RespT> blockingBidiStreamingCall(
+      Channel channel, MethodDescriptor<ReqT, RespT> method, CallOptions callOptions) {
+    return blockingStreamingRequestCall(channel, method, callOptions);
+  }
+
+  /**
+   * Starts a client-streaming call that is driven by blocking writes, which is convenient on
+   * virtual threads. Writes wait for the transport to be ready. After {@link
+   * BlockingClientCall#halfClose}, {@link BlockingClientCall#read} returns the single response.
+   *
+   * @return the started call
+   */
+  @ExperimentalApi("https://github.com/grpc/grpc-java/issues/8499")
+  public static <ReqT, RespT> BlockingClientCall<ReqT, RespT> blockingClientStreamingCall(
+      Channel channel, MethodDescriptor<ReqT, RespT> method, CallOptions callOptions) {
+    return blockingStreamingRequestCall(channel, method, callOptions);
+  }
+
+  private static <ReqT, RespT> BlockingClientCall<ReqT, RespT> blockingStreamingRequestCall(
+      Channel channel, MethodDescriptor<ReqT, RespT> method, CallOptions callOptions) {
+    ClientCall<ReqT, RespT> call = channel.newCall(method,
+        callOptions.withOption(ClientCalls.STUB_TYPE_OPTION, StubType.BLOCKING));
+    BlockingClientCall<ReqT, RespT> result = new BlockingClientCall<>(call);
+    try {
+      result.start();
+    } catch (RuntimeException | Error e) {
+      throw cancelThrow(call, e);
+    }
+    return result;
+  }
+
   /**
    * Executes a unary call and returns a {@link ListenableFuture} to the response.  The
    * {@code call} should not be already started.  After calling this method, {@code call} should no
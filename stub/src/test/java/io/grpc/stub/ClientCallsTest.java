@@ -44,6 +44,7 @@ import io.grpc.Server;
 import io.grpc.ServerServiceDefinition;
 import io.grpc.ServiceDescriptor;
 import io.grpc.Status;
+import io.grpc.StatusException;
 import io.grpc.StatusRuntimeException;
 import io.grpc.inprocess.InProcessChannelBuilder;
 import io.grpc.inprocess.InProcessServerBuilder;
@@ -63,6 +64,7 @@ import java.util.concurrent.Executor;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicReference;
 import org.junit.After;
 import org.junit.Before;
@@ -93,6 +95,8 @@ public class ClientCallsTest {
           .build();
   private static final MethodDescriptor<Integer, Integer> SERVER_STREAMING_METHOD =
       UNARY_METHOD.toBuilder().setType(MethodDescriptor.MethodType.SERVER_STREAMING).build();
+  private static final MethodDescriptor<Integer, Integer> CLIENT_STREAMING_METHOD =
+      UNARY_METHOD.toBuilder().setType(MethodDescriptor.MethodType.CLIENT_STREAMING).build();
   private static final MethodDescriptor<Integer, Integer> BIDI_STREAMING_METHOD =
       UNARY_METHOD.toBuilder().setType(MethodDescriptor.MethodType.BIDI_STREAMING).build();
 
@@ -951,6 +955,176 @@ public class ClientCallsTest {
     assertTrue("context not cancelled", methodImpl.observer.isCancelled());
   }
 
+  @Test
+  public void blockingBidiStreamingCall_echo() throws Exception {
+    startEchoServer("blocking-bidi");
+    BlockingClientCall<Integer, Integer> call = ClientCalls.blockingBidiStreamingCall(
+        channel, BIDI_STREAMING_METHOD, CallOptions.DEFAULT);
+    for (int i = 0; i < 3; i++) {
+      assertTrue(call.write(i));
+      assertEquals(Integer.valueOf(i), call.read());
+    }
+    call.halfClose();
+    assertFalse(call.hasNext());
+    assertNull(call.read());
+    assertEquals(Status.Code.OK, call.getClosedStatus().getCode());
+  }
+
+  @Test
+  public void blockingClientStreamingCall_singleResponse() throws Exception {
+    ServerCalls.ClientStreamingMethod<Integer, Integer> methodImpl =
+        new ServerCalls.ClientStreamingMethod<Integer, Integer>() {
+          @Override
+          public StreamObserver<Integer> invoke(final StreamObserver<Integer> responseObserver) {
+            return new StreamObserver<Integer>() {
+              int sum;
+
+              @Override
+              public void onNext(Integer value) {
+                sum += value;
+              }
+
+              @Override
+              public void onError(Throwable t) {}
+
+              @Override
+              public void onCompleted() {
+                responseObserver.onNext(sum);
+                responseObserver.onCompleted();
+              }
+            };
+          }
+        };
+    server = InProcessServerBuilder.forName("blocking-client-streaming").directExecutor()
+        .addService(ServerServiceDefinition.builder("some")
+            .addMethod(CLIENT_STREAMING_METHOD, ServerCalls.asyncClientStreamingCall(methodImpl))
+            .build())
+        .build().start();
+    channel = InProcessChannelBuilder.forName("blocking-client-streaming").directExecutor().build();
+
+    BlockingClientCall<Integer, Integer> call = ClientCalls.blockingClientStreamingCall(
+        channel, CLIENT_STREAMING_METHOD, CallOptions.DEFAULT);
+    for (int i = 1; i <= 4; i++) {
+      assertTrue(call.write(i));
+    }
+    call.halfClose();
+    assertEquals(Integer.valueOf(10), call.read());
+    assertNull(call.read());
+  }
+
+  @Test
+  public void blockingBidiStreamingCall_failure() throws Exception {
+    ServerCalls.BidiStreamingMethod<Integer, Integer> methodImpl =
+        new ServerCalls.BidiStreamingMethod<Integer, Integer>() {
+          @Override
+          public StreamObserver<Integer> invoke(final StreamObserver<Integer> responseObserver) {
+            return new NoopStreamObserver<Integer>() {
+              @Override
+              public void onNext(Integer value) {
+                responseObserver.onError(Status.INTERNAL.withDescription("boom").asException());
+              }
+            };
+          }
+        };
+    server = InProcessServerBuilder.forName("blocking-bidi-failure").directExecutor()
+        .addService(ServerServiceDefinition.builder("some")
+            .addMethod(BIDI_STREAMING_METHOD, ServerCalls.asyncBidiStreamingCall(methodImpl))
+            .build())
+        .build().start();
+    channel = InProcessChannelBuilder.forName("blocking-bidi-failure").directExecutor().build();
+
+    BlockingClientCall<Integer, Integer> call = ClientCalls.blockingBidiStreamingCall(
+        channel, BIDI_STREAMING_METHOD, CallOptions.DEFAULT);
+    assertTrue(call.write(1));
+    try {
+      call.read();
+      fail("Should have thrown");
+    } catch (StatusException e) {
+      assertEquals(Status.Code.INTERNAL, e.getStatus().getCode());
+      assertEquals("boom", e.getStatus().getDescription());
+    }
+    assertFalse(call.write(2));
+  }
+
+  @Test
+  public void blockingBidiStreamingCall_readTimeout() throws Exception {
+    ServerCalls.BidiStreamingMethod<Integer, Integer> methodImpl =
+        new ServerCalls.BidiStreamingMethod<Integer, Integer>() {
+          @Override
+          public StreamObserver<Integer> invoke(StreamObserver<Integer> responseObserver) {
+            return new NoopStreamObserver<>();
+          }
+        };
+    server = InProcessServerBuilder.forName("blocking-bidi-timeout").directExecutor()
+        .addService(ServerServiceDefinition.builder("some")
+            .addMethod(BIDI_STREAMING_METHOD, ServerCalls.asyncBidiStreamingCall(methodImpl))
+            .build())
+        .build().start();
+    channel = InProcessChannelBuilder.forName("blocking-bidi-timeout").directExecutor().build();
+
+    BlockingClientCall<Integer, Integer> call = ClientCalls.blockingBidiStreamingCall(
+        channel, BIDI_STREAMING_METHOD, CallOptions.DEFAULT);
+    try {
+      call.read(10, TimeUnit.MILLISECONDS);
+      fail("Should have thrown");
+    } catch (TimeoutException expected) {
+    }
+    assertNull(call.getClosedStatus());
+
+    call.cancel("give up", null);
+    try {
+      call.read(10, TimeUnit.SECONDS);
+      fail("Should have thrown");
+    } catch (StatusException e) {
+      assertEquals(Status.Code.CANCELLED, e.getStatus().getCode());
+    }
+  }
+
+  @Test
+  public void blockingBidiStreamingCall_HasBlockingStubType() {
+    NoopClientCall<Integer, Integer> call = new NoopClientCall<>();
+    when(mockChannel.newCall(
+        ArgumentMatchers.<MethodDescriptor<Integer, Integer>>any(), any(CallOptions.class)))
+        .thenReturn(call);
+
+    BlockingClientCall<Integer, Integer> unused = ClientCalls.blockingBidiStreamingCall(
+        mockChannel, BIDI_STREAMING_METHOD, CallOptions.DEFAULT);
+
+    verify(mockChannel).newCall(methodDescriptorCaptor.capture(), callOptionsCaptor.capture());
+    CallOptions capturedCallOption = callOptionsCaptor.getValue();
+    assertThat(capturedCallOption.getOption(ClientCalls.STUB_TYPE_OPTION))
+        .isEquivalentAccordingToCompareTo(StubType.BLOCKING);
+  }
+
+  private void startEchoServer(String name) throws Exception {
+    ServerCalls.BidiStreamingMethod<Integer, Integer> methodImpl =
+        new ServerCalls.BidiStreamingMethod<Integer, Integer>() {
+          @Override
+          public StreamObserver<Integer> invoke(final StreamObserver<Integer> responseObserver) {
+            return new StreamObserver<Integer>() {
+              @Override
+              public void onNext(Integer value) {
+                responseObserver.onNext(value);
+              }
+
+              @Override
+              public void onError(Throwable t) {}
+
+              @Override
+              public void onCompleted() {
+                responseObserver.onCompleted();
+              }
+            };
+          }
+        };
+    server = InProcessServerBuilder.forName(name).directExecutor()
+        .addService(ServerServiceDefinition.builder("some")
+            .addMethod(BIDI_STREAMING_METHOD, ServerCalls.asyncBidiStreamingCall(methodImpl))
+            .build())
+        .build().start();
+    channel = InProcessChannelBuilder.forName(name).directExecutor().build();
+  }
+
   // Used for blocking tests to check interrupt behavior and make sure onClose is still called.
   class InterruptInterceptor implements ClientInterceptor {
     boolean onCloseCalled;
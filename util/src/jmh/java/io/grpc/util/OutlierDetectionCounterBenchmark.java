@@ -0,0 +1,124 @@
+/*
+ * Copyright 2024 The gRPC Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.grpc.util;
+
+import io.grpc.ClientStreamTracer;
+import io.grpc.LoadBalancer;
+import io.grpc.LoadBalancerProvider;
+import io.grpc.Metadata;
+import io.grpc.Status;
+import io.grpc.internal.ServiceConfigUtil.PolicySelection;
+import io.grpc.util.OutlierDetectionLoadBalancer.EndpointTracker;
+import io.grpc.util.OutlierDetectionLoadBalancer.OutlierDetectionLoadBalancerConfig;
+import io.grpc.util.OutlierDetectionLoadBalancer.OutlierDetectionLoadBalancerConfig.SuccessRateEjection;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+/**
+ * Benchmark for counting call results in {@link OutlierDetectionLoadBalancer}, with many threads
+ * calling few endpoints.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Threads(Threads.MAX)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class OutlierDetectionCounterBenchmark {
+
+  @Param({"1", "4"})
+  public int endpointCount;
+
+  private static final ClientStreamTracer.StreamInfo STREAM_INFO =
+      ClientStreamTracer.StreamInfo.newBuilder().build();
+
+  private final Metadata headers = new Metadata();
+  private final AtomicInteger nextThread = new AtomicInteger();
+  private EndpointTracker[] trackers;
+  private AtomicLong[] atomicCounters;
+
+  /** Creates the endpoint trackers, with success rate ejection so that calls are counted. */
+  @Setup(Level.Trial)
+  public void setUp() {
+    LoadBalancerProvider childProvider = new LoadBalancerProvider() {
+      @Override
+      public boolean isAvailable() {
+        return true;
+      }
+
+      @Override
+      public int getPriority() {
+        return 5;
+      }
+
+      @Override
+      public String getPolicyName() {
+        return "benchmark_child";
+      }
+
+      @Override
+      public LoadBalancer newLoadBalancer(LoadBalancer.Helper helper) {
+        throw new UnsupportedOperationException();
+      }
+    };
+    OutlierDetectionLoadBalancerConfig config = new OutlierDetectionLoadBalancerConfig.Builder()
+        .setSuccessRateEjection(new SuccessRateEjection.Builder().build())
+        .setChildPolicy(new PolicySelection(childProvider, null))
+        .build();
+    trackers = new EndpointTracker[endpointCount];
+    atomicCounters = new AtomicLong[endpointCount];
+    for (int i = 0; i < endpointCount; i++) {
+      trackers[i] = new EndpointTracker(config);
+      atomicCounters[i] = new AtomicLong();
+    }
+  }
+
+  @State(Scope.Thread)
+  public static class ThreadState {
+    int endpoint;
+
+    @Setup(Level.Trial)
+    public void setUp(OutlierDetectionCounterBenchmark benchmark) {
+      endpoint = benchmark.nextThread.getAndIncrement() % benchmark.endpointCount;
+    }
+  }
+
+  /** Counts a call result the way the stream tracer of a picked subchannel does. */
+  @Benchmark
+  public void streamClosed(ThreadState thread) {
+    trackers[thread.endpoint].resultCountingTracerFactory
+        .newClientStreamTracer(STREAM_INFO, headers)
+        .streamClosed(Status.OK);
+  }
+
+  /** A single shared {@link AtomicLong} per endpoint, for comparison. */
+  @Benchmark
+  public long atomicLong(ThreadState thread) {
+    return atomicCounters[thread.endpoint].incrementAndGet();
+  }
+}
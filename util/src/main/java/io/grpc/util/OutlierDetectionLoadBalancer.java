@@ -22,6 +22,7 @@ import static com.google.common.base.Preconditions.checkState;
 import static java.util.concurrent.TimeUnit.NANOSECONDS;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Ticker;
 import com.google.common.collect.ForwardingMap;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
@@ -41,8 +42,10 @@ import io.grpc.SynchronizationContext;
 import io.grpc.SynchronizationContext.ScheduledHandle;
 import io.grpc.internal.ServiceConfigUtil.PolicySelection;
 import io.grpc.internal.TimeProvider;
+import io.grpc.util.OutlierDetectionLoadBalancer.OutlierDetectionLoadBalancerConfig.LatencyEjection;
 import java.net.SocketAddress;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -51,7 +54,7 @@ import java.util.Map;
 import java.util.Random;
 import java.util.Set;
 import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
 import javax.annotation.Nullable;
 
 /**
@@ -70,6 +73,9 @@ import javax.annotation.Nullable;
  * EndpointTracker has reference to all the subchannels of the corresponding endpoint.
  * Second, trackerMap maps from unordered address set -> endpoint tracker.
  * Updated upon address updates.
+ *
+ * <p>In addition to the algorithms of the gRFC, endpoints can be ejected when their tail latency
+ * is an outlier compared to the other endpoints, see {@link LatencyEjection}.
  */
 @Internal
 public final class OutlierDetectionLoadBalancer extends LoadBalancer {
@@ -84,6 +90,8 @@ public final class OutlierDetectionLoadBalancer extends LoadBalancer {
   private final Helper childHelper;
   private final GracefulSwitchLoadBalancer switchLb;
   private TimeProvider timeProvider;
+  // Measures call latencies.
+  private final Ticker ticker;
   private final ScheduledExecutorService timeService;
   private ScheduledHandle detectionTimerHandle;
   private Long detectionTimerStartNanos;
@@ -97,6 +105,11 @@ public final class OutlierDetectionLoadBalancer extends LoadBalancer {
    * Creates a new instance of {@link OutlierDetectionLoadBalancer}.
    */
   public OutlierDetectionLoadBalancer(Helper helper, TimeProvider timeProvider) {
+    this(helper, timeProvider, Ticker.systemTicker());
+  }
+
+  @VisibleForTesting
+  OutlierDetectionLoadBalancer(Helper helper, TimeProvider timeProvider, Ticker ticker) {
     logger = helper.getChannelLogger();
     childHelper = new ChildHelper(checkNotNull(helper, "helper"));
     switchLb = new GracefulSwitchLoadBalancer(childHelper);
@@ -104,6 +117,7 @@ public final class OutlierDetectionLoadBalancer extends LoadBalancer {
     this.syncContext = checkNotNull(helper.getSynchronizationContext(), "syncContext");
     this.timeService = checkNotNull(helper.getScheduledExecutorService(), "timeService");
     this.timeProvider = timeProvider;
+    this.ticker = checkNotNull(ticker, "ticker");
     logger.log(ChannelLogLevel.DEBUG, "OutlierDetection lb created.");
   }
 
@@ -132,7 +146,7 @@ public final class OutlierDetectionLoadBalancer extends LoadBalancer {
     endpointTrackerMap.updateTrackerConfigs(config);
 
     // Add any new ones.
-    endpointTrackerMap.putNewTrackers(config, endpoints);
+    endpointTrackerMap.putNewTrackers(config, endpoints, ticker);
 
     // Update address -> tracker map.
     addressMap.clear();
@@ -267,7 +281,8 @@ public final class OutlierDetectionLoadBalancer extends LoadBalancer {
   class OutlierDetectionSubchannel extends ForwardingSubchannel {
 
     private final Subchannel delegate;
-    private EndpointTracker endpointTracker;
+    // Read by the picker without going through getAttributes(), which allocates.
+    private volatile EndpointTracker endpointTracker;
     private boolean ejected;
     private ConnectivityStateInfo lastSubchannelState;
 
@@ -447,56 +462,74 @@ public final class OutlierDetectionLoadBalancer extends LoadBalancer {
 
       Subchannel subchannel = pickResult.getSubchannel();
       if (subchannel != null) {
-        return PickResult.withSubchannel(subchannel, new ResultCountingClientStreamTracerFactory(
-            subchannel.getAttributes().get(ENDPOINT_TRACKER_KEY),
-            pickResult.getStreamTracerFactory()));
+        EndpointTracker tracker = subchannel instanceof OutlierDetectionSubchannel
+            ? ((OutlierDetectionSubchannel) subchannel).endpointTracker
+            : subchannel.getAttributes().get(ENDPOINT_TRACKER_KEY);
+        ClientStreamTracer.Factory delegateFactory = pickResult.getStreamTracerFactory();
+        return PickResult.withSubchannel(subchannel,
+            tracker != null && delegateFactory == null
+                ? tracker.resultCountingTracerFactory
+                : new ResultCountingClientStreamTracerFactory(tracker, delegateFactory));
       }
 
       return pickResult;
     }
+  }
 
-    /**
-     * Builds instances of a {@link ClientStreamTracer} that increments the call count in the
-     * tracker for each closed stream.
-     */
-    class ResultCountingClientStreamTracerFactory extends ClientStreamTracer.Factory {
+  /**
+   * Builds instances of a {@link ClientStreamTracer} that increments the call count in the
+   * tracker for each closed stream.
+   */
+  static class ResultCountingClientStreamTracerFactory extends ClientStreamTracer.Factory {
 
-      private final EndpointTracker tracker;
+    private static final ClientStreamTracer NOOP_TRACER = new ClientStreamTracer() {};
 
-      @Nullable
-      private final ClientStreamTracer.Factory delegateFactory;
+    private final EndpointTracker tracker;
 
-      ResultCountingClientStreamTracerFactory(EndpointTracker tracker,
-          @Nullable ClientStreamTracer.Factory delegateFactory) {
-        this.tracker = tracker;
-        this.delegateFactory = delegateFactory;
-      }
+    @Nullable
+    private final ClientStreamTracer.Factory delegateFactory;
 
+    // Without a delegate and latency tracking the tracer has no state, so it is shared by all
+    // streams.
+    private final ClientStreamTracer resultCountingTracer = new ClientStreamTracer() {
       @Override
-      public ClientStreamTracer newClientStreamTracer(StreamInfo info, Metadata headers) {
-        if (delegateFactory != null) {
-          ClientStreamTracer delegateTracer = delegateFactory.newClientStreamTracer(info, headers);
-          return new ForwardingClientStreamTracer() {
-            @Override
-            protected ClientStreamTracer delegate() {
-              return delegateTracer;
-            }
-
-            @Override
-            public void streamClosed(Status status) {
-              tracker.incrementCallCount(status.isOk());
-              delegate().streamClosed(status);
-            }
-          };
-        } else {
-          return new ClientStreamTracer() {
-            @Override
-            public void streamClosed(Status status) {
-              tracker.incrementCallCount(status.isOk());
-            }
-          };
-        }
+      public void streamClosed(Status status) {
+        tracker.incrementCallCount(status.isOk());
       }
+    };
+
+    ResultCountingClientStreamTracerFactory(EndpointTracker tracker,
+        @Nullable ClientStreamTracer.Factory delegateFactory) {
+      this.tracker = tracker;
+      this.delegateFactory = delegateFactory;
+    }
+
+    @Override
+    public ClientStreamTracer newClientStreamTracer(StreamInfo info, Metadata headers) {
+      EndpointTracker.LatencyWindow latencyWindow =
+          tracker != null ? tracker.latencyWindow : null;
+      if (delegateFactory == null && latencyWindow == null) {
+        return resultCountingTracer;
+      }
+      ClientStreamTracer delegateTracer = delegateFactory != null
+          ? delegateFactory.newClientStreamTracer(info, headers) : NOOP_TRACER;
+      long startNanos = latencyWindow != null ? tracker.ticker.read() : 0;
+      return new ForwardingClientStreamTracer() {
+        @Override
+        protected ClientStreamTracer delegate() {
+          return delegateTracer;
+        }
+
+        @Override
+        public void streamClosed(Status status) {
+          tracker.incrementCallCount(status.isOk());
+          // Only successful calls are timed, failures are for the other algorithms.
+          if (latencyWindow != null && status.isOk()) {
+            latencyWindow.record(tracker.ticker.read() - startNanos);
+          }
+          delegate().streamClosed(status);
+        }
+      };
     }
   }
 
@@ -510,16 +543,44 @@ public final class OutlierDetectionLoadBalancer extends LoadBalancer {
     // one, all threads see the change and don't hold on to a reference to the now inactive counter.
     private volatile CallCounter activeCallCounter = new CallCounter();
     private CallCounter inactiveCallCounter = new CallCounter();
+    // The counts of the inactive counter when it was swapped out.
+    private long inactiveSuccessCount;
+    private long inactiveFailureCount;
+    final ClientStreamTracer.Factory resultCountingTracerFactory =
+        new ResultCountingClientStreamTracerFactory(this, null);
+    final Ticker ticker;
+    // Latencies of the calls in the sliding window, when latency ejection is enabled.
+    @Nullable
+    private volatile LatencyWindow latencyWindow;
+    // The call count and latency percentile of the window when it last moved.
+    private long windowLatencyVolume;
+    private long windowLatencyNanos;
     private Long ejectionTimeNanos;
     private int ejectionTimeMultiplier;
     private final Set<OutlierDetectionSubchannel> subchannels = new HashSet<>();
 
     EndpointTracker(OutlierDetectionLoadBalancerConfig config) {
-      this.config = config;
+      this(config, Ticker.systemTicker());
+    }
+
+    EndpointTracker(OutlierDetectionLoadBalancerConfig config, Ticker ticker) {
+      this.ticker = ticker;
+      setConfig(config);
     }
 
     void setConfig(OutlierDetectionLoadBalancerConfig config) {
       this.config = config;
+      LatencyEjection latencyEjection = config.latencyEjection;
+      if (latencyEjection == null) {
+        latencyWindow = null;
+        windowLatencyVolume = 0;
+        windowLatencyNanos = 0;
+      } else if (latencyWindow == null
+          || latencyWindow.intervals() != latencyEjection.windowIntervals) {
+        latencyWindow = new LatencyWindow(latencyEjection.windowIntervals);
+        windowLatencyVolume = 0;
+        windowLatencyNanos = 0;
+      }
     }
 
     /**
@@ -558,33 +619,47 @@ public final class OutlierDetectionLoadBalancer extends LoadBalancer {
         return;
       }
 
-      if (success) {
-        activeCallCounter.successCount.getAndIncrement();
-      } else {
-        activeCallCounter.failureCount.getAndIncrement();
-      }
+      activeCallCounter.increment(success);
     }
 
     @VisibleForTesting
     long activeVolume() {
-      return activeCallCounter.successCount.get() + activeCallCounter.failureCount.get();
+      return activeCallCounter.successCount() + activeCallCounter.failureCount();
     }
 
     long inactiveVolume() {
-      return inactiveCallCounter.successCount.get() + inactiveCallCounter.failureCount.get();
+      return inactiveSuccessCount + inactiveFailureCount;
     }
 
     double successRate() {
-      return ((double) inactiveCallCounter.successCount.get()) / inactiveVolume();
+      return ((double) inactiveSuccessCount) / inactiveVolume();
     }
 
     double failureRate() {
-      return ((double)inactiveCallCounter.failureCount.get()) / inactiveVolume();
+      return ((double) inactiveFailureCount) / inactiveVolume();
+    }
+
+    /** The number of successful calls in the latency window. */
+    long latencyVolume() {
+      return windowLatencyVolume;
+    }
+
+    /** The configured percentile of the latencies of the calls in the window. */
+    long latencyNanos() {
+      return windowLatencyNanos;
     }
 
     void resetCallCounters() {
       activeCallCounter.reset();
       inactiveCallCounter.reset();
+      inactiveSuccessCount = 0;
+      inactiveFailureCount = 0;
+      LatencyWindow latencyWindow = this.latencyWindow;
+      if (latencyWindow != null) {
+        latencyWindow.reset();
+      }
+      windowLatencyVolume = 0;
+      windowLatencyNanos = 0;
     }
 
     void decrementEjectionTimeMultiplier() {
@@ -601,13 +676,24 @@ public final class OutlierDetectionLoadBalancer extends LoadBalancer {
      *
      * <p>Note that this method is not thread safe as the swap is not done atomically. This is
      * expected to only be called from the timer that is scheduled at a fixed delay, assuring that
-     * only one timer is active at a time.
+     * only one timer is active at a time. The counts of the now inactive counter are read once,
+     * here, so the ejection algorithms do not need to sum the stripes of the counter again.
      */
     void swapCounters() {
       inactiveCallCounter.reset();
       CallCounter tempCounter = activeCallCounter;
       activeCallCounter = inactiveCallCounter;
       inactiveCallCounter = tempCounter;
+      inactiveSuccessCount = inactiveCallCounter.successCount();
+      inactiveFailureCount = inactiveCallCounter.failureCount();
+
+      LatencyWindow latencyWindow = this.latencyWindow;
+      if (latencyWindow != null) {
+        long[] counts = latencyWindow.advance();
+        windowLatencyVolume = LatencyWindow.volume(counts);
+        windowLatencyNanos =
+            LatencyWindow.percentileNanos(counts, config.latencyEjection.percentile);
+      }
     }
 
     void ejectSubchannels(long ejectionTimeNanos) {
@@ -646,14 +732,208 @@ public final class OutlierDetectionLoadBalancer extends LoadBalancer {
       return currentTimeNanos > maxEjectionTimeNanos;
     }
 
-    /** Tracks both successful and failed call counts. */
-    private static class CallCounter {
-      AtomicLong successCount = new AtomicLong();
-      AtomicLong failureCount = new AtomicLong();
+    /**
+     * Tracks both successful and failed call counts.
+     *
+     * <p>The counts start in a single pair of cells. When concurrent calls contend on them, the
+     * counter switches to stripes, each in its own cache line, picked by thread id. This is what
+     * {@code LongAdder} does, but it is not available on all supported Android versions.
+     */
+    @VisibleForTesting
+    static class CallCounter {
+      // Longs per stripe, so that stripes don't share a cache line. The success count is at
+      // offset 0 and the failure count at offset 1.
+      private static final int STRIPE_WIDTH = 8;
+      private static final int STRIPE_COUNT =
+          stripeCount(Runtime.getRuntime().availableProcessors());
+
+      private final AtomicLongArray base = new AtomicLongArray(2);
+      @Nullable
+      private volatile AtomicLongArray stripes;
+
+      void increment(boolean success) {
+        int offset = success ? 0 : 1;
+        AtomicLongArray stripes = this.stripes;
+        if (stripes == null) {
+          long count = base.get(offset);
+          if (base.compareAndSet(offset, count, count + 1)) {
+            return;
+          }
+          stripes = inflate();
+        }
+        int stripe = (int) Thread.currentThread().getId() & (STRIPE_COUNT - 1);
+        stripes.getAndIncrement(stripe * STRIPE_WIDTH + offset);
+      }
+
+      private synchronized AtomicLongArray inflate() {
+        if (stripes == null) {
+          stripes = new AtomicLongArray(STRIPE_COUNT * STRIPE_WIDTH);
+        }
+        return stripes;
+      }
+
+      long successCount() {
+        return sum(0);
+      }
+
+      long failureCount() {
+        return sum(1);
+      }
+
+      private long sum(int offset) {
+        long sum = base.get(offset);
+        AtomicLongArray stripes = this.stripes;
+        if (stripes != null) {
+          for (int i = offset; i < stripes.length(); i += STRIPE_WIDTH) {
+            sum += stripes.get(i);
+          }
+        }
+        return sum;
+      }
+
+      void reset() {
+        base.set(0, 0);
+        base.set(1, 0);
+        AtomicLongArray stripes = this.stripes;
+        if (stripes != null) {
+          for (int i = 0; i < stripes.length(); i += STRIPE_WIDTH) {
+            stripes.set(i, 0);
+            stripes.set(i + 1, 0);
+          }
+        }
+      }
+
+      /** Returns the smallest power of two that is at least the number of processors, up to 64. */
+      @VisibleForTesting
+      static int stripeCount(int processors) {
+        int count = 1;
+        while (count < processors && count < 64) {
+          count <<= 1;
+        }
+        return count;
+      }
+    }
+
+    /**
+     * The latencies of the calls of the last few detection intervals, in a log-linear histogram.
+     * Each power of two is divided into {@code SUB_BUCKETS} buckets, so a percentile is
+     * estimated within 1/{@code SUB_BUCKETS} of its value, in a fixed amount of memory.
+     *
+     * <p>There is one histogram per interval of the window, plus the one of the current interval.
+     * Moving the window clears the oldest histogram and makes it current.
+     */
+    @VisibleForTesting
+    static final class LatencyWindow {
+      // Latencies are recorded in units of 2^UNIT_SHIFT ns, about a microsecond.
+      private static final int UNIT_SHIFT = 10;
+      private static final int SUB_BUCKET_BITS = 3;
+      private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+      // Latencies of 2^(MAX_EXPONENT + 1) units or more, about 36 minutes, are counted in the
+      // last bucket.
+      private static final int MAX_EXPONENT = 30;
+      @VisibleForTesting
+      static final int BUCKET_COUNT = (MAX_EXPONENT - SUB_BUCKET_BITS + 2) * SUB_BUCKETS;
+
+      private final AtomicLongArray[] histograms;
+      private volatile int current;
+
+      LatencyWindow(int intervals) {
+        checkArgument(intervals > 0, "intervals must be positive");
+        histograms = new AtomicLongArray[intervals + 1];
+        for (int i = 0; i < histograms.length; i++) {
+          histograms[i] = new AtomicLongArray(BUCKET_COUNT);
+        }
+      }
+
+      int intervals() {
+        return histograms.length - 1;
+      }
+
+      void record(long latencyNanos) {
+        histograms[current].getAndIncrement(bucket(Math.max(0, latencyNanos) >>> UNIT_SHIFT));
+      }
+
+      /**
+       * Starts a new interval, dropping the oldest one, and returns the bucket counts of the
+       * intervals in the window. Not thread safe, it is only called by the detection timer.
+       */
+      long[] advance() {
+        int next = current + 1 == histograms.length ? 0 : current + 1;
+        AtomicLongArray histogram = histograms[next];
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+          histogram.set(i, 0);
+        }
+        current = next;
+
+        long[] counts = new long[BUCKET_COUNT];
+        for (int h = 0; h < histograms.length; h++) {
+          if (h == next) {
+            continue;
+          }
+          for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts[i] += histograms[h].get(i);
+          }
+        }
+        return counts;
+      }
 
       void reset() {
-        successCount.set(0);
-        failureCount.set(0);
+        for (AtomicLongArray histogram : histograms) {
+          for (int i = 0; i < BUCKET_COUNT; i++) {
+            histogram.set(i, 0);
+          }
+        }
+      }
+
+      static long volume(long[] counts) {
+        long volume = 0;
+        for (long count : counts) {
+          volume += count;
+        }
+        return volume;
+      }
+
+      /** Returns the estimated percentile of the latencies, or 0 if there are none. */
+      static long percentileNanos(long[] counts, int percentile) {
+        long volume = volume(counts);
+        if (volume == 0) {
+          return 0;
+        }
+        // The rank of the percentile, rounded up.
+        long rank = Math.max(1, (volume * percentile + 99) / 100);
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+          seen += counts[i];
+          if (seen >= rank) {
+            // The middle of the bucket.
+            return (lowerBound(i) + lowerBound(i + 1)) / 2 << UNIT_SHIFT;
+          }
+        }
+        throw new AssertionError();
+      }
+
+      @VisibleForTesting
+      static int bucket(long units) {
+        if (units < SUB_BUCKETS) {
+          return (int) units;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(units);
+        if (exponent > MAX_EXPONENT) {
+          return BUCKET_COUNT - 1;
+        }
+        int subBucket = (int) (units >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+      }
+
+      /** The smallest value of the bucket, in units. */
+      @VisibleForTesting
+      static long lowerBound(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+          return bucket;
+        }
+        int exponent = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        long subBucket = bucket % SUB_BUCKETS;
+        return (SUB_BUCKETS + subBucket) << (exponent - SUB_BUCKET_BITS);
       }
     }
 
@@ -688,8 +968,8 @@ public final class OutlierDetectionLoadBalancer extends LoadBalancer {
 
     /** Adds a new tracker for every given address. */
     void putNewTrackers(OutlierDetectionLoadBalancerConfig config,
-        Set<Set<SocketAddress>> endpoints) {
-      endpoints.forEach(e -> trackerMap.putIfAbsent(e, new EndpointTracker(config)));
+        Set<Set<SocketAddress>> endpoints, Ticker ticker) {
+      endpoints.forEach(e -> trackerMap.putIfAbsent(e, new EndpointTracker(config, ticker)));
     }
 
     /** Resets the call counters for all the trackers in the map. */
@@ -776,6 +1056,9 @@ public final class OutlierDetectionLoadBalancer extends LoadBalancer {
       if (config.failurePercentageEjection != null) {
         algoListBuilder.add(new FailurePercentageOutlierEjectionAlgorithm(config, logger));
       }
+      if (config.latencyEjection != null) {
+        algoListBuilder.add(new LatencyOutlierEjectionAlgorithm(config, logger));
+      }
       return algoListBuilder.build();
     }
   }
@@ -923,6 +1206,78 @@ public final class OutlierDetectionLoadBalancer extends LoadBalancer {
     }
   }
 
+  /**
+   * This algorithm ejects endpoints whose latency percentile over the sliding window is too high
+   * compared to the median of that percentile across endpoints. Slow but successful endpoints
+   * are not detected by the other algorithms.
+   */
+  static class LatencyOutlierEjectionAlgorithm implements OutlierEjectionAlgorithm {
+
+    private final OutlierDetectionLoadBalancerConfig config;
+
+    private final ChannelLogger logger;
+
+    LatencyOutlierEjectionAlgorithm(OutlierDetectionLoadBalancerConfig config,
+                                    ChannelLogger logger) {
+      checkArgument(config.latencyEjection != null, "latency ejection config is null");
+      this.config = config;
+      this.logger = logger;
+    }
+
+    @Override
+    public void ejectOutliers(EndpointTrackerMap trackerMap, long ejectionTimeNanos) {
+      LatencyEjection latencyEjection = config.latencyEjection;
+
+      // Only consider endpoints that have the minimum request volume specified in the config.
+      List<EndpointTracker> trackersWithVolume = new ArrayList<>();
+      for (EndpointTracker tracker : trackerMap.values()) {
+        if (tracker.latencyVolume() >= latencyEjection.requestVolume) {
+          trackersWithVolume.add(tracker);
+        }
+      }
+      // If we don't have enough endpoints with significant volume then there's nothing to do.
+      if (trackersWithVolume.size() < latencyEjection.minimumHosts
+          || trackersWithVolume.size() == 0) {
+        return;
+      }
+
+      long[] latencies = new long[trackersWithVolume.size()];
+      for (int i = 0; i < latencies.length; i++) {
+        latencies[i] = trackersWithVolume.get(i).latencyNanos();
+      }
+      double median = median(latencies);
+      double maxLatencyNanos = median * latencyEjection.thresholdPercentage / 100;
+
+      for (EndpointTracker tracker : trackersWithVolume) {
+        // If we are above or equal to the max ejection percentage, don't eject any more. As for
+        // the other algorithms, this allows the total ejections to go one above the max.
+        if (trackerMap.ejectionPercentage() >= config.maxEjectionPercent) {
+          return;
+        }
+
+        if (tracker.latencyNanos() > maxLatencyNanos) {
+          logger.log(ChannelLogLevel.DEBUG,
+                  "Latency algorithm detected outlier: {0}. "
+                          + "Parameters: latencyNanos={1}, medianNanos={2}, maxLatencyNanos={3}",
+                  tracker, tracker.latencyNanos(), median, maxLatencyNanos);
+          // Only eject some endpoints based on the enforcement percentage.
+          if (new Random().nextInt(100) < latencyEjection.enforcementPercentage) {
+            tracker.ejectSubchannels(ejectionTimeNanos);
+          }
+        }
+      }
+    }
+
+    /** Calculates the median of the given values. Sorts the values. */
+    @VisibleForTesting
+    static double median(long[] values) {
+      Arrays.sort(values);
+      int middle = values.length / 2;
+      return values.length % 2 == 1
+          ? values[middle] : (values[middle - 1] + (double) values[middle]) / 2;
+    }
+  }
+
   /** Returns only the trackers that have the minimum configured volume to be considered. */
   private static List<EndpointTracker> trackersWithVolume(EndpointTrackerMap trackerMap,
                                                           int volume) {
@@ -958,6 +1313,7 @@ public final class OutlierDetectionLoadBalancer extends LoadBalancer {
     public final Integer maxEjectionPercent;
     public final SuccessRateEjection successRateEjection;
     public final FailurePercentageEjection failurePercentageEjection;
+    public final LatencyEjection latencyEjection;
     public final PolicySelection childPolicy;
 
     private OutlierDetectionLoadBalancerConfig(Long intervalNanos,
@@ -966,6 +1322,7 @@ public final class OutlierDetectionLoadBalancer extends LoadBalancer {
         Integer maxEjectionPercent,
         SuccessRateEjection successRateEjection,
         FailurePercentageEjection failurePercentageEjection,
+        LatencyEjection latencyEjection,
         PolicySelection childPolicy) {
       this.intervalNanos = intervalNanos;
       this.baseEjectionTimeNanos = baseEjectionTimeNanos;
@@ -973,6 +1330,7 @@ public final class OutlierDetectionLoadBalancer extends LoadBalancer {
       this.maxEjectionPercent = maxEjectionPercent;
       this.successRateEjection = successRateEjection;
       this.failurePercentageEjection = failurePercentageEjection;
+      this.latencyEjection = latencyEjection;
       this.childPolicy = childPolicy;
     }
 
@@ -984,6 +1342,7 @@ public final class OutlierDetectionLoadBalancer extends LoadBalancer {
       Integer maxEjectionPercent = 10;
       SuccessRateEjection successRateEjection;
       FailurePercentageEjection failurePercentageEjection;
+      LatencyEjection latencyEjection;
       PolicySelection childPolicy;
 
       /** The interval between outlier detection sweeps. */
@@ -1028,6 +1387,12 @@ public final class OutlierDetectionLoadBalancer extends LoadBalancer {
         return this;
       }
 
+      /** Set to enable latency ejection. */
+      public Builder setLatencyEjection(LatencyEjection latencyEjection) {
+        this.latencyEjection = latencyEjection;
+        return this;
+      }
+
       /** Sets the child policy the {@link OutlierDetectionLoadBalancer} delegates to. */
       public Builder setChildPolicy(PolicySelection childPolicy) {
         checkState(childPolicy != null);
@@ -1040,7 +1405,7 @@ public final class OutlierDetectionLoadBalancer extends LoadBalancer {
         checkState(childPolicy != null);
         return new OutlierDetectionLoadBalancerConfig(intervalNanos, baseEjectionTimeNanos,
             maxEjectionTimeNanos, maxEjectionPercent, successRateEjection,
-            failurePercentageEjection, childPolicy);
+            failurePercentageEjection, latencyEjection, childPolicy);
       }
     }
 
@@ -1174,9 +1539,104 @@ public final class OutlierDetectionLoadBalancer extends LoadBalancer {
       }
     }
 
+    /**
+     * The configuration for latency ejection. An endpoint is ejected when a percentile of the
+     * latencies of its successful calls, over a sliding window of detection intervals, is above a
+     * percentage of the median of that percentile across endpoints.
+     */
+    public static class LatencyEjection {
+      public final Integer percentile;
+      public final Integer thresholdPercentage;
+      public final Integer windowIntervals;
+      public final Integer enforcementPercentage;
+      public final Integer minimumHosts;
+      public final Integer requestVolume;
+
+      LatencyEjection(Integer percentile, Integer thresholdPercentage, Integer windowIntervals,
+          Integer enforcementPercentage, Integer minimumHosts, Integer requestVolume) {
+        this.percentile = percentile;
+        this.thresholdPercentage = thresholdPercentage;
+        this.windowIntervals = windowIntervals;
+        this.enforcementPercentage = enforcementPercentage;
+        this.minimumHosts = minimumHosts;
+        this.requestVolume = requestVolume;
+      }
+
+      /** Builds new instances of {@link LatencyEjection}. */
+      public static final class Builder {
+        Integer percentile = 99;
+        Integer thresholdPercentage = 200;
+        Integer windowIntervals = 3;
+        Integer enforcementPercentage = 100;
+        Integer minimumHosts = 5;
+        Integer requestVolume = 100;
+
+        /** The latency percentile that is compared across endpoints, for example 50 or 99. */
+        public Builder setPercentile(Integer percentile) {
+          checkArgument(percentile != null);
+          checkArgument(percentile > 0 && percentile <= 100);
+          this.percentile = percentile;
+          return this;
+        }
+
+        /**
+         * The percentage of the median latency percentile above which an endpoint is considered
+         * an outlier.
+         */
+        public Builder setThresholdPercentage(Integer thresholdPercentage) {
+          checkArgument(thresholdPercentage != null);
+          checkArgument(thresholdPercentage >= 100);
+          this.thresholdPercentage = thresholdPercentage;
+          return this;
+        }
+
+        /** The number of detection intervals the latencies are collected over. */
+        public Builder setWindowIntervals(Integer windowIntervals) {
+          checkArgument(windowIntervals != null);
+          checkArgument(windowIntervals > 0);
+          this.windowIntervals = windowIntervals;
+          return this;
+        }
+
+        /** Only eject this percentage of outliers. */
+        public Builder setEnforcementPercentage(Integer enforcementPercentage) {
+          checkArgument(enforcementPercentage != null);
+          checkArgument(enforcementPercentage >= 0 && enforcementPercentage <= 100);
+          this.enforcementPercentage = enforcementPercentage;
+          return this;
+        }
+
+        /** The minimum amount of hosts needed for latency ejection. */
+        public Builder setMinimumHosts(Integer minimumHosts) {
+          checkArgument(minimumHosts != null);
+          checkArgument(minimumHosts >= 0);
+          this.minimumHosts = minimumHosts;
+          return this;
+        }
+
+        /**
+         * The number of successful calls in the window required for an address to be considered
+         * for latency ejection.
+         */
+        public Builder setRequestVolume(Integer requestVolume) {
+          checkArgument(requestVolume != null);
+          checkArgument(requestVolume >= 0);
+          this.requestVolume = requestVolume;
+          return this;
+        }
+
+        /** Builds a new instance of {@link LatencyEjection}. */
+        public LatencyEjection build() {
+          return new LatencyEjection(percentile, thresholdPercentage, windowIntervals,
+              enforcementPercentage, minimumHosts, requestVolume);
+        }
+      }
+    }
+
     /** Determine if any outlier detection algorithms are enabled in the config. */
     boolean outlierDetectionEnabled() {
-      return successRateEjection != null || failurePercentageEjection != null;
+      return successRateEjection != null || failurePercentageEjection != null
+          || latencyEjection != null;
     }
   }
 }
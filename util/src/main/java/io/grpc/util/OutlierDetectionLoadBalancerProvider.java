@@ -30,6 +30,7 @@ import io.grpc.internal.ServiceConfigUtil.PolicySelection;
 import io.grpc.internal.TimeProvider;
 import io.grpc.util.OutlierDetectionLoadBalancer.OutlierDetectionLoadBalancerConfig;
 import io.grpc.util.OutlierDetectionLoadBalancer.OutlierDetectionLoadBalancerConfig.FailurePercentageEjection;
+import io.grpc.util.OutlierDetectionLoadBalancer.OutlierDetectionLoadBalancerConfig.LatencyEjection;
 import io.grpc.util.OutlierDetectionLoadBalancer.OutlierDetectionLoadBalancerConfig.SuccessRateEjection;
 import java.util.List;
 import java.util.Map;
@@ -149,6 +150,43 @@ public final class OutlierDetectionLoadBalancerProvider extends LoadBalancerProv
       configBuilder.setFailurePercentageEjection(failurePercentageEjectionBuilder.build());
     }
 
+    // Latency ejection specific configuration.
+    Map<String, ?> rawLatencyEjection = JsonUtil.getObject(rawConfig, "latencyEjection");
+    if (rawLatencyEjection != null) {
+      LatencyEjection.Builder latencyEjectionBuilder = new LatencyEjection.Builder();
+
+      Integer percentile = JsonUtil.getNumberAsInteger(rawLatencyEjection, "percentile");
+      Integer thresholdPercentage = JsonUtil.getNumberAsInteger(rawLatencyEjection,
+          "thresholdPercentage");
+      Integer windowIntervals = JsonUtil.getNumberAsInteger(rawLatencyEjection,
+          "windowIntervals");
+      Integer enforcementPercentage = JsonUtil.getNumberAsInteger(rawLatencyEjection,
+          "enforcementPercentage");
+      Integer minimumHosts = JsonUtil.getNumberAsInteger(rawLatencyEjection, "minimumHosts");
+      Integer requestVolume = JsonUtil.getNumberAsInteger(rawLatencyEjection, "requestVolume");
+
+      if (percentile != null) {
+        latencyEjectionBuilder.setPercentile(percentile);
+      }
+      if (thresholdPercentage != null) {
+        latencyEjectionBuilder.setThresholdPercentage(thresholdPercentage);
+      }
+      if (windowIntervals != null) {
+        latencyEjectionBuilder.setWindowIntervals(windowIntervals);
+      }
+      if (enforcementPercentage != null) {
+        latencyEjectionBuilder.setEnforcementPercentage(enforcementPercentage);
+      }
+      if (minimumHosts != null) {
+        latencyEjectionBuilder.setMinimumHosts(minimumHosts);
+      }
+      if (requestVolume != null) {
+        latencyEjectionBuilder.setRequestVolume(requestVolume);
+      }
+
+      configBuilder.setLatencyEjection(latencyEjectionBuilder.build());
+    }
+
     // Child load balancer configuration.
     List<LbConfig> childConfigCandidates = ServiceConfigUtil.unwrapLoadBalancingConfigList(
         JsonUtil.getListOfObjects(rawConfig, "childPolicy"));
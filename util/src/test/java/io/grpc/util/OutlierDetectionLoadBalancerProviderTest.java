@@ -138,6 +138,35 @@ public class OutlierDetectionLoadBalancerProviderTest {
     assertThat(config.childPolicy.getProvider().getPolicyName()).isEqualTo("round_robin");
   }
 
+  @Test
+  public void parseLoadBalancingConfig_latencyEjection() throws IOException {
+    String lbConfig =
+        "{\"latencyEjection\" : {"
+        + "     \"percentile\" : 50,"
+        + "     \"thresholdPercentage\" : 300,"
+        + "     \"windowIntervals\" : 6,"
+        + "     \"enforcementPercentage\" : 50,"
+        + "     \"minimumHosts\" : 3,"
+        + "     \"requestVolume\" : 10"
+        + "   },"
+        + "\"childPolicy\" : [{\"round_robin\" : {}}]}";
+    ConfigOrError configOrError =
+        provider.parseLoadBalancingPolicyConfig(parseJsonObject(lbConfig));
+    assertThat(configOrError.getConfig()).isNotNull();
+    OutlierDetectionLoadBalancerConfig config
+        = (OutlierDetectionLoadBalancerConfig) configOrError.getConfig();
+
+    assertThat(config.successRateEjection).isNull();
+    assertThat(config.failurePercentageEjection).isNull();
+    assertThat(config.latencyEjection).isNotNull();
+    assertThat(config.latencyEjection.percentile).isEqualTo(50);
+    assertThat(config.latencyEjection.thresholdPercentage).isEqualTo(300);
+    assertThat(config.latencyEjection.windowIntervals).isEqualTo(6);
+    assertThat(config.latencyEjection.enforcementPercentage).isEqualTo(50);
+    assertThat(config.latencyEjection.minimumHosts).isEqualTo(3);
+    assertThat(config.latencyEjection.requestVolume).isEqualTo(10);
+  }
+
   @SuppressWarnings("unchecked")
   private static Map<String, ?> parseJsonObject(String json) throws IOException {
     return (Map<String, ?>) JsonParser.parse(json);
@@ -60,6 +60,7 @@ import io.grpc.internal.TestUtils.StandardLoadBalancerProvider;
 import io.grpc.util.OutlierDetectionLoadBalancer.EndpointTracker;
 import io.grpc.util.OutlierDetectionLoadBalancer.OutlierDetectionLoadBalancerConfig;
 import io.grpc.util.OutlierDetectionLoadBalancer.OutlierDetectionLoadBalancerConfig.FailurePercentageEjection;
+import io.grpc.util.OutlierDetectionLoadBalancer.OutlierDetectionLoadBalancerConfig.LatencyEjection;
 import io.grpc.util.OutlierDetectionLoadBalancer.OutlierDetectionLoadBalancerConfig.SuccessRateEjection;
 import io.grpc.util.OutlierDetectionLoadBalancer.OutlierDetectionSubchannel;
 import io.grpc.util.OutlierDetectionLoadBalancer.SuccessRateOutlierEjectionAlgorithm;
@@ -228,7 +229,8 @@ public class OutlierDetectionLoadBalancerTest {
     when(mockStreamTracerFactory.newClientStreamTracer(any(),
         any())).thenReturn(mockStreamTracer);
 
-    loadBalancer = new OutlierDetectionLoadBalancer(mockHelper, fakeClock.getTimeProvider());
+    loadBalancer = new OutlierDetectionLoadBalancer(mockHelper, fakeClock.getTimeProvider(),
+        fakeClock.getTicker());
   }
 
   @Test
@@ -810,6 +812,86 @@ public class OutlierDetectionLoadBalancerTest {
     assertEjectedSubchannels(ImmutableSet.of(ImmutableSet.copyOf(servers.get(0).getAddresses())));
   }
 
+  /**
+   * The latency algorithm ejects the one endpoint that is much slower than the others.
+   */
+  @Test
+  public void latencyOneOutlier() {
+    OutlierDetectionLoadBalancerConfig config = new OutlierDetectionLoadBalancerConfig.Builder()
+        .setMaxEjectionPercent(50)
+        .setLatencyEjection(
+            new LatencyEjection.Builder()
+                .setMinimumHosts(3)
+                .setRequestVolume(10).build())
+        .setChildPolicy(new PolicySelection(roundRobinLbProvider, null)).build();
+
+    loadBalancer.acceptResolvedAddresses(buildResolvedAddress(config, servers));
+
+    generateLatencyLoad(ImmutableMap.of(subchannel1, 50L), 7);
+
+    // Move forward in time to a point where the detection timer has fired.
+    forwardTime(config);
+
+    // The one slow subchannel should be ejected.
+    assertEjectedSubchannels(ImmutableSet.of(ImmutableSet.copyOf(servers.get(0).getAddresses())));
+  }
+
+  /**
+   * The latency algorithm does not eject an endpoint that is slower than the others, but below the
+   * threshold.
+   */
+  @Test
+  public void latencyNoOutliers() {
+    OutlierDetectionLoadBalancerConfig config = new OutlierDetectionLoadBalancerConfig.Builder()
+        .setMaxEjectionPercent(50)
+        .setLatencyEjection(
+            new LatencyEjection.Builder()
+                .setMinimumHosts(3)
+                .setRequestVolume(10).build())
+        .setChildPolicy(new PolicySelection(roundRobinLbProvider, null)).build();
+
+    loadBalancer.acceptResolvedAddresses(buildResolvedAddress(config, servers));
+
+    generateLatencyLoad(ImmutableMap.of(subchannel1, 8L), 7);
+
+    // Move forward in time to a point where the detection timer has fired.
+    forwardTime(config);
+
+    assertEjectedSubchannels(ImmutableSet.of());
+  }
+
+  /**
+   * The latencies of the calls are kept for the configured number of intervals.
+   */
+  @Test
+  public void latencySlidingWindow() {
+    OutlierDetectionLoadBalancerConfig config = new OutlierDetectionLoadBalancerConfig.Builder()
+        .setMaxEjectionPercent(50)
+        .setLatencyEjection(
+            new LatencyEjection.Builder()
+                .setWindowIntervals(2)
+                .setMinimumHosts(3)
+                .setRequestVolume(10).build())
+        .setChildPolicy(new PolicySelection(roundRobinLbProvider, null)).build();
+
+    loadBalancer.acceptResolvedAddresses(buildResolvedAddress(config, servers));
+
+    generateLatencyLoad(ImmutableMap.<Subchannel, Long>of(), 7);
+    EndpointTracker tracker = loadBalancer.endpointTrackerMap.get(
+        ImmutableSet.copyOf(servers.get(0).getAddresses()));
+
+    forwardTime(config);
+    assertThat(tracker.latencyVolume()).isEqualTo(20);
+    assertThat(tracker.latencyNanos()).isGreaterThan(TimeUnit.MILLISECONDS.toNanos(4));
+    assertThat(tracker.latencyNanos()).isLessThan(TimeUnit.MILLISECONDS.toNanos(6));
+
+    forwardTime(config);
+    assertThat(tracker.latencyVolume()).isEqualTo(20);
+
+    forwardTime(config);
+    assertThat(tracker.latencyVolume()).isEqualTo(0);
+  }
+
   /**
    * The failure percentage algorithm ignores addresses without enough volume..
    */
@@ -1305,6 +1387,41 @@ public class OutlierDetectionLoadBalancerTest {
     assertThat(stdev).isEqualTo(147.32277488562318);
   }
 
+  @Test
+  public void concurrentCallCountsAreNotLost() throws Exception {
+    EndpointTracker tracker = new EndpointTracker(new OutlierDetectionLoadBalancerConfig.Builder()
+        .setSuccessRateEjection(new SuccessRateEjection.Builder().build())
+        .setChildPolicy(new PolicySelection(mockChildLbProvider, null)).build());
+    Thread[] threads = new Thread[8];
+    for (int i = 0; i < threads.length; i++) {
+      threads[i] = new Thread(new Runnable() {
+        @Override
+        public void run() {
+          for (int call = 0; call < 10000; call++) {
+            tracker.incrementCallCount(call % 4 != 0);
+          }
+        }
+      });
+      threads[i].start();
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    assertThat(tracker.activeVolume()).isEqualTo(80000);
+
+    tracker.swapCounters();
+    assertThat(tracker.activeVolume()).isEqualTo(0);
+    assertThat(tracker.inactiveVolume()).isEqualTo(80000);
+    assertThat(tracker.successRate()).isEqualTo(0.75);
+    assertThat(tracker.failureRate()).isEqualTo(0.25);
+
+    tracker.incrementCallCount(true);
+    tracker.swapCounters();
+    assertThat(tracker.inactiveVolume()).isEqualTo(1);
+    tracker.resetCallCounters();
+    assertThat(tracker.inactiveVolume()).isEqualTo(0);
+  }
+
   private static class FakeSocketAddress extends SocketAddress {
 
     final String name;
@@ -1374,6 +1491,34 @@ public class OutlierDetectionLoadBalancerTest {
     }
   }
 
+  // Generates 100 successful calls, 20 each across the subchannels. Default latency is 5ms.
+  private void generateLatencyLoad(Map<Subchannel, Long> latencyMillisMap,
+      int expectedStateChanges) {
+    deliverSubchannelState(subchannel1, ConnectivityStateInfo.forNonError(READY));
+    deliverSubchannelState(subchannel2, ConnectivityStateInfo.forNonError(READY));
+    deliverSubchannelState(subchannel3, ConnectivityStateInfo.forNonError(READY));
+    deliverSubchannelState(subchannel4, ConnectivityStateInfo.forNonError(READY));
+    deliverSubchannelState(subchannel5, ConnectivityStateInfo.forNonError(READY));
+
+    verify(mockHelper, times(expectedStateChanges)).updateBalancingState(stateCaptor.capture(),
+        pickerCaptor.capture());
+    SubchannelPicker picker = pickerCaptor.getAllValues()
+        .get(pickerCaptor.getAllValues().size() - 1);
+
+    for (int i = 0; i < 100; i++) {
+      PickResult pickResult = picker
+          .pickSubchannel(mock(PickSubchannelArgs.class));
+      ClientStreamTracer clientStreamTracer = pickResult.getStreamTracerFactory()
+          .newClientStreamTracer(null, null);
+
+      Subchannel subchannel = (Subchannel) pickResult.getSubchannel().getInternalSubchannel();
+      fakeClock.forwardTime(
+          latencyMillisMap.containsKey(subchannel) ? latencyMillisMap.get(subchannel) : 5L,
+          TimeUnit.MILLISECONDS);
+      clientStreamTracer.streamClosed(Status.OK);
+    }
+  }
+
   // Forwards time past the moment when the timer will fire.
   private void forwardTime(OutlierDetectionLoadBalancerConfig config) {
     fakeClock.forwardTime(config.intervalNanos + 1, TimeUnit.NANOSECONDS);
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2024 The gRPC Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.grpc.xds;
+
+import com.google.common.collect.ImmutableMap;
+import io.grpc.Metadata;
+import io.grpc.xds.ThreadSafeRandom.ThreadSafeRandomImpl;
+import io.grpc.xds.VirtualHost.Route;
+import io.grpc.xds.VirtualHost.Route.RouteAction;
+import io.grpc.xds.VirtualHost.Route.RouteMatch;
+import io.grpc.xds.VirtualHost.Route.RouteMatch.PathMatcher;
+import io.grpc.xds.internal.Matchers.HeaderMatcher;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmark for selecting the route of an RPC with {@link RouteTable}, compared to evaluating
+ * every route in order.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class RouteTableBenchmark {
+
+  @Param({"10", "1000", "5000"})
+  public int routeCount;
+
+  // Routes per service. The first one of each service has a header matcher.
+  private static final int METHODS_PER_SERVICE = 10;
+
+  private final ThreadSafeRandom random = ThreadSafeRandomImpl.instance;
+  private final Metadata headers = new Metadata();
+  private List<Route> routes;
+  private RouteTable routeTable;
+  private String[] paths;
+  private int next;
+
+  /**
+   * Creates a route configuration with exact path routes, a prefix route for each service, and a
+   * default route.
+   */
+  @Setup(Level.Trial)
+  public void setUp() {
+    routes = new ArrayList<>(routeCount);
+    List<Route> prefixRoutes = new ArrayList<>();
+    List<String> pathList = new ArrayList<>();
+    for (int i = 0; routes.size() + prefixRoutes.size() < routeCount - 1; i++) {
+      String service = "/grpc.benchmark.Service" + (i / METHODS_PER_SERVICE) + "/";
+      String path = service + "Method" + (i % METHODS_PER_SERVICE);
+      List<HeaderMatcher> headerMatchers = i % METHODS_PER_SERVICE == 0
+          ? Collections.singletonList(HeaderMatcher.forExactValue("env", "canary", false))
+          : Collections.<HeaderMatcher>emptyList();
+      routes.add(route(PathMatcher.fromPath(path, true), headerMatchers));
+      pathList.add(path);
+      if (i % METHODS_PER_SERVICE == 0) {
+        prefixRoutes.add(route(PathMatcher.fromPrefix(service, true),
+            Collections.<HeaderMatcher>emptyList()));
+        pathList.add(service + "Unknown");
+      }
+    }
+    routes.addAll(prefixRoutes);
+    routes.add(route(PathMatcher.fromPrefix("", true), Collections.<HeaderMatcher>emptyList()));
+    routeTable = RouteTable.create(routes);
+    Collections.shuffle(pathList, new Random(0));
+    paths = pathList.toArray(new String[0]);
+  }
+
+  @Benchmark
+  public Route linear() {
+    String path = nextPath();
+    for (Route route : routes) {
+      if (RoutingUtils.matchRoute(route.routeMatch(), path, headers, random)) {
+        return route;
+      }
+    }
+    return null;
+  }
+
+  @Benchmark
+  public Route routeTable() {
+    return routeTable.match(nextPath(), headers, random);
+  }
+
+  private String nextPath() {
+    String path = paths[next];
+    next = next + 1 == paths.length ? 0 : next + 1;
+    return path;
+  }
+
+  private static Route route(PathMatcher pathMatcher, List<HeaderMatcher> headerMatchers) {
+    return Route.forAction(
+        RouteMatch.create(pathMatcher, headerMatchers, null),
+        RouteAction.forCluster("cluster", Collections.emptyList(), null, null),
+        ImmutableMap.of());
+  }
+}
@@ -21,6 +21,9 @@ import io.grpc.Internal;
 import io.grpc.ServerInterceptor;
 import io.grpc.xds.RbacConfig;
 import io.grpc.xds.RbacFilter;
+import io.grpc.xds.internal.rbac.engine.GrpcAuthorizationEngine;
+import java.util.List;
+import javax.annotation.Nullable;
 
 /** This class exposes some functionality in RbacFilter to other packages. */
 @Internal
@@ -37,4 +40,29 @@ public final class InternalRbacFilter {
     }
     return new RbacFilter().buildServerInterceptor(filterConfig.config, null);
   }
+
+  /**
+   * Parses RBAC filter config and creates the engine that evaluates it, or returns {@code null}
+   * if the config does not enforce any rules.
+   */
+  @Nullable
+  public static GrpcAuthorizationEngine createAuthorizationEngine(RBAC rbac) {
+    ConfigOrError<RbacConfig> filterConfig = RbacFilter.parseRbacConfig(rbac);
+    if (filterConfig.errorDetail != null) {
+      throw new IllegalArgumentException(
+        String.format("Failed to parse Rbac policy: %s", filterConfig.errorDetail));
+    }
+    RbacConfig rbacConfig = filterConfig.config;
+    return rbacConfig.authConfig() == null
+        ? null : new GrpcAuthorizationEngine(rbacConfig.authConfig());
+  }
+
+  /**
+   * Creates an interceptor that evaluates the engines in order, and denies the call with
+   * PERMISSION_DENIED if any of them denies it.
+   */
+  public static ServerInterceptor createAuthorizationInterceptor(
+      List<GrpcAuthorizationEngine> engines) {
+    return RbacFilter.createAuthorizationInterceptor(engines);
+  }
 }
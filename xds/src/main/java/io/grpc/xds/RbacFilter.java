@@ -57,6 +57,7 @@ import io.grpc.xds.internal.rbac.engine.GrpcAuthorizationEngine.SourceIpMatcher;
 import java.net.InetAddress;
 import java.net.UnknownHostException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -175,22 +176,34 @@ final class RbacFilter implements Filter, ServerInterceptorBuilder {
 
   private ServerInterceptor generateAuthorizationInterceptor(AuthConfig config) {
     checkNotNull(config, "config");
-    final GrpcAuthorizationEngine authEngine = new GrpcAuthorizationEngine(config);
+    return createAuthorizationInterceptor(
+        Collections.singletonList(new GrpcAuthorizationEngine(config)));
+  }
+
+  /**
+   * Creates an interceptor that evaluates the engines in order, and denies the call if any of them
+   * denies it.
+   */
+  static ServerInterceptor createAuthorizationInterceptor(
+      final List<GrpcAuthorizationEngine> authEngines) {
+    checkNotNull(authEngines, "authEngines");
     return new ServerInterceptor() {
         @Override
         public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(
                 final ServerCall<ReqT, RespT> call,
                 final Metadata headers, ServerCallHandler<ReqT, RespT> next) {
-          AuthDecision authResult = authEngine.evaluate(headers, call);
-          if (logger.isLoggable(Level.FINE)) {
-            logger.log(Level.FINE,
-                "Authorization result for serverCall {0}: {1}, matching policy: {2}.",
-                new Object[]{call, authResult.decision(), authResult.matchingPolicyName()});
-          }
-          if (GrpcAuthorizationEngine.Action.DENY.equals(authResult.decision())) {
-            Status status = Status.PERMISSION_DENIED.withDescription("Access Denied");
-            call.close(status, new Metadata());
-            return new ServerCall.Listener<ReqT>(){};
+          for (GrpcAuthorizationEngine authEngine : authEngines) {
+            AuthDecision authResult = authEngine.evaluate(headers, call);
+            if (logger.isLoggable(Level.FINE)) {
+              logger.log(Level.FINE,
+                  "Authorization result for serverCall {0}: {1}, matching policy: {2}.",
+                  new Object[]{call, authResult.decision(), authResult.matchingPolicyName()});
+            }
+            if (GrpcAuthorizationEngine.Action.DENY.equals(authResult.decision())) {
+              Status status = Status.PERMISSION_DENIED.withDescription("Access Denied");
+              call.close(status, new Metadata());
+              return new ServerCall.Listener<ReqT>(){};
+            }
           }
           return next.startCall(call, headers);
         }
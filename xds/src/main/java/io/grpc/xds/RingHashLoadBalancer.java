@@ -25,6 +25,7 @@ import static io.grpc.ConnectivityState.READY;
 import static io.grpc.ConnectivityState.SHUTDOWN;
 import static io.grpc.ConnectivityState.TRANSIENT_FAILURE;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.MoreObjects;
 import com.google.common.collect.HashMultiset;
 import com.google.common.collect.ImmutableMap;
@@ -41,13 +42,14 @@ import io.grpc.util.MultiChildLoadBalancer;
 import io.grpc.xds.client.XdsLogger;
 import io.grpc.xds.client.XdsLogger.XdsLogLevel;
 import java.net.SocketAddress;
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.RecursiveAction;
 import java.util.stream.Collectors;
 import javax.annotation.Nullable;
 
@@ -64,12 +66,15 @@ final class RingHashLoadBalancer extends MultiChildLoadBalancer {
       Status.INTERNAL.withDescription("RPC hash not found. Probably a bug because xds resolver"
           + " config selector always generates a hash.");
   private static final XxHash64 hashFunc = XxHash64.INSTANCE;
+  // Rings with at least this many entries are built using the common fork-join pool.
+  @VisibleForTesting
+  static final int PARALLEL_BUILD_MIN_ENTRIES = 1 << 15;
 
   private final LoadBalancer.Factory lazyLbFactory =
       new LazyLoadBalancer.Factory(pickFirstLbProvider);
   private final XdsLogger logger;
   private final SynchronizationContext syncContext;
-  private List<RingEntry> ring;
+  private Ring ring;
 
   RingHashLoadBalancer(Helper helper) {
     super(helper);
@@ -139,7 +144,7 @@ final class RingHashLoadBalancer extends MultiChildLoadBalancer {
           (double) config.maxRingSize);
 
       // Build the ring
-      ring = buildRing(serverWeights, totalWeight, scale);
+      ring = buildRing(ring, serverWeights, totalWeight, scale);
 
       // Must update channel picker before return so that new RPCs will not be routed to deleted
       // clusters and resolver can remove them in service config.
@@ -307,31 +312,184 @@ final class RingHashLoadBalancer extends MultiChildLoadBalancer {
     return null;
   }
 
-  private static List<RingEntry> buildRing(
-      Map<EquivalentAddressGroup, Long> serverWeights, long totalWeight, double scale) {
-    List<RingEntry> ring = new ArrayList<>();
+  /**
+   * Builds the ring for {@code serverWeights}. If {@code previous} is given, only the entries of
+   * endpoints that were added, removed or whose number of entries changed are hashed, and merged
+   * with the entries kept from {@code previous}.
+   */
+  @VisibleForTesting
+  static Ring buildRing(
+      @Nullable Ring previous, Map<EquivalentAddressGroup, Long> serverWeights, long totalWeight,
+      double scale) {
+    int numEndpoints = serverWeights.size();
+    EquivalentAddressGroup[] addrs = new EquivalentAddressGroup[numEndpoints];
+    Endpoint[] endpoints = new Endpoint[numEndpoints];
+    int[] counts = new int[numEndpoints];
     double currentHashes = 0.0;
     double targetHashes = 0.0;
+    int size = 0;
+    int index = 0;
     for (Map.Entry<EquivalentAddressGroup, Long> entry : serverWeights.entrySet()) {
-      Endpoint endpoint = new Endpoint(entry.getKey());
+      addrs[index] = entry.getKey();
+      endpoints[index] = new Endpoint(entry.getKey());
       double normalizedWeight = (double) entry.getValue() / totalWeight;
-      // Per GRFC A61 use the first address for the hash
-      StringBuilder sb = new StringBuilder(entry.getKey().getAddresses().get(0).toString());
-      sb.append('_');
-      int lengthWithoutCounter = sb.length();
       targetHashes += scale * normalizedWeight;
-      long i = 0L;
-      while (currentHashes < targetHashes) {
-        sb.append(i);
-        long hash = hashFunc.hashAsciiString(sb.toString());
-        ring.add(new RingEntry(hash, endpoint));
-        i++;
-        currentHashes++;
-        sb.setLength(lengthWithoutCounter);
+      if (currentHashes < targetHashes) {
+        // Same as adding one hash at a time while currentHashes < targetHashes
+        double nextHashes = Math.ceil(targetHashes);
+        counts[index] = (int) (nextHashes - currentHashes);
+        currentHashes = nextHashes;
+      }
+      size += counts[index];
+      index++;
+    }
+    if (previous != null) {
+      Ring ring = updateRing(previous, addrs, endpoints, counts, size);
+      if (ring != null) {
+        return ring;
+      }
+    }
+    int[] endpointIds = new int[numEndpoints];
+    for (int i = 0; i < numEndpoints; i++) {
+      endpointIds[i] = i;
+    }
+    long[] hashes = new long[size];
+    int[] endpointIndexes = new int[size];
+    hashEntries(addrs, endpointIds, new int[numEndpoints], counts, hashes, endpointIndexes);
+    return new Ring(hashes, endpointIndexes, endpoints, addrs, counts);
+  }
+
+  /**
+   * Builds the new ring from {@code previous} by removing and adding the entries that differ.
+   * Returns {@code null} if that is more than half of the ring, in which case a full build is
+   * cheaper.
+   *
+   * <p>The entries of an endpoint only depend on its first address and its number of entries, and
+   * its entries with lower counters are the same regardless of that number. So only endpoints
+   * that were added or removed, and the entries past the smaller count of the others, need to be
+   * hashed.
+   */
+  @Nullable
+  private static Ring updateRing(
+      Ring previous, EquivalentAddressGroup[] addrs, Endpoint[] endpoints, int[] counts,
+      int size) {
+    int numPrevious = previous.addrs.length;
+    Map<EquivalentAddressGroup, Integer> previousIndexes = new HashMap<>(numPrevious * 2);
+    for (int i = 0; i < numPrevious; i++) {
+      previousIndexes.put(previous.addrs[i], i);
+    }
+    // Maps endpoint indexes of the previous ring to the new ring, or -1 if removed.
+    int[] indexMap = new int[numPrevious];
+    Arrays.fill(indexMap, -1);
+    // Entries with counters from firstAdded[i] up to counts[i] are added to endpoint i, and
+    // entries from firstRemoved[i] up to previous.counts[i] are removed from previous endpoint i.
+    int[] firstAdded = new int[addrs.length];
+    int[] firstRemoved = new int[numPrevious];
+    boolean sameIndexes = addrs.length == numPrevious;
+    long numAdded = 0;
+    long numRemoved = 0;
+    for (int i = 0; i < addrs.length; i++) {
+      Integer previousIndex = previousIndexes.get(addrs[i]);
+      if (previousIndex == null) {
+        sameIndexes = false;
+      } else {
+        sameIndexes &= previousIndex == i;
+        indexMap[previousIndex] = i;
+        firstAdded[i] = Math.min(counts[i], previous.counts[previousIndex]);
+        firstRemoved[previousIndex] = firstAdded[i];
+      }
+      numAdded += counts[i] - firstAdded[i];
+    }
+    int[] removedCounts = new int[numPrevious];
+    for (int i = 0; i < numPrevious; i++) {
+      removedCounts[i] = previous.counts[i] - firstRemoved[i];
+      numRemoved += removedCounts[i];
+    }
+    if (numAdded == 0 && numRemoved == 0 && sameIndexes) {
+      // The arrays are never modified, so they can be shared.
+      return new Ring(previous.hashes, previous.endpointIndexes, endpoints, addrs, counts);
+    }
+    if (numAdded + numRemoved > size / 2) {
+      return null;
+    }
+
+    int[] addedCounts = new int[addrs.length];
+    int[] endpointIds = new int[addrs.length];
+    for (int i = 0; i < addrs.length; i++) {
+      addedCounts[i] = counts[i] - firstAdded[i];
+      endpointIds[i] = i;
+    }
+    long[] addedHashes = new long[(int) numAdded];
+    int[] addedIndexes = new int[(int) numAdded];
+    hashEntries(addrs, endpointIds, firstAdded, addedCounts, addedHashes, addedIndexes);
+    int[] previousIds = new int[numPrevious];
+    for (int i = 0; i < numPrevious; i++) {
+      previousIds[i] = i;
+    }
+    long[] removedHashes = new long[(int) numRemoved];
+    int[] removedIndexes = new int[(int) numRemoved];
+    hashEntries(
+        previous.addrs, previousIds, firstRemoved, removedCounts, removedHashes, removedIndexes);
+
+    long[] hashes = new long[size];
+    int[] endpointIndexes = new int[size];
+    int added = 0;
+    int removed = 0;
+    int k = 0;
+    for (int i = 0; i < previous.hashes.length; i++) {
+      long hash = previous.hashes[i];
+      while (removed < removedHashes.length && removedHashes[removed] < hash) {
+        removed++;
+      }
+      if (consumeRemoved(removedHashes, removedIndexes, removed, hash,
+          previous.endpointIndexes[i])) {
+        continue;
+      }
+      int endpointIndex = indexMap[previous.endpointIndexes[i]];
+      while (added < addedHashes.length
+          && (addedHashes[added] < hash
+              || (addedHashes[added] == hash && addedIndexes[added] < endpointIndex))) {
+        hashes[k] = addedHashes[added];
+        endpointIndexes[k++] = addedIndexes[added++];
+      }
+      hashes[k] = hash;
+      endpointIndexes[k++] = endpointIndex;
+    }
+    System.arraycopy(addedHashes, added, hashes, k, addedHashes.length - added);
+    System.arraycopy(addedIndexes, added, endpointIndexes, k, addedIndexes.length - added);
+    checkState(k + addedHashes.length - added == size, "Ring size mismatch");
+    return new Ring(hashes, endpointIndexes, endpoints, addrs, counts);
+  }
+
+  /**
+   * Marks the removed entry with {@code hash} and {@code endpointIndex} as consumed, looking at
+   * entries with that hash starting at {@code from}. Returns {@code false} if there is none.
+   */
+  private static boolean consumeRemoved(
+      long[] removedHashes, int[] removedIndexes, int from, long hash, int endpointIndex) {
+    for (int i = from; i < removedHashes.length && removedHashes[i] == hash; i++) {
+      if (removedIndexes[i] == endpointIndex) {
+        removedIndexes[i] = -1;
+        return true;
       }
     }
-    Collections.sort(ring);
-    return Collections.unmodifiableList(ring);
+    return false;
+  }
+
+  /**
+   * Hashes the entries with counters from {@code firstCounters[i]} to {@code firstCounters[i] +
+   * counts[i]} of each {@code addrs[i]} into {@code hashes}, sorted by hash, with {@code
+   * endpointIds[i]} as their endpoint index. Equal hashes are ordered by {@code i}.
+   */
+  private static void hashEntries(
+      EquivalentAddressGroup[] addrs, int[] endpointIds, int[] firstCounters, int[] counts,
+      long[] hashes, int[] endpointIndexes) {
+    int[] offsets = new int[addrs.length + 1];
+    for (int i = 0; i < addrs.length; i++) {
+      offsets[i + 1] = offsets[i] + counts[i];
+    }
+    new RingBuilder(addrs, endpointIds, firstCounters, offsets, hashes, endpointIndexes,
+        0, addrs.length).invoke();
   }
 
   @SuppressWarnings("ReferenceEquality")
@@ -344,49 +502,25 @@ final class RingHashLoadBalancer extends MultiChildLoadBalancer {
 
   private static final class RingHashPicker extends SubchannelPicker {
     private final SynchronizationContext syncContext;
-    private final List<RingEntry> ring;
+    private final Ring ring;
     // Avoid synchronization between pickSubchannel and subchannel's connectivity state change,
-    // freeze picker's view of subchannel's connectivity state.
-    // TODO(chengyuanzhang): can be more performance-friendly with
-    //  IdentityHashMap<Subchannel, ConnectivityStateInfo> and RingEntry contains Subchannel.
-    private final Map<Endpoint, SubchannelView> pickableSubchannels;  // read-only
+    // freeze picker's view of subchannel's connectivity state. Indexed like ring.endpoints.
+    private final SubchannelView[] pickableSubchannels;  // read-only
 
     private RingHashPicker(
-        SynchronizationContext syncContext, List<RingEntry> ring,
+        SynchronizationContext syncContext, Ring ring,
         ImmutableMap<Object, ChildLbState> subchannels) {
       this.syncContext = syncContext;
       this.ring = ring;
-      pickableSubchannels = new HashMap<>(subchannels.size());
-      for (Map.Entry<Object, ChildLbState> entry : subchannels.entrySet()) {
-        RingHashChildLbState childLbState = (RingHashChildLbState) entry.getValue();
-        pickableSubchannels.put((Endpoint)entry.getKey(),
-            new SubchannelView(childLbState, childLbState.getCurrentState()));
-      }
-    }
-
-    // Find the ring entry with hash next to (clockwise) the RPC's hash (binary search).
-    private int getTargetIndex(Long requestHash) {
-      if (ring.size() <= 1) {
-        return 0;
-      }
-
-      int low = 0;
-      int high = ring.size() - 1;
-      int mid = (low + high) / 2;
-      do {
-        long midVal = ring.get(mid).hash;
-        long midValL = mid == 0 ? 0 : ring.get(mid - 1).hash;
-        if (requestHash <= midVal && requestHash > midValL) {
-          break;
+      pickableSubchannels = new SubchannelView[ring.endpoints.length];
+      for (int i = 0; i < ring.endpoints.length; i++) {
+        RingHashChildLbState childLbState =
+            (RingHashChildLbState) subchannels.get(ring.endpoints[i]);
+        if (childLbState != null) {
+          pickableSubchannels[i] =
+              new SubchannelView(childLbState, childLbState.getCurrentState());
         }
-        if (midVal < requestHash) {
-          low = mid + 1;
-        } else {
-          high =  mid - 1;
-        }
-        mid = (low + high) / 2;
-      } while (mid < ring.size() && low <= high);
-      return mid;
+      }
     }
 
     @Override
@@ -396,15 +530,18 @@ final class RingHashLoadBalancer extends MultiChildLoadBalancer {
         return PickResult.withError(RPC_HASH_NOT_FOUND);
       }
 
-      int targetIndex = getTargetIndex(requestHash);
+      int targetIndex = ring.getTargetIndex(requestHash);
+      int ringSize = ring.size();
 
       // Per gRFC A61, because of sticky-TF with PickFirst's auto reconnect on TF, we ignore
       // all TF subchannels and find the first ring entry in READY, CONNECTING or IDLE.  If
       // CONNECTING or IDLE we return a pick with no results.  Additionally, if that entry is in
       // IDLE, we initiate a connection.
-      for (int i = 0; i < ring.size(); i++) {
-        int index = (targetIndex + i) % ring.size();
-        SubchannelView subchannelView = pickableSubchannels.get(ring.get(index).addrKey);
+      for (int i = 0, index = targetIndex; i < ringSize; i++) {
+        SubchannelView subchannelView = pickableSubchannels[ring.endpointIndexes[index]];
+        if (++index == ringSize) {
+          index = 0;
+        }
         RingHashChildLbState childLbState = subchannelView.childLbState;
 
         if (subchannelView.connectivityState  == READY) {
@@ -428,7 +565,7 @@ final class RingHashLoadBalancer extends MultiChildLoadBalancer {
 
       // return the pick from the original subchannel hit by hash, which is probably an error
       RingHashChildLbState originalSubchannel =
-          pickableSubchannels.get(ring.get(targetIndex).addrKey).childLbState;
+          pickableSubchannels[ring.endpointIndexes[targetIndex]].childLbState;
       return originalSubchannel.getCurrentPicker().pickSubchannel(args);
     }
 
@@ -448,18 +585,157 @@ final class RingHashLoadBalancer extends MultiChildLoadBalancer {
     }
   }
 
-  private static final class RingEntry implements Comparable<RingEntry> {
-    private final long hash;
-    private final Endpoint addrKey;
+  /**
+   * The ring, sorted by hash. Entry {@code i} has hash {@code hashes[i]} and belongs to {@code
+   * endpoints[endpointIndexes[i]]}. Compared to one object per entry, this takes 12 bytes per entry
+   * and the binary search only touches the hash array. Endpoint {@code j} was hashed from {@code
+   * addrs[j]} and has {@code counts[j]} entries, which lets the next ring be built incrementally.
+   */
+  @VisibleForTesting
+  static final class Ring {
+    final long[] hashes;
+    final int[] endpointIndexes;
+    final Endpoint[] endpoints;
+    final EquivalentAddressGroup[] addrs;
+    final int[] counts;
+
+    private Ring(
+        long[] hashes, int[] endpointIndexes, Endpoint[] endpoints,
+        EquivalentAddressGroup[] addrs, int[] counts) {
+      this.hashes = hashes;
+      this.endpointIndexes = endpointIndexes;
+      this.endpoints = endpoints;
+      this.addrs = addrs;
+      this.counts = counts;
+    }
+
+    int size() {
+      return hashes.length;
+    }
 
-    private RingEntry(long hash, Endpoint addrKey) {
-      this.hash = hash;
-      this.addrKey = addrKey;
+    /**
+     * Finds the ring entry with hash next to (clockwise) the RPC's hash, that is the first entry
+     * whose hash is not less than {@code requestHash}. A hash beyond the last entry maps to the
+     * last entry.
+     */
+    int getTargetIndex(long requestHash) {
+      long[] hashes = this.hashes;
+      // Binary search where each step only picks the base, which the JIT can turn into a
+      // conditional move instead of a hard to predict branch.
+      int base = 0;
+      int n = hashes.length;
+      while (n > 1) {
+        int half = n >>> 1;
+        base = hashes[base + half - 1] < requestHash ? base + half : base;
+        n -= half;
+      }
+      return base;
+    }
+  }
+
+  /**
+   * Hashes the entries of {@code addrs[from, to)} and sorts them by hash, splitting the range in
+   * halves that are merged afterwards. Halves are processed in the common fork-join pool when the
+   * range has at least {@link #PARALLEL_BUILD_MIN_ENTRIES} entries.
+   *
+   * <p>Each address's entries are sorted on their own, and merging prefers the lower address on
+   * equal hashes, so the result doesn't depend on how the work was split.
+   */
+  private static final class RingBuilder extends RecursiveAction {
+    private static final long serialVersionUID = 0L;
+
+    private final EquivalentAddressGroup[] addrs;
+    private final int[] endpointIds;
+    private final int[] firstCounters;
+    private final int[] offsets;
+    private final long[] hashes;
+    private final int[] endpointIndexes;
+    private final int from;
+    private final int to;
+
+    RingBuilder(
+        EquivalentAddressGroup[] addrs, int[] endpointIds, int[] firstCounters, int[] offsets,
+        long[] hashes, int[] endpointIndexes, int from, int to) {
+      this.addrs = addrs;
+      this.endpointIds = endpointIds;
+      this.firstCounters = firstCounters;
+      this.offsets = offsets;
+      this.hashes = hashes;
+      this.endpointIndexes = endpointIndexes;
+      this.from = from;
+      this.to = to;
     }
 
     @Override
-    public int compareTo(RingEntry entry) {
-      return Long.compare(hash, entry.hash);
+    protected void compute() {
+      if (to - from <= 1) {
+        if (to > from) {
+          hashEndpoint(from);
+        }
+        return;
+      }
+      int mid = (from + to) >>> 1;
+      RingBuilder left = new RingBuilder(
+          addrs, endpointIds, firstCounters, offsets, hashes, endpointIndexes, from, mid);
+      RingBuilder right = new RingBuilder(
+          addrs, endpointIds, firstCounters, offsets, hashes, endpointIndexes, mid, to);
+      if (offsets[to] - offsets[from] >= PARALLEL_BUILD_MIN_ENTRIES) {
+        invokeAll(left, right);
+      } else {
+        left.compute();
+        right.compute();
+      }
+      merge(offsets[from], offsets[mid], offsets[to]);
+    }
+
+    private void hashEndpoint(int endpoint) {
+      int start = offsets[endpoint];
+      int end = offsets[endpoint + 1];
+      if (start == end) {
+        return;
+      }
+      // Per GRFC A61 use the first address for the hash
+      StringBuilder sb = new StringBuilder(addrs[endpoint].getAddresses().get(0).toString());
+      sb.append('_');
+      int lengthWithoutCounter = sb.length();
+      int counter = firstCounters[endpoint];
+      for (int i = start; i < end; i++) {
+        sb.append(counter++);
+        hashes[i] = hashFunc.hashAsciiString(sb.toString());
+        sb.setLength(lengthWithoutCounter);
+      }
+      Arrays.fill(endpointIndexes, start, end, endpointIds[endpoint]);
+      if (end - start >= PARALLEL_BUILD_MIN_ENTRIES) {
+        Arrays.parallelSort(hashes, start, end);
+      } else {
+        Arrays.sort(hashes, start, end);
+      }
+    }
+
+    /** Merges the sorted runs {@code [start, mid)} and {@code [mid, end)}. */
+    private void merge(int start, int mid, int end) {
+      if (start == mid || mid == end || hashes[mid - 1] <= hashes[mid]) {
+        return;
+      }
+      // Only the left run needs to be copied out, the merged output never overtakes the right
+      // run's read position.
+      int leftLength = mid - start;
+      long[] leftHashes = Arrays.copyOfRange(hashes, start, mid);
+      int[] leftIndexes = Arrays.copyOfRange(endpointIndexes, start, mid);
+      int i = 0;
+      int j = mid;
+      int k = start;
+      while (i < leftLength && j < end) {
+        if (leftHashes[i] <= hashes[j]) {
+          hashes[k] = leftHashes[i];
+          endpointIndexes[k++] = leftIndexes[i++];
+        } else {
+          hashes[k] = hashes[j];
+          endpointIndexes[k++] = endpointIndexes[j++];
+        }
+      }
+      System.arraycopy(leftHashes, i, hashes, k, leftLength - i);
+      System.arraycopy(leftIndexes, i, endpointIndexes, k, leftLength - i);
     }
   }
 
@@ -0,0 +1,138 @@
+/*
+ * Copyright 2024 The gRPC Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.grpc.xds;
+
+import com.google.common.primitives.Ints;
+import io.grpc.Metadata;
+import io.grpc.xds.VirtualHost.Route;
+import io.grpc.xds.VirtualHost.Route.RouteMatch.PathMatcher;
+import io.grpc.xds.internal.PrefixTrie;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import javax.annotation.Nullable;
+
+/**
+ * The routes of a virtual host, indexed by path matcher so that selecting the route of an RPC
+ * does not need to evaluate every route.
+ *
+ * <p>Routes with a case-sensitive exact path are kept in a hash map, and routes with a prefix
+ * (case-sensitive or not) in prefix tries. The remaining routes (regular expressions and
+ * case-insensitive exact paths) are always candidates. For an RPC, only the candidates whose path
+ * may match are evaluated, in the original route order, so the selected route is the same as
+ * evaluating all routes in order with {@link RoutingUtils#matchRoute}. That includes when fraction
+ * matchers consume random numbers, which only happens for routes whose path matched.
+ */
+final class RouteTable {
+  private final Route[] routes;
+  private final Map<String, int[]> exactPaths;
+  @Nullable
+  private final PrefixTrie prefixes;
+  @Nullable
+  private final PrefixTrie lowerCasePrefixes;
+  // Routes whose path matcher must be evaluated.
+  private final int[] unindexed;
+
+  private RouteTable(
+      Route[] routes, Map<String, int[]> exactPaths, @Nullable PrefixTrie prefixes,
+      @Nullable PrefixTrie lowerCasePrefixes, int[] unindexed) {
+    this.routes = routes;
+    this.exactPaths = exactPaths;
+    this.prefixes = prefixes;
+    this.lowerCasePrefixes = lowerCasePrefixes;
+    this.unindexed = unindexed;
+  }
+
+  static RouteTable create(List<Route> routes) {
+    Map<String, List<Integer>> exactPaths = new HashMap<>();
+    PrefixTrie.Builder prefixes = PrefixTrie.newBuilder();
+    PrefixTrie.Builder lowerCasePrefixes = PrefixTrie.newBuilder();
+    List<Integer> unindexed = new ArrayList<>();
+    for (int i = 0; i < routes.size(); i++) {
+      PathMatcher pathMatcher = routes.get(i).routeMatch().pathMatcher();
+      if (pathMatcher.path() != null && pathMatcher.caseSensitive()) {
+        exactPaths.computeIfAbsent(pathMatcher.path(), k -> new ArrayList<>()).add(i);
+      } else if (pathMatcher.prefix() != null) {
+        if (pathMatcher.caseSensitive()) {
+          prefixes.add(pathMatcher.prefix(), i);
+        } else {
+          lowerCasePrefixes.add(pathMatcher.prefix().toLowerCase(Locale.US), i);
+        }
+      } else {
+        unindexed.add(i);
+      }
+    }
+    Map<String, int[]> exactPathIndexes = new HashMap<>(exactPaths.size() * 2);
+    for (Map.Entry<String, List<Integer>> entry : exactPaths.entrySet()) {
+      exactPathIndexes.put(entry.getKey(), Ints.toArray(entry.getValue()));
+    }
+    return new RouteTable(
+        routes.toArray(new Route[0]), exactPathIndexes, prefixes.build(),
+        lowerCasePrefixes.build(), Ints.toArray(unindexed));
+  }
+
+  /**
+   * Returns the first route that matches the RPC, or {@code null} if there is none.
+   *
+   * @param path the RPC's full method name, with a leading slash
+   */
+  @Nullable
+  Route match(String path, Metadata headers, ThreadSafeRandom random) {
+    List<int[]> candidates = new ArrayList<>(4);
+    int[] exact = exactPaths.get(path);
+    if (exact != null) {
+      candidates.add(exact);
+    }
+    if (prefixes != null) {
+      prefixes.collect(path, candidates);
+    }
+    if (lowerCasePrefixes != null) {
+      lowerCasePrefixes.collect(path.toLowerCase(Locale.US), candidates);
+    }
+    if (unindexed.length != 0) {
+      candidates.add(unindexed);
+    }
+
+    // Merge the sorted candidate lists, evaluating routes in their original order.
+    int[] cursors = new int[candidates.size()];
+    while (true) {
+      int source = -1;
+      int next = Integer.MAX_VALUE;
+      for (int i = 0; i < cursors.length; i++) {
+        int[] indexes = candidates.get(i);
+        if (cursors[i] < indexes.length && indexes[cursors[i]] < next) {
+          next = indexes[cursors[i]];
+          source = i;
+        }
+      }
+      if (source == -1) {
+        return null;
+      }
+      cursors[source]++;
+      Route route = routes[next];
+      // Only unindexed routes still need their path checked.
+      boolean matched = candidates.get(source) == unindexed
+          ? RoutingUtils.matchRoute(route.routeMatch(), path, headers, random)
+          : RoutingUtils.matchHeadersAndFraction(route.routeMatch(), headers, random);
+      if (matched) {
+        return route;
+      }
+    }
+  }
+}
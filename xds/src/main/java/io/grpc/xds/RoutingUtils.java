@@ -145,9 +145,16 @@ final class RoutingUtils {
    */
   static boolean matchRoute(RouteMatch routeMatch, String fullMethodName,
       Metadata headers, ThreadSafeRandom random) {
-    if (!matchPath(routeMatch.pathMatcher(), fullMethodName)) {
-      return false;
-    }
+    return matchPath(routeMatch.pathMatcher(), fullMethodName)
+        && matchHeadersAndFraction(routeMatch, headers, random);
+  }
+
+  /**
+   * Returns {@code true} iff the header matchers and fraction matcher of the given {@link
+   * RouteMatch} match, ignoring its path matcher.
+   */
+  static boolean matchHeadersAndFraction(RouteMatch routeMatch, Metadata headers,
+      ThreadSafeRandom random) {
     for (HeaderMatcher headerMatcher : routeMatch.headerMatchers()) {
       if (!headerMatcher.matches(getHeaderValue(headers, headerMatcher.name()))) {
         return false;
@@ -104,6 +104,11 @@ class XdsClusterResource extends XdsResourceType<CdsUpdate> {
     return true;
   }
 
+  @Override
+  protected Object parseInputs() {
+    return enableLeastRequest;
+  }
+
   @Override
   @SuppressWarnings("unchecked")
   protected Class<Cluster> unpackedClassName() {
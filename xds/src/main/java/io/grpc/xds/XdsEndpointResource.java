@@ -87,6 +87,11 @@ class XdsEndpointResource extends XdsResourceType<EdsUpdate> {
     return false;
   }
 
+  @Override
+  protected Object parseInputs() {
+    return isEnabledXdsDualStack();
+  }
+
   @Override
   protected Class<ClusterLoadAssignment> unpackedClassName() {
     return ClusterLoadAssignment.class;
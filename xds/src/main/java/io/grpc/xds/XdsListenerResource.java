@@ -99,6 +99,19 @@ class XdsListenerResource extends XdsResourceType<LdsUpdate> {
     return true;
   }
 
+  @Override
+  protected boolean parseDependsOnSecurityConfig() {
+    // Server side listeners hold SslContextProviderSuppliers of the xDS client's
+    // TlsContextManager.
+    return true;
+  }
+
+  @Override
+  protected Object parseInputs() {
+    // Inlined route configurations are parsed like RDS resources.
+    return XdsRouteConfigureResource.enableRouteLookup;
+  }
+
   @Override
   protected LdsUpdate doParse(Args args, Message unpackedMessage)
       throws ResourceInvalidException {
@@ -380,14 +380,10 @@ final class XdsNameResolver extends NameResolver {
       do {
         routingCfg = routingConfig;
         selectedOverrideConfigs = new HashMap<>(routingCfg.virtualHostOverrideConfig);
-        for (Route route : routingCfg.routes) {
-          if (RoutingUtils.matchRoute(
-                  route.routeMatch(), "/" + args.getMethodDescriptor().getFullMethodName(),
-              headers, random)) {
-            selectedRoute = route;
-            selectedOverrideConfigs.putAll(route.filterConfigOverrides());
-            break;
-          }
+        selectedRoute = routingCfg.routeTable.match(
+            "/" + args.getMethodDescriptor().getFullMethodName(), headers, random);
+        if (selectedRoute != null) {
+          selectedOverrideConfigs.putAll(selectedRoute.filterConfigOverrides());
         }
         if (selectedRoute == null) {
           return Result.forError(
@@ -885,7 +881,7 @@ final class XdsNameResolver extends NameResolver {
    */
   private static class RoutingConfig {
     private final long fallbackTimeoutNano;
-    final List<Route> routes;
+    final RouteTable routeTable;
     // Null if HttpFilter is not supported.
     @Nullable final List<NamedFilterConfig> filterChain;
     final Map<String, FilterConfig> virtualHostOverrideConfig;
@@ -897,7 +893,7 @@ final class XdsNameResolver extends NameResolver {
         long fallbackTimeoutNano, List<Route> routes, @Nullable List<NamedFilterConfig> filterChain,
         Map<String, FilterConfig> virtualHostOverrideConfig) {
       this.fallbackTimeoutNano = fallbackTimeoutNano;
-      this.routes = routes;
+      this.routeTable = RouteTable.create(routes);
       checkArgument(filterChain == null || !filterChain.isEmpty(), "filterChain is empty");
       this.filterChain = filterChain == null ? null : Collections.unmodifiableList(filterChain);
       this.virtualHostOverrideConfig = Collections.unmodifiableMap(virtualHostOverrideConfig);
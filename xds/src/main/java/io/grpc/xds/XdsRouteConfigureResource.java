@@ -116,6 +116,11 @@ class XdsRouteConfigureResource extends XdsResourceType<RdsUpdate> {
     return false;
   }
 
+  @Override
+  protected Object parseInputs() {
+    return enableRouteLookup;
+  }
+
   @Override
   protected Class<RouteConfiguration> unpackedClassName() {
     return RouteConfiguration.class;
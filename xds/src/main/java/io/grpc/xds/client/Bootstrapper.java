@@ -61,16 +61,30 @@ public abstract class Bootstrapper {
 
     public abstract boolean ignoreResourceDeletion();
 
+    /**
+     * Whether to use the incremental (delta) variant of the ADS protocol, in which the client and
+     * server only exchange the resources that changed.
+     */
+    public abstract boolean useDeltaAds();
+
     @VisibleForTesting
     public static ServerInfo create(String target, @Nullable Object implSpecificConfig) {
-      return new AutoValue_Bootstrapper_ServerInfo(target, implSpecificConfig, false);
+      return new AutoValue_Bootstrapper_ServerInfo(target, implSpecificConfig, false, false);
     }
 
     @VisibleForTesting
     public static ServerInfo create(
         String target, Object implSpecificConfig, boolean ignoreResourceDeletion) {
       return new AutoValue_Bootstrapper_ServerInfo(target, implSpecificConfig,
-          ignoreResourceDeletion);
+          ignoreResourceDeletion, false);
+    }
+
+    @VisibleForTesting
+    public static ServerInfo create(
+        String target, Object implSpecificConfig, boolean ignoreResourceDeletion,
+        boolean useDeltaAds) {
+      return new AutoValue_Bootstrapper_ServerInfo(target, implSpecificConfig,
+          ignoreResourceDeletion, useDeltaAds);
     }
   }
 
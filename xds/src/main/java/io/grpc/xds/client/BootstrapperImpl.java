@@ -50,6 +50,8 @@ public abstract class BootstrapperImpl extends Bootstrapper {
 
   // Server features.
   private static final String SERVER_FEATURE_IGNORE_RESOURCE_DELETION = "ignore_resource_deletion";
+  @VisibleForTesting
+  public static final String SERVER_FEATURE_DELTA_ADS = "delta_ads";
 
   protected final XdsLogger logger;
 
@@ -234,13 +236,15 @@ public abstract class BootstrapperImpl extends Bootstrapper {
       Object implSpecificConfig = getImplSpecificConfig(serverConfig, serverUri);
 
       boolean ignoreResourceDeletion = false;
+      boolean useDeltaAds = false;
       List<String> serverFeatures = JsonUtil.getListOfStrings(serverConfig, "server_features");
       if (serverFeatures != null) {
         logger.log(XdsLogLevel.INFO, "Server features: {0}", serverFeatures);
         ignoreResourceDeletion = serverFeatures.contains(SERVER_FEATURE_IGNORE_RESOURCE_DELETION);
+        useDeltaAds = serverFeatures.contains(SERVER_FEATURE_DELTA_ADS);
       }
       servers.add(
-          ServerInfo.create(serverUri, implSpecificConfig, ignoreResourceDeletion));
+          ServerInfo.create(serverUri, implSpecificConfig, ignoreResourceDeletion, useDeltaAds));
     }
     return servers.build();
   }
@@ -19,6 +19,7 @@ package io.grpc.xds.client;
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.base.Preconditions.checkState;
+import static io.grpc.xds.client.XdsClient.canonifyResourceName;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Stopwatch;
@@ -26,8 +27,11 @@ import com.google.common.base.Supplier;
 import com.google.protobuf.Any;
 import com.google.rpc.Code;
 import io.envoyproxy.envoy.service.discovery.v3.AggregatedDiscoveryServiceGrpc;
+import io.envoyproxy.envoy.service.discovery.v3.DeltaDiscoveryRequest;
+import io.envoyproxy.envoy.service.discovery.v3.DeltaDiscoveryResponse;
 import io.envoyproxy.envoy.service.discovery.v3.DiscoveryRequest;
 import io.envoyproxy.envoy.service.discovery.v3.DiscoveryResponse;
+import io.envoyproxy.envoy.service.discovery.v3.Resource;
 import io.grpc.InternalLogId;
 import io.grpc.MethodDescriptor;
 import io.grpc.Status;
@@ -43,6 +47,7 @@ import io.grpc.xds.client.XdsLogger.XdsLogLevel;
 import io.grpc.xds.client.XdsTransportFactory.EventHandler;
 import io.grpc.xds.client.XdsTransportFactory.StreamingCall;
 import io.grpc.xds.client.XdsTransportFactory.XdsTransport;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
@@ -78,10 +83,14 @@ final class ControlPlaneClient {
   // A version_info is used to update management server with client's most recent knowledge of
   // resources.
   private final Map<XdsResourceType<?>, String> versions = new HashMap<>();
+  // Last acknowledged version of each resource, by resource type and canonical resource name. Only
+  // used by incremental ADS, where it is sent when the stream is restarted so the server can skip
+  // unchanged resources. Only holds resources that are still subscribed to.
+  private final Map<XdsResourceType<?>, Map<String, String>> resourceVersions = new HashMap<>();
 
   private boolean shutdown;
   @Nullable
-  private AdsStream adsStream;
+  private AdsStream<?, ?> adsStream;
   @Nullable
   private BackoffPolicy retryBackoffPolicy;
   @Nullable
@@ -145,16 +154,29 @@ final class ControlPlaneClient {
    */
   // Must be synchronized.
   void adjustResourceSubscription(XdsResourceType<?> resourceType) {
+    Collection<String> resources = resourceStore.getSubscribedResources(serverInfo, resourceType);
+    Map<String, String> ackedVersions = resourceVersions.get(resourceType);
+    if (ackedVersions != null) {
+      // Forget unsubscribed resources, since their cached data is gone.
+      ackedVersions.keySet().retainAll(canonicalNames(resources));
+    }
     if (isInBackoff()) {
       return;
     }
     if (adsStream == null) {
       startRpcStream();
     }
-    Collection<String> resources = resourceStore.getSubscribedResources(serverInfo, resourceType);
+    adsStream.sendDiscoveryRequest(resourceType, resources);
+  }
+
+  private static Set<String> canonicalNames(@Nullable Collection<String> resources) {
+    Set<String> names = new HashSet<>();
     if (resources != null) {
-      adsStream.sendDiscoveryRequest(resourceType, resources);
+      for (String resource : resources) {
+        names.add(canonifyResourceName(resource));
+      }
     }
+    return names;
   }
 
   /**
@@ -166,11 +188,7 @@ final class ControlPlaneClient {
     versions.put(type, versionInfo);
     logger.log(XdsLogLevel.INFO, "Sending ACK for {0} update, nonce: {1}, current version: {2}",
         type.typeName(), nonce, versionInfo);
-    Collection<String> resources = resourceStore.getSubscribedResources(serverInfo, type);
-    if (resources == null) {
-      resources = Collections.emptyList();
-    }
-    adsStream.sendDiscoveryRequest(type, versionInfo, resources, nonce, null);
+    adsStream.sendAck(type, versionInfo, nonce);
   }
 
   /**
@@ -182,11 +200,7 @@ final class ControlPlaneClient {
     String versionInfo = versions.getOrDefault(type, "");
     logger.log(XdsLogLevel.INFO, "Sending NACK for {0} update, nonce: {1}, current version: {2}",
         type.typeName(), nonce, versionInfo);
-    Collection<String> resources = resourceStore.getSubscribedResources(serverInfo, type);
-    if (resources == null) {
-      resources = Collections.emptyList();
-    }
-    adsStream.sendDiscoveryRequest(type, versionInfo, resources, nonce, errorDetail);
+    adsStream.sendNack(type, versionInfo, nonce, errorDetail);
   }
 
   /**
@@ -227,7 +241,8 @@ final class ControlPlaneClient {
   // Must be synchronized.
   private void startRpcStream() {
     checkState(adsStream == null, "Previous adsStream has not been cleared yet");
-    adsStream = new AdsStream();
+    adsStream = serverInfo.useDeltaAds() ? new DeltaAdsStream() : new SotwAdsStream();
+    adsStream.start();
     logger.log(XdsLogLevel.INFO, "ADS stream started");
     stopwatch.reset().start();
   }
@@ -244,9 +259,7 @@ final class ControlPlaneClient {
           new HashSet<>(resourceStore.getSubscribedResourceTypesWithTypeUrl().values());
       for (XdsResourceType<?> type : subscribedResourceTypes) {
         Collection<String> resources = resourceStore.getSubscribedResources(serverInfo, type);
-        if (resources != null) {
-          adsStream.sendDiscoveryRequest(type, resources);
-        }
+        adsStream.sendDiscoveryRequest(type, resources);
       }
       xdsResponseHandler.handleStreamRestarted(serverInfo);
     }
@@ -258,9 +271,108 @@ final class ControlPlaneClient {
     return resourceStore.getSubscribedResourceTypesWithTypeUrl().get(typeUrl);
   }
 
-  private class AdsStream implements EventHandler<DiscoveryResponse> {
-    private boolean responseReceived;
-    private boolean closed;
+  /** An ADS RPC stream, using either the state of the world or the incremental protocol. */
+  private abstract class AdsStream<ReqT, RespT> implements EventHandler<RespT> {
+    boolean responseReceived;
+    boolean closed;
+    final StreamingCall<ReqT, RespT> call;
+
+    AdsStream(MethodDescriptor<ReqT, RespT> methodDescriptor) {
+      this.call = xdsTransport.createStreamingCall(methodDescriptor.getFullMethodName(),
+          methodDescriptor.getRequestMarshaller(), methodDescriptor.getResponseMarshaller());
+    }
+
+    final void start() {
+      call.start(this);
+    }
+
+    /**
+     * Sends a client-initiated discovery request for the currently subscribed {@code resources},
+     * or {@code null} if there are none.
+     */
+    abstract void sendDiscoveryRequest(
+        XdsResourceType<?> type, @Nullable Collection<String> resources);
+
+    /** Sends an ACK for the response with {@code nonce}. */
+    abstract void sendAck(XdsResourceType<?> type, String versionInfo, String nonce);
+
+    /** Sends a NACK for the response with {@code nonce}. */
+    abstract void sendNack(
+        XdsResourceType<?> type, String versionInfo, String nonce, String errorDetail);
+
+    @Override
+    public void onReady() {
+      syncContext.execute(ControlPlaneClient.this::readyHandler);
+    }
+
+    @Override
+    public void onStatusReceived(final Status status) {
+      syncContext.execute(() -> {
+        if (status.isOk()) {
+          handleRpcStreamClosed(Status.UNAVAILABLE.withDescription(CLOSED_BY_SERVER));
+        } else {
+          handleRpcStreamClosed(status);
+        }
+      });
+    }
+
+    private void handleRpcStreamClosed(Status error) {
+      if (closed) {
+        return;
+      }
+
+      if (responseReceived || retryBackoffPolicy == null) {
+        // Reset the backoff sequence if had received a response, or backoff sequence
+        // has never been initialized.
+        retryBackoffPolicy = backoffPolicyProvider.get();
+      }
+      // FakeClock in tests isn't thread-safe. Schedule the retry timer before notifying callbacks
+      // to avoid TSAN races, since tests may wait until callbacks are called but then would run
+      // concurrently with the stopwatch and schedule.
+      long elapsed = stopwatch.elapsed(TimeUnit.NANOSECONDS);
+      long delayNanos = Math.max(0, retryBackoffPolicy.nextBackoffNanos() - elapsed);
+      rpcRetryTimer = syncContext.schedule(
+          new RpcRetryTask(), delayNanos, TimeUnit.NANOSECONDS, timeService);
+
+      checkArgument(!error.isOk(), "unexpected OK status");
+      String errorMsg = error.getDescription() != null
+          && error.getDescription().equals(CLOSED_BY_SERVER)
+              ? "ADS stream closed with status {0}: {1}. Cause: {2}"
+              : "ADS stream failed with status {0}: {1}. Cause: {2}";
+      logger.log(
+          XdsLogLevel.ERROR, errorMsg, error.getCode(), error.getDescription(), error.getCause());
+      closed = true;
+      xdsResponseHandler.handleStreamClosed(error);
+      cleanUp();
+
+      logger.log(XdsLogLevel.INFO, "Retry ADS stream in {0} ns", delayNanos);
+    }
+
+    private void close(Exception error) {
+      if (closed) {
+        return;
+      }
+      closed = true;
+      cleanUp();
+      call.sendError(error);
+    }
+
+    private void cleanUp() {
+      if (adsStream == this) {
+        adsStream = null;
+      }
+    }
+  }
+
+  private static com.google.rpc.Status nackErrorDetail(String errorDetail) {
+    return com.google.rpc.Status.newBuilder()
+        .setCode(Code.INVALID_ARGUMENT_VALUE)  // FIXME(chengyuanzhang): use correct code
+        .setMessage(errorDetail)
+        .build();
+  }
+
+  /** A state of the world ADS stream. Each request lists all subscribed resources. */
+  private final class SotwAdsStream extends AdsStream<DiscoveryRequest, DiscoveryResponse> {
     // Response nonce for the most recently received discovery responses of each resource type.
     // Client initiated requests start response nonce with empty string.
     // Nonce in each response is echoed back in the following ACK/NACK request. It is
@@ -268,14 +380,9 @@ final class ControlPlaneClient {
     // To avoid confusion, client-initiated requests will always use the nonce in
     // most recently received responses of each resource type.
     private final Map<XdsResourceType<?>, String> respNonces = new HashMap<>();
-    private final StreamingCall<DiscoveryRequest, DiscoveryResponse> call;
-    private final MethodDescriptor<DiscoveryRequest, DiscoveryResponse> methodDescriptor =
-        AggregatedDiscoveryServiceGrpc.getStreamAggregatedResourcesMethod();
 
-    private AdsStream() {
-      this.call = xdsTransport.createStreamingCall(methodDescriptor.getFullMethodName(),
-          methodDescriptor.getRequestMarshaller(), methodDescriptor.getResponseMarshaller());
-      call.start(this);
+    private SotwAdsStream() {
+      super(AggregatedDiscoveryServiceGrpc.getStreamAggregatedResourcesMethod());
     }
 
     /**
@@ -295,12 +402,7 @@ final class ControlPlaneClient {
               .setTypeUrl(type.typeUrl())
               .setResponseNonce(nonce);
       if (errorDetail != null) {
-        com.google.rpc.Status error =
-            com.google.rpc.Status.newBuilder()
-                .setCode(Code.INVALID_ARGUMENT_VALUE)  // FIXME(chengyuanzhang): use correct code
-                .setMessage(errorDetail)
-                .build();
-        builder.setErrorDetail(error);
+        builder.setErrorDetail(nackErrorDetail(errorDetail));
       }
       DiscoveryRequest request = builder.build();
       call.sendMessage(request);
@@ -309,18 +411,30 @@ final class ControlPlaneClient {
       }
     }
 
-    /**
-     * Sends a client-initiated discovery request.
-     */
-    final void sendDiscoveryRequest(XdsResourceType<?> type, Collection<String> resources) {
+    @Override
+    void sendDiscoveryRequest(XdsResourceType<?> type, @Nullable Collection<String> resources) {
+      if (resources == null) {
+        return;
+      }
       logger.log(XdsLogLevel.INFO, "Sending {0} request for resources: {1}", type, resources);
       sendDiscoveryRequest(type, versions.getOrDefault(type, ""), resources,
           respNonces.getOrDefault(type, ""), null);
     }
 
     @Override
-    public void onReady() {
-      syncContext.execute(ControlPlaneClient.this::readyHandler);
+    void sendAck(XdsResourceType<?> type, String versionInfo, String nonce) {
+      sendDiscoveryRequest(type, versionInfo, getSubscribedResourcesOrEmpty(type), nonce, null);
+    }
+
+    @Override
+    void sendNack(XdsResourceType<?> type, String versionInfo, String nonce, String errorDetail) {
+      sendDiscoveryRequest(
+          type, versionInfo, getSubscribedResourcesOrEmpty(type), nonce, errorDetail);
+    }
+
+    private Collection<String> getSubscribedResourcesOrEmpty(XdsResourceType<?> type) {
+      Collection<String> resources = resourceStore.getSubscribedResources(serverInfo, type);
+      return resources == null ? Collections.emptyList() : resources;
     }
 
     @Override
@@ -349,17 +463,6 @@ final class ControlPlaneClient {
       });
     }
 
-    @Override
-    public void onStatusReceived(final Status status) {
-      syncContext.execute(() -> {
-        if (status.isOk()) {
-          handleRpcStreamClosed(Status.UNAVAILABLE.withDescription(CLOSED_BY_SERVER));
-        } else {
-          handleRpcStreamClosed(status);
-        }
-      });
-    }
-
     final void handleRpcResponse(XdsResourceType<?> type, String versionInfo, List<Any> resources,
                                  String nonce) {
       checkNotNull(type, "type");
@@ -374,52 +477,153 @@ final class ControlPlaneClient {
           processingTracker);
       processingTracker.onComplete();
     }
+  }
 
-    private void handleRpcStreamClosed(Status error) {
-      if (closed) {
+  /**
+   * An incremental (delta) ADS stream. Requests only carry changes to the subscriptions, and
+   * responses only carry resources that changed or were removed.
+   */
+  private final class DeltaAdsStream
+      extends AdsStream<DeltaDiscoveryRequest, DeltaDiscoveryResponse> {
+    private boolean nodeSent;
+    // Resource names subscribed to on this stream, for each resource type that had a request.
+    private final Map<XdsResourceType<?>, Set<String>> subscribed = new HashMap<>();
+    // The response being processed for each resource type. Its resource versions are recorded
+    // once it is ACKed.
+    private final Map<XdsResourceType<?>, DeltaDiscoveryResponse> pendingResponses =
+        new HashMap<>();
+
+    private DeltaAdsStream() {
+      super(AggregatedDiscoveryServiceGrpc.getDeltaAggregatedResourcesMethod());
+    }
+
+    @Override
+    void sendDiscoveryRequest(XdsResourceType<?> type, @Nullable Collection<String> resources) {
+      // The client never subscribes to the wildcard, so no resources means none are wanted.
+      Set<String> wanted = canonicalNames(resources);
+      Set<String> current = subscribed.get(type);
+      boolean firstRequest = current == null;
+      if (firstRequest) {
+        if (wanted.isEmpty()) {
+          return;
+        }
+        current = new HashSet<>();
+        subscribed.put(type, current);
+      }
+      List<String> subscribe = new ArrayList<>();
+      for (String name : wanted) {
+        if (!current.contains(name)) {
+          subscribe.add(name);
+        }
+      }
+      List<String> unsubscribe = new ArrayList<>();
+      for (String name : current) {
+        if (!wanted.contains(name)) {
+          unsubscribe.add(name);
+        }
+      }
+      if (subscribe.isEmpty() && unsubscribe.isEmpty()) {
         return;
       }
+      current.addAll(subscribe);
+      current.removeAll(unsubscribe);
 
-      if (responseReceived || retryBackoffPolicy == null) {
-        // Reset the backoff sequence if had received a response, or backoff sequence
-        // has never been initialized.
-        retryBackoffPolicy = backoffPolicyProvider.get();
+      logger.log(XdsLogLevel.INFO, "Sending {0} delta request, subscribe: {1}, unsubscribe: {2}",
+          type, subscribe, unsubscribe);
+      DeltaDiscoveryRequest.Builder builder =
+          DeltaDiscoveryRequest.newBuilder()
+              .setTypeUrl(type.typeUrl())
+              .addAllResourceNamesSubscribe(subscribe)
+              .addAllResourceNamesUnsubscribe(unsubscribe);
+      Map<String, String> ackedVersions = resourceVersions.get(type);
+      if (firstRequest && ackedVersions != null) {
+        // Resources the client already has won't be sent again unless they changed.
+        for (String name : subscribe) {
+          String version = ackedVersions.get(name);
+          if (version != null) {
+            builder.putInitialResourceVersions(name, version);
+          }
+        }
       }
-      // FakeClock in tests isn't thread-safe. Schedule the retry timer before notifying callbacks
-      // to avoid TSAN races, since tests may wait until callbacks are called but then would run
-      // concurrently with the stopwatch and schedule.
-      long elapsed = stopwatch.elapsed(TimeUnit.NANOSECONDS);
-      long delayNanos = Math.max(0, retryBackoffPolicy.nextBackoffNanos() - elapsed);
-      rpcRetryTimer = syncContext.schedule(
-          new RpcRetryTask(), delayNanos, TimeUnit.NANOSECONDS, timeService);
+      send(builder);
+    }
 
-      checkArgument(!error.isOk(), "unexpected OK status");
-      String errorMsg = error.getDescription() != null
-          && error.getDescription().equals(CLOSED_BY_SERVER)
-              ? "ADS stream closed with status {0}: {1}. Cause: {2}"
-              : "ADS stream failed with status {0}: {1}. Cause: {2}";
-      logger.log(
-          XdsLogLevel.ERROR, errorMsg, error.getCode(), error.getDescription(), error.getCause());
-      closed = true;
-      xdsResponseHandler.handleStreamClosed(error);
-      cleanUp();
+    @Override
+    void sendAck(XdsResourceType<?> type, String versionInfo, String nonce) {
+      DeltaDiscoveryResponse response = pendingResponses.remove(type);
+      if (response != null && response.getNonce().equals(nonce)) {
+        Set<String> names = subscribed.getOrDefault(type, Collections.emptySet());
+        Map<String, String> ackedVersions =
+            resourceVersions.computeIfAbsent(type, k -> new HashMap<>());
+        // Keyed by canonical name, like the subscriptions.
+        for (Resource resource : response.getResourcesList()) {
+          String name = canonifyResourceName(resource.getName());
+          if (names.contains(name)) {
+            ackedVersions.put(name, resource.getVersion());
+          }
+        }
+        for (String name : response.getRemovedResourcesList()) {
+          ackedVersions.remove(canonifyResourceName(name));
+        }
+      }
+      send(DeltaDiscoveryRequest.newBuilder()
+          .setTypeUrl(type.typeUrl())
+          .setResponseNonce(nonce));
+    }
 
-      logger.log(XdsLogLevel.INFO, "Retry ADS stream in {0} ns", delayNanos);
+    @Override
+    void sendNack(XdsResourceType<?> type, String versionInfo, String nonce, String errorDetail) {
+      pendingResponses.remove(type);
+      send(DeltaDiscoveryRequest.newBuilder()
+          .setTypeUrl(type.typeUrl())
+          .setResponseNonce(nonce)
+          .setErrorDetail(nackErrorDetail(errorDetail)));
     }
 
-    private void close(Exception error) {
-      if (closed) {
-        return;
+    private void send(DeltaDiscoveryRequest.Builder builder) {
+      // The node only needs to be in the first request of the stream.
+      if (!nodeSent) {
+        builder.setNode(bootstrapNode.toEnvoyProtoNode());
+        nodeSent = true;
+      }
+      DeltaDiscoveryRequest request = builder.build();
+      call.sendMessage(request);
+      if (logger.isLoggable(XdsLogLevel.DEBUG)) {
+        logger.log(
+            XdsLogLevel.DEBUG, "Sent DeltaDiscoveryRequest\n{0}", messagePrinter.print(request));
       }
-      closed = true;
-      cleanUp();
-      call.sendError(error);
     }
 
-    private void cleanUp() {
-      if (adsStream == this) {
-        adsStream = null;
-      }
+    @Override
+    public void onRecvMessage(DeltaDiscoveryResponse response) {
+      syncContext.execute(() -> {
+        XdsResourceType<?> type = fromTypeUrl(response.getTypeUrl());
+        if (logger.isLoggable(XdsLogLevel.DEBUG)) {
+          logger.log(
+              XdsLogLevel.DEBUG, "Received {0} delta response:\n{1}", type,
+              messagePrinter.print(response));
+        }
+        if (type == null) {
+          logger.log(
+              XdsLogLevel.WARNING,
+              "Ignore an unknown type of DeltaDiscoveryResponse: {0}",
+              response.getTypeUrl());
+
+          call.startRecvMessage();
+          return;
+        }
+        if (closed) {
+          return;
+        }
+        responseReceived = true;
+        pendingResponses.put(type, response);
+        ProcessingTracker processingTracker = new ProcessingTracker(
+            () -> call.startRecvMessage(), syncContext);
+        xdsResponseHandler.handleResourceDeltaResponse(type, serverInfo,
+            response.getSystemVersionInfo(), response.getResourcesList(),
+            response.getRemovedResourcesList(), response.getNonce(), processingTracker);
+        processingTracker.onComplete();
+      });
     }
   }
 }
@@ -0,0 +1,198 @@
+/*
+ * Copyright 2024 The gRPC Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.grpc.xds.client;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.protobuf.Any;
+import io.grpc.xds.client.Bootstrapper.BootstrapInfo;
+import io.grpc.xds.client.Bootstrapper.ServerInfo;
+import io.grpc.xds.client.XdsClient.ResourceUpdate;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Objects;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * A process-wide cache of parsed xDS resources, shared by all {@link XdsClientImpl} instances.
+ *
+ * <p>Management servers resend unchanged resources on every push, and several xDS clients in the
+ * same process usually receive identical resources. Parsing and validating a large resource (for
+ * example a RouteConfiguration) is expensive, so the result of {@link XdsResourceType#doParse} is
+ * reused for a serialized resource that was already parsed with the same inputs. Validation
+ * errors are not cached, since they may come from registry contents that the inputs do not
+ * include, such as a load balancing policy that is registered later.
+ *
+ * <p>The cache is bounded by the total serialized size of the cached resources, and evicts the
+ * least recently used entries first.
+ */
+@ThreadSafe
+final class ParsedResourceCache {
+  @VisibleForTesting
+  static final long DEFAULT_MAX_BYTES = 16L * 1024 * 1024;
+
+  private static final ParsedResourceCache DEFAULT = new ParsedResourceCache(DEFAULT_MAX_BYTES);
+
+  private final long maxBytes;
+  private final Object lock = new Object();
+  @GuardedBy("lock")
+  private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+  @GuardedBy("lock")
+  private long bytes;
+
+  @VisibleForTesting
+  ParsedResourceCache(long maxBytes) {
+    checkArgument(maxBytes >= 0, "maxBytes must be non-negative");
+    this.maxBytes = maxBytes;
+  }
+
+  static ParsedResourceCache getDefault() {
+    return DEFAULT;
+  }
+
+  /**
+   * Returns the cached parse result of {@code resource}, or {@code null} if it isn't cached.
+   */
+  @Nullable
+  Entry get(
+      XdsResourceType<?> type, XdsResourceType.Args args, @Nullable Object parseInputs,
+      Any resource) {
+    Key key = new Key(type, args, parseInputs, resource);
+    synchronized (lock) {
+      return entries.get(key);
+    }
+  }
+
+  void put(
+      XdsResourceType<?> type, XdsResourceType.Args args, @Nullable Object parseInputs,
+      Any resource, Entry entry) {
+    Key key = new Key(type, args, parseInputs, resource);
+    int size = resource.getSerializedSize();
+    if (size > maxBytes) {
+      return;
+    }
+    synchronized (lock) {
+      Entry previous = entries.put(key, entry);
+      if (previous == null) {
+        bytes += size;
+      }
+      Iterator<Key> iterator = entries.keySet().iterator();
+      while (bytes > maxBytes) {
+        bytes -= iterator.next().resource.getSerializedSize();
+        iterator.remove();
+      }
+    }
+  }
+
+  @VisibleForTesting
+  int size() {
+    synchronized (lock) {
+      return entries.size();
+    }
+  }
+
+  @VisibleForTesting
+  long sizeBytes() {
+    synchronized (lock) {
+      return bytes;
+    }
+  }
+
+  void clear() {
+    synchronized (lock) {
+      entries.clear();
+      bytes = 0;
+    }
+  }
+
+  /**
+   * The result of parsing a resource: the name found inside the resource, if any, and the resource
+   * update.
+   */
+  static final class Entry {
+    @Nullable
+    final String name;
+    final ResourceUpdate resourceUpdate;
+
+    Entry(@Nullable String name, ResourceUpdate resourceUpdate) {
+      this.name = name;
+      this.resourceUpdate = checkNotNull(resourceUpdate, "resourceUpdate");
+    }
+  }
+
+  /**
+   * Identifies a parse result. Besides the serialized resource, it includes the inputs from
+   * {@link XdsResourceType.Args} and {@link XdsResourceType#parseInputs} that the parse result may
+   * depend on.
+   */
+  private static final class Key {
+    final XdsResourceType<?> type;
+    final Any resource;
+    @Nullable
+    final ServerInfo serverInfo;
+    @Nullable
+    final BootstrapInfo bootstrapInfo;
+    // Compared by identity. Only set for types whose parse result refers to it, since it is
+    // specific to each xDS client.
+    @Nullable
+    final Object securityConfig;
+    @Nullable
+    final Object parseInputs;
+    final int hashCode;
+
+    Key(
+        XdsResourceType<?> type, XdsResourceType.Args args, @Nullable Object parseInputs,
+        Any resource) {
+      this.type = type;
+      this.resource = resource;
+      this.parseInputs = parseInputs;
+      this.serverInfo = args.serverInfo;
+      this.bootstrapInfo = args.bootstrapInfo;
+      this.securityConfig = type.parseDependsOnSecurityConfig() ? args.securityConfig : null;
+      // The remaining fields rarely differ, so they are only compared in equals(). Protobuf
+      // memoizes the resource's hash code.
+      this.hashCode = 31 * System.identityHashCode(type) + resource.hashCode();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof Key)) {
+        return false;
+      }
+      Key that = (Key) o;
+      return hashCode == that.hashCode
+          && type == that.type
+          && securityConfig == that.securityConfig
+          && resource.equals(that.resource)
+          && Objects.equals(serverInfo, that.serverInfo)
+          && Objects.equals(bootstrapInfo, that.bootstrapInfo)
+          && Objects.equals(parseInputs, that.parseInputs);
+    }
+
+    @Override
+    public int hashCode() {
+      return hashCode;
+    }
+  }
+}
@@ -25,6 +25,7 @@ import com.google.common.net.UrlEscapers;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.MoreExecutors;
 import com.google.protobuf.Any;
+import io.envoyproxy.envoy.service.discovery.v3.Resource;
 import io.grpc.ExperimentalApi;
 import io.grpc.Status;
 import io.grpc.xds.client.Bootstrapper.ServerInfo;
@@ -405,6 +406,15 @@ public abstract class XdsClient {
         XdsResourceType<?> resourceType, ServerInfo serverInfo, String versionInfo,
         List<Any> resources, String nonce, ProcessingTracker processingTracker);
 
+    /**
+     * Called when an incremental (delta) xds response is received. Only the resources that
+     * changed are included, and {@code removedResources} are the names of deleted resources.
+     */
+    void handleResourceDeltaResponse(
+        XdsResourceType<?> resourceType, ServerInfo serverInfo, String systemVersionInfo,
+        List<Resource> resources, List<String> removedResources, String nonce,
+        ProcessingTracker processingTracker);
+
     /** Called when the ADS stream is closed passively. */
     // Must be synchronized.
     void handleStreamClosed(Status error);
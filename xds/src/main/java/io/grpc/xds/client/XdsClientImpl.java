@@ -31,6 +31,7 @@ import com.google.common.collect.ImmutableSet;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.SettableFuture;
 import com.google.protobuf.Any;
+import io.envoyproxy.envoy.service.discovery.v3.Resource;
 import io.grpc.Internal;
 import io.grpc.InternalLogId;
 import io.grpc.Status;
@@ -47,6 +48,7 @@ import java.net.URI;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -138,6 +140,23 @@ public final class XdsClientImpl extends XdsClient implements XdsResponseHandler
     handleResourceUpdate(args, resources, xdsResourceType, processingTracker);
   }
 
+  @Override
+  public void handleResourceDeltaResponse(
+      XdsResourceType<?> xdsResourceType, ServerInfo serverInfo, String systemVersionInfo,
+      List<Resource> resources, List<String> removedResources, String nonce,
+      ProcessingTracker processingTracker) {
+    checkNotNull(xdsResourceType, "xdsResourceType");
+    syncContext.throwIfNotInThisSynchronizationContext();
+    Set<String> toParseResourceNames =
+        xdsResourceType.shouldRetrieveResourceKeysForArgs()
+            ? getResourceKeys(xdsResourceType)
+            : null;
+    XdsResourceType.Args args = new XdsResourceType.Args(serverInfo, systemVersionInfo, nonce,
+        bootstrapInfo, securityConfig, toParseResourceNames);
+    handleResourceDeltaUpdate(
+        args, resources, removedResources, xdsResourceType, processingTracker);
+  }
+
   @Override
   public void handleStreamClosed(Status error) {
     syncContext.throwIfNotInThisSynchronizationContext();
@@ -436,11 +455,43 @@ public final class XdsClientImpl extends XdsClient implements XdsResponseHandler
     }
   }
 
-  @SuppressWarnings("unchecked")
   private <T extends ResourceUpdate> void handleResourceUpdate(
       XdsResourceType.Args args, List<Any> resources, XdsResourceType<T> xdsResourceType,
       ProcessingTracker processingTracker) {
     ValidatedResourceUpdate<T> result = xdsResourceType.parse(args, resources);
+    processResourceUpdate(args, result, xdsResourceType, null, null, processingTracker);
+  }
+
+  private <T extends ResourceUpdate> void handleResourceDeltaUpdate(
+      XdsResourceType.Args args, List<Resource> resources, List<String> removedResources,
+      XdsResourceType<T> xdsResourceType, ProcessingTracker processingTracker) {
+    ValidatedResourceUpdate<T> result = xdsResourceType.parseDelta(args, resources);
+    Map<String, String> resourceVersions = new HashMap<>(resources.size());
+    for (Resource resource : resources) {
+      if (isResourceNameValid(resource.getName(), xdsResourceType.typeUrl())) {
+        resourceVersions.put(canonifyResourceName(resource.getName()), resource.getVersion());
+      }
+    }
+    Set<String> removed = new HashSet<>(removedResources.size());
+    for (String resourceName : removedResources) {
+      if (isResourceNameValid(resourceName, xdsResourceType.typeUrl())) {
+        removed.add(canonifyResourceName(resourceName));
+      }
+    }
+    processResourceUpdate(
+        args, result, xdsResourceType, resourceVersions, removed, processingTracker);
+  }
+
+  /**
+   * Acks or nacks the response and notifies the subscribers. {@code resourceVersions} and {@code
+   * removedResources} are only given for incremental responses, in which resources that are not
+   * included are unchanged rather than absent.
+   */
+  @SuppressWarnings("unchecked")
+  private <T extends ResourceUpdate> void processResourceUpdate(
+      XdsResourceType.Args args, ValidatedResourceUpdate<T> result,
+      XdsResourceType<T> xdsResourceType, @Nullable Map<String, String> resourceVersions,
+      @Nullable Set<String> removedResources, ProcessingTracker processingTracker) {
     logger.log(XdsLogger.XdsLogLevel.INFO,
         "Received {0} Response version {1} nonce {2}. Parsed resources: {3}",
          xdsResourceType.typeName(), args.versionInfo, args.nonce, result.unpackedResources);
@@ -466,30 +517,40 @@ public final class XdsClientImpl extends XdsClient implements XdsResponseHandler
     for (Map.Entry<String, ResourceSubscriber<?>> entry : subscribedResources.entrySet()) {
       String resourceName = entry.getKey();
       ResourceSubscriber<T> subscriber = (ResourceSubscriber<T>) entry.getValue();
+      String versionInfo = args.versionInfo;
+      if (resourceVersions != null && resourceVersions.containsKey(resourceName)) {
+        versionInfo = resourceVersions.get(resourceName);
+      }
       if (parsedResources.containsKey(resourceName)) {
         // Happy path: the resource updated successfully. Notify the watchers of the update.
-        subscriber.onData(parsedResources.get(resourceName), args.versionInfo, updateTime,
+        subscriber.onData(parsedResources.get(resourceName), versionInfo, updateTime,
             processingTracker);
         continue;
       }
 
       if (invalidResources.contains(resourceName)) {
         // The resource update is invalid. Capture the error without notifying the watchers.
-        subscriber.onRejected(args.versionInfo, updateTime, errorDetail);
+        subscriber.onRejected(versionInfo, updateTime, errorDetail);
+        // For State of the World resource types the resource is missing, with incremental ADS
+        // too. Reuse the cached resource if possible.
+        if (xdsResourceType.isFullStateOfTheWorld() && subscriber.data == null) {
+          // No cached data. Notify the watchers of an invalid update.
+          subscriber.onError(Status.UNAVAILABLE.withDescription(errorDetail), processingTracker);
+        }
+        continue;
       }
 
-      // Nothing else to do for incremental ADS resources.
-      if (!xdsResourceType.isFullStateOfTheWorld()) {
+      // Incremental ADS: only resources the server explicitly removed are absent.
+      if (removedResources != null) {
+        if (removedResources.contains(resourceName)
+            && subscriber.serverInfo.equals(args.serverInfo)) {
+          subscriber.onAbsent(processingTracker);
+        }
         continue;
       }
 
-      // Handle State of the World ADS: invalid resources.
-      if (invalidResources.contains(resourceName)) {
-        // The resource is missing. Reuse the cached resource if possible.
-        if (subscriber.data == null) {
-          // No cached data. Notify the watchers of an invalid update.
-          subscriber.onError(Status.UNAVAILABLE.withDescription(errorDetail), processingTracker);
-        }
+      // Nothing else to do for incremental ADS resources.
+      if (!xdsResourceType.isFullStateOfTheWorld()) {
         continue;
       }
 
@@ -51,6 +51,8 @@ public abstract class XdsResourceType<T extends ResourceUpdate> {
   protected static final String TYPE_URL_TYPED_STRUCT =
       "type.googleapis.com/xds.type.v3.TypedStruct";
 
+  private final ParsedResourceCache parsedResourceCache = ParsedResourceCache.getDefault();
+
   /**
    * Extract the resource name from an older resource type that included the name within the
    * resource contents itself. The newer approach has resources wrapped with {@code
@@ -135,32 +137,62 @@ public abstract class XdsResourceType<T extends ResourceUpdate> {
   }
 
   ValidatedResourceUpdate<T> parse(Args args, List<Any> resources) {
+    return parse(args, resources, null);
+  }
+
+  /**
+   * Parses the resources of an incremental (delta) response, which always come wrapped in a
+   * {@link Resource} that carries the name.
+   */
+  ValidatedResourceUpdate<T> parseDelta(Args args, List<Resource> resources) {
+    List<Any> unwrapped = new ArrayList<>(resources.size());
+    List<String> names = new ArrayList<>(resources.size());
+    for (Resource resource : resources) {
+      unwrapped.add(resource.getResource());
+      names.add(resource.getName());
+    }
+    return parse(args, unwrapped, names);
+  }
+
+  private ValidatedResourceUpdate<T> parse(
+      Args args, List<Any> resources, @Nullable List<String> names) {
     Map<String, ParsedResource<T>> parsedResources = new HashMap<>(resources.size());
     Set<String> unpackedResources = new HashSet<>(resources.size());
     Set<String> invalidResources = new HashSet<>();
     List<String> errors = new ArrayList<>();
+    Object parseInputs = parseInputs();
 
     for (int i = 0; i < resources.size(); i++) {
       Any resource = resources.get(i);
 
-      Message unpackedMessage;
-      String name = "";
-      try {
-        if (resource.getTypeUrl().equals(TYPE_URL_RESOURCE)) {
+      String name = names != null ? names.get(i) : "";
+      if (names == null && resource.getTypeUrl().equals(TYPE_URL_RESOURCE)) {
+        try {
           Resource wrappedResource = unpackCompatibleType(resource, Resource.class,
               TYPE_URL_RESOURCE, null);
           resource = wrappedResource.getResource();
           name = wrappedResource.getName();
-        } 
-        unpackedMessage = unpackCompatibleType(resource, unpackedClassName(), typeUrl(), null);
-      } catch (InvalidProtocolBufferException e) {
-        errors.add(String.format("%s response Resource index %d - can't decode %s: %s",
-                typeName(), i, unpackedClassName().getSimpleName(), e.getMessage()));
-        continue;
+        } catch (InvalidProtocolBufferException e) {
+          errors.add(String.format("%s response Resource index %d - can't decode %s: %s",
+                  typeName(), i, unpackedClassName().getSimpleName(), e.getMessage()));
+          continue;
+        }
+      }
+
+      ParsedResourceCache.Entry cached = parsedResourceCache.get(this, args, parseInputs, resource);
+      Message unpackedMessage = null;
+      if (cached == null) {
+        try {
+          unpackedMessage = unpackCompatibleType(resource, unpackedClassName(), typeUrl(), null);
+        } catch (InvalidProtocolBufferException e) {
+          errors.add(String.format("%s response Resource index %d - can't decode %s: %s",
+                  typeName(), i, unpackedClassName().getSimpleName(), e.getMessage()));
+          continue;
+        }
       }
       // Fallback to inner resource name if the outer resource didn't have a name.
       if (name.isEmpty()) {
-        name = extractResourceName(unpackedMessage);
+        name = cached != null ? cached.name : extractResourceName(unpackedMessage);
       }
       if (name == null || !isResourceNameValid(name, resource.getTypeUrl())) {
         errors.add(
@@ -174,13 +206,23 @@ public abstract class XdsResourceType<T extends ResourceUpdate> {
       unpackedResources.add(cname);
 
       T resourceUpdate;
-      try {
-        resourceUpdate = doParse(args, unpackedMessage);
-      } catch (ResourceInvalidException e) {
-        errors.add(String.format("%s response %s '%s' validation error: %s",
-                typeName(), unpackedClassName().getSimpleName(), cname, e.getMessage()));
-        invalidResources.add(cname);
-        continue;
+      if (cached != null) {
+        @SuppressWarnings("unchecked")
+        T cachedUpdate = (T) cached.resourceUpdate;
+        resourceUpdate = cachedUpdate;
+      } else {
+        try {
+          resourceUpdate = doParse(args, unpackedMessage);
+        } catch (ResourceInvalidException e) {
+          // Not cached, as the error may be fixed by registering a provider or filter.
+          errors.add(String.format("%s response %s '%s' validation error: %s",
+                  typeName(), unpackedClassName().getSimpleName(), cname, e.getMessage()));
+          invalidResources.add(cname);
+          continue;
+        }
+        parsedResourceCache.put(
+            this, args, parseInputs, resource,
+            new ParsedResourceCache.Entry(extractResourceName(unpackedMessage), resourceUpdate));
       }
 
       // Resource parsed successfully.
@@ -193,6 +235,33 @@ public abstract class XdsResourceType<T extends ResourceUpdate> {
 
   protected abstract T doParse(Args args, Message unpackedMessage) throws ResourceInvalidException;
 
+  /**
+   * Whether the result of {@link #doParse} refers to {@link Args#getSecurityConfig()}. Parse
+   * results are shared by all xDS clients in the process, except for types that return
+   * {@code true} here, whose results are only reused by the xDS client that created them.
+   */
+  protected boolean parseDependsOnSecurityConfig() {
+    return false;
+  }
+
+  /**
+   * Returns the process-wide inputs of {@link #doParse} besides {@link Args}, such as feature
+   * flags, compared with {@code equals()}. Parse results are only reused while these are unchanged.
+   */
+  @Nullable
+  protected Object parseInputs() {
+    return null;
+  }
+
+  /**
+   * Discards the parse results shared by xDS clients, for example after changing the registered
+   * load balancing policies or filters, which the results do not track.
+   */
+  @VisibleForTesting
+  public static void clearParsedResourceCache() {
+    ParsedResourceCache.getDefault().clear();
+  }
+
   /**
    * Helper method to unpack serialized {@link com.google.protobuf.Any} message, while replacing
    * Type URL {@code compatibleTypeUrl} with {@code typeUrl}.
@@ -207,11 +207,11 @@ public final class Matchers {
   @AutoValue
   public abstract static class StringMatcher {
     @Nullable
-    abstract String exact();
+    public abstract String exact();
 
     // The input string has this prefix.
     @Nullable
-    abstract String prefix();
+    public abstract String prefix();
 
     // The input string has this suffix.
     @Nullable
@@ -226,7 +226,7 @@ public final class Matchers {
     abstract String contains();
 
     // If true, exact/prefix/suffix matching should be case insensitive.
-    abstract boolean ignoreCase();
+    public abstract boolean ignoreCase();
 
     /** The input string should exactly matches the specified string. */
     public static StringMatcher forExact(String exact, boolean ignoreCase) {
@@ -0,0 +1,107 @@
+/*
+ * Copyright 2024 The gRPC Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.grpc.xds.internal;
+
+import com.google.common.primitives.Ints;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import javax.annotation.Nullable;
+
+/**
+ * An immutable trie of string prefixes, each associated with indexes (for example of the routes
+ * or policies that have the prefix). It finds the indexes of every prefix of a string in time
+ * proportional to the length of the string.
+ */
+public final class PrefixTrie {
+  private static final int[] EMPTY = new int[0];
+
+  // Sorted, for binary search.
+  private final char[] labels;
+  private final PrefixTrie[] children;
+  private final int[] indexes;
+
+  private PrefixTrie(char[] labels, PrefixTrie[] children, int[] indexes) {
+    this.labels = labels;
+    this.children = children;
+    this.indexes = indexes;
+  }
+
+  public static Builder newBuilder() {
+    return new Builder();
+  }
+
+  /**
+   * Adds the indexes of every prefix of {@code s} to {@code out}, shortest prefix first. Each
+   * array is sorted if the indexes were added in increasing order.
+   */
+  public void collect(String s, List<int[]> out) {
+    PrefixTrie node = this;
+    for (int i = 0; ; i++) {
+      if (node.indexes.length != 0) {
+        out.add(node.indexes);
+      }
+      if (i == s.length()) {
+        return;
+      }
+      int child = Arrays.binarySearch(node.labels, s.charAt(i));
+      if (child < 0) {
+        return;
+      }
+      node = node.children[child];
+    }
+  }
+
+  public static final class Builder {
+    private final TreeMap<Character, Builder> children = new TreeMap<>();
+    private final List<Integer> indexes = new ArrayList<>();
+    private boolean empty = true;
+
+    private Builder() {}
+
+    /** Associates {@code index} with {@code prefix}. */
+    public Builder add(String prefix, int index) {
+      empty = false;
+      Builder node = this;
+      for (int i = 0; i < prefix.length(); i++) {
+        node = node.children.computeIfAbsent(prefix.charAt(i), k -> new Builder());
+      }
+      node.indexes.add(index);
+      return this;
+    }
+
+    /** Returns the trie, or {@code null} if no prefix was added. */
+    @Nullable
+    public PrefixTrie build() {
+      return empty ? null : freeze();
+    }
+
+    private PrefixTrie freeze() {
+      char[] labels = new char[children.size()];
+      PrefixTrie[] nodes = new PrefixTrie[children.size()];
+      int i = 0;
+      for (Map.Entry<Character, Builder> entry : children.entrySet()) {
+        labels[i] = entry.getKey();
+        nodes[i] = entry.getValue().freeze();
+        i++;
+      }
+      return new PrefixTrie(labels, nodes, indexes.isEmpty() ? EMPTY : Ints.toArray(indexes));
+    }
+  }
+}
@@ -22,10 +22,12 @@ import com.google.auto.value.AutoValue;
 import com.google.common.base.Joiner;
 import com.google.common.collect.ImmutableList;
 import com.google.common.io.BaseEncoding;
+import com.google.common.primitives.Ints;
 import io.grpc.Grpc;
 import io.grpc.Metadata;
 import io.grpc.ServerCall;
 import io.grpc.xds.internal.Matchers;
+import io.grpc.xds.internal.PrefixTrie;
 import java.net.InetAddress;
 import java.net.InetSocketAddress;
 import java.net.SocketAddress;
@@ -36,8 +38,12 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import javax.annotation.Nullable;
@@ -51,15 +57,49 @@ import javax.net.ssl.SSLSession;
  * <p>One GrpcAuthorizationEngine is initialized with one action type and a list of policies.
  * Policies are examined sequentially in order in an any match fashion, and the first matched policy
  * will be returned. If not matched at all, the opposite action type is returned as a result.
+ *
+ * <p>Policies that can only match a known set of exact paths or case-sensitive path prefixes are
+ * indexed by path when the engine is created, so a request is only evaluated against the policies
+ * that may match its path. They are still evaluated in the original order, so the decision is the
+ * same.
  */
 public final class GrpcAuthorizationEngine {
   private static final Logger log = Logger.getLogger(GrpcAuthorizationEngine.class.getName());
 
   private final AuthConfig authConfig;
+  // Indexes of policies that can only match certain paths, by exact path and by path prefix.
+  private final Map<String, int[]> policiesByPath;
+  @Nullable
+  private final PrefixTrie policiesByPathPrefix;
+  // Indexes of policies that may match any path.
+  private final int[] unindexedPolicies;
 
   /** Instantiated with envoy policyMatcher configuration. */
   public GrpcAuthorizationEngine(AuthConfig authConfig) {
     this.authConfig = authConfig;
+    Map<String, List<Integer>> policiesByPath = new HashMap<>();
+    PrefixTrie.Builder policiesByPathPrefix = PrefixTrie.newBuilder();
+    List<Integer> unindexedPolicies = new ArrayList<>();
+    for (int i = 0; i < authConfig.policies().size(); i++) {
+      PathConstraint constraint = requiredPaths(authConfig.policies().get(i));
+      if (constraint == null) {
+        unindexedPolicies.add(i);
+        continue;
+      }
+      // An empty constraint means the policy never matches.
+      for (String path : constraint.exact) {
+        policiesByPath.computeIfAbsent(path, k -> new ArrayList<>()).add(i);
+      }
+      for (String prefix : constraint.prefixes) {
+        policiesByPathPrefix.add(prefix, i);
+      }
+    }
+    this.policiesByPath = new HashMap<>(policiesByPath.size() * 2);
+    for (Map.Entry<String, List<Integer>> entry : policiesByPath.entrySet()) {
+      this.policiesByPath.put(entry.getKey(), Ints.toArray(entry.getValue()));
+    }
+    this.policiesByPathPrefix = policiesByPathPrefix.build();
+    this.unindexedPolicies = Ints.toArray(unindexedPolicies);
   }
 
   /** Return the auth decision for the request argument against the policies. */
@@ -68,7 +108,42 @@ public final class GrpcAuthorizationEngine {
     checkNotNull(serverCall, "serverCall");
     String firstMatch = null;
     EvaluateArgs args = new EvaluateArgs(metadata, serverCall);
-    for (PolicyMatcher policyMatcher : authConfig.policies()) {
+    List<int[]> candidates = new ArrayList<>(4);
+    if (!policiesByPath.isEmpty()) {
+      int[] exact = policiesByPath.get(args.getPath());
+      if (exact != null) {
+        candidates.add(exact);
+      }
+    }
+    if (policiesByPathPrefix != null) {
+      policiesByPathPrefix.collect(args.getPath(), candidates);
+    }
+    if (unindexedPolicies.length != 0) {
+      candidates.add(unindexedPolicies);
+    }
+    // Merge the sorted candidate lists, to evaluate policies in order. A policy may be in several
+    // lists, but is evaluated once.
+    int[] cursors = new int[candidates.size()];
+    int last = -1;
+    while (true) {
+      int source = -1;
+      int next = Integer.MAX_VALUE;
+      for (int i = 0; i < cursors.length; i++) {
+        int[] indexes = candidates.get(i);
+        if (cursors[i] < indexes.length && indexes[cursors[i]] < next) {
+          next = indexes[cursors[i]];
+          source = i;
+        }
+      }
+      if (source == -1) {
+        break;
+      }
+      cursors[source]++;
+      if (next == last) {
+        continue;
+      }
+      last = next;
+      PolicyMatcher policyMatcher = authConfig.policies().get(next);
       if (policyMatcher.matches(args)) {
         firstMatch = policyMatcher.name();
         break;
@@ -81,6 +156,110 @@ public final class GrpcAuthorizationEngine {
     return AuthDecision.create(decisionType, firstMatch);
   }
 
+  /**
+   * Returns the paths that a request must have for {@code matcher} to match it, or {@code null} if
+   * it may match requests of any path.
+   */
+  @Nullable
+  private static PathConstraint requiredPaths(Matcher matcher) {
+    if (matcher instanceof PathMatcher) {
+      Matchers.StringMatcher delegate = ((PathMatcher) matcher).delegate();
+      if (delegate.ignoreCase()) {
+        return null;
+      }
+      if (delegate.exact() != null) {
+        return new PathConstraint(
+            Collections.singleton(delegate.exact()), Collections.<String>emptySet());
+      }
+      if (delegate.prefix() != null) {
+        return new PathConstraint(
+            Collections.<String>emptySet(), Collections.singleton(delegate.prefix()));
+      }
+      return null;
+    }
+    if (matcher instanceof PolicyMatcher) {
+      PolicyMatcher policyMatcher = (PolicyMatcher) matcher;
+      return intersect(
+          requiredPaths(policyMatcher.permissions()), requiredPaths(policyMatcher.principals()));
+    }
+    if (matcher instanceof AndMatcher) {
+      PathConstraint constraint = null;
+      for (Matcher m : ((AndMatcher) matcher).allMatch()) {
+        constraint = intersect(constraint, requiredPaths(m));
+      }
+      return constraint;
+    }
+    if (matcher instanceof OrMatcher) {
+      Set<String> exact = new HashSet<>();
+      Set<String> prefixes = new HashSet<>();
+      for (Matcher m : ((OrMatcher) matcher).anyMatch()) {
+        PathConstraint required = requiredPaths(m);
+        if (required == null) {
+          return null;
+        }
+        exact.addAll(required.exact);
+        prefixes.addAll(required.prefixes);
+      }
+      return new PathConstraint(exact, prefixes);
+    }
+    return null;
+  }
+
+  /**
+   * Returns a constraint that is satisfied by the paths satisfying both constraints, where
+   * {@code null} means any path. When both have prefixes, one of them is returned, which only
+   * makes the index less selective.
+   */
+  @Nullable
+  private static PathConstraint intersect(
+      @Nullable PathConstraint a, @Nullable PathConstraint b) {
+    if (a == null) {
+      return b;
+    }
+    if (b == null) {
+      return a;
+    }
+    if (!a.prefixes.isEmpty() && !b.prefixes.isEmpty()) {
+      return a;
+    }
+    if (!a.prefixes.isEmpty()) {
+      PathConstraint swap = a;
+      a = b;
+      b = swap;
+    }
+    // a only has exact paths.
+    Set<String> exact = new HashSet<>();
+    for (String path : a.exact) {
+      if (b.matches(path)) {
+        exact.add(path);
+      }
+    }
+    return new PathConstraint(exact, Collections.<String>emptySet());
+  }
+
+  /** Paths that are either one of a set of exact paths or start with one of a set of prefixes. */
+  private static final class PathConstraint {
+    final Set<String> exact;
+    final Set<String> prefixes;
+
+    PathConstraint(Set<String> exact, Set<String> prefixes) {
+      this.exact = exact;
+      this.prefixes = prefixes;
+    }
+
+    boolean matches(String path) {
+      if (exact.contains(path)) {
+        return true;
+      }
+      for (String prefix : prefixes) {
+        if (path.startsWith(prefix)) {
+          return true;
+        }
+      }
+      return false;
+    }
+  }
+
   public enum Action {
     ALLOW,
     DENY,
@@ -283,6 +462,16 @@ public final class GrpcAuthorizationEngine {
     // https://github.com/envoyproxy/envoy/blob/63619d578e1abe0c1725ea28ba02f361466662e1/api/envoy/config/rbac/v3/rbac.proto#L238-L240
     private static final int URI_SAN = 6;
     private static final int DNS_SAN = 2;
+    // Key of the principal names cached in the SSLSession, so that the peer certificate is only
+    // examined once per session instead of for every call.
+    private static final String PRINCIPAL_NAMES_KEY =
+        GrpcAuthorizationEngine.class.getName() + ".principalNames";
+
+    // Computed lazily, once per call.
+    private String path;
+    private boolean principalNamesComputed;
+    @Nullable
+    private Collection<String> principalNames;
 
     private EvaluateArgs(Metadata metadata, ServerCall<?,?> serverCall) {
       this.metadata = metadata;
@@ -290,7 +479,10 @@ public final class GrpcAuthorizationEngine {
     }
 
     private String getPath() {
-      return "/" + serverCall.getMethodDescriptor().getFullMethodName();
+      if (path == null) {
+        path = "/" + serverCall.getMethodDescriptor().getFullMethodName();
+      }
+      return path;
     }
 
     /**
@@ -301,10 +493,30 @@ public final class GrpcAuthorizationEngine {
      */
     @Nullable
     private Collection<String> getPrincipalNames() {
+      if (!principalNamesComputed) {
+        principalNames = getCachedPrincipalNames();
+        principalNamesComputed = true;
+      }
+      return principalNames;
+    }
+
+    @Nullable
+    @SuppressWarnings("unchecked")
+    private Collection<String> getCachedPrincipalNames() {
       SSLSession sslSession = serverCall.getAttributes().get(Grpc.TRANSPORT_ATTR_SSL_SESSION);
       if (sslSession == null) {
         return null;
       }
+      Object cached = sslSession.getValue(PRINCIPAL_NAMES_KEY);
+      if (cached instanceof Collection) {
+        return (Collection<String>) cached;
+      }
+      Collection<String> names = computePrincipalNames(sslSession);
+      sslSession.putValue(PRINCIPAL_NAMES_KEY, names);
+      return names;
+    }
+
+    private static Collection<String> computePrincipalNames(SSLSession sslSession) {
       try {
         Certificate[] certs = sslSession.getPeerCertificates();
         if (certs == null || certs.length < 1) {
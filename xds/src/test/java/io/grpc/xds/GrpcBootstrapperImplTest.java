@@ -627,6 +627,28 @@ public class GrpcBootstrapperImplTest {
     assertThat(serverInfo.ignoreResourceDeletion()).isTrue();
   }
 
+  @Test
+  public void serverFeatureDeltaAds() throws XdsInitializationException {
+    String rawData = "{\n"
+        + "  \"xds_servers\": [\n"
+        + "    {\n"
+        + "      \"server_uri\": \"" + SERVER_URI + "\",\n"
+        + "      \"channel_creds\": [\n"
+        + "        {\"type\": \"insecure\"}\n"
+        + "      ],\n"
+        + "      \"server_features\": [\"delta_ads\"]\n"
+        + "    }\n"
+        + "  ]\n"
+        + "}";
+
+    bootstrapper.setFileReader(createFileReader(BOOTSTRAP_FILE_PATH, rawData));
+    BootstrapInfo info = bootstrapper.bootstrap();
+    ServerInfo serverInfo = Iterables.getOnlyElement(info.servers());
+    assertThat(serverInfo.target()).isEqualTo(SERVER_URI);
+    assertThat(serverInfo.useDeltaAds()).isTrue();
+    assertThat(serverInfo.ignoreResourceDeletion()).isFalse();
+  }
+
   @Test
   public void serverFeatureIgnoreResourceDeletion_xdsV3() throws XdsInitializationException {
     String rawData = "{\n"
@@ -179,12 +179,14 @@ public class GrpcXdsClientImplDataTest {
     originalEnableRouteLookup = XdsRouteConfigureResource.enableRouteLookup;
     originalEnableLeastRequest = XdsClusterResource.enableLeastRequest;
     assertThat(originalEnableLeastRequest).isFalse();
+    XdsResourceType.clearParsedResourceCache();
   }
 
   @After
   public void tearDown() {
     XdsRouteConfigureResource.enableRouteLookup = originalEnableRouteLookup;
     XdsClusterResource.enableLeastRequest = originalEnableLeastRequest;
+    XdsResourceType.clearParsedResourceCache();
   }
 
   @Test
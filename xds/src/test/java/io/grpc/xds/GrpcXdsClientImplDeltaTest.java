@@ -0,0 +1,315 @@
+/*
+ * Copyright 2024 The gRPC Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.grpc.xds;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.protobuf.Any;
+import io.envoyproxy.envoy.config.endpoint.v3.ClusterLoadAssignment;
+import io.envoyproxy.envoy.config.listener.v3.ApiListener;
+import io.envoyproxy.envoy.config.listener.v3.Listener;
+import io.envoyproxy.envoy.extensions.filters.network.http_connection_manager.v3.HttpConnectionManager;
+import io.envoyproxy.envoy.service.discovery.v3.AggregatedDiscoveryServiceGrpc.AggregatedDiscoveryServiceImplBase;
+import io.envoyproxy.envoy.service.discovery.v3.DeltaDiscoveryRequest;
+import io.envoyproxy.envoy.service.discovery.v3.DeltaDiscoveryResponse;
+import io.envoyproxy.envoy.service.discovery.v3.Resource;
+import io.grpc.InsecureChannelCredentials;
+import io.grpc.ManagedChannel;
+import io.grpc.Status;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.internal.BackoffPolicy;
+import io.grpc.internal.FakeClock;
+import io.grpc.stub.StreamObserver;
+import io.grpc.testing.GrpcCleanupRule;
+import io.grpc.xds.GrpcXdsTransportFactory.GrpcXdsTransport;
+import io.grpc.xds.XdsEndpointResource.EdsUpdate;
+import io.grpc.xds.XdsListenerResource.LdsUpdate;
+import io.grpc.xds.client.Bootstrapper.AuthorityInfo;
+import io.grpc.xds.client.Bootstrapper.BootstrapInfo;
+import io.grpc.xds.client.Bootstrapper.ServerInfo;
+import io.grpc.xds.client.EnvoyProtoData.Node;
+import io.grpc.xds.client.XdsClient.ResourceWatcher;
+import io.grpc.xds.client.XdsClientImpl;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Queue;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.mockito.ArgumentCaptor;
+
+/**
+ * Tests for {@link XdsClientImpl} with a management server that uses the incremental (delta) ADS
+ * protocol.
+ */
+@RunWith(JUnit4.class)
+public class GrpcXdsClientImplDeltaTest {
+  private static final String SERVER_URI = "trafficdirector.googleapis.com";
+  private static final String LDS_FOO = "foo.googleapis.com";
+  private static final String EDS_FOO = "cluster-foo.googleapis.com";
+  private static final String EDS_BAR = "cluster-bar.googleapis.com";
+  private static final String EDS_XDSTP =
+      "xdstp:///envoy.config.endpoint.v3.ClusterLoadAssignment/cluster-baz?a=1&b=2";
+  private static final Node NODE = Node.newBuilder().setId("node-id").build();
+  private static final long BACKOFF_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+  @Rule
+  public final GrpcCleanupRule cleanupRule = new GrpcCleanupRule();
+
+  private final FakeClock fakeClock = new FakeClock();
+  private final Queue<DeltaDiscoveryRequest> requests = new ArrayDeque<>();
+  private final Queue<StreamObserver<DeltaDiscoveryResponse>> responseObservers =
+      new ArrayDeque<>();
+  @SuppressWarnings("unchecked")
+  private final ResourceWatcher<EdsUpdate> fooWatcher = mock(ResourceWatcher.class);
+  @SuppressWarnings("unchecked")
+  private final ResourceWatcher<EdsUpdate> barWatcher = mock(ResourceWatcher.class);
+  private XdsClientImpl xdsClient;
+
+  @Before
+  public void setUp() throws Exception {
+    String serverName = InProcessServerBuilder.generateName();
+    cleanupRule.register(InProcessServerBuilder.forName(serverName)
+        .addService(new AggregatedDiscoveryServiceImplBase() {
+          @Override
+          public StreamObserver<DeltaDiscoveryRequest> deltaAggregatedResources(
+              StreamObserver<DeltaDiscoveryResponse> responseObserver) {
+            responseObservers.add(responseObserver);
+            return new StreamObserver<DeltaDiscoveryRequest>() {
+              @Override
+              public void onNext(DeltaDiscoveryRequest request) {
+                requests.add(request);
+              }
+
+              @Override
+              public void onError(Throwable t) {}
+
+              @Override
+              public void onCompleted() {}
+            };
+          }
+        })
+        .directExecutor()
+        .build()
+        .start());
+    ManagedChannel channel = cleanupRule.register(
+        InProcessChannelBuilder.forName(serverName).directExecutor().build());
+    ServerInfo serverInfo =
+        ServerInfo.create(SERVER_URI, InsecureChannelCredentials.create(), false, true);
+    BootstrapInfo bootstrapInfo = BootstrapInfo.builder()
+        .servers(Collections.singletonList(serverInfo))
+        .node(NODE)
+        .authorities(ImmutableMap.of(
+            "",
+            AuthorityInfo.create(
+                "xdstp:///envoy.config.listener.v3.Listener/%s",
+                ImmutableList.of(serverInfo))))
+        .build();
+    BackoffPolicy backoffPolicy = () -> BACKOFF_NANOS;
+    xdsClient = new XdsClientImpl(
+        info -> new GrpcXdsTransport(channel),
+        bootstrapInfo,
+        fakeClock.getScheduledExecutorService(),
+        () -> backoffPolicy,
+        fakeClock.getStopwatchSupplier(),
+        fakeClock.getTimeProvider(),
+        MessagePrinter.INSTANCE,
+        null);
+  }
+
+  @After
+  public void tearDown() {
+    xdsClient.shutdown();
+  }
+
+  @Test
+  public void subscribeAckAndRemove() {
+    xdsClient.watchXdsResource(XdsEndpointResource.getInstance(), EDS_FOO, fooWatcher);
+    DeltaDiscoveryRequest request = requests.poll();
+    assertThat(request.getNode()).isEqualTo(NODE.toEnvoyProtoNode());
+    assertThat(request.getTypeUrl()).isEqualTo(XdsEndpointResource.getInstance().typeUrl());
+    assertThat(request.getResourceNamesSubscribeList()).containsExactly(EDS_FOO);
+    assertThat(request.getResponseNonce()).isEmpty();
+
+    responseObservers.peek().onNext(DeltaDiscoveryResponse.newBuilder()
+        .setTypeUrl(XdsEndpointResource.getInstance().typeUrl())
+        .addResources(resource(EDS_FOO, "1"))
+        .setNonce("0")
+        .build());
+    verify(fooWatcher).onChanged(any(EdsUpdate.class));
+    request = requests.poll();
+    assertThat(request.hasNode()).isFalse();
+    assertThat(request.getResponseNonce()).isEqualTo("0");
+    assertThat(request.getResourceNamesSubscribeList()).isEmpty();
+    assertThat(request.hasErrorDetail()).isFalse();
+
+    // Only the new resource is requested.
+    xdsClient.watchXdsResource(XdsEndpointResource.getInstance(), EDS_BAR, barWatcher);
+    request = requests.poll();
+    assertThat(request.getResourceNamesSubscribeList()).containsExactly(EDS_BAR);
+    assertThat(request.getResourceNamesUnsubscribeList()).isEmpty();
+
+    // A response that doesn't mention EDS_FOO leaves it alone.
+    responseObservers.peek().onNext(DeltaDiscoveryResponse.newBuilder()
+        .setTypeUrl(XdsEndpointResource.getInstance().typeUrl())
+        .addResources(resource(EDS_BAR, "1"))
+        .setNonce("1")
+        .build());
+    verify(barWatcher).onChanged(any(EdsUpdate.class));
+    verify(fooWatcher, never()).onResourceDoesNotExist(EDS_FOO);
+    assertThat(requests.poll().getResponseNonce()).isEqualTo("1");
+
+    responseObservers.peek().onNext(DeltaDiscoveryResponse.newBuilder()
+        .setTypeUrl(XdsEndpointResource.getInstance().typeUrl())
+        .addRemovedResources(EDS_FOO)
+        .setNonce("2")
+        .build());
+    verify(fooWatcher).onResourceDoesNotExist(EDS_FOO);
+    verify(barWatcher, never()).onResourceDoesNotExist(EDS_BAR);
+    assertThat(requests.poll().getResponseNonce()).isEqualTo("2");
+
+    xdsClient.cancelXdsResourceWatch(XdsEndpointResource.getInstance(), EDS_BAR, barWatcher);
+    request = requests.poll();
+    assertThat(request.getResourceNamesSubscribeList()).isEmpty();
+    assertThat(request.getResourceNamesUnsubscribeList()).containsExactly(EDS_BAR);
+    assertThat(requests).isEmpty();
+  }
+
+  @Test
+  public void nackDoesNotRecordVersions() {
+    xdsClient.watchXdsResource(XdsEndpointResource.getInstance(), EDS_FOO, fooWatcher);
+    requests.poll();
+
+    responseObservers.peek().onNext(DeltaDiscoveryResponse.newBuilder()
+        .setTypeUrl(XdsEndpointResource.getInstance().typeUrl())
+        .addResources(Resource.newBuilder()
+            .setName(EDS_FOO)
+            .setVersion("1")
+            .setResource(Any.newBuilder().setTypeUrl("fake").build()))
+        .setNonce("0")
+        .build());
+    DeltaDiscoveryRequest nack = requests.poll();
+    assertThat(nack.getResponseNonce()).isEqualTo("0");
+    assertThat(nack.hasErrorDetail()).isTrue();
+
+    // Restart the stream. The rejected version must not be reported.
+    responseObservers.poll().onError(Status.UNAVAILABLE.asException());
+    fakeClock.forwardNanos(BACKOFF_NANOS);
+    DeltaDiscoveryRequest request = requests.poll();
+    assertThat(request.getResourceNamesSubscribeList()).containsExactly(EDS_FOO);
+    assertThat(request.getInitialResourceVersionsMap()).isEmpty();
+  }
+
+  @Test
+  public void streamRestartSendsInitialResourceVersions() {
+    xdsClient.watchXdsResource(XdsEndpointResource.getInstance(), EDS_FOO, fooWatcher);
+    xdsClient.watchXdsResource(XdsEndpointResource.getInstance(), EDS_BAR, barWatcher);
+    requests.clear();
+    responseObservers.peek().onNext(DeltaDiscoveryResponse.newBuilder()
+        .setTypeUrl(XdsEndpointResource.getInstance().typeUrl())
+        .addResources(resource(EDS_FOO, "3"))
+        .setNonce("0")
+        .build());
+    requests.poll();
+
+    responseObservers.poll().onError(Status.UNAVAILABLE.asException());
+    fakeClock.forwardNanos(BACKOFF_NANOS);
+    DeltaDiscoveryRequest request = requests.poll();
+    assertThat(request.getNode()).isEqualTo(NODE.toEnvoyProtoNode());
+    assertThat(request.getResourceNamesSubscribeList()).containsExactlyElementsIn(
+        Arrays.asList(EDS_FOO, EDS_BAR));
+    assertThat(request.getInitialResourceVersionsMap()).containsExactly(EDS_FOO, "3");
+    // The cached resource is kept.
+    verify(fooWatcher, never()).onError(any(Status.class));
+  }
+
+  @Test
+  public void invalidFirstListener_watcherGetsNackDetail() {
+    @SuppressWarnings("unchecked")
+    ResourceWatcher<LdsUpdate> watcher = mock(ResourceWatcher.class);
+    xdsClient.watchXdsResource(XdsListenerResource.getInstance(), LDS_FOO, watcher);
+    requests.clear();
+    // Neither an inlined route config nor RDS.
+    Listener listener = Listener.newBuilder()
+        .setName(LDS_FOO)
+        .setApiListener(ApiListener.newBuilder()
+            .setApiListener(Any.pack(HttpConnectionManager.getDefaultInstance())))
+        .build();
+    responseObservers.peek().onNext(DeltaDiscoveryResponse.newBuilder()
+        .setTypeUrl(XdsListenerResource.getInstance().typeUrl())
+        .addResources(Resource.newBuilder()
+            .setName(LDS_FOO)
+            .setVersion("1")
+            .setResource(Any.pack(listener)))
+        .setNonce("0")
+        .build());
+    DeltaDiscoveryRequest nack = requests.poll();
+    assertThat(nack.hasErrorDetail()).isTrue();
+
+    ArgumentCaptor<Status> statusCaptor = ArgumentCaptor.forClass(Status.class);
+    verify(watcher).onError(statusCaptor.capture());
+    assertThat(statusCaptor.getValue().getCode()).isEqualTo(Status.Code.UNAVAILABLE);
+    assertThat(statusCaptor.getValue().getDescription())
+        .startsWith(nack.getErrorDetail().getMessage());
+    fakeClock.forwardTime(XdsClientImpl.INITIAL_RESOURCE_FETCH_TIMEOUT_SEC, TimeUnit.SECONDS);
+    verify(watcher, never()).onResourceDoesNotExist(LDS_FOO);
+    verify(watcher, never()).onChanged(any(LdsUpdate.class));
+  }
+
+  @Test
+  public void versionsRecordedByCanonicalName() {
+    @SuppressWarnings("unchecked")
+    ResourceWatcher<EdsUpdate> watcher = mock(ResourceWatcher.class);
+    xdsClient.watchXdsResource(XdsEndpointResource.getInstance(), EDS_XDSTP, watcher);
+    requests.clear();
+    // Same resource, with the context parameters in a different order.
+    responseObservers.peek().onNext(DeltaDiscoveryResponse.newBuilder()
+        .setTypeUrl(XdsEndpointResource.getInstance().typeUrl())
+        .addResources(resource(
+            "xdstp:///envoy.config.endpoint.v3.ClusterLoadAssignment/cluster-baz?b=2&a=1", "5"))
+        .setNonce("0")
+        .build());
+    verify(watcher).onChanged(any(EdsUpdate.class));
+    requests.poll();
+
+    responseObservers.poll().onError(Status.UNAVAILABLE.asException());
+    fakeClock.forwardNanos(BACKOFF_NANOS);
+    DeltaDiscoveryRequest request = requests.poll();
+    assertThat(request.getResourceNamesSubscribeList()).containsExactly(EDS_XDSTP);
+    assertThat(request.getInitialResourceVersionsMap()).containsExactly(EDS_XDSTP, "5");
+  }
+
+  private static Resource resource(String name, String version) {
+    return Resource.newBuilder()
+        .setName(name)
+        .setVersion(version)
+        .setResource(Any.pack(ClusterLoadAssignment.newBuilder().setClusterName(name).build()))
+        .build();
+  }
+}
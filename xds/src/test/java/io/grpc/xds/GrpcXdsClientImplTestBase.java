@@ -306,6 +306,7 @@ public abstract class GrpcXdsClientImplTestBase {
     // Start the server and the client.
     originalEnableLeastRequest = XdsClusterResource.enableLeastRequest;
     XdsClusterResource.enableLeastRequest = true;
+    XdsResourceType.clearParsedResourceCache();
     xdsServer = cleanupRule.register(InProcessServerBuilder
         .forName(serverName)
         .addService(adsService)
@@ -377,6 +378,7 @@ public abstract class GrpcXdsClientImplTestBase {
   @After
   public void tearDown() {
     XdsClusterResource.enableLeastRequest = originalEnableLeastRequest;
+    XdsResourceType.clearParsedResourceCache();
     xdsClient.shutdown();
     channel.shutdown();  // channel not owned by XdsClient
     assertThat(adsEnded.get()).isTrue();
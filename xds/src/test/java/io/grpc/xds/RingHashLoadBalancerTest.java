@@ -66,6 +66,7 @@ import io.grpc.internal.PickSubchannelArgsImpl;
 import io.grpc.testing.TestMethodDescriptors;
 import io.grpc.util.AbstractTestHelper;
 import io.grpc.util.MultiChildLoadBalancer.ChildLbState;
+import io.grpc.xds.RingHashLoadBalancer.Ring;
 import io.grpc.xds.RingHashLoadBalancer.RingHashChildLbState;
 import io.grpc.xds.RingHashLoadBalancer.RingHashConfig;
 import java.lang.Thread.UncaughtExceptionHandler;
@@ -75,6 +76,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Deque;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import org.junit.After;
@@ -905,6 +907,99 @@ public class RingHashLoadBalancerTest {
     assertThat(description).contains("Address: FakeSocketAddress-server2, count: 3");
   }
 
+  @Test
+  public void buildRing_largeRingIsSortedAndWeighted() {
+    Map<EquivalentAddressGroup, Long> serverWeights = new LinkedHashMap<>();
+    long totalWeight = 0;
+    for (EquivalentAddressGroup eag : createWeightedServerAddrs(1, 2, 3, 4, 5, 6, 7, 8, 9, 10)) {
+      long weight = eag.getAttributes().get(InternalXdsAttributes.ATTR_SERVER_WEIGHT);
+      serverWeights.put(RingHashLoadBalancer.stripAttrs(eag), weight);
+      totalWeight += weight;
+    }
+    double scale = 4 * RingHashLoadBalancer.PARALLEL_BUILD_MIN_ENTRIES;
+
+    Ring ring = RingHashLoadBalancer.buildRing(null, serverWeights, totalWeight, scale);
+
+    assertThat((double) ring.size()).isWithin(1.0).of(scale);
+    int[] counts = new int[serverWeights.size()];
+    for (int i = 0; i < ring.size(); i++) {
+      if (i > 0) {
+        assertThat(ring.hashes[i - 1]).isAtMost(ring.hashes[i]);
+      }
+      counts[ring.endpointIndexes[i]]++;
+    }
+    for (int i = 0; i < counts.length; i++) {
+      assertThat((double) counts[i])
+          .isWithin(1.0).of(scale * (i + 1) / totalWeight);
+    }
+    // The first entry of each server is where its hash is.
+    for (int i = 0; i < counts.length; i++) {
+      long hash = hashFunc.hashAsciiString("FakeSocketAddress-server" + i + "_0");
+      int index = ring.getTargetIndex(hash);
+      assertThat(ring.hashes[index]).isEqualTo(hash);
+      assertThat(String.valueOf((Object) ring.endpoints[ring.endpointIndexes[index]]))
+          .isEqualTo("[FakeSocketAddress-server" + i + "]");
+    }
+  }
+
+  @Test
+  public void ringTargetIndex() {
+    Map<EquivalentAddressGroup, Long> serverWeights = new LinkedHashMap<>();
+    serverWeights.put(new EquivalentAddressGroup(new FakeSocketAddress("server0")), 1L);
+    Ring ring = RingHashLoadBalancer.buildRing(null, serverWeights, 1, 5);
+    long[] hashes = ring.hashes;
+    assertThat(hashes).hasLength(5);
+
+    assertThat(ring.getTargetIndex(Long.MIN_VALUE)).isEqualTo(0);
+    for (int i = 0; i < hashes.length; i++) {
+      assertThat(ring.getTargetIndex(hashes[i])).isEqualTo(i);
+      if (i > 0 && hashes[i - 1] + 1 < hashes[i]) {
+        assertThat(ring.getTargetIndex(hashes[i - 1] + 1)).isEqualTo(i);
+      }
+    }
+    // Hashes past the last entry stay on the last entry.
+    assertThat(ring.getTargetIndex(Long.MAX_VALUE)).isEqualTo(hashes.length - 1);
+  }
+
+  @Test
+  public void buildRing_incrementalMatchesFullBuild() {
+    Map<EquivalentAddressGroup, Long> serverWeights = new LinkedHashMap<>();
+    for (EquivalentAddressGroup eag : createWeightedServerAddrs(1, 2, 3, 4, 5, 6, 7, 8, 9, 10)) {
+      serverWeights.put(RingHashLoadBalancer.stripAttrs(eag),
+          eag.getAttributes().get(InternalXdsAttributes.ATTR_SERVER_WEIGHT));
+    }
+    Ring ring = RingHashLoadBalancer.buildRing(null, serverWeights, 55, 5000);
+
+    // Unchanged endpoints share the previous ring's entries.
+    Ring unchanged = RingHashLoadBalancer.buildRing(ring, serverWeights, 55, 5000);
+    assertThat(unchanged.hashes).isSameInstanceAs(ring.hashes);
+
+    // Add a server.
+    serverWeights.put(new EquivalentAddressGroup(new FakeSocketAddress("server10")), 5L);
+    ring = assertIncrementalMatchesFullBuild(ring, serverWeights, 60, 5000);
+    // Remove a server.
+    serverWeights.remove(new EquivalentAddressGroup(new FakeSocketAddress("server3")));
+    ring = assertIncrementalMatchesFullBuild(ring, serverWeights, 56, 5000);
+    // Change the weight of a server.
+    serverWeights.put(new EquivalentAddressGroup(new FakeSocketAddress("server0")), 3L);
+    assertIncrementalMatchesFullBuild(ring, serverWeights, 58, 5000);
+  }
+
+  private static Ring assertIncrementalMatchesFullBuild(
+      Ring previous, Map<EquivalentAddressGroup, Long> serverWeights, long totalWeight,
+      double scale) {
+    Ring full = RingHashLoadBalancer.buildRing(null, serverWeights, totalWeight, scale);
+    Ring incremental =
+        RingHashLoadBalancer.buildRing(previous, serverWeights, totalWeight, scale);
+    assertThat(incremental.hashes).isNotSameInstanceAs(previous.hashes);
+    assertThat(incremental.hashes).isEqualTo(full.hashes);
+    for (int i = 0; i < full.size(); i++) {
+      assertThat(String.valueOf((Object) incremental.endpoints[incremental.endpointIndexes[i]]))
+          .isEqualTo(String.valueOf((Object) full.endpoints[full.endpointIndexes[i]]));
+    }
+    return incremental;
+  }
+
   private List<Subchannel> initializeLbSubchannels(RingHashConfig config,
       List<EquivalentAddressGroup> servers, InitializationFlags... initFlags) {
 
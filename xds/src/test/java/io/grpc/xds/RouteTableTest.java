@@ -0,0 +1,190 @@
+/*
+ * Copyright 2024 The gRPC Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.grpc.xds;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.re2j.Pattern;
+import io.grpc.Metadata;
+import io.grpc.xds.VirtualHost.Route;
+import io.grpc.xds.VirtualHost.Route.RouteAction;
+import io.grpc.xds.VirtualHost.Route.RouteMatch;
+import io.grpc.xds.VirtualHost.Route.RouteMatch.PathMatcher;
+import io.grpc.xds.internal.Matchers.FractionMatcher;
+import io.grpc.xds.internal.Matchers.HeaderMatcher;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** Unit tests for {@link RouteTable}. */
+@RunWith(JUnit4.class)
+public class RouteTableTest {
+  private static final Metadata.Key<String> ENV_KEY =
+      Metadata.Key.of("env", Metadata.ASCII_STRING_MARSHALLER);
+
+  private final CountingRandom random = new CountingRandom(0);
+
+  @Test
+  public void firstMatchingRouteWins() {
+    Route prefix = route(PathMatcher.fromPrefix("/FooService/", true));
+    Route exact = route(PathMatcher.fromPath("/FooService/barMethod", true));
+    Route catchAll = route(PathMatcher.fromPrefix("", true));
+    RouteTable table = RouteTable.create(Arrays.asList(exact, prefix, catchAll));
+
+    assertThat(table.match("/FooService/barMethod", new Metadata(), random))
+        .isSameInstanceAs(exact);
+    assertThat(table.match("/FooService/bazMethod", new Metadata(), random))
+        .isSameInstanceAs(prefix);
+    assertThat(table.match("/BarService/bazMethod", new Metadata(), random))
+        .isSameInstanceAs(catchAll);
+
+    table = RouteTable.create(Arrays.asList(prefix, exact));
+    assertThat(table.match("/FooService/barMethod", new Metadata(), random))
+        .isSameInstanceAs(prefix);
+  }
+
+  @Test
+  public void headersAreCheckedForIndexedRoutes() {
+    Route prod = route(
+        PathMatcher.fromPath("/FooService/barMethod", true),
+        Collections.singletonList(HeaderMatcher.forExactValue("env", "prod", false)), null);
+    Route other = route(PathMatcher.fromPath("/FooService/barMethod", true));
+    RouteTable table = RouteTable.create(Arrays.asList(prod, other));
+
+    Metadata headers = new Metadata();
+    headers.put(ENV_KEY, "prod");
+    assertThat(table.match("/FooService/barMethod", headers, random)).isSameInstanceAs(prod);
+    assertThat(table.match("/FooService/barMethod", new Metadata(), random))
+        .isSameInstanceAs(other);
+  }
+
+  @Test
+  public void unindexedRoutes() {
+    Route regex = route(PathMatcher.fromRegEx(Pattern.compile(".*/bar.*")));
+    Route caseInsensitive = route(PathMatcher.fromPath("/fooservice/BAZMETHOD", false));
+    Route caseInsensitivePrefix = route(PathMatcher.fromPrefix("/FOOSERVICE/", false));
+    RouteTable table = RouteTable.create(Arrays.asList(regex, caseInsensitive,
+        caseInsensitivePrefix));
+
+    assertThat(table.match("/FooService/barMethod", new Metadata(), random))
+        .isSameInstanceAs(regex);
+    assertThat(table.match("/FooService/bazMethod", new Metadata(), random))
+        .isSameInstanceAs(caseInsensitive);
+    assertThat(table.match("/FooService/quxMethod", new Metadata(), random))
+        .isSameInstanceAs(caseInsensitivePrefix);
+    assertThat(table.match("/BarService/quxMethod", new Metadata(), random)).isNull();
+  }
+
+  @Test
+  public void matchesLinearEvaluation() {
+    Random rand = new Random(1);
+    String[] services = {"/FooService/", "/BarService/", "/fooservice/", "/Foo"};
+    String[] methods = {"a", "b", "ab", "B", ""};
+    for (int iteration = 0; iteration < 200; iteration++) {
+      List<Route> routes = new ArrayList<>();
+      int routeCount = rand.nextInt(30);
+      for (int i = 0; i < routeCount; i++) {
+        String path = services[rand.nextInt(services.length)]
+            + methods[rand.nextInt(methods.length)];
+        PathMatcher pathMatcher;
+        switch (rand.nextInt(5)) {
+          case 0:
+            pathMatcher = PathMatcher.fromPath(path, rand.nextBoolean());
+            break;
+          case 1:
+          case 2:
+            pathMatcher = PathMatcher.fromPrefix(
+                path.substring(0, rand.nextInt(path.length() + 1)), rand.nextBoolean());
+            break;
+          default:
+            pathMatcher = PathMatcher.fromRegEx(Pattern.compile(".*" + path.substring(1)));
+        }
+        List<HeaderMatcher> headerMatchers = rand.nextInt(4) == 0
+            ? Collections.singletonList(HeaderMatcher.forExactValue("env", "prod", false))
+            : Collections.<HeaderMatcher>emptyList();
+        FractionMatcher fraction = rand.nextInt(4) == 0 ? FractionMatcher.create(1, 2) : null;
+        routes.add(route(pathMatcher, headerMatchers, fraction));
+      }
+      RouteTable table = RouteTable.create(routes);
+
+      for (int call = 0; call < 20; call++) {
+        String path = services[rand.nextInt(services.length)]
+            + methods[rand.nextInt(methods.length)];
+        Metadata headers = new Metadata();
+        if (rand.nextBoolean()) {
+          headers.put(ENV_KEY, "prod");
+        }
+        long seed = rand.nextLong();
+        CountingRandom linearRandom = new CountingRandom(seed);
+        Route expected = null;
+        for (Route route : routes) {
+          if (RoutingUtils.matchRoute(route.routeMatch(), path, headers, linearRandom)) {
+            expected = route;
+            break;
+          }
+        }
+        CountingRandom tableRandom = new CountingRandom(seed);
+        assertThat(table.match(path, headers, tableRandom)).isSameInstanceAs(expected);
+        assertThat(tableRandom.calls).isEqualTo(linearRandom.calls);
+      }
+    }
+  }
+
+  private static Route route(PathMatcher pathMatcher) {
+    return route(pathMatcher, Collections.<HeaderMatcher>emptyList(), null);
+  }
+
+  private static Route route(
+      PathMatcher pathMatcher, List<HeaderMatcher> headerMatchers, FractionMatcher fraction) {
+    return Route.forAction(
+        RouteMatch.create(pathMatcher, headerMatchers, fraction),
+        RouteAction.forCluster("cluster", Collections.emptyList(), null, null),
+        ImmutableMap.of());
+  }
+
+  private static final class CountingRandom implements ThreadSafeRandom {
+    final Random random;
+    int calls;
+
+    CountingRandom(long seed) {
+      this.random = new Random(seed);
+    }
+
+    @Override
+    public int nextInt(int bound) {
+      calls++;
+      return random.nextInt(bound);
+    }
+
+    @Override
+    public long nextLong() {
+      calls++;
+      return random.nextLong();
+    }
+
+    @Override
+    public long nextLong(long bound) {
+      throw new UnsupportedOperationException();
+    }
+  }
+}
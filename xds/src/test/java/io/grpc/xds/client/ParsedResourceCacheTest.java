@@ -0,0 +1,230 @@
+/*
+ * Copyright 2024 The gRPC Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.grpc.xds.client;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.protobuf.Any;
+import com.google.protobuf.Message;
+import io.envoyproxy.envoy.config.endpoint.v3.ClusterLoadAssignment;
+import io.grpc.xds.client.XdsClient.ResourceUpdate;
+import io.grpc.xds.client.XdsResourceType.ValidatedResourceUpdate;
+import java.util.Arrays;
+import java.util.Collections;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** Unit tests for {@link ParsedResourceCache}. */
+@RunWith(JUnit4.class)
+public class ParsedResourceCacheTest {
+  private final FakeResourceType resourceType = new FakeResourceType(false);
+  private final XdsResourceType.Args args = newArgs(new Object());
+
+  @Before
+  public void setUp() {
+    ParsedResourceCache.getDefault().clear();
+  }
+
+  @Test
+  public void unchangedResourceIsParsedOnce() {
+    Any resource = Any.pack(ClusterLoadAssignment.newBuilder().setClusterName("foo").build());
+    ValidatedResourceUpdate<FakeUpdate> first =
+        resourceType.parse(args, Collections.singletonList(resource));
+    ValidatedResourceUpdate<FakeUpdate> second =
+        resourceType.parse(args, Collections.singletonList(resource));
+
+    assertThat(resourceType.parseCount).isEqualTo(1);
+    assertThat(second.parsedResources.get("foo").getResourceUpdate())
+        .isSameInstanceAs(first.parsedResources.get("foo").getResourceUpdate());
+    assertThat(second.unpackedResources).containsExactly("foo");
+  }
+
+  @Test
+  public void changedResourceIsParsedAgain() {
+    Any foo1 = Any.pack(ClusterLoadAssignment.newBuilder().setClusterName("foo").build());
+    Any foo2 = Any.pack(ClusterLoadAssignment.newBuilder()
+        .setClusterName("foo")
+        .setPolicy(ClusterLoadAssignment.Policy.getDefaultInstance())
+        .build());
+    resourceType.parse(args, Collections.singletonList(foo1));
+    ValidatedResourceUpdate<FakeUpdate> update =
+        resourceType.parse(args, Collections.singletonList(foo2));
+
+    assertThat(resourceType.parseCount).isEqualTo(2);
+    assertThat(update.parsedResources.get("foo").getResourceUpdate().hasPolicy).isTrue();
+  }
+
+  @Test
+  public void validationErrorIsNotCached() {
+    Any resource = Any.pack(ClusterLoadAssignment.newBuilder().setClusterName("invalid").build());
+    resourceType.parse(args, Collections.singletonList(resource));
+    ValidatedResourceUpdate<FakeUpdate> update =
+        resourceType.parse(args, Collections.singletonList(resource));
+
+    assertThat(resourceType.parseCount).isEqualTo(2);
+    assertThat(update.parsedResources).isEmpty();
+    assertThat(update.invalidResources).containsExactly("invalid");
+    assertThat(update.errors).hasSize(1);
+    assertThat(update.errors.get(0)).contains("bad cluster");
+    assertThat(ParsedResourceCache.getDefault().size()).isEqualTo(0);
+  }
+
+  @Test
+  public void parsedAgainWhenParseInputsChange() {
+    Any resource = Any.pack(ClusterLoadAssignment.newBuilder().setClusterName("foo").build());
+    resourceType.parse(args, Collections.singletonList(resource));
+    resourceType.parseInputs = true;
+    resourceType.parse(args, Collections.singletonList(resource));
+    resourceType.parse(args, Collections.singletonList(resource));
+
+    assertThat(resourceType.parseCount).isEqualTo(2);
+  }
+
+  @Test
+  public void clearParsedResourceCache() {
+    Any resource = Any.pack(ClusterLoadAssignment.newBuilder().setClusterName("foo").build());
+    resourceType.parse(args, Collections.singletonList(resource));
+    XdsResourceType.clearParsedResourceCache();
+    resourceType.parse(args, Collections.singletonList(resource));
+
+    assertThat(resourceType.parseCount).isEqualTo(2);
+  }
+
+  @Test
+  public void unsubscribedResourceIsNotParsed() {
+    Any foo = Any.pack(ClusterLoadAssignment.newBuilder().setClusterName("foo").build());
+    Any bar = Any.pack(ClusterLoadAssignment.newBuilder().setClusterName("bar").build());
+    XdsResourceType.Args subscribedArgs = new XdsResourceType.Args(
+        null, "0", "0", null, args.securityConfig, Collections.singleton("foo"));
+    ValidatedResourceUpdate<FakeUpdate> update =
+        resourceType.parse(subscribedArgs, Arrays.asList(foo, bar));
+
+    assertThat(resourceType.parseCount).isEqualTo(1);
+    assertThat(update.parsedResources.keySet()).containsExactly("foo");
+    assertThat(ParsedResourceCache.getDefault().size()).isEqualTo(1);
+  }
+
+  @Test
+  public void sharedAcrossClientsUnlessSecurityConfigIsUsed() {
+    Any resource = Any.pack(ClusterLoadAssignment.newBuilder().setClusterName("foo").build());
+    XdsResourceType.Args otherClientArgs = newArgs(new Object());
+    resourceType.parse(args, Collections.singletonList(resource));
+    resourceType.parse(otherClientArgs, Collections.singletonList(resource));
+    assertThat(resourceType.parseCount).isEqualTo(1);
+
+    FakeResourceType securityResourceType = new FakeResourceType(true);
+    securityResourceType.parse(args, Collections.singletonList(resource));
+    securityResourceType.parse(otherClientArgs, Collections.singletonList(resource));
+    securityResourceType.parse(args, Collections.singletonList(resource));
+    assertThat(securityResourceType.parseCount).isEqualTo(2);
+  }
+
+  @Test
+  public void evictsLeastRecentlyUsed() {
+    Any foo = Any.pack(ClusterLoadAssignment.newBuilder().setClusterName("foo").build());
+    Any bar = Any.pack(ClusterLoadAssignment.newBuilder().setClusterName("bar").build());
+    Any baz = Any.pack(ClusterLoadAssignment.newBuilder().setClusterName("baz").build());
+    ParsedResourceCache cache = new ParsedResourceCache(2L * foo.getSerializedSize());
+    ParsedResourceCache.Entry entry = new ParsedResourceCache.Entry(null, new FakeUpdate(false));
+
+    cache.put(resourceType, args, null, foo, entry);
+    cache.put(resourceType, args, null, bar, entry);
+    assertThat(cache.get(resourceType, args, null, foo)).isSameInstanceAs(entry);
+    cache.put(resourceType, args, null, baz, entry);
+
+    assertThat(cache.size()).isEqualTo(2);
+    assertThat(cache.sizeBytes()).isEqualTo(2L * foo.getSerializedSize());
+    assertThat(cache.get(resourceType, args, null, foo)).isSameInstanceAs(entry);
+    assertThat(cache.get(resourceType, args, null, bar)).isNull();
+    assertThat(cache.get(resourceType, args, null, baz)).isSameInstanceAs(entry);
+  }
+
+  private static XdsResourceType.Args newArgs(Object securityConfig) {
+    return new XdsResourceType.Args(null, "0", "0", null, securityConfig, null);
+  }
+
+  private static final class FakeUpdate implements ResourceUpdate {
+    final boolean hasPolicy;
+
+    FakeUpdate(boolean hasPolicy) {
+      this.hasPolicy = hasPolicy;
+    }
+  }
+
+  private static final class FakeResourceType extends XdsResourceType<FakeUpdate> {
+    final boolean dependsOnSecurityConfig;
+    boolean parseInputs;
+    int parseCount;
+
+    FakeResourceType(boolean dependsOnSecurityConfig) {
+      this.dependsOnSecurityConfig = dependsOnSecurityConfig;
+    }
+
+    @Override
+    protected String extractResourceName(Message unpackedResource) {
+      return ((ClusterLoadAssignment) unpackedResource).getClusterName();
+    }
+
+    @Override
+    protected Class<ClusterLoadAssignment> unpackedClassName() {
+      return ClusterLoadAssignment.class;
+    }
+
+    @Override
+    public String typeName() {
+      return "EDS";
+    }
+
+    @Override
+    public String typeUrl() {
+      return "type.googleapis.com/envoy.config.endpoint.v3.ClusterLoadAssignment";
+    }
+
+    @Override
+    public boolean shouldRetrieveResourceKeysForArgs() {
+      return true;
+    }
+
+    @Override
+    protected boolean isFullStateOfTheWorld() {
+      return false;
+    }
+
+    @Override
+    protected boolean parseDependsOnSecurityConfig() {
+      return dependsOnSecurityConfig;
+    }
+
+    @Override
+    protected Object parseInputs() {
+      return parseInputs;
+    }
+
+    @Override
+    protected FakeUpdate doParse(Args args, Message unpackedMessage)
+        throws ResourceInvalidException {
+      parseCount++;
+      ClusterLoadAssignment proto = (ClusterLoadAssignment) unpackedMessage;
+      if (proto.getClusterName().equals("invalid")) {
+        throw new ResourceInvalidException("bad cluster");
+      }
+      return new FakeUpdate(proto.hasPolicy());
+    }
+  }
+}
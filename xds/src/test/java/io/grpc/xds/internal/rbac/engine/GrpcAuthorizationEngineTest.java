@@ -18,8 +18,11 @@ package io.grpc.xds.internal.rbac.engine;
 
 import static com.google.common.base.Charsets.US_ASCII;
 import static com.google.common.truth.Truth.assertThat;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.google.common.collect.ImmutableList;
@@ -63,6 +66,7 @@ import org.junit.Rule;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.JUnit4;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnit;
 import org.mockito.junit.MockitoRule;
@@ -401,6 +405,96 @@ public class GrpcAuthorizationEngineTest {
     assertThat(config1.hashCode()).isEqualTo(config2.hashCode());
   }
 
+  @Test
+  public void pathIndexedPoliciesKeepOrder() throws Exception {
+    OrMatcher anyPrincipal = OrMatcher.create(AlwaysTrueMatcher.INSTANCE);
+    PolicyMatcher otherPath = PolicyMatcher.create("other-path",
+        OrMatcher.create(PathMatcher.create(StringMatcher.forExact("/other/method", false))),
+        anyPrincipal);
+    PolicyMatcher sourceIp = PolicyMatcher.create("source-ip",
+        OrMatcher.create(AlwaysTrueMatcher.INSTANCE),
+        OrMatcher.create(SourceIpMatcher.create(
+            CidrMatcher.create(InetAddress.getByName(IP_ADDR2), 24))));
+    PolicyMatcher exactPath = PolicyMatcher.create("exact-path",
+        OrMatcher.create(AndMatcher.create(
+            PathMatcher.create(STRING_MATCHER), DestinationPortMatcher.create(PORT))),
+        anyPrincipal);
+    PolicyMatcher never = PolicyMatcher.create("never", OrMatcher.create(), anyPrincipal);
+
+    GrpcAuthorizationEngine engine = new GrpcAuthorizationEngine(AuthConfig.create(
+        Arrays.asList(otherPath, exactPath, sourceIp), Action.DENY));
+    AuthDecision decision = engine.evaluate(HEADER, serverCall);
+    assertThat(decision.decision()).isEqualTo(Action.DENY);
+    assertThat(decision.matchingPolicyName()).isEqualTo("exact-path");
+
+    engine = new GrpcAuthorizationEngine(AuthConfig.create(
+        Arrays.asList(never, otherPath, sourceIp, exactPath), Action.DENY));
+    decision = engine.evaluate(HEADER, serverCall);
+    assertThat(decision.matchingPolicyName()).isEqualTo("source-ip");
+
+    engine = new GrpcAuthorizationEngine(AuthConfig.create(
+        Arrays.asList(never, otherPath), Action.DENY));
+    decision = engine.evaluate(HEADER, serverCall);
+    assertThat(decision.decision()).isEqualTo(Action.ALLOW);
+    assertThat(decision.matchingPolicyName()).isNull();
+  }
+
+  @Test
+  public void prefixIndexedPoliciesKeepOrder() throws Exception {
+    OrMatcher anyPrincipal = OrMatcher.create(AlwaysTrueMatcher.INSTANCE);
+    PolicyMatcher otherPrefix = PolicyMatcher.create("other-prefix",
+        OrMatcher.create(PathMatcher.create(StringMatcher.forPrefix("/other/", false))),
+        anyPrincipal);
+    // Indexed both by prefix and by exact path, but evaluated once.
+    PolicyMatcher otherPort = PolicyMatcher.create("other-port",
+        OrMatcher.create(
+            PathMatcher.create(StringMatcher.forPrefix("//auth/", false)),
+            PathMatcher.create(STRING_MATCHER)),
+        OrMatcher.create(DestinationPortMatcher.create(PORT + 1)));
+    PolicyMatcher servicePrefix = PolicyMatcher.create("service-prefix",
+        OrMatcher.create(PathMatcher.create(StringMatcher.forPrefix("//auth/", false))),
+        anyPrincipal);
+    PolicyMatcher ignoreCasePrefix = PolicyMatcher.create("ignore-case-prefix",
+        OrMatcher.create(PathMatcher.create(StringMatcher.forPrefix("//AUTH/", true))),
+        anyPrincipal);
+
+    GrpcAuthorizationEngine engine = new GrpcAuthorizationEngine(AuthConfig.create(
+        Arrays.asList(otherPrefix, otherPort, servicePrefix, ignoreCasePrefix), Action.DENY));
+    AuthDecision decision = engine.evaluate(HEADER, serverCall);
+    assertThat(decision.decision()).isEqualTo(Action.DENY);
+    assertThat(decision.matchingPolicyName()).isEqualTo("service-prefix");
+
+    engine = new GrpcAuthorizationEngine(AuthConfig.create(
+        Arrays.asList(otherPrefix, ignoreCasePrefix, servicePrefix), Action.DENY));
+    decision = engine.evaluate(HEADER, serverCall);
+    assertThat(decision.matchingPolicyName()).isEqualTo("ignore-case-prefix");
+
+    engine = new GrpcAuthorizationEngine(AuthConfig.create(
+        Arrays.asList(otherPrefix, otherPort), Action.ALLOW));
+    decision = engine.evaluate(HEADER, serverCall);
+    assertThat(decision.decision()).isEqualTo(Action.DENY);
+    assertThat(decision.matchingPolicyName()).isNull();
+  }
+
+  @Test
+  public void principalNamesCachedInSslSession() throws Exception {
+    AuthenticatedMatcher authenticatedMatcher =
+        AuthenticatedMatcher.create(StringMatcher.forExact("cached-principal", false));
+    PolicyMatcher policyMatcher = PolicyMatcher.create(POLICY_NAME,
+        OrMatcher.create(AlwaysTrueMatcher.INSTANCE), OrMatcher.create(authenticatedMatcher));
+    GrpcAuthorizationEngine engine = new GrpcAuthorizationEngine(
+        AuthConfig.create(Collections.singletonList(policyMatcher), Action.ALLOW));
+
+    assertThat(engine.evaluate(HEADER, serverCall).decision()).isEqualTo(Action.DENY);
+    ArgumentCaptor<String> keyCaptor = ArgumentCaptor.forClass(String.class);
+    verify(sslSession).putValue(keyCaptor.capture(), any());
+
+    when(sslSession.getValue(keyCaptor.getValue()))
+        .thenReturn(Collections.singleton("cached-principal"));
+    assertThat(engine.evaluate(HEADER, serverCall).decision()).isEqualTo(Action.ALLOW);
+    verify(sslSession, times(1)).getPeerCertificates();
+  }
+
   private MethodDescriptor.Builder<Void, Void> method() {
     return MethodDescriptor.<Void,Void>newBuilder()
             .setType(MethodType.BIDI_STREAMING)